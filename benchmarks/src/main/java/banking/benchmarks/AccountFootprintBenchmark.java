@@ -0,0 +1,81 @@
+package banking.benchmarks;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.repository.AccountRepository;
+import banking.repository.memory.HandleAccountRepository;
+import banking.repository.memory.InMemoryAccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and retained heap of loading accounts into the HashMap repository and the handle repository; each iteration
+ * loads a fresh store. The retained heap is printed after every iteration, since JMH has no result type for it.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AccountFootprintBenchmark {
+
+    @Param({"inmemory", "handle"})
+    public String store;
+
+    @Param({"10000000"})
+    public int accounts;
+
+    private AccountRepository repository;
+    private long heapBefore;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        repository = null;
+        heapBefore = usedHeapAfterGc();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        long retainedHeap = usedHeapAfterGc() - heapBefore;
+
+        System.out.printf("%nstore=%s accounts=%,d retainedHeap=%,d MB (%d bytes/account)%n",
+                store, accounts, retainedHeap >> 20, retainedHeap / accounts);
+
+        repository = null;
+    }
+
+    @Benchmark
+    public AccountRepository load() {
+        AccountRepository loaded = store.equals("inmemory") ? new InMemoryAccountRepository() : new HandleAccountRepository();
+
+        for (int i = 0; i < accounts; i++) {
+            loaded.saveAccount(new Account("ACC-" + i, AccountState.ACTIVE));
+        }
+
+        repository = loaded;
+        return loaded;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
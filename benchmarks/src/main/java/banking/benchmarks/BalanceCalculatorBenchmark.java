@@ -0,0 +1,73 @@
+package banking.benchmarks;
+
+import banking.domain.balance.BalanceCalculator;
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one balance check as the history grows: the original BigDecimal replay,
+ * the minor-unit replay and the incremental BalanceEngine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BalanceCalculatorBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int historyLength;
+
+    private List<Transaction> history;
+    private BalanceEngine incremental;
+
+    @Setup
+    public void setUp() {
+        history = new ArrayList<>(historyLength);
+
+        for (int i = 0; i < historyLength; i++) {
+            TransactionType type = i % 4 == 3 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT;
+            history.add(new Transaction("A1", Instant.now(), type, new BigDecimal("10.00"), UUID.randomUUID().toString(), null));
+        }
+
+        incremental = new BalanceEngine(BalanceMode.INCREMENTAL);
+        incremental.calculateBalance("A1", history);
+    }
+
+    @Benchmark
+    public BigDecimal calculateBalance() {
+        return BalanceCalculator.calculateBalance("A1", history);
+    }
+
+    @Benchmark
+    public Money calculateMoney() {
+        return BalanceCalculator.calculateMoney(history);
+    }
+
+    @Benchmark
+    public Money incrementalEngine() {
+        return incremental.calculateBalance("A1", history);
+    }
+}
@@ -0,0 +1,113 @@
+package banking.benchmarks;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.repository.memory.HandleAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import banking.service.BankingService;
+import banking.service.StripedAccountLocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of BankingService.deposit, withdraw and transfer on the concurrent stack
+ * (partitioned ledger, striped locks), single-threaded and with four threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BankingServiceBenchmark {
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"1000"})
+    public int accounts;
+
+    @Param({"REPLAY", "INCREMENTAL"})
+    public BalanceMode balanceMode;
+
+    private BankingService bankingService;
+    private String[] accountNumbers;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        HandleAccountRepository accountRepository = new HandleAccountRepository(accounts);
+        PartitionedTransactionRepository transactionRepository = new PartitionedTransactionRepository();
+        bankingService = new BankingService(
+                accountRepository,
+                transactionRepository,
+                new BankingOperation(new BalanceEngine(balanceMode)),
+                new StripedAccountLocks()
+        );
+        accountNumbers = new String[accounts];
+
+        for (int i = 0; i < accounts; i++) {
+            accountNumbers[i] = "ACC-" + i;
+            accountRepository.saveAccount(new Account(accountNumbers[i], AccountState.ACTIVE));
+            bankingService.deposit(accountNumbers[i], OPENING_BALANCE);
+        }
+    }
+
+    private String randomAccount() {
+        return accountNumbers[ThreadLocalRandom.current().nextInt(accountNumbers.length)];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction deposit() {
+        return bankingService.deposit(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction withdraw() {
+        return bankingService.withdraw(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Transaction> transfer() {
+        return bankingService.transfer(randomAccount(), randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Transaction depositMultiThreaded() {
+        return bankingService.deposit(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Transaction withdrawMultiThreaded() {
+        return bankingService.withdraw(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Transaction> transferMultiThreaded() {
+        return bankingService.transfer(randomAccount(), randomAccount(), AMOUNT);
+    }
+}
@@ -0,0 +1,127 @@
+package banking.benchmarks;
+
+import banking.bulk.ImportResult;
+import banking.bulk.LedgerExporter;
+import banking.bulk.LedgerImporter;
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.repository.memory.PartitionedTransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time of LedgerExporter and LedgerImporter over the same ledger, CSV and binary.
+ * Import inputs are written once per trial; exports go to separate files so they never touch them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BulkTransferBenchmark {
+
+    @Param({"2000000"})
+    public int rows;
+
+    @Param({"10000"})
+    public int accounts;
+
+    private PartitionedTransactionRepository source;
+    private List<String> accountNumbers;
+    private LedgerImporter importer;
+    private Path directory;
+    private Path csvInput;
+    private Path binaryInput;
+    private Path csvOutput;
+    private Path binaryOutput;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BankingOperation bankingOperation = new BankingOperation();
+        List<Account> accountList = new ArrayList<>(accounts);
+        accountNumbers = new ArrayList<>(accounts);
+
+        for (int i = 0; i < accounts; i++) {
+            accountList.add(new Account("ACC-" + i, AccountState.ACTIVE));
+            accountNumbers.add("ACC-" + i);
+        }
+
+        source = new PartitionedTransactionRepository();
+        Random random = new Random(1);
+        int written = 0;
+
+        while (written < rows) {
+            Account from = accountList.get(random.nextInt(accounts));
+
+            if (random.nextBoolean()) {
+                source.saveTransaction(bankingOperation.deposit(from, BigDecimal.TEN));
+                written++;
+            } else {
+                source.saveTransactions(bankingOperation.transfer(from, accountList.get(random.nextInt(accounts)), BigDecimal.ONE, Money.ofMinorUnits(Long.MAX_VALUE)));
+                written += 2;
+            }
+        }
+
+        directory = Files.createTempDirectory("ledger-bulk");
+        csvInput = directory.resolve("input.csv");
+        binaryInput = directory.resolve("input.bin");
+        csvOutput = directory.resolve("output.csv");
+        binaryOutput = directory.resolve("output.bin");
+        LedgerExporter.exportCsv(source, accountNumbers, csvInput);
+        LedgerExporter.exportBinary(source, accountNumbers, binaryInput);
+        importer = new LedgerImporter();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (Path file : List.of(csvInput, binaryInput, csvOutput, binaryOutput)) {
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long exportCsv() throws IOException {
+        return LedgerExporter.exportCsv(source, accountNumbers, csvOutput);
+    }
+
+    @Benchmark
+    public long importCsv() throws IOException {
+        ImportResult result = importer.importCsv(csvInput, new PartitionedTransactionRepository());
+        return result.getRowCount();
+    }
+
+    @Benchmark
+    public long exportBinary() throws IOException {
+        return LedgerExporter.exportBinary(source, accountNumbers, binaryOutput);
+    }
+
+    @Benchmark
+    public long importBinary() throws IOException {
+        ImportResult result = importer.importBinary(binaryInput, new PartitionedTransactionRepository());
+        return result.getRowCount();
+    }
+}
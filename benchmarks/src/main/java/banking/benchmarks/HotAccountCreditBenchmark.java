@@ -0,0 +1,82 @@
+package banking.benchmarks;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import banking.service.BankingService;
+import banking.service.StripedAccountLocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit throughput into a single merchant account, with and without hot credits.
+ * Each iteration starts from a fresh service so the ledger size does not drift between iterations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HotAccountCreditBenchmark {
+    private static final String MERCHANT = "MERCHANT";
+
+    @Param({"false", "true"})
+    public boolean hot;
+
+    private BankingService bankingService;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        bankingService = new BankingService(
+                accountRepository,
+                new PartitionedTransactionRepository(),
+                new BankingOperation(new BalanceEngine(BalanceMode.INCREMENTAL)),
+                new StripedAccountLocks()
+        );
+        accountRepository.saveAccount(new Account(MERCHANT, AccountState.ACTIVE));
+
+        if (hot) {
+            bankingService.enableHotCredits(MERCHANT);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        // Folds whatever hot credits are still buffered, so a broken fold fails the run instead of going unnoticed.
+        bankingService.getBalance(MERCHANT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction depositSingleThread() {
+        return bankingService.deposit(MERCHANT, BigDecimal.ONE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Transaction depositFourThreads() {
+        return bankingService.deposit(MERCHANT, BigDecimal.ONE);
+    }
+}
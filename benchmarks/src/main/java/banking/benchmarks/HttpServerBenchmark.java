@@ -0,0 +1,163 @@
+package banking.benchmarks;
+
+import banking.api.BankingHttpServer;
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.operation.BankingOperation;
+import banking.repository.memory.HandleAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import banking.service.BankingService;
+import banking.service.StripedAccountLocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of BankingHttpServer over persistent HTTP/1.1 connections, one per benchmark thread,
+ * with a quarter balance reads and three quarters deposits on random accounts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// The JDK server closes idle keep-alive connections beyond this limit (default 200).
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.maxIdleConnections=1000")
+public class HttpServerBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final byte[] DEPOSIT_BODY = "{\"amount\":\"1.00\"}".getBytes(StandardCharsets.US_ASCII);
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        BankingHttpServer server;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            HandleAccountRepository accountRepository = new HandleAccountRepository(ACCOUNTS);
+
+            for (int i = 0; i < ACCOUNTS; i++) {
+                accountRepository.saveAccount(new Account("ACC-" + i, AccountState.ACTIVE));
+            }
+
+            BankingService bankingService = new BankingService(
+                    accountRepository,
+                    new PartitionedTransactionRepository(),
+                    new BankingOperation(new BalanceEngine(BalanceMode.INCREMENTAL)),
+                    new StripedAccountLocks()
+            );
+
+            server = new BankingHttpServer(bankingService, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            server.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            server.close();
+        }
+    }
+
+    // Plain socket client so each benchmark thread holds one persistent connection, like a real keep-alive client.
+    @State(Scope.Thread)
+    public static class Connection {
+        Socket socket;
+        OutputStream out;
+        InputStream in;
+
+        @Setup(Level.Trial)
+        public void setUp(Server server) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.server.getPort());
+            out = socket.getOutputStream();
+            in = new BufferedInputStream(socket.getInputStream());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            socket.close();
+        }
+
+        int roundTrip() throws IOException {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String accountNumber = "ACC-" + random.nextInt(ACCOUNTS);
+
+            if (random.nextInt(4) == 0) {
+                out.write(("GET /accounts/" + accountNumber + "/balance HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                        .getBytes(StandardCharsets.US_ASCII));
+            } else {
+                out.write(("POST /accounts/" + accountNumber + "/deposit HTTP/1.1\r\nHost: localhost\r\nContent-Length: "
+                        + DEPOSIT_BODY.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(DEPOSIT_BODY);
+            }
+
+            out.flush();
+            return readResponse();
+        }
+
+        private int readResponse() throws IOException {
+            String statusLine = readLine();
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+            int contentLength = 0;
+
+            for (String header = readLine(); !header.isEmpty(); header = readLine()) {
+                if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    contentLength = Integer.parseInt(header.substring(15).trim());
+                }
+            }
+
+            in.readNBytes(contentLength);
+
+            if (status >= 400) {
+                throw new IOException("Unexpected status " + status);
+            }
+            return status;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+
+            for (int c = in.read(); c != '\n'; c = in.read()) {
+                if (c == -1) {
+                    throw new IOException("Connection closed");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+
+            return line.toString();
+        }
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int sixteenConnections(Connection connection) throws IOException {
+        return connection.roundTrip();
+    }
+
+    @Benchmark
+    @Threads(256)
+    public int manyConnections(Connection connection) throws IOException {
+        return connection.roundTrip();
+    }
+}
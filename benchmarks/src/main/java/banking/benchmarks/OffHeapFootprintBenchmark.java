@@ -0,0 +1,90 @@
+package banking.benchmarks;
+
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.repository.TransactionRepository;
+import banking.repository.memory.InMemoryTransactionRepository;
+import banking.repository.offheap.OffHeapTransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and GC cost of loading rows into the on-heap and off-heap repositories; each iteration loads a fresh store.
+ * The heap the loaded store retains (and its off-heap bytes) is printed after every iteration, since JMH has no
+ * result type for it. Run with the GC profiler (BenchmarkRunner adds it) for allocation and GC time.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class OffHeapFootprintBenchmark {
+    private static final int ACCOUNTS = 100_000;
+
+    @Param({"inmemory", "offheap"})
+    public String store;
+
+    @Param({"10000000"})
+    public int rows;
+
+    private TransactionRepository repository;
+    private long heapBefore;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        repository = null;
+        heapBefore = usedHeapAfterGc();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        long retainedHeap = usedHeapAfterGc() - heapBefore;
+        String offHeap = repository instanceof OffHeapTransactionRepository offHeapRepository
+                ? String.format(" offHeap=%,d MB", offHeapRepository.getOffHeapBytes() >> 20)
+                : "";
+
+        System.out.printf("%nstore=%s rows=%,d retainedHeap=%,d MB%s%n", store, rows, retainedHeap >> 20, offHeap);
+
+        // The direct buffers are released when the store is collected.
+        repository = null;
+    }
+
+    @Benchmark
+    public TransactionRepository load() {
+        TransactionRepository loaded = store.equals("inmemory") ? new InMemoryTransactionRepository() : new OffHeapTransactionRepository();
+        BigDecimal amount = new BigDecimal("10.00");
+
+        for (int i = 0; i < rows; i++) {
+            loaded.saveTransaction(new Transaction("ACC-" + (i % ACCOUNTS), Instant.now(), TransactionType.DEPOSIT, amount, UUID.randomUUID().toString(), null));
+        }
+
+        repository = loaded;
+        return loaded;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
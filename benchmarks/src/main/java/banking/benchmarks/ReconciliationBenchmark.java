@@ -0,0 +1,91 @@
+package banking.benchmarks;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.reconciliation.LedgerReconciler;
+import banking.reconciliation.ReconciliationReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time of a full LedgerReconciler pass for increasing fork/join parallelism.
+ * Up to the number of cores, the time should fall roughly in proportion to the parallelism.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ReconciliationBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"5000000"})
+    public int rows;
+
+    @Param({"100000"})
+    public int accounts;
+
+    private List<Transaction> ledger;
+    private ForkJoinPool pool;
+    private LedgerReconciler reconciler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BankingOperation bankingOperation = new BankingOperation();
+        List<Account> accountList = new ArrayList<>(accounts);
+
+        for (int i = 0; i < accounts; i++) {
+            accountList.add(new Account("ACC-" + i, AccountState.ACTIVE));
+        }
+
+        Random random = new Random(1);
+        ledger = new ArrayList<>(rows + 1);
+
+        while (ledger.size() < rows) {
+            Account from = accountList.get(random.nextInt(accounts));
+
+            if (random.nextBoolean()) {
+                ledger.add(bankingOperation.deposit(from, BigDecimal.TEN));
+            } else {
+                ledger.addAll(bankingOperation.transfer(from, accountList.get(random.nextInt(accounts)), BigDecimal.ONE, Money.ofMinorUnits(Long.MAX_VALUE)));
+            }
+        }
+
+        pool = new ForkJoinPool(parallelism);
+        reconciler = new LedgerReconciler(pool, 1 << 14);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ReconciliationReport reconcile() {
+        return reconciler.reconcile(ledger);
+    }
+}
@@ -0,0 +1,121 @@
+package banking.benchmarks;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.recovery.RecoveryManager;
+import banking.repository.journal.JournalTransactionRepository;
+import banking.repository.journal.SyncPolicy;
+import banking.repository.memory.InMemoryAccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-to-ready after a restart: replaying the whole journal against recovering from a snapshot plus the journal tail.
+ * The journal and snapshot are written once per trial; every invocation opens them afresh and closes them again.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RecoveryStartupBenchmark {
+    private static final int BATCH = 1_000;
+
+    @Param({"100000", "1000000", "5000000"})
+    public int ledgerRows;
+
+    @Param({"10000"})
+    public int accounts;
+
+    @Param({"10000"})
+    public int tailRows;
+
+    private Path directory;
+    private Path journalFile;
+    private Path snapshotFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        BalanceEngine balanceEngine = new BalanceEngine(BalanceMode.INCREMENTAL);
+
+        for (int i = 0; i < accounts; i++) {
+            accountRepository.saveAccount(new Account("ACC-" + i, AccountState.ACTIVE));
+        }
+
+        directory = Files.createTempDirectory("recovery-bench");
+        journalFile = directory.resolve("ledger.journal");
+        snapshotFile = directory.resolve("ledger.snapshot");
+
+        try (JournalTransactionRepository journal = new JournalTransactionRepository(journalFile, SyncPolicy.OS_BUFFERED)) {
+            append(journal, ledgerRows - tailRows);
+            RecoveryManager.takeSnapshot(snapshotFile, journal, accountRepository, balanceEngine);
+            append(journal, tailRows);
+        }
+    }
+
+    private void append(JournalTransactionRepository journal, int rows) {
+        List<Transaction> batch = new ArrayList<>(BATCH);
+        BigDecimal amount = new BigDecimal("1.00");
+
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Transaction("ACC-" + (i % accounts), Instant.now(), TransactionType.DEPOSIT, amount, UUID.randomUUID().toString(), null));
+
+            if (batch.size() == BATCH) {
+                journal.saveTransactions(batch);
+                batch.clear();
+            }
+        }
+
+        journal.saveTransactions(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long fullReplay() throws IOException {
+        try (JournalTransactionRepository journal = new JournalTransactionRepository(journalFile, SyncPolicy.OS_BUFFERED)) {
+            return journal.getWritePosition();
+        }
+    }
+
+    @Benchmark
+    public long snapshotPlusTail() throws IOException {
+        try (JournalTransactionRepository journal = RecoveryManager.recover(snapshotFile, journalFile, SyncPolicy.OS_BUFFERED, Duration.ofMillis(10),
+                new InMemoryAccountRepository(), new BalanceEngine(BalanceMode.INCREMENTAL))) {
+            return journal.getWritePosition();
+        }
+    }
+}
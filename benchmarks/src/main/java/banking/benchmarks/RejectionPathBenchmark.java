@@ -0,0 +1,79 @@
+package banking.benchmarks;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.domain.operation.OperationResult;
+import banking.domain.transaction.Transaction;
+import banking.exception.InsufficientFundsException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Withdrawal throughput at different rejection ratios: the throwing API (exception per rejection)
+ * against tryWithdraw (OperationResult per rejection). Persistence is left out so only the rejection cost shows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RejectionPathBenchmark {
+    private static final int PATTERN_SIZE = 1024;
+    private static final Money BALANCE = Money.of(new BigDecimal("100.00"));
+
+    @Param({"0", "50", "90", "99"})
+    public int rejectionPercent;
+
+    private BankingOperation bankingOperation;
+    private Account account;
+    private BigDecimal[] amounts;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        bankingOperation = new BankingOperation();
+        account = new Account("A1", AccountState.ACTIVE);
+        amounts = new BigDecimal[PATTERN_SIZE];
+        Random random = new Random(17);
+
+        for (int i = 0; i < PATTERN_SIZE; i++) {
+            amounts[i] = random.nextInt(100) < rejectionPercent ? new BigDecimal("250.00") : new BigDecimal("25.00");
+        }
+    }
+
+    private BigDecimal nextAmount() {
+        return amounts[next++ & (PATTERN_SIZE - 1)];
+    }
+
+    @Benchmark
+    public Object throwingWithdraw() {
+        try {
+            return bankingOperation.withdraw(account, nextAmount(), BALANCE);
+        } catch (InsufficientFundsException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object tryWithdraw() {
+        OperationResult result = bankingOperation.tryWithdraw(account, nextAmount(), BALANCE);
+        Transaction transaction = result.getTransaction();
+        return transaction != null ? transaction : result;
+    }
+}
@@ -0,0 +1,123 @@
+package banking.benchmarks;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.operation.BankingOperation;
+import banking.engine.SequencedBankingEngine;
+import banking.engine.WaitStrategy;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import banking.service.BankingService;
+import banking.service.StripedAccountLocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SequencedBankingEngine throughput per WaitStrategy against BankingService with striped locks called directly
+ * from the same threads (mode SYNCHRONOUS), on half deposits and half transfers between random accounts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SequencedEngineBenchmark {
+    private static final int ACCOUNTS = 1_000;
+    private static final int BATCH = 1_000;
+
+    @Param({"SYNCHRONOUS", "BUSY_SPIN", "YIELD", "PARK", "BLOCKING"})
+    public String mode;
+
+    private BankingService bankingService;
+    private SequencedBankingEngine engine;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        boolean synchronous = mode.equals("SYNCHRONOUS");
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        bankingService = new BankingService(
+                accountRepository,
+                new PartitionedTransactionRepository(),
+                new BankingOperation(new BalanceEngine(BalanceMode.INCREMENTAL)),
+                synchronous ? new StripedAccountLocks() : null
+        );
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountRepository.saveAccount(new Account("ACC-" + i, AccountState.ACTIVE));
+        }
+
+        engine = synchronous ? null : SequencedBankingEngine.start(bankingService, 1 << 14, WaitStrategy.valueOf(mode), 256);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    private void runBatch() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (engine == null) {
+            for (int i = 0; i < BATCH; i++) {
+                String accountNumber = "ACC-" + random.nextInt(ACCOUNTS);
+
+                if (i % 2 == 0) {
+                    bankingService.tryDeposit(accountNumber, BigDecimal.TEN);
+                } else {
+                    bankingService.tryTransfer(accountNumber, "ACC-" + random.nextInt(ACCOUNTS), BigDecimal.ONE);
+                }
+            }
+
+            return;
+        }
+
+        CompletableFuture<?> last = null;
+
+        for (int i = 0; i < BATCH; i++) {
+            String accountNumber = "ACC-" + random.nextInt(ACCOUNTS);
+            last = i % 2 == 0
+                    ? engine.deposit(accountNumber, BigDecimal.TEN)
+                    : engine.transfer(accountNumber, "ACC-" + random.nextInt(ACCOUNTS), BigDecimal.ONE);
+        }
+
+        // The writer applies commands in publication order, so the last one completing means all of them have.
+        last.exceptionally(e -> null).join();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH)
+    public void mixedSingleThread() {
+        runBatch();
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(BATCH)
+    public void mixedFourThreads() {
+        runBatch();
+    }
+}
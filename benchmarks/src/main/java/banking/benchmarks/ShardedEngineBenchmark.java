@@ -0,0 +1,91 @@
+package banking.benchmarks;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.engine.ShardedBankingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShardedBankingEngine throughput for increasing shard counts on a uniform workload
+ * (half deposits, half transfers between random accounts). Each invocation submits a batch and waits for all of it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardedEngineBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final int BATCH = 1_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    private ShardedBankingEngine engine;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        engine = new ShardedBankingEngine(shards);
+        CompletableFuture<?>[] opened = new CompletableFuture<?>[ACCOUNTS];
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            opened[i] = engine.openAccount(new Account("ACC-" + i, AccountState.ACTIVE));
+        }
+
+        CompletableFuture.allOf(opened).join();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        engine.close();
+    }
+
+    private void submitBatch() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[BATCH];
+
+        for (int i = 0; i < BATCH; i++) {
+            String accountNumber = "ACC-" + random.nextInt(ACCOUNTS);
+            pending[i] = (i % 2 == 0
+                    ? engine.deposit(accountNumber, BigDecimal.TEN)
+                    : engine.transfer(accountNumber, "ACC-" + random.nextInt(ACCOUNTS), BigDecimal.ONE))
+                    .exceptionally(e -> null);
+        }
+
+        CompletableFuture.allOf(pending).join();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH)
+    public void mixedSingleThread() {
+        submitBatch();
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(BATCH)
+    public void mixedFourThreads() {
+        submitBatch();
+    }
+}
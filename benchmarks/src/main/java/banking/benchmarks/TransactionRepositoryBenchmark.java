@@ -0,0 +1,69 @@
+package banking.benchmarks;
+
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.repository.TransactionRepository;
+import banking.repository.memory.InMemoryTransactionRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findByAccountNumber at different ledger sizes. Reads only, so both repositories can be shared across threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TransactionRepositoryBenchmark {
+    private static final int ACCOUNTS = 1_000;
+
+    @Param({"10000", "1000000"})
+    public int ledgerSize;
+
+    @Param({"inmemory", "partitioned"})
+    public String repository;
+
+    private TransactionRepository transactionRepository;
+
+    @Setup
+    public void setUp() {
+        transactionRepository = repository.equals("inmemory") ? new InMemoryTransactionRepository() : new PartitionedTransactionRepository();
+        BigDecimal amount = new BigDecimal("1.00");
+
+        for (int i = 0; i < ledgerSize; i++) {
+            transactionRepository.saveTransaction(new Transaction("ACC-" + (i % ACCOUNTS), Instant.now(), TransactionType.DEPOSIT, amount, UUID.randomUUID().toString(), null));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Transaction> findByAccountNumber() {
+        return transactionRepository.findByAccountNumber("ACC-" + ThreadLocalRandom.current().nextInt(ACCOUNTS));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Transaction> findByAccountNumberMultiThreaded() {
+        return transactionRepository.findByAccountNumber("ACC-" + ThreadLocalRandom.current().nextInt(ACCOUNTS));
+    }
+}
@@ -0,0 +1,335 @@
+/**
+ * PURPOSE:
+ * Exposes BankingService over HTTP/JSON using only the JDK (com.sun.net.httpserver).
+ *
+ * ENDPOINTS:
+ * - POST /accounts/{accountNumber}/deposit        {"amount": "10.00"}            -> 201 transaction
+ * - POST /accounts/{accountNumber}/withdraw       {"amount": "10.00"}            -> 201 transaction
+ * - POST /transfers                               {"from": "A", "to": "B", "amount": "10.00"} -> 201 [debit, credit]
+ * - GET  /accounts/{accountNumber}/balance                                       -> 200 {"accountNumber", "balance"}
+ * - GET  /accounts/{accountNumber}/transactions                                  -> 200 {"transactions", "nextCursor"}
+ *
+ * HISTORY PAGES:
+ * - Query parameters: limit (default 100, at most 1000), after (a nextCursor from the previous page),
+ *   order=newest for newest first, from / to as ISO-8601 instants (from inclusive, to exclusive)
+ * - nextCursor is null on the last page
+ *
+ * ERRORS (body is {"error": exception name, "message": ...}):
+ * - 400 malformed request or invalid amount
+ * - 404 unknown account or path
+ * - 405 wrong method
+ * - 409 insufficient funds or account state does not allow the operation
+ * - 500 anything else; the client gets a generic message and the detail is logged
+ *
+ * THREADING:
+ * - Every request runs on its own virtual thread
+ * - Connections are persistent (HTTP/1.1 keep-alive); requests pipelined on one connection
+ *   are answered in order
+ * - The JDK keeps at most sun.net.httpserver.maxIdleConnections (default 200) idle keep-alive
+ *   connections open; raise it with -D when many clients hold connections open
+ * - The BankingService must be safe for concurrent use (StripedAccountLocks + thread-safe repositories)
+ *
+ * DOES NOT:
+ * - Authenticate, authorize or encrypt; put it behind something that does
+ *
+ * WHY THIS EXISTS:
+ * Gives every integration the same network entry point instead of each one embedding the library
+ * and inventing its own threading.
+ */
+
+
+package banking.api;
+
+import banking.domain.transaction.Transaction;
+import banking.exception.AccountNotFoundException;
+import banking.exception.InsufficientFundsException;
+import banking.exception.InvalidAccountStateException;
+import banking.exception.InvalidAmountException;
+import banking.exception.InvalidStateTransitionException;
+import banking.exception.MalformedRequestException;
+import banking.repository.TransactionQuery;
+import banking.service.BankingService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class BankingHttpServer implements AutoCloseable {
+    private static final int DEFAULT_BACKLOG = 1024;
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final int MAX_PAGE_LIMIT = 1000;
+    private static final System.Logger LOG = System.getLogger(BankingHttpServer.class.getName());
+
+    private final BankingService bankingService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public BankingHttpServer(BankingService bankingService, InetSocketAddress address) throws IOException {
+        this.bankingService = bankingService;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(address, DEFAULT_BACKLOG);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body = readBody(exchange);
+            int status;
+            String response;
+
+            if (body == null) {
+                respond(exchange, 413, JsonCodec.error("PayloadTooLarge", "Request body larger than " + MAX_BODY_BYTES + " bytes"));
+                return;
+            }
+
+            try {
+                Route route = route(exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+                status = route.status;
+                response = route.status == 404 || route.status == 405 ? route.error() : dispatch(route, body, exchange.getRequestURI().getRawQuery());
+            } catch (MalformedRequestException | InvalidAmountException e) {
+                status = 400;
+                response = error(e);
+            } catch (AccountNotFoundException e) {
+                status = 404;
+                response = error(e);
+            } catch (InsufficientFundsException | InvalidAccountStateException | InvalidStateTransitionException e) {
+                status = 409;
+                response = error(e);
+            } catch (RuntimeException e) {
+                // The message may carry internals (file paths, state); only the log gets it.
+                LOG.log(System.Logger.Level.ERROR, "Failed " + exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath(), e);
+                status = 500;
+                response = JsonCodec.error("InternalError", "Internal server error");
+            }
+
+            respond(exchange, status, response);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String response) throws IOException {
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String dispatch(Route route, String body, String rawQuery) {
+        return switch (route.endpoint) {
+            case DEPOSIT -> JsonCodec.transaction(bankingService.deposit(route.accountNumber, amount(JsonCodec.parseObject(body))));
+            case WITHDRAW -> JsonCodec.transaction(bankingService.withdraw(route.accountNumber, amount(JsonCodec.parseObject(body))));
+            case TRANSFER -> {
+                Map<String, String> request = JsonCodec.parseObject(body);
+                List<Transaction> legs = bankingService.transfer(required(request, "from"), required(request, "to"), amount(request));
+                yield JsonCodec.transactions(legs);
+            }
+            case BALANCE -> JsonCodec.balance(route.accountNumber, bankingService.getBalance(route.accountNumber));
+            case TRANSACTIONS -> JsonCodec.page(bankingService.queryTransactions(historyQuery(route.accountNumber, rawQuery)));
+        };
+    }
+
+    private static Route route(String method, String path) {
+        String[] segments = path.split("/");
+
+        if (segments.length == 2 && segments[1].equals("transfers")) {
+            return new Route(Endpoint.TRANSFER, null, method, "POST");
+        }
+
+        if (segments.length == 4 && segments[1].equals("accounts") && !segments[2].isEmpty()) {
+            String accountNumber = segments[2];
+
+            switch (segments[3]) {
+                case "deposit":
+                    return new Route(Endpoint.DEPOSIT, accountNumber, method, "POST");
+                case "withdraw":
+                    return new Route(Endpoint.WITHDRAW, accountNumber, method, "POST");
+                case "balance":
+                    return new Route(Endpoint.BALANCE, accountNumber, method, "GET");
+                case "transactions":
+                    return new Route(Endpoint.TRANSACTIONS, accountNumber, method, "GET");
+                default:
+                    break;
+            }
+        }
+
+        return Route.notFound(path);
+    }
+
+    private static BigDecimal amount(Map<String, String> request) {
+        String amount = required(request, "amount");
+
+        try {
+            return new BigDecimal(amount);
+        } catch (NumberFormatException e) {
+            throw new MalformedRequestException("Invalid amount: " + amount);
+        }
+    }
+
+    private static TransactionQuery historyQuery(String accountNumber, String rawQuery) {
+        Map<String, String> parameters;
+        TransactionQuery query = TransactionQuery.forAccount(accountNumber);
+
+        try {
+            parameters = queryParameters(rawQuery);
+
+            if (parameters.containsKey("limit")) {
+                int limit = Integer.parseInt(parameters.get("limit"));
+
+                if (limit <= 0) {
+                    throw new MalformedRequestException("Invalid limit: " + limit);
+                }
+
+                query = query.limit(Math.min(limit, MAX_PAGE_LIMIT));
+            }
+
+            if (parameters.containsKey("after")) {
+                query = query.after(Long.parseLong(parameters.get("after")));
+            }
+
+            if (parameters.containsKey("from") || parameters.containsKey("to")) {
+                query = query.between(instantOrNull(parameters.get("from")), instantOrNull(parameters.get("to")));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new MalformedRequestException("Invalid history query: " + rawQuery);
+        }
+
+        String order = parameters.getOrDefault("order", "oldest");
+
+        return switch (order) {
+            case "oldest" -> query;
+            case "newest" -> query.newestFirst();
+            default -> throw new MalformedRequestException("Invalid order: " + order);
+        };
+    }
+
+    private static Instant instantOrNull(String value) {
+        return value == null || value.isEmpty() ? null : Instant.parse(value);
+    }
+
+    private static Map<String, String> queryParameters(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+
+            if (equals > 0) {
+                parameters.put(
+                        URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8)
+                );
+            }
+        }
+
+        return parameters;
+    }
+
+    private static String required(Map<String, String> request, String field) {
+        String value = request.get(field);
+
+        if (value == null || value.isEmpty()) {
+            throw new MalformedRequestException("Missing field: " + field);
+        }
+
+        return value;
+    }
+
+    // Always drains the body, even when it is not needed, so the next pipelined request starts at the right byte.
+    // Returns null when the body is over the limit.
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+
+            if (bytes.length > MAX_BODY_BYTES) {
+                in.transferTo(OutputStream.nullOutputStream());
+                return null;
+            }
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String error(RuntimeException e) {
+        return JsonCodec.error(e.getClass().getSimpleName(), e.getMessage());
+    }
+
+    /**
+     * Stops accepting connections, gives in-flight exchanges up to the given number of seconds to finish,
+     * then shuts the request threads down.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+    }
+
+    @Override
+    public void close() {
+        stop(0);
+    }
+
+    private enum Endpoint {
+        DEPOSIT,
+        WITHDRAW,
+        TRANSFER,
+        BALANCE,
+        TRANSACTIONS
+    }
+
+    private static final class Route {
+        private final Endpoint endpoint;
+        private final String accountNumber;
+        private final int status;
+        private final String path;
+
+        private Route(Endpoint endpoint, String accountNumber, String method, String expectedMethod) {
+            this.endpoint = endpoint;
+            this.accountNumber = accountNumber;
+            this.status = method.equals(expectedMethod) ? (expectedMethod.equals("POST") ? 201 : 200) : 405;
+            this.path = null;
+        }
+
+        private Route(String path) {
+            this.endpoint = null;
+            this.accountNumber = null;
+            this.status = 404;
+            this.path = path;
+        }
+
+        private static Route notFound(String path) {
+            return new Route(path);
+        }
+
+        private String error() {
+            return status == 404
+                    ? JsonCodec.error("NotFound", "No such endpoint: " + path)
+                    : JsonCodec.error("MethodNotAllowed", "Method not allowed for " + endpoint);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * PURPOSE:
+ * The small amount of JSON the HTTP API needs, without a library.
+ *
+ * RESPONSIBILITIES:
+ * - Parse a flat request object (string, number, boolean and null values) into a map of strings
+ * - Write transactions, history pages, balances and errors as JSON
+ *
+ * DOES NOT:
+ * - Support nested objects or arrays in requests; none of the endpoints take them
+ * - Convert numbers; they are kept as written so amounts reach BigDecimal without a double in between
+ *
+ * USED BY:
+ * - BankingHttpServer
+ */
+
+
+package banking.api;
+
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.exception.MalformedRequestException;
+import banking.repository.TransactionPage;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class JsonCodec {
+
+    private JsonCodec() {
+    }
+
+    static Map<String, String> parseObject(String json) {
+        Parser parser = new Parser(json);
+        Map<String, String> values = parser.object();
+        parser.skipWhitespace();
+
+        if (!parser.atEnd()) {
+            throw new MalformedRequestException("Unexpected content after JSON object");
+        }
+
+        return values;
+    }
+
+    static String transaction(Transaction transaction) {
+        StringBuilder out = new StringBuilder(192);
+        appendTransaction(out, transaction);
+        return out.toString();
+    }
+
+    static String transactions(List<Transaction> transactions) {
+        StringBuilder out = new StringBuilder(16 + transactions.size() * 192);
+        out.append('[');
+
+        for (int i = 0; i < transactions.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendTransaction(out, transactions.get(i));
+        }
+
+        return out.append(']').toString();
+    }
+
+    static String page(TransactionPage page) {
+        StringBuilder out = new StringBuilder(48 + page.getTransactions().size() * 192);
+        out.append("{\"transactions\":").append(transactions(page.getTransactions()));
+        out.append(",\"nextCursor\":");
+
+        if (page.hasMore()) {
+            out.append('"').append(page.getNextCursor()).append('"');
+        } else {
+            out.append("null");
+        }
+
+        return out.append('}').toString();
+    }
+
+    static String balance(String accountNumber, Money balance) {
+        StringBuilder out = new StringBuilder(64);
+        out.append("{\"accountNumber\":");
+        appendString(out, accountNumber);
+        out.append(",\"balance\":\"").append(balance).append("\"}");
+        return out.toString();
+    }
+
+    static String error(String type, String message) {
+        StringBuilder out = new StringBuilder(96);
+        out.append("{\"error\":");
+        appendString(out, type);
+        out.append(",\"message\":");
+        appendString(out, message);
+        return out.append('}').toString();
+    }
+
+    private static void appendTransaction(StringBuilder out, Transaction transaction) {
+        out.append("{\"transactionId\":");
+        appendString(out, transaction.getTransactionId());
+        out.append(",\"accountNumber\":");
+        appendString(out, transaction.getAccountNumber());
+        out.append(",\"type\":\"").append(transaction.getTransactionType()).append('"');
+        out.append(",\"amount\":\"").append(transaction.getAmount()).append('"');
+        out.append(",\"occurredAt\":\"").append(transaction.getOccurredAt()).append('"');
+        out.append(",\"transferId\":");
+
+        if (transaction.getTransferId() == null) {
+            out.append("null");
+        } else {
+            appendString(out, transaction.getTransferId());
+        }
+
+        out.append('}');
+    }
+
+    static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+
+        out.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+
+        out.append('"');
+    }
+
+    private static final class Parser {
+        private final String json;
+        private int position;
+
+        private Parser(String json) {
+            this.json = json;
+        }
+
+        private Map<String, String> object() {
+            skipWhitespace();
+            expect('{');
+            Map<String, String> values = new HashMap<>();
+            skipWhitespace();
+
+            if (peek() == '}') {
+                position++;
+                return values;
+            }
+
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                String value = value();
+
+                if (value != null) {
+                    values.put(key, value);
+                }
+
+                skipWhitespace();
+                char next = next();
+
+                if (next == '}') {
+                    return values;
+                }
+
+                if (next != ',') {
+                    throw new MalformedRequestException("Expected ',' or '}' at position " + (position - 1));
+                }
+            }
+        }
+
+        private String value() {
+            char c = peek();
+
+            if (c == '"') {
+                return string();
+            }
+
+            if (json.startsWith("null", position)) {
+                position += 4;
+                return null;
+            }
+
+            if (json.startsWith("true", position)) {
+                position += 4;
+                return "true";
+            }
+
+            if (json.startsWith("false", position)) {
+                position += 5;
+                return "false";
+            }
+
+            int start = position;
+            while (!atEnd() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+
+            if (start == position) {
+                throw new MalformedRequestException("Unsupported JSON value at position " + start);
+            }
+
+            return json.substring(start, position);
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+
+            while (true) {
+                char c = next();
+
+                if (c == '"') {
+                    return out.toString();
+                }
+
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+
+                char escaped = next();
+                switch (escaped) {
+                    case '"', '\\', '/' -> out.append(escaped);
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'u' -> {
+                        if (position + 4 > json.length()) {
+                            throw new MalformedRequestException("Truncated unicode escape");
+                        }
+                        try {
+                            out.append((char) Integer.parseInt(json, position, position + 4, 16));
+                        } catch (NumberFormatException e) {
+                            throw new MalformedRequestException("Invalid unicode escape at position " + position);
+                        }
+                        position += 4;
+                    }
+                    default -> throw new MalformedRequestException("Invalid escape at position " + (position - 1));
+                }
+            }
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw new MalformedRequestException("Expected '" + expected + "' at position " + (position - 1));
+            }
+        }
+
+        private char next() {
+            if (atEnd()) {
+                throw new MalformedRequestException("Unexpected end of JSON");
+            }
+            return json.charAt(position++);
+        }
+
+        private char peek() {
+            if (atEnd()) {
+                throw new MalformedRequestException("Unexpected end of JSON");
+            }
+            return json.charAt(position);
+        }
+
+        private void skipWhitespace() {
+            while (!atEnd() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean atEnd() {
+            return position >= json.length();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package banking.bulk;
+
+/**
+ * Totals for one LedgerImporter run.
+ */
+public class ImportResult {
+    private final long rowCount;
+    private final int accountCount;
+    private final int chunkCount;
+
+    public ImportResult(long rowCount, int accountCount, int chunkCount) {
+        this.rowCount = rowCount;
+        this.accountCount = accountCount;
+        this.chunkCount = chunkCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    /**
+     * How many pieces the file was split into for parsing.
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+}
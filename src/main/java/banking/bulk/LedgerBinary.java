@@ -0,0 +1,140 @@
+/**
+ * PURPOSE:
+ * Reads and writes the compact binary ledger format.
+ *
+ * FORMAT:
+ * [int magic][int version], then blocks of [int rowCount][int payloadBytes][payload], ended by [int 0]
+ * per row: [string accountNumber][byte type][long amountMinorUnits][long epochSecond][int nanos]
+ *          [string transactionId][string transferId]
+ * strings as [short length (-1 for null)][UTF-8 bytes]
+ *
+ * Blocks carry their own length, so a reader can find every block boundary without
+ * parsing rows and hand the blocks to different workers.
+ */
+
+
+package banking.bulk;
+
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.exception.LedgerFormatException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+final class LedgerBinary {
+    static final int MAGIC = 0x424F454C;
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = 8;
+    static final int BLOCK_HEADER_BYTES = 8;
+    static final int BLOCK_ROWS = 1 << 14;
+    private static final int FIXED_ROW_BYTES = 1 + 8 + 8 + 4 + 3 * 2;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private LedgerBinary() {
+    }
+
+    // UTF-8 needs at most 3 bytes per char, so this bound never under-sizes a block buffer.
+    static int maxRowBytes(Transaction transaction) {
+        return FIXED_ROW_BYTES
+                + 3 * transaction.getAccountNumber().length()
+                + 3 * transaction.getTransactionId().length()
+                + (transaction.getTransferId() == null ? 0 : 3 * transaction.getTransferId().length());
+    }
+
+    static void putRow(ByteBuffer buffer, Transaction transaction) {
+        putString(buffer, transaction.getAccountNumber());
+        buffer.put((byte) transaction.getTransactionType().ordinal());
+        buffer.putLong(transaction.getAmount().getMinorUnits());
+        buffer.putLong(transaction.getOccurredAt().getEpochSecond());
+        buffer.putInt(transaction.getOccurredAt().getNano());
+        putString(buffer, transaction.getTransactionId());
+        putString(buffer, transaction.getTransferId());
+    }
+
+    /**
+     * Decodes rowCount rows from the buffer's remaining bytes.
+     */
+    static void readRows(ByteBuffer buffer, int rowCount, long offset, Consumer<Transaction> consumer) {
+        try {
+            for (int i = 0; i < rowCount; i++) {
+                String accountNumber = getString(buffer);
+                TransactionType type = TYPES[buffer.get()];
+                long amount = buffer.getLong();
+                Instant occurredAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+                String transactionId = getString(buffer);
+                String transferId = getString(buffer);
+
+                consumer.accept(new Transaction(accountNumber, occurredAt, type, Money.ofMinorUnits(amount).toBigDecimal(), transactionId, transferId));
+            }
+        } catch (RuntimeException e) {
+            if (e instanceof LedgerFormatException) {
+                throw e;
+            }
+            throw new LedgerFormatException("Corrupt block at byte " + offset + ": " + e);
+        }
+
+        if (buffer.hasRemaining()) {
+            throw new LedgerFormatException("Corrupt block at byte " + offset + ": " + buffer.remaining() + " trailing bytes");
+        }
+    }
+
+    static void writeFileHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+    }
+
+    static void checkFileHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < FILE_HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new LedgerFormatException("Not a binary ledger file");
+        }
+
+        int version = buffer.getInt();
+
+        if (version != VERSION) {
+            throw new LedgerFormatException("Unsupported binary ledger version " + version);
+        }
+    }
+
+    static int maxRowsBytes(List<Transaction> rows) {
+        int bytes = 0;
+
+        for (Transaction row : rows) {
+            bytes += maxRowBytes(row);
+        }
+
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new LedgerFormatException("Field longer than " + Short.MAX_VALUE + " bytes");
+        }
+
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * PURPOSE:
+ * Reads and writes ledger rows as CSV.
+ *
+ * FORMAT:
+ * account_number,occurred_at,type,amount,transaction_id,transfer_id
+ * - occurred_at is an ISO-8601 instant, amount a plain decimal, transfer_id empty when absent
+ * - No quoting: fields that contain a comma or line break cannot be exported
+ */
+
+
+package banking.bulk;
+
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.exception.InvalidAmountException;
+import banking.exception.LedgerFormatException;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+
+final class LedgerCsv {
+    static final String HEADER = "account_number,occurred_at,type,amount,transaction_id,transfer_id";
+    private static final int FIELDS = 6;
+
+    private LedgerCsv() {
+    }
+
+    static void append(StringBuilder out, Transaction transaction) {
+        out.append(checked(transaction.getAccountNumber())).append(',')
+                .append(transaction.getOccurredAt()).append(',')
+                .append(transaction.getTransactionType().name()).append(',')
+                .append(transaction.getAmount()).append(',')
+                .append(checked(transaction.getTransactionId())).append(',');
+
+        if (transaction.getTransferId() != null) {
+            out.append(checked(transaction.getTransferId()));
+        }
+
+        out.append('\n');
+    }
+
+    /**
+     * @param offset byte offset of the line in the file, for error messages
+     */
+    static Transaction parse(String line, long offset) {
+        int[] commas = new int[FIELDS - 1];
+        int from = 0;
+
+        for (int i = 0; i < commas.length; i++) {
+            commas[i] = line.indexOf(',', from);
+
+            if (commas[i] < 0) {
+                throw new LedgerFormatException("Expected " + FIELDS + " fields at byte " + offset + ": " + line);
+            }
+
+            from = commas[i] + 1;
+        }
+
+        if (line.indexOf(',', from) >= 0) {
+            throw new LedgerFormatException("Expected " + FIELDS + " fields at byte " + offset + ": " + line);
+        }
+
+        String transferId = line.substring(commas[4] + 1);
+
+        try {
+            return new Transaction(
+                    line.substring(0, commas[0]),
+                    parseInstant(line, commas[0] + 1, commas[1]),
+                    TransactionType.valueOf(line.substring(commas[1] + 1, commas[2])),
+                    new BigDecimal(line.substring(commas[2] + 1, commas[3])),
+                    line.substring(commas[3] + 1, commas[4]),
+                    transferId.isEmpty() ? null : transferId
+            );
+        } catch (DateTimeException | IllegalArgumentException | InvalidAmountException e) {
+            throw new LedgerFormatException("Invalid row at byte " + offset + " (" + e.getMessage() + "): " + line);
+        }
+    }
+
+    // Fast path for the UTC form Instant.toString writes (yyyy-MM-ddTHH:mm:ss[.fraction]Z); anything else goes to Instant.parse.
+    static Instant parseInstant(String line, int start, int end) {
+        int length = end - start;
+
+        if (length < 20 || line.charAt(start + 4) != '-' || line.charAt(start + 7) != '-' || line.charAt(start + 10) != 'T'
+                || line.charAt(start + 13) != ':' || line.charAt(start + 16) != ':' || line.charAt(end - 1) != 'Z') {
+            return Instant.parse(line.substring(start, end));
+        }
+
+        int fractionDigits = length == 20 ? 0 : length - 21;
+
+        if (fractionDigits > 9 || (fractionDigits > 0 && line.charAt(start + 19) != '.')) {
+            return Instant.parse(line.substring(start, end));
+        }
+
+        int year = digits(line, start, 4);
+        int month = digits(line, start + 5, 2);
+        int day = digits(line, start + 8, 2);
+        int hour = digits(line, start + 11, 2);
+        int minute = digits(line, start + 14, 2);
+        int second = digits(line, start + 17, 2);
+        int nanos = fractionDigits == 0 ? 0 : digits(line, start + 20, fractionDigits);
+
+        for (int i = fractionDigits; i < 9; i++) {
+            nanos *= 10;
+        }
+
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || nanos < 0) {
+            return Instant.parse(line.substring(start, end));
+        }
+
+        long epochDay = LocalDate.of(year, month, day).toEpochDay();
+        return Instant.ofEpochSecond(epochDay * 86_400 + hour * 3_600 + minute * 60 + second, nanos);
+    }
+
+    // -1 if any character is not a digit.
+    private static int digits(String line, int start, int count) {
+        int value = 0;
+
+        for (int i = start; i < start + count; i++) {
+            int digit = line.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    private static String checked(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+
+            if (c == ',' || c == '\n' || c == '\r') {
+                throw new LedgerFormatException("Field cannot be written as CSV: " + field);
+            }
+        }
+
+        return field;
+    }
+}
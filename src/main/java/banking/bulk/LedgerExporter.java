@@ -0,0 +1,163 @@
+/**
+ * PURPOSE:
+ * Streams accounts' transaction histories out to a CSV or binary ledger file.
+ *
+ * RESPONSIBILITIES:
+ * - Write every row of each listed account, account by account, in history order
+ * - Use TransactionRepository.stream so tiered repositories include their cold rows
+ *
+ * MEMORY:
+ * - Rows are written as they are read; at most one binary block (BLOCK_ROWS rows) or one
+ *   CSV write buffer is held, plus whatever the repository's stream materializes per account
+ *
+ * DOES NOT:
+ * - Give a consistent cut across accounts while writers are running; export a quiesced ledger
+ *
+ * USED BY:
+ * - Migrations and test-environment seeding, together with LedgerImporter
+ */
+
+
+package banking.bulk;
+
+import banking.domain.transaction.Transaction;
+import banking.repository.TransactionQuery;
+import banking.repository.TransactionRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public final class LedgerExporter {
+    private static final int CSV_FLUSH_CHARS = 1 << 16;
+
+    private LedgerExporter() {
+    }
+
+    /**
+     * @return the number of rows written
+     */
+    public static long exportCsv(TransactionRepository transactionRepository, Collection<String> accountNumbers, Path file) throws IOException {
+        long rows = 0;
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), CSV_FLUSH_CHARS)) {
+            StringBuilder line = new StringBuilder(128);
+            writer.write(LedgerCsv.HEADER);
+            writer.write('\n');
+
+            for (String accountNumber : accountNumbers) {
+                try (Stream<Transaction> history = historyOf(transactionRepository, accountNumber)) {
+                    for (Transaction transaction : (Iterable<Transaction>) history::iterator) {
+                        line.setLength(0);
+                        LedgerCsv.append(line, transaction);
+                        writer.append(line);
+                        rows++;
+                    }
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * @return the number of rows written
+     */
+    public static long exportBinary(TransactionRepository transactionRepository, Collection<String> accountNumbers, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(LedgerBinary.FILE_HEADER_BYTES);
+            LedgerBinary.writeFileHeader(header);
+            writeFully(channel, header.flip());
+
+            BlockWriter blocks = new BlockWriter(channel);
+
+            for (String accountNumber : accountNumbers) {
+                try (Stream<Transaction> history = historyOf(transactionRepository, accountNumber)) {
+                    history.forEach(blocks::add);
+                }
+            }
+
+            return blocks.finish();
+        }
+    }
+
+    private static Stream<Transaction> historyOf(TransactionRepository transactionRepository, String accountNumber) {
+        return transactionRepository.stream(TransactionQuery.forAccount(accountNumber));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class BlockWriter {
+        private final FileChannel channel;
+        private final List<Transaction> pending;
+        private ByteBuffer buffer;
+        private long rows;
+
+        private BlockWriter(FileChannel channel) {
+            this.channel = channel;
+            this.pending = new ArrayList<>(LedgerBinary.BLOCK_ROWS);
+            this.buffer = ByteBuffer.allocate(1 << 20);
+        }
+
+        void add(Transaction transaction) {
+            pending.add(transaction);
+
+            if (pending.size() == LedgerBinary.BLOCK_ROWS) {
+                flush();
+            }
+        }
+
+        long finish() {
+            flush();
+            ByteBuffer end = ByteBuffer.allocate(4);
+            end.putInt(0);
+            writeFully(channel, end.flip());
+            return rows;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            int capacity = LedgerBinary.BLOCK_HEADER_BYTES + LedgerBinary.maxRowsBytes(pending);
+
+            if (buffer.capacity() < capacity) {
+                buffer = ByteBuffer.allocate(capacity);
+            }
+
+            buffer.clear();
+            buffer.position(LedgerBinary.BLOCK_HEADER_BYTES);
+
+            for (Transaction transaction : pending) {
+                LedgerBinary.putRow(buffer, transaction);
+            }
+
+            buffer.putInt(0, pending.size());
+            buffer.putInt(4, buffer.position() - LedgerBinary.BLOCK_HEADER_BYTES);
+            writeFully(channel, buffer.flip());
+            rows += pending.size();
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * PURPOSE:
+ * Loads a CSV or binary ledger file into a TransactionRepository in bulk.
+ *
+ * RESPONSIBILITIES:
+ * - Split the file into chunks (CSV: ranges cut at line ends; binary: its self-delimiting blocks)
+ * - Parse the chunks in parallel on the fork/join pool, grouping rows by account as they are parsed
+ * - Concatenate each account's rows in file order and hand them to saveTransactions in one call per account
+ *
+ * ASSUMES:
+ * - Rows of one account appear in the file in history order (as LedgerExporter writes them)
+ *
+ * DOES NOT:
+ * - Validate business rules (balances, account states); imported history is taken as recorded
+ * - Load anything if a single row is malformed; parsing finishes before the first save
+ *
+ * WHY THIS EXISTS:
+ * Replaying millions of historical rows through saveTransaction one at a time, after parsing them
+ * on one thread, makes migrations and test seeding take minutes instead of seconds.
+ */
+
+
+package banking.bulk;
+
+import banking.domain.transaction.Transaction;
+import banking.exception.LedgerFormatException;
+import banking.repository.TransactionRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class LedgerImporter {
+    private static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+    private static final int SCAN_BYTES = 4096;
+
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+
+    public LedgerImporter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    public LedgerImporter(ForkJoinPool pool, int chunkBytes) {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than 0");
+        }
+
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+    }
+
+    public ImportResult importCsv(Path file, TransactionRepository transactionRepository) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long headerEnd = nextLineStart(channel, 0, size);
+            String header = new String(read(channel, 0, (int) headerEnd), StandardCharsets.UTF_8).strip();
+
+            if (!header.equals(LedgerCsv.HEADER)) {
+                throw new LedgerFormatException("Missing CSV header, expected: " + LedgerCsv.HEADER);
+            }
+
+            List<Callable<Map<String, List<Transaction>>>> chunks = new ArrayList<>();
+            long start = headerEnd;
+
+            while (start < size) {
+                long end = start + chunkBytes >= size ? size : nextLineStart(channel, start + chunkBytes, size);
+                long chunkStart = start;
+                chunks.add(() -> parseCsvChunk(channel, chunkStart, end));
+                start = end;
+            }
+
+            return load(run(chunks), transactionRepository, chunks.size());
+        }
+    }
+
+    public ImportResult importBinary(Path file, TransactionRepository transactionRepository) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            LedgerBinary.checkFileHeader(ByteBuffer.wrap(read(channel, 0, (int) Math.min(size, LedgerBinary.FILE_HEADER_BYTES))));
+
+            List<Callable<Map<String, List<Transaction>>>> blocks = new ArrayList<>();
+            long position = LedgerBinary.FILE_HEADER_BYTES;
+
+            // Only the block headers are read here; the payloads are read by the workers.
+            while (true) {
+                if (position + 4 > size) {
+                    throw new LedgerFormatException("Truncated binary ledger: no end marker");
+                }
+
+                int rowCount = ByteBuffer.wrap(read(channel, position, 4)).getInt();
+
+                if (rowCount == 0) {
+                    break;
+                }
+
+                if (position + LedgerBinary.BLOCK_HEADER_BYTES > size) {
+                    throw new LedgerFormatException("Truncated block header at byte " + position);
+                }
+
+                int payloadBytes = ByteBuffer.wrap(read(channel, position + 4, 4)).getInt();
+                long payloadStart = position + LedgerBinary.BLOCK_HEADER_BYTES;
+
+                if (rowCount < 0 || payloadBytes < 0 || payloadStart + payloadBytes > size) {
+                    throw new LedgerFormatException("Corrupt block header at byte " + position);
+                }
+
+                blocks.add(() -> parseBinaryBlock(channel, payloadStart, payloadBytes, rowCount));
+                position = payloadStart + payloadBytes;
+            }
+
+            return load(run(blocks), transactionRepository, blocks.size());
+        }
+    }
+
+    private static Map<String, List<Transaction>> parseCsvChunk(FileChannel channel, long start, long end) {
+        byte[] bytes = read(channel, start, (int) (end - start));
+        Map<String, List<Transaction>> byAccount = new HashMap<>();
+        int lineStart = 0;
+
+        while (lineStart < bytes.length) {
+            int lineEnd = lineStart;
+
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+
+            int contentEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+
+            if (contentEnd > lineStart) {
+                Transaction transaction = LedgerCsv.parse(new String(bytes, lineStart, contentEnd - lineStart, StandardCharsets.UTF_8), start + lineStart);
+                byAccount.computeIfAbsent(transaction.getAccountNumber(), key -> new ArrayList<>()).add(transaction);
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        return byAccount;
+    }
+
+    private static Map<String, List<Transaction>> parseBinaryBlock(FileChannel channel, long start, int length, int rowCount) {
+        Map<String, List<Transaction>> byAccount = new HashMap<>();
+        LedgerBinary.readRows(ByteBuffer.wrap(read(channel, start, length)), rowCount, start,
+                transaction -> byAccount.computeIfAbsent(transaction.getAccountNumber(), key -> new ArrayList<>()).add(transaction));
+        return byAccount;
+    }
+
+    private List<Map<String, List<Transaction>>> run(List<Callable<Map<String, List<Transaction>>>> chunks) {
+        List<Map<String, List<Transaction>>> results = new ArrayList<>(chunks.size());
+
+        for (Future<Map<String, List<Transaction>>> future : pool.invokeAll(chunks)) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while importing", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        return results;
+    }
+
+    // Chunks are merged in file order, so each account's rows keep the order they had in the file.
+    private static ImportResult load(List<Map<String, List<Transaction>>> chunks, TransactionRepository transactionRepository, int chunkCount) {
+        Map<String, List<Transaction>> byAccount = new LinkedHashMap<>();
+
+        for (Map<String, List<Transaction>> chunk : chunks) {
+            for (Map.Entry<String, List<Transaction>> entry : chunk.entrySet()) {
+                List<Transaction> rows = byAccount.putIfAbsent(entry.getKey(), entry.getValue());
+
+                if (rows != null) {
+                    rows.addAll(entry.getValue());
+                }
+            }
+        }
+
+        long rowCount = 0;
+
+        for (List<Transaction> rows : byAccount.values()) {
+            transactionRepository.saveTransactions(rows);
+            rowCount += rows.size();
+        }
+
+        return new ImportResult(rowCount, byAccount.size(), chunkCount);
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size) {
+        long position = from;
+
+        while (position < size) {
+            byte[] bytes = read(channel, position, (int) Math.min(SCAN_BYTES, size - position));
+
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == '\n') {
+                    return position + i + 1;
+                }
+            }
+
+            position += bytes.length;
+        }
+
+        return size;
+    }
+
+    // Positional reads do not move the channel's position, so workers can share one channel.
+    private static byte[] read(FileChannel channel, long position, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new LedgerFormatException("Unexpected end of file at byte " + (position + buffer.position()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return buffer.array();
+    }
+}
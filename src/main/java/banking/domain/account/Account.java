@@ -4,19 +4,50 @@ import banking.exception.InvalidStateTransitionException;
 
 
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Instant;
 
+/**
+ * The state is a volatile field changed only by compare-and-set, so concurrent transitions cannot
+ * lose each other's updates and every reader sees the latest state. Each check reads the state once,
+ * so a check and its error message always agree. Every read and transition goes through getAccountState and
+ * compareAndSetState, so a store can keep the state outside the object and return accounts as views.
+ */
 public class Account {
+    private static final VarHandle ACCOUNT_STATE;
+
+    static {
+        try {
+            ACCOUNT_STATE = MethodHandles.lookup().findVarHandle(Account.class, "accountState", AccountState.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final String accountNumber;
     private final Instant createdAt;
-    private AccountState accountState;
+    private volatile AccountState accountState;
 
     public Account(String accountNumber, AccountState accountState) {
+        this(accountNumber, accountState, Instant.now());
+    }
+
+    // Used when restoring an existing account, e.g. from a snapshot.
+    public Account(String accountNumber, AccountState accountState, Instant createdAt) {
         this.accountNumber = accountNumber;
-        this.createdAt = Instant.now();
+        this.createdAt = createdAt;
         this.accountState = accountState;
     }
 
+    // Used by stores that keep the state and creation time themselves and hand out accounts as views over it.
+    // Such a subclass overrides getCreatedAt, getAccountState and compareAndSetState.
+    protected Account(String accountNumber) {
+        this.accountNumber = accountNumber;
+        this.createdAt = null;
+        this.accountState = null;
+    }
+
     public String getAccountNumber() {
         return accountNumber;
     }
@@ -30,46 +61,91 @@ public class Account {
     }
 
     public void changeAccountState(AccountState state) {
-        if (accountState == AccountState.CLOSED) {
+        while (true) {
+            AccountState current = getAccountState();
+            assertTransitionAllowed(current, state);
+
+            if (compareAndSetState(current, state)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves from expected to state only if the account is still in expected.
+     *
+     * @return false if another thread changed the state first
+     * @throws InvalidStateTransitionException if expected to state is not an allowed transition
+     */
+    public boolean compareAndChangeState(AccountState expected, AccountState state) {
+        assertTransitionAllowed(expected, state);
+        return compareAndSetState(expected, state);
+    }
+
+    protected boolean compareAndSetState(AccountState expected, AccountState state) {
+        return ACCOUNT_STATE.compareAndSet(this, expected, state);
+    }
+
+    private static void assertTransitionAllowed(AccountState current, AccountState state) {
+        if (current == AccountState.CLOSED) {
             throw new InvalidStateTransitionException(
                     "Cannot change state from CLOSED to " + state
             );
         }
 
-        if (accountState == AccountState.ACTIVE && state == AccountState.PENDING) {
+        if (current == AccountState.ACTIVE && state == AccountState.PENDING) {
             throw new InvalidStateTransitionException(
-                    "Cannot change state from " + accountState + " to " + state
+                    "Cannot change state from " + current + " to " + state
             );
         }
 
-        if (accountState == AccountState.PENDING && state == AccountState.FROZEN) {
+        if (current == AccountState.PENDING && state == AccountState.FROZEN) {
             throw new InvalidStateTransitionException(
-                    "Cannot change state from " + accountState + " to " + state
+                    "Cannot change state from " + current + " to " + state
             );
         }
+    }
+
+    public boolean canDeposit() {
+        return allowsDeposit(getAccountState());
+    }
 
-        this.accountState = state;
+    public boolean canWithdraw() {
+        return getAccountState() == AccountState.ACTIVE;
+    }
+
+    public boolean canTransfer() {
+        return getAccountState() == AccountState.ACTIVE;
     }
 
     public void assertCanDeposit() {
-        if (accountState != AccountState.ACTIVE
-                && accountState != AccountState.FROZEN
-                && accountState != AccountState.PENDING) {
+        AccountState state = getAccountState();
 
-            throw new InvalidAccountStateException("Deposits not allowed when account state is " + accountState);
+        if (!allowsDeposit(state)) {
+            throw new InvalidAccountStateException("Deposits not allowed when account state is " + state);
         }
     }
 
     public void assertCanWithdraw() {
-        if (accountState != AccountState.ACTIVE) {
-            throw new InvalidAccountStateException("Withdrawals not allowed when account state is " + accountState);
+        AccountState state = getAccountState();
+
+        if (state != AccountState.ACTIVE) {
+            throw new InvalidAccountStateException("Withdrawals not allowed when account state is " + state);
         }
     }
 
     public void assertCanTransfer() {
-        if (accountState != AccountState.ACTIVE) {
-            throw new InvalidAccountStateException("Transfers not allowed when account state is " + accountState);
+        AccountState state = getAccountState();
+
+        if (state != AccountState.ACTIVE) {
+            throw new InvalidAccountStateException("Transfers not allowed when account state is " + state);
         }
     }
 
+    private static boolean allowsDeposit(AccountState state) {
+        return state == AccountState.ACTIVE
+                || state == AccountState.FROZEN
+                || state == AccountState.PENDING;
+    }
+
 }
@@ -1,5 +1,6 @@
 package banking.domain.balance;
 
+import banking.domain.money.Money;
 import banking.domain.transaction.Transaction;
 import banking.domain.transaction.TransactionType;
 
@@ -26,4 +27,29 @@ public class BalanceCalculator {
         }
         return balance;
     }
+
+    /**
+     * Same replay as calculateBalance, summed in minor units. The history must belong to the given account.
+     */
+    public static Money calculateMoney(List<Transaction> transactions) {
+        long balance = 0L;
+
+        for (Transaction transaction : transactions) {
+            balance = apply(balance, transaction);
+        }
+
+        return Money.ofMinorUnits(balance);
+    }
+
+    /**
+     * Applies one row to a balance in minor units; the building block for anything that folds histories itself.
+     */
+    public static long apply(long balance, Transaction transaction) {
+        long amount = transaction.getAmount().getMinorUnits();
+
+        return switch (transaction.getTransactionType()) {
+            case DEPOSIT, TRANSFER_CREDIT -> Math.addExact(balance, amount);
+            case WITHDRAW, TRANSFER_DEBIT -> Math.subtractExact(balance, amount);
+        };
+    }
 }
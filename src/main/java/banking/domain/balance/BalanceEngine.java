@@ -0,0 +1,174 @@
+/**
+ * PURPOSE:
+ * Derives account balances from transaction history without replaying it on every check.
+ *
+ * RESPONSIBILITIES:
+ * - Keep a running balance (in minor units) per account, advanced only by rows appended since the last check
+ * - Record a checkpoint every N rows so an older view of the history can be answered cheaply
+ * - Optionally cross-check the running balance against a full BalanceCalculator replay
+ *
+ * MODES:
+ * - REPLAY: always replay the full history (original behaviour)
+ * - INCREMENTAL: advance the running balance by the new rows only
+ * - VERIFY: advance incrementally, then replay and fail on any difference
+ *
+ * ASSUMES:
+ * - The history passed in belongs to a single account and is append-only,
+ *   which is what TransactionRepository.findByAccountNumber returns
+ *
+ * WHY THIS EXISTS:
+ * Balance checks on long-lived accounts should cost O(new rows), not O(history).
+ */
+
+
+package banking.domain.balance;
+
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.exception.BalanceVerificationException;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class BalanceEngine {
+    private static final int DEFAULT_CHECKPOINT_INTERVAL = 1024;
+
+    private final BalanceMode mode;
+    private final int checkpointInterval;
+    private final ConcurrentMap<String, RunningBalance> balances;
+    private final ConcurrentMap<String, Money> openingBalances;
+
+    public BalanceEngine(BalanceMode mode) {
+        this(mode, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public BalanceEngine(BalanceMode mode, int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be greater than 0");
+        }
+
+        this.mode = mode;
+        this.checkpointInterval = checkpointInterval;
+        this.balances = new ConcurrentHashMap<>();
+        this.openingBalances = new ConcurrentHashMap<>();
+    }
+
+    public BalanceMode getMode() {
+        return mode;
+    }
+
+    public Money calculateBalance(String accountNumber, List<Transaction> transactions) {
+        Money opening = getOpeningBalance(accountNumber);
+
+        if (mode == BalanceMode.REPLAY) {
+            return opening.plus(BalanceCalculator.calculateMoney(transactions));
+        }
+
+        Money balance = Money.ofMinorUnits(
+                balances.computeIfAbsent(accountNumber, key -> new RunningBalance(opening.getMinorUnits()))
+                        .advance(transactions, checkpointInterval)
+        );
+
+        if (mode == BalanceMode.VERIFY) {
+            // Cross-check with the independent BigDecimal replay rather than the minor-unit one.
+            BigDecimal replayed = opening.toBigDecimal().add(BalanceCalculator.calculateBalance(accountNumber, transactions));
+
+            if (replayed.compareTo(balance.toBigDecimal()) != 0) {
+                balances.remove(accountNumber);
+                throw new BalanceVerificationException(
+                        "Balance mismatch for account " + accountNumber + ": running " + balance + ", replayed " + replayed
+                );
+            }
+        }
+
+        return balance;
+    }
+
+    /**
+     * Sets the balance the account had before the first row of the history passed to calculateBalance,
+     * e.g. the balance recorded in a snapshot when only the journal tail is loaded.
+     */
+    public void setOpeningBalance(String accountNumber, Money openingBalance) {
+        openingBalances.put(accountNumber, openingBalance);
+        balances.remove(accountNumber);
+    }
+
+    public Money getOpeningBalance(String accountNumber) {
+        return openingBalances.getOrDefault(accountNumber, Money.ZERO);
+    }
+
+    /**
+     * Drops the running balance for an account so the next check rebuilds it from the history.
+     */
+    public void reset(String accountNumber) {
+        balances.remove(accountNumber);
+    }
+
+    // The binary id when there is one, so the check does not render id text.
+    private static Object rowId(Transaction transaction) {
+        return transaction.getTransactionKey() != null ? transaction.getTransactionKey() : transaction.getTransactionId();
+    }
+
+    private static final class RunningBalance {
+        private final long opening;
+        private Object firstRowId;
+        private int position;
+        private long balance;
+        private long[] checkpoints;
+
+        private RunningBalance(long opening) {
+            this.opening = opening;
+            this.balance = opening;
+            this.checkpoints = new long[]{opening};
+        }
+
+        synchronized long advance(List<Transaction> transactions, int checkpointInterval) {
+            int size = transactions.size();
+
+            // A different first row means the history was replaced (e.g. rebuilt), so start over.
+            // Compared by id because some repositories materialize a new Transaction on every read.
+            if (size > 0 && firstRowId != null && !firstRowId.equals(rowId(transactions.get(0)))) {
+                position = 0;
+                balance = opening;
+                checkpoints = new long[]{opening};
+                firstRowId = null;
+            }
+
+            // An older view than the one already applied: answer from the nearest checkpoint.
+            if (size < position) {
+                int checkpoint = size / checkpointInterval;
+                long result = checkpoints[checkpoint];
+
+                for (int i = checkpoint * checkpointInterval; i < size; i++) {
+                    result = BalanceCalculator.apply(result, transactions.get(i));
+                }
+
+                return result;
+            }
+
+            if (size > 0 && firstRowId == null) {
+                firstRowId = rowId(transactions.get(0));
+            }
+
+            for (int i = position; i < size; i++) {
+                balance = BalanceCalculator.apply(balance, transactions.get(i));
+
+                if ((i + 1) % checkpointInterval == 0) {
+                    int checkpoint = (i + 1) / checkpointInterval;
+
+                    if (checkpoint == checkpoints.length) {
+                        checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+                    }
+
+                    checkpoints[checkpoint] = balance;
+                }
+            }
+
+            position = size;
+            return balance;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package banking.domain.balance;
+
+public enum BalanceMode {
+    REPLAY,
+    INCREMENTAL,
+    VERIFY;
+}
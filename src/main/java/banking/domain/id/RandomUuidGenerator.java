@@ -0,0 +1,14 @@
+package banking.domain.id;
+
+import java.util.UUID;
+
+/**
+ * The original UUID.randomUUID() ids, for deployments that need UUID text in the ledger.
+ */
+public class RandomUuidGenerator implements TransactionIdGenerator {
+
+    @Override
+    public TransactionId nextId() {
+        return TransactionId.fromUuid(UUID.randomUUID());
+    }
+}
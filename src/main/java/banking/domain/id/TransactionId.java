@@ -0,0 +1,180 @@
+/**
+ * PURPOSE:
+ * Compact 128-bit transaction identifier with lazily rendered text.
+ *
+ * LAYOUT (ULID):
+ * - Top 48 bits: milliseconds since the epoch, so ids sort by creation time
+ * - Remaining 80 bits: per-thread random value, incremented for ids in the same millisecond
+ *
+ * TEXT:
+ * - ULID ids render as 26 Crockford base32 characters
+ * - Ids created from UUIDs keep rendering as UUIDs, so existing ledgers round-trip unchanged
+ * - The text is built on first use and cached
+ */
+
+
+package banking.domain.id;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+public final class TransactionId implements Comparable<TransactionId> {
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] CROCKFORD_VALUES = new byte[128];
+    private static final int ULID_LENGTH = 26;
+    private static final int UUID_LENGTH = 36;
+
+    static {
+        Arrays.fill(CROCKFORD_VALUES, (byte) -1);
+
+        for (int i = 0; i < CROCKFORD.length; i++) {
+            CROCKFORD_VALUES[CROCKFORD[i]] = (byte) i;
+        }
+    }
+
+    private final long high;
+    private final long low;
+    private final boolean uuidForm;
+    private String text;
+
+    private TransactionId(long high, long low, boolean uuidForm) {
+        this.high = high;
+        this.low = low;
+        this.uuidForm = uuidForm;
+    }
+
+    public static TransactionId of(long high, long low, boolean uuidForm) {
+        return new TransactionId(high, low, uuidForm);
+    }
+
+    public static TransactionId fromUuid(UUID uuid) {
+        return new TransactionId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), true);
+    }
+
+    /**
+     * Parses the canonical text of a ULID (26 upper-case characters) or a UUID (36 lower-case characters).
+     * Returns null for anything else, so callers can fall back to keeping the id as plain text.
+     */
+    public static TransactionId parse(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        if (text.length() == ULID_LENGTH) {
+            return parseUlid(text);
+        }
+
+        if (text.length() == UUID_LENGTH) {
+            try {
+                UUID uuid = UUID.fromString(text);
+                return uuid.toString().equals(text) ? fromUuid(uuid) : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Smallest ULID that can be generated at the given instant; with maxForTime, bounds an id range scan.
+     */
+    public static TransactionId minForTime(Instant instant) {
+        return new TransactionId(instant.toEpochMilli() << 16, 0L, false);
+    }
+
+    public static TransactionId maxForTime(Instant instant) {
+        return new TransactionId((instant.toEpochMilli() << 16) | 0xFFFFL, -1L, false);
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public boolean isUuidForm() {
+        return uuidForm;
+    }
+
+    /**
+     * Creation time in epoch milliseconds; only meaningful for ULID ids.
+     */
+    public long getTimestampMillis() {
+        return high >>> 16;
+    }
+
+    @Override
+    public int compareTo(TransactionId other) {
+        int byHigh = Long.compareUnsigned(high, other.high);
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(low, other.low);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TransactionId id && id.high == high && id.low == low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+
+    @Override
+    public String toString() {
+        String rendered = text;
+
+        // Racing threads may both render; the results are equal, so either may win.
+        if (rendered == null) {
+            rendered = uuidForm ? new UUID(high, low).toString() : renderUlid();
+            text = rendered;
+        }
+
+        return rendered;
+    }
+
+    private String renderUlid() {
+        char[] chars = new char[ULID_LENGTH];
+
+        // 26 characters carry 130 bits; the first character only uses the low 3 of its 5.
+        for (int i = 0; i < ULID_LENGTH; i++) {
+            int value = 0;
+
+            for (int bit = 5 * i - 2; bit < 5 * i + 3; bit++) {
+                value = (value << 1) | (bit < 0 ? 0 : bitAt(bit));
+            }
+
+            chars[i] = CROCKFORD[value];
+        }
+
+        return new String(chars);
+    }
+
+    private int bitAt(int position) {
+        return position < 64
+                ? (int) (high >>> (63 - position)) & 1
+                : (int) (low >>> (127 - position)) & 1;
+    }
+
+    private static TransactionId parseUlid(String text) {
+        long high = 0L;
+        long low = 0L;
+
+        for (int i = 0; i < ULID_LENGTH; i++) {
+            char c = text.charAt(i);
+            int value = c < 128 ? CROCKFORD_VALUES[c] : -1;
+
+            if (value < 0 || (i == 0 && value > 7)) {
+                return null;
+            }
+
+            high = (high << 5) | (low >>> 59);
+            low = (low << 5) | value;
+        }
+
+        return new TransactionId(high, low, false);
+    }
+}
@@ -0,0 +1,5 @@
+package banking.domain.id;
+
+public interface TransactionIdGenerator {
+    TransactionId nextId();
+}
@@ -0,0 +1,53 @@
+/**
+ * PURPOSE:
+ * Generates time-ordered ULID transaction ids without shared state.
+ *
+ * HOW:
+ * - Each thread keeps its own last timestamp and 80-bit random value
+ * - A new millisecond draws a fresh random value from ThreadLocalRandom
+ * - Within the same millisecond the random value is incremented, so a thread's ids are strictly increasing
+ * - If the clock steps backwards the last timestamp is kept, so ids never go backwards either
+ *
+ * WHY THIS EXISTS:
+ * UUID.randomUUID() draws from a shared SecureRandom and formats a 36-character string on every call,
+ * which shows up as contention and garbage on the transaction path.
+ */
+
+
+package banking.domain.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public class UlidGenerator implements TransactionIdGenerator {
+    private static final long RANDOM_HIGH_MASK = 0xFFFFL;
+
+    private final ThreadLocal<State> states = ThreadLocal.withInitial(State::new);
+
+    @Override
+    public TransactionId nextId() {
+        return states.get().next();
+    }
+
+    private static final class State {
+        private long lastMillis = -1L;
+        private long randomHigh;
+        private long randomLow;
+
+        private TransactionId next() {
+            long now = System.currentTimeMillis();
+
+            if (now > lastMillis) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                lastMillis = now;
+                randomHigh = random.nextLong() & RANDOM_HIGH_MASK;
+                randomLow = random.nextLong();
+            } else if (++randomLow == 0L && ++randomHigh > RANDOM_HIGH_MASK) {
+                // 2^80 ids in one millisecond: borrow the next millisecond rather than wrap.
+                lastMillis++;
+                randomHigh = 0L;
+            }
+
+            return TransactionId.of((lastMillis << 16) | randomHigh, randomLow, false);
+        }
+    }
+}
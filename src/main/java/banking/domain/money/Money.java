@@ -0,0 +1,138 @@
+/**
+ * PURPOSE:
+ * Immutable amount of money held as a long count of minor units (cents) at a fixed scale of 2.
+ *
+ * RESPONSIBILITIES:
+ * - Convert from and to BigDecimal at the API boundary, rejecting amounts that do not fit exactly
+ * - Add, subtract and compare without allocating intermediate BigDecimals
+ * - Fail loudly on overflow instead of wrapping around
+ *
+ * USED BY:
+ * - Transaction (amount in minor units, computed once)
+ * - BalanceCalculator, BalanceEngine and BankingOperation (balance and validation paths)
+ *
+ * WHY THIS EXISTS:
+ * Balance checks run on every withdrawal and transfer; long arithmetic keeps them
+ * allocation-free where BigDecimal allocates on every add and subtract.
+ */
+
+
+package banking.domain.money;
+
+import banking.exception.InvalidAmountException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+public final class Money implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0L);
+
+    private static final int MAX_INTEGER_DIGITS = 19;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinorUnits(long minorUnits) {
+        return minorUnits == 0L ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money of(BigDecimal amount) {
+        Money money = ofOrNull(amount);
+
+        if (money == null) {
+            throw new InvalidAmountException("Amount " + amount + " cannot be represented with " + SCALE + " decimal places");
+        }
+
+        return money;
+    }
+
+    /**
+     * Same conversion as of, but returns null instead of throwing when the amount has more
+     * than SCALE decimal places or does not fit in a long.
+     */
+    public static Money ofOrNull(BigDecimal amount) {
+        BigDecimal exact = amount;
+
+        if (exact.scale() > SCALE) {
+            exact = exact.stripTrailingZeros();
+
+            if (exact.scale() > SCALE) {
+                return null;
+            }
+        }
+
+        if (exact.signum() == 0) {
+            return ZERO;
+        }
+
+        // A long holds at most 19 integer digits; checking first keeps setScale from expanding e.g. 1e100000000.
+        if (exact.precision() - exact.scale() > MAX_INTEGER_DIGITS || exact.scale() < -MAX_INTEGER_DIGITS) {
+            return null;
+        }
+
+        BigInteger minorUnits = exact.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue();
+
+        if (minorUnits.bitLength() > 63) {
+            return null;
+        }
+
+        return ofMinorUnits(minorUnits.longValue());
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinorUnits(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinorUnits(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinorUnits(Math.negateExact(minorUnits));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0L;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0L;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return minorUnits > other.minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money money && money.minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
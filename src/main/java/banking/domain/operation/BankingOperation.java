@@ -4,7 +4,8 @@
  *
  * RESPONSIBILITIES:
  * - Validate operation legality (state rules, amounts, balances)
- * - Create domain transactions (deposit, withdrawal, transfer)
+ * - Create domain transactions (deposit, withdrawal, transfer, and the refund of a transfer whose credit failed)
+ * - Offer every operation twice: try* returns an OperationResult, the plain form throws
  * - Enforce invariants (no overdrafts, valid state transitions)
  *
  * DOES NOT:
@@ -25,34 +26,78 @@
 package banking.domain.operation;
 
 import banking.domain.account.Account;
-import banking.domain.balance.BalanceCalculator;
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.id.TransactionId;
+import banking.domain.id.TransactionIdGenerator;
+import banking.domain.id.UlidGenerator;
+import banking.domain.money.Money;
 import banking.domain.transaction.Transaction;
 import banking.domain.transaction.TransactionType;
 import banking.exception.InsufficientFundsException;
+import banking.exception.InvalidAccountStateException;
 import banking.exception.InvalidAmountException;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 public class BankingOperation {
+    private final BalanceEngine balanceEngine;
+    private final TransactionIdGenerator idGenerator;
+
+    public BankingOperation() {
+        this(new BalanceEngine(BalanceMode.REPLAY));
+    }
+
+    public BankingOperation(BalanceEngine balanceEngine) {
+        this(balanceEngine, new UlidGenerator());
+    }
+
+    public BankingOperation(BalanceEngine balanceEngine, TransactionIdGenerator idGenerator) {
+        this.balanceEngine = balanceEngine;
+        this.idGenerator = idGenerator;
+    }
 
     public void validateAmount(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        toValidAmount(amount);
+    }
+
+    // Converts once at the boundary; everything after works on minor units.
+    private Money toValidAmount(BigDecimal amount) {
+        if (amount.signum() <= 0) {
             throw new InvalidAmountException("Amount must be greater than 0");
         }
+
+        return Money.of(amount);
     }
 
     public Transaction deposit(Account account, BigDecimal amount) {
-        validateAmount(amount);
-        account.assertCanDeposit();
+        OperationResult result = tryDeposit(account, amount);
+
+        if (result.isRejected()) {
+            throwRejection(result, amount, account, null);
+        }
+
+        return result.getTransaction();
+    }
+
+    public OperationResult tryDeposit(Account account, BigDecimal amount) {
+        Money requested = validAmountOrNull(amount);
+
+        if (requested == null) {
+            return OperationResult.invalidAmount(account.getAccountNumber());
+        }
+
+        if (!account.canDeposit()) {
+            return OperationResult.notAllowed(RejectionReason.DEPOSIT_NOT_ALLOWED, account.getAccountNumber(), account.getAccountState());
+        }
 
-        // Creates random transaction ID.
-        String transactionId = UUID.randomUUID().toString();
+        // Creates a time-ordered transaction ID.
+        TransactionId transactionId = idGenerator.nextId();
 
-        Transaction tx = new Transaction(
+        Transaction tx = Transaction.of(
                 account.getAccountNumber(),
                 Instant.now(),
                 TransactionType.DEPOSIT,
@@ -61,48 +106,95 @@ public class BankingOperation {
                 null
         );
 
-        return tx;
+        return OperationResult.success(List.of(tx));
+    }
+
+    public Money calculateBalance(String accountNumber, List<Transaction> existingTransactions) {
+        return balanceEngine.calculateBalance(accountNumber, existingTransactions);
     }
 
     public Transaction withdraw(Account account, BigDecimal amount, List<Transaction> existingTransactions) {
-        validateAmount(amount);
-        account.assertCanWithdraw();
-        String transactionId = UUID.randomUUID().toString();
-        BigDecimal balance = BalanceCalculator.calculateBalance(account.getAccountNumber(), existingTransactions);
+        return withdraw(account, amount, balanceEngine.calculateBalance(account.getAccountNumber(), existingTransactions));
+    }
+
+    // Used when the caller already tracks the available balance, e.g. while validating a batch.
+    public Transaction withdraw(Account account, BigDecimal amount, Money balance) {
+        OperationResult result = tryWithdraw(account, amount, balance);
+
+        if (result.isRejected()) {
+            throwRejection(result, amount, account, null);
+        }
+
+        return result.getTransaction();
+    }
+
+    public OperationResult tryWithdraw(Account account, BigDecimal amount, Money balance) {
+        Money requested = validAmountOrNull(amount);
+
+        if (requested == null) {
+            return OperationResult.invalidAmount(account.getAccountNumber());
+        }
+
+        if (!account.canWithdraw()) {
+            return OperationResult.notAllowed(RejectionReason.WITHDRAWAL_NOT_ALLOWED, account.getAccountNumber(), account.getAccountState());
+        }
 
-        if (amount.compareTo(balance) > 0) {
-            throw new InsufficientFundsException("Insufficient funds: Withdrawal of $ " + amount + " available balance of $" + balance + ".");
+        if (requested.isGreaterThan(balance)) {
+            return OperationResult.insufficientFunds(account.getAccountNumber(), requested, balance);
         }
 
-        Transaction tx = new Transaction(
+        Transaction tx = Transaction.of(
                 account.getAccountNumber(),
                 Instant.now(),
                 TransactionType.WITHDRAW,
                 amount,
-                transactionId,
+                idGenerator.nextId(),
                 null
         );
 
-        return tx;
+        return OperationResult.success(List.of(tx));
     }
 
     public List<Transaction> transfer(Account fromAccount, Account toAccount, BigDecimal amount, List<Transaction> existingTransactions) {
-        validateAmount(amount);
-        List<Transaction> transactions = new ArrayList<>();
-        fromAccount.assertCanTransfer();
-        toAccount.assertCanDeposit();
-        String fromTransactionId = UUID.randomUUID().toString();
-        String toTransactionId = UUID.randomUUID().toString();
-        String transferId = UUID.randomUUID().toString();
-        Instant occuredAt = Instant.now();
+        return transfer(fromAccount, toAccount, amount, balanceEngine.calculateBalance(fromAccount.getAccountNumber(), existingTransactions));
+    }
 
-        BigDecimal balance = BalanceCalculator.calculateBalance(fromAccount.getAccountNumber(), existingTransactions);
+    public List<Transaction> transfer(Account fromAccount, Account toAccount, BigDecimal amount, Money balance) {
+        OperationResult result = tryTransfer(fromAccount, toAccount, amount, balance);
+
+        if (result.isRejected()) {
+            throwRejection(result, amount, fromAccount, toAccount);
+        }
+
+        return result.getTransactions();
+    }
+
+    public OperationResult tryTransfer(Account fromAccount, Account toAccount, BigDecimal amount, Money balance) {
+        Money requested = validAmountOrNull(amount);
+
+        if (requested == null) {
+            return OperationResult.invalidAmount(fromAccount.getAccountNumber());
+        }
+
+        if (!fromAccount.canTransfer()) {
+            return OperationResult.notAllowed(RejectionReason.TRANSFER_NOT_ALLOWED, fromAccount.getAccountNumber(), fromAccount.getAccountState());
+        }
+
+        if (!toAccount.canDeposit()) {
+            return OperationResult.notAllowed(RejectionReason.DEPOSIT_NOT_ALLOWED, toAccount.getAccountNumber(), toAccount.getAccountState());
+        }
 
-        if (amount.compareTo(balance) > 0) {
-            throw new InsufficientFundsException("Insufficient funds: Transfer of $ " + amount + " available balance of $" + balance + ".");
+        if (requested.isGreaterThan(balance)) {
+            return OperationResult.insufficientFunds(fromAccount.getAccountNumber(), requested, balance);
         }
 
-        Transaction fromTx = new Transaction(
+        List<Transaction> transactions = new ArrayList<>(2);
+        TransactionId fromTransactionId = idGenerator.nextId();
+        TransactionId toTransactionId = idGenerator.nextId();
+        TransactionId transferId = idGenerator.nextId();
+        Instant occuredAt = Instant.now();
+
+        Transaction fromTx = Transaction.of(
                 fromAccount.getAccountNumber(),
                 occuredAt,
                 TransactionType.TRANSFER_DEBIT,
@@ -111,7 +203,7 @@ public class BankingOperation {
                 transferId
         );
 
-        Transaction toTx = new Transaction(
+        Transaction toTx = Transaction.of(
                 toAccount.getAccountNumber(),
                 occuredAt,
                 TransactionType.TRANSFER_CREDIT,
@@ -123,7 +215,55 @@ public class BankingOperation {
         transactions.add(fromTx);
         transactions.add(toTx);
 
-        return transactions;
+        return OperationResult.success(transactions);
+    }
+
+    /**
+     * The compensating leg for a transfer debit whose credit could not be written: a credit of the same
+     * amount back to the debited account, under the same transfer id, so the transfer still reconciles.
+     */
+    public Transaction refundTransferDebit(Transaction debit) {
+        if (debit.getTransactionType() != TransactionType.TRANSFER_DEBIT) {
+            throw new IllegalArgumentException("Only a transfer debit can be refunded");
+        }
+
+        return Transaction.of(
+                debit.getAccountNumber(),
+                Instant.now(),
+                TransactionType.TRANSFER_CREDIT,
+                debit.getTransactionAmount(),
+                idGenerator.nextId(),
+                debit.getTransferKey() != null ? debit.getTransferKey() : TransactionId.parse(debit.getTransferId())
+        );
+    }
+
+    private static Money validAmountOrNull(BigDecimal amount) {
+        return amount.signum() <= 0 ? null : Money.ofOrNull(amount);
+    }
+
+    /**
+     * Throws the exception the throwing API reports for a rejected result. Re-runs the failed check in its
+     * throwing form, so callers of the throwing API get exactly the exceptions and messages they always have.
+     * An ACCOUNT_NOT_FOUND result is the caller's to report, since only it looked the account up.
+     *
+     * @param toAccount the credited account for a transfer, null otherwise
+     */
+    public void throwRejection(OperationResult result, BigDecimal amount, Account account, Account toAccount) {
+        switch (result.getReason()) {
+            case INVALID_AMOUNT -> toValidAmount(amount);
+            case DEPOSIT_NOT_ALLOWED -> (toAccount != null ? toAccount : account).assertCanDeposit();
+            case WITHDRAWAL_NOT_ALLOWED -> account.assertCanWithdraw();
+            case TRANSFER_NOT_ALLOWED -> account.assertCanTransfer();
+            case INSUFFICIENT_FUNDS -> throw new InsufficientFundsException(
+                    "Insufficient funds: " + (toAccount != null ? "Transfer" : "Withdrawal") + " of $ " + amount
+                            + " available balance of $" + result.getAvailable() + "."
+            );
+            default -> {
+            }
+        }
+
+        // Only reachable if the account changed state between the check and the re-check.
+        throw new InvalidAccountStateException("Operation not allowed when account state is " + result.getAccountState());
     }
 
 }
@@ -0,0 +1,128 @@
+/**
+ * PURPOSE:
+ * Outcome of a deposit, withdrawal or transfer that reports a rejection as data instead of an exception.
+ *
+ * RESPONSIBILITIES:
+ * - Carry the created transactions on success
+ * - Carry a RejectionReason plus the fields needed to explain it (account, state, requested and available amounts)
+ *
+ * DOES NOT:
+ * - Build messages or capture stack traces; rejections are cheap enough to be an everyday outcome
+ *
+ * USED BY:
+ * - BankingOperation.try* and BankingService.try*
+ */
+
+
+package banking.domain.operation;
+
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+
+import java.util.List;
+
+public final class OperationResult {
+    private final RejectionReason reason;
+    private final List<Transaction> transactions;
+    private final String accountNumber;
+    private final AccountState accountState;
+    private final long requestedMinorUnits;
+    private final long availableMinorUnits;
+
+    private OperationResult(RejectionReason reason, List<Transaction> transactions, String accountNumber, AccountState accountState, long requestedMinorUnits, long availableMinorUnits) {
+        this.reason = reason;
+        this.transactions = transactions;
+        this.accountNumber = accountNumber;
+        this.accountState = accountState;
+        this.requestedMinorUnits = requestedMinorUnits;
+        this.availableMinorUnits = availableMinorUnits;
+    }
+
+    public static OperationResult success(List<Transaction> transactions) {
+        return new OperationResult(null, transactions, null, null, 0L, 0L);
+    }
+
+    public static OperationResult invalidAmount(String accountNumber) {
+        return new OperationResult(RejectionReason.INVALID_AMOUNT, List.of(), accountNumber, null, 0L, 0L);
+    }
+
+    public static OperationResult accountNotFound(String accountNumber) {
+        return new OperationResult(RejectionReason.ACCOUNT_NOT_FOUND, List.of(), accountNumber, null, 0L, 0L);
+    }
+
+    public static OperationResult notAllowed(RejectionReason reason, String accountNumber, AccountState accountState) {
+        return new OperationResult(reason, List.of(), accountNumber, accountState, 0L, 0L);
+    }
+
+    public static OperationResult insufficientFunds(String accountNumber, Money requested, Money available) {
+        return new OperationResult(RejectionReason.INSUFFICIENT_FUNDS, List.of(), accountNumber, null, requested.getMinorUnits(), available.getMinorUnits());
+    }
+
+    public boolean isSuccess() {
+        return reason == null;
+    }
+
+    public boolean isRejected() {
+        return reason != null;
+    }
+
+    /**
+     * @return why the operation was rejected, or null on success
+     */
+    public RejectionReason getReason() {
+        return reason;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * @return the single transaction of a deposit or withdrawal, or the debit leg of a transfer
+     */
+    public Transaction getTransaction() {
+        return transactions.isEmpty() ? null : transactions.get(0);
+    }
+
+    /**
+     * @return the account the rejection is about (for transfers, the one that failed the check)
+     */
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    /**
+     * @return the state that blocked the operation, for *_NOT_ALLOWED rejections
+     */
+    public AccountState getAccountState() {
+        return accountState;
+    }
+
+    /**
+     * @return the requested amount, for INSUFFICIENT_FUNDS rejections
+     */
+    public Money getRequested() {
+        return Money.ofMinorUnits(requestedMinorUnits);
+    }
+
+    /**
+     * @return the balance that was available, for INSUFFICIENT_FUNDS rejections
+     */
+    public Money getAvailable() {
+        return Money.ofMinorUnits(availableMinorUnits);
+    }
+
+    @Override
+    public String toString() {
+        if (reason == null) {
+            return "SUCCESS " + transactions.size() + " transaction(s)";
+        }
+
+        return switch (reason) {
+            case INSUFFICIENT_FUNDS -> reason + " " + accountNumber + " requested " + getRequested() + " available " + getAvailable();
+            case DEPOSIT_NOT_ALLOWED, WITHDRAWAL_NOT_ALLOWED, TRANSFER_NOT_ALLOWED -> reason + " " + accountNumber + " " + accountState;
+            default -> reason + " " + accountNumber;
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package banking.domain.operation;
+
+public enum RejectionReason {
+    INVALID_AMOUNT,
+    ACCOUNT_NOT_FOUND,
+    DEPOSIT_NOT_ALLOWED,
+    WITHDRAWAL_NOT_ALLOWED,
+    TRANSFER_NOT_ALLOWED,
+    INSUFFICIENT_FUNDS
+}
@@ -1,23 +1,43 @@
 package banking.domain.transaction;
 
+import banking.domain.id.TransactionId;
+import banking.domain.money.Money;
+
 import java.math.BigDecimal;
 import java.time.Instant;
 
 public class Transaction {
     private final TransactionType transactionType;
     private final String transactionId;
+    private final TransactionId transactionKey;
     private final BigDecimal transactionAmount;
+    private final Money amount;
     private final Instant occurredAt;
     private final String transferId;
+    private final TransactionId transferKey;
     private final String accountNumber;
 
     public Transaction(String accountNumber, Instant occurredAt, TransactionType transactionType, BigDecimal transactionAmount, String transactionId, String transferId) {
+        this(accountNumber, occurredAt, transactionType, transactionAmount, transactionId, null, transferId, null);
+    }
+
+    private Transaction(String accountNumber, Instant occurredAt, TransactionType transactionType, BigDecimal transactionAmount, String transactionId, TransactionId transactionKey, String transferId, TransactionId transferKey) {
         this.accountNumber = accountNumber;
         this.occurredAt = occurredAt;
         this.transactionType = transactionType;
         this.transactionAmount = transactionAmount;
+        this.amount = Money.of(transactionAmount);
         this.transactionId = transactionId;
+        this.transactionKey = transactionKey;
         this.transferId = transferId;
+        this.transferKey = transferKey;
+    }
+
+    /**
+     * Creates a transaction with binary ids; their text form is only rendered if someone asks for it.
+     */
+    public static Transaction of(String accountNumber, Instant occurredAt, TransactionType transactionType, BigDecimal transactionAmount, TransactionId transactionId, TransactionId transferId) {
+        return new Transaction(accountNumber, occurredAt, transactionType, transactionAmount, null, transactionId, null, transferId);
     }
 
     public String getAccountNumber() {
@@ -29,18 +49,36 @@ public class Transaction {
     }
 
     public String getTransactionId() {
-        return transactionId;
+        return transactionKey != null ? transactionKey.toString() : transactionId;
+    }
+
+    /**
+     * The binary id, or null if the transaction was created with a plain text id.
+     */
+    public TransactionId getTransactionKey() {
+        return transactionKey;
     }
 
     public BigDecimal getTransactionAmount() {
         return transactionAmount;
     }
 
+    /**
+     * The transaction amount in fixed-scale minor units, for balance arithmetic.
+     */
+    public Money getAmount() {
+        return amount;
+    }
+
     public Instant getOccurredAt() {
         return occurredAt;
     }
 
     public String getTransferId() {
-        return transferId;
+        return transferKey != null ? transferKey.toString() : transferId;
+    }
+
+    public TransactionId getTransferKey() {
+        return transferKey;
     }
 }
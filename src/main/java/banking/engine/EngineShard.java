@@ -0,0 +1,142 @@
+/**
+ * PURPOSE:
+ * One partition of a ShardedBankingEngine: the accounts that hash to it, their ledgers,
+ * and the single thread allowed to touch them.
+ *
+ * RESPONSIBILITIES:
+ * - Apply deposits, withdrawals and same-shard transfers against its own repositories (supplied by the engine)
+ * - Play either side of a cross-shard transfer: write the debit, write the credit, or refund a debit
+ *
+ * DOES NOT:
+ * - Synchronize anything; every method must run on the shard's executor
+ * - Read another shard's Account; a cross-shard transfer gets a copy taken on the owning shard
+ * - Coordinate cross-shard transfers (ShardedBankingEngine does)
+ *
+ * USED BY:
+ * - ShardedBankingEngine
+ */
+
+
+package banking.engine;
+
+import banking.domain.account.Account;
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.exception.AccountNotFoundException;
+import banking.repository.AccountRepository;
+import banking.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+class EngineShard {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BankingOperation bankingOperation;
+    private final ExecutorService executor;
+
+    EngineShard(int index, BalanceMode balanceMode, AccountRepository accountRepository, TransactionRepository transactionRepository) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.bankingOperation = new BankingOperation(new BalanceEngine(balanceMode));
+        this.executor = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("banking-shard-" + index).daemon(true).factory()
+        );
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
+    void openAccount(Account account) {
+        accountRepository.saveAccount(account);
+    }
+
+    Account requireAccount(String accountNumber) {
+        Account account = accountRepository.findAccount(accountNumber);
+
+        if (account == null) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+
+        return account;
+    }
+
+    /**
+     * First step of a cross-shard transfer into this shard: a copy of the destination account whose state
+     * was read on this shard's thread. The copy never changes, so the source shard can check it safely;
+     * commitCredit checks the live account again.
+     */
+    Account copyAccount(String accountNumber) {
+        Account account = requireAccount(accountNumber);
+        return new Account(account.getAccountNumber(), account.getAccountState(), account.getCreatedAt());
+    }
+
+    Money balance(String accountNumber) {
+        return bankingOperation.calculateBalance(accountNumber, transactionRepository.findByAccountNumber(accountNumber));
+    }
+
+    List<Transaction> findTransactions(String accountNumber) {
+        return transactionRepository.findByAccountNumber(accountNumber);
+    }
+
+    Transaction deposit(String accountNumber, BigDecimal amount) {
+        Transaction transaction = bankingOperation.deposit(requireAccount(accountNumber), amount);
+        transactionRepository.saveTransaction(transaction);
+        return transaction;
+    }
+
+    Transaction withdraw(String accountNumber, BigDecimal amount) {
+        Account account = requireAccount(accountNumber);
+        Transaction transaction = bankingOperation.withdraw(account, amount, balance(accountNumber));
+        transactionRepository.saveTransaction(transaction);
+        return transaction;
+    }
+
+    List<Transaction> transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
+        Account fromAccount = requireAccount(fromAccountNumber);
+        Account toAccount = requireAccount(toAccountNumber);
+        List<Transaction> transactions = bankingOperation.transfer(fromAccount, toAccount, amount, balance(fromAccountNumber));
+        transactionRepository.saveTransactions(transactions);
+        return transactions;
+    }
+
+    /**
+     * Source side of a cross-shard transfer: validates the debit and writes it, so the reservation is in the
+     * ledger (and as durable as the repository) before the destination is credited. Nothing is written if
+     * validation or the save fails.
+     *
+     * @param toAccount a copy from copyAccount on the destination shard, never the live account
+     * @return the debit and credit legs; the caller must follow with commitCredit on the destination shard
+     */
+    List<Transaction> reserveTransfer(String fromAccountNumber, Account toAccount, BigDecimal amount) {
+        Account fromAccount = requireAccount(fromAccountNumber);
+        List<Transaction> transactions = bankingOperation.transfer(fromAccount, toAccount, amount, balance(fromAccountNumber));
+        transactionRepository.saveTransaction(transactions.get(0));
+        return transactions;
+    }
+
+    // Destination side of a cross-shard transfer; fails if the account disappeared or stopped accepting credits.
+    void commitCredit(Transaction credit) {
+        requireAccount(credit.getAccountNumber()).assertCanDeposit();
+        transactionRepository.saveTransaction(credit);
+    }
+
+    // Source side again, when commitCredit failed: gives the reserved amount back.
+    Transaction refundDebit(Transaction debit) {
+        Transaction refund = bankingOperation.refundTransferDebit(debit);
+        transactionRepository.saveTransaction(refund);
+        return refund;
+    }
+}
@@ -0,0 +1,292 @@
+/**
+ * PURPOSE:
+ * Runs deposit, withdraw and transfer commands through a single writer thread
+ * fed by a pre-allocated ring buffer.
+ *
+ * RESPONSIBILITIES:
+ * - Let any number of threads publish commands without taking a lock
+ * - Apply commands one at a time, in publication order, through BankingService
+ * - Drain consecutive commands as a batch and complete their futures at the end of the batch
+ * - Complete a command's future exceptionally whatever it throws, so the writer never dies with futures pending
+ * - Start the writer from the start factories, after construction, so it never sees a half-built engine
+ *
+ * Analogy:
+ * - A single teller with a numbered ticket queue: everyone takes a ticket, one person serves them in order
+ *
+ * DOES NOT:
+ * - Enforce business rules (BankingOperation does)
+ * - Need StripedAccountLocks or thread-safe repositories, since only the writer thread touches them
+ *
+ * WHY THIS EXISTS:
+ * A single writer gives a total order over every command and keeps the hot state
+ * on one core, which avoids lock contention entirely.
+ */
+
+
+package banking.engine;
+
+import banking.domain.transaction.Transaction;
+import banking.service.BankingCommand;
+import banking.service.BankingService;
+import banking.service.CommandType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+public class SequencedBankingEngine implements AutoCloseable {
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 14;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private final BankingService bankingService;
+    private final WaitStrategy waitStrategy;
+    private final int maxBatchSize;
+
+    private final CommandSlot[] slots;
+    private final AtomicLongArray publishedSequences;
+    private final int mask;
+
+    private final AtomicLong nextSequence;
+    private final AtomicLong consumedSequence;
+    private final AtomicInteger activePublishers;
+    private final AtomicLong processedCommands;
+    private final AtomicLong processedBatches;
+
+    private final Thread writer;
+    private volatile boolean accepting;
+    private volatile boolean stopped;
+    private volatile boolean writerParked;
+
+    private SequencedBankingEngine(BankingService bankingService, int bufferSize, WaitStrategy waitStrategy, int maxBatchSize) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of 2");
+        }
+
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be greater than 0");
+        }
+
+        this.bankingService = bankingService;
+        this.waitStrategy = waitStrategy;
+        this.maxBatchSize = maxBatchSize;
+
+        this.slots = new CommandSlot[bufferSize];
+        this.publishedSequences = new AtomicLongArray(bufferSize);
+        this.mask = bufferSize - 1;
+
+        for (int i = 0; i < bufferSize; i++) {
+            slots[i] = new CommandSlot();
+            publishedSequences.set(i, -1L);
+        }
+
+        this.nextSequence = new AtomicLong();
+        this.consumedSequence = new AtomicLong(-1L);
+        this.activePublishers = new AtomicInteger();
+        this.processedCommands = new AtomicLong();
+        this.processedBatches = new AtomicLong();
+
+        this.accepting = true;
+        this.writer = Thread.ofPlatform().name("banking-writer").daemon(true).unstarted(this::runWriter);
+    }
+
+    public static SequencedBankingEngine start(BankingService bankingService) {
+        return start(bankingService, DEFAULT_BUFFER_SIZE, WaitStrategy.BLOCKING, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Builds the engine and starts its writer thread.
+     *
+     * @param bufferSize ring buffer slots, a power of 2
+     */
+    public static SequencedBankingEngine start(BankingService bankingService, int bufferSize, WaitStrategy waitStrategy, int maxBatchSize) {
+        SequencedBankingEngine engine = new SequencedBankingEngine(bankingService, bufferSize, waitStrategy, maxBatchSize);
+        engine.writer.start();
+        return engine;
+    }
+
+    public CompletableFuture<List<Transaction>> submit(BankingCommand command) {
+        return publish(command.getCommandType(), command.getAccountNumber(), command.getToAccountNumber(), command.getAmount());
+    }
+
+    public CompletableFuture<List<Transaction>> deposit(String accountNumber, BigDecimal amount) {
+        return publish(CommandType.DEPOSIT, accountNumber, null, amount);
+    }
+
+    public CompletableFuture<List<Transaction>> withdraw(String accountNumber, BigDecimal amount) {
+        return publish(CommandType.WITHDRAW, accountNumber, null, amount);
+    }
+
+    public CompletableFuture<List<Transaction>> transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
+        return publish(CommandType.TRANSFER, fromAccountNumber, toAccountNumber, amount);
+    }
+
+    public long getProcessedCommands() {
+        return processedCommands.get();
+    }
+
+    public long getProcessedBatches() {
+        return processedBatches.get();
+    }
+
+    private CompletableFuture<List<Transaction>> publish(CommandType commandType, String accountNumber, String toAccountNumber, BigDecimal amount) {
+        activePublishers.incrementAndGet();
+
+        try {
+            if (!accepting) {
+                throw new IllegalStateException("Engine is closed");
+            }
+
+            long sequence = nextSequence.getAndIncrement();
+
+            // Wait until the writer has consumed the command that previously occupied this slot.
+            while (sequence - slots.length > consumedSequence.get()) {
+                waitStrategy.idle();
+            }
+
+            CompletableFuture<List<Transaction>> future = new CompletableFuture<>();
+            CommandSlot slot = slots[(int) sequence & mask];
+            slot.commandType = commandType;
+            slot.accountNumber = accountNumber;
+            slot.toAccountNumber = toAccountNumber;
+            slot.amount = amount;
+            slot.future = future;
+
+            if (waitStrategy.blocksWriter()) {
+                // Volatile write, then volatile read: either the writer sees the command or this sees it parked.
+                publishedSequences.set((int) sequence & mask, sequence);
+
+                if (writerParked) {
+                    LockSupport.unpark(writer);
+                }
+            } else {
+                publishedSequences.setRelease((int) sequence & mask, sequence);
+            }
+
+            return future;
+        } finally {
+            activePublishers.decrementAndGet();
+        }
+    }
+
+    private void runWriter() {
+        long next = 0;
+
+        while (!stopped || next < nextSequence.get()) {
+            int batchSize = 0;
+
+            while (batchSize < maxBatchSize && publishedSequences.getAcquire((int) (next + batchSize) & mask) == next + batchSize) {
+                apply(slots[(int) (next + batchSize) & mask]);
+                batchSize++;
+            }
+
+            if (batchSize == 0) {
+                awaitCommand(next);
+                continue;
+            }
+
+            // Count before completing so a caller that sees its future done also sees it counted.
+            processedCommands.addAndGet(batchSize);
+            processedBatches.incrementAndGet();
+
+            for (int i = 0; i < batchSize; i++) {
+                slots[(int) (next + i) & mask].complete();
+            }
+
+            next += batchSize;
+            consumedSequence.set(next - 1);
+        }
+    }
+
+    private void awaitCommand(long next) {
+        if (!waitStrategy.blocksWriter()) {
+            waitStrategy.idle();
+            return;
+        }
+
+        writerParked = true;
+
+        if (!stopped && publishedSequences.get((int) next & mask) != next) {
+            LockSupport.park(this);
+        }
+
+        writerParked = false;
+    }
+
+    private void apply(CommandSlot slot) {
+        try {
+            slot.result = switch (slot.commandType) {
+                case DEPOSIT -> List.of(bankingService.deposit(slot.accountNumber, slot.amount));
+                case WITHDRAW -> List.of(bankingService.withdraw(slot.accountNumber, slot.amount));
+                case TRANSFER -> bankingService.transfer(slot.accountNumber, slot.toAccountNumber, slot.amount);
+            };
+        } catch (Throwable e) {
+            slot.failure = e;
+        }
+    }
+
+    /**
+     * Stops accepting commands, lets the writer finish everything already published and waits for it.
+     * An interrupt does not cut the wait short, since the writer may still hold pending futures; it is kept
+     * as the thread's interrupt status.
+     */
+    @Override
+    public void close() {
+        accepting = false;
+
+        while (activePublishers.get() > 0) {
+            Thread.onSpinWait();
+        }
+
+        stopped = true;
+        LockSupport.unpark(writer);
+
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                writer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CommandSlot {
+        private CommandType commandType;
+        private String accountNumber;
+        private String toAccountNumber;
+        private BigDecimal amount;
+        private CompletableFuture<List<Transaction>> future;
+        private List<Transaction> result;
+        private Throwable failure;
+
+        private void complete() {
+            CompletableFuture<List<Transaction>> pending = future;
+            List<Transaction> value = result;
+            Throwable error = failure;
+
+            // Clear references so the slot does not keep the command reachable until it is reused.
+            accountNumber = null;
+            toAccountNumber = null;
+            amount = null;
+            future = null;
+            result = null;
+            failure = null;
+
+            if (error != null) {
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * PURPOSE:
+ * Spreads accounts over N independent shards, each with its own repositories,
+ * BankingOperation and single thread, so unrelated accounts are processed on different cores.
+ *
+ * RESPONSIBILITIES:
+ * - Route every account to a fixed shard by hash
+ * - Run deposits, withdrawals and same-shard transfers entirely on the owning shard
+ * - Run cross-shard transfers debit first, so money is never credited without a matching debit
+ *
+ * CROSS-SHARD TRANSFER:
+ * 1. Destination shard looks up the destination account and hands out a copy of it, state included
+ * 2. Source shard validates the debit against its balance and writes the debit leg; this is the
+ *    reservation, and it is as durable as the source shard's repository. If the save fails, nothing was moved
+ * 3. Destination shard checks the live account can still take the credit, then writes the credit leg
+ * 4. Only if step 3 failed: source shard writes a refund (a credit back to the source under the same
+ *    transfer id) and the transfer fails with step 3's error
+ *
+ * FAILURES:
+ * - A crash between steps 2 and 3 (or a refund that cannot be written) leaves a debit without a credit.
+ *   Money is never created that way, and LedgerReconciler reports the transfer as orphaned
+ *
+ * DOES NOT:
+ * - Give a total order across shards (only per shard)
+ * - Make anything durable itself; each shard's repositories come from the factories passed in
+ *   (e.g. one journal per shard)
+ *
+ * WHY THIS EXISTS:
+ * SequencedBankingEngine is limited to one core. Sharding keeps the single-writer model
+ * per shard and scales with the number of shards when accounts are spread evenly.
+ */
+
+
+package banking.engine;
+
+import banking.domain.account.Account;
+import banking.domain.balance.BalanceMode;
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.repository.AccountRepository;
+import banking.repository.TransactionRepository;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+public class ShardedBankingEngine implements AutoCloseable {
+    private final EngineShard[] shards;
+    private final AtomicInteger crossShardTransfers;
+    private volatile boolean accepting;
+
+    public ShardedBankingEngine(int shardCount) {
+        this(shardCount, BalanceMode.INCREMENTAL);
+    }
+
+    public ShardedBankingEngine(int shardCount, BalanceMode balanceMode) {
+        this(shardCount, balanceMode, index -> new InMemoryAccountRepository(), index -> new PartitionedTransactionRepository());
+    }
+
+    /**
+     * @param accountRepositories     creates the account repository of the shard with the given index
+     * @param transactionRepositories creates the transaction repository of the shard with the given index;
+     *                                each is only ever used from that shard's thread
+     */
+    public ShardedBankingEngine(int shardCount, BalanceMode balanceMode, IntFunction<AccountRepository> accountRepositories, IntFunction<TransactionRepository> transactionRepositories) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be greater than 0");
+        }
+
+        this.shards = new EngineShard[shardCount];
+
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new EngineShard(i, balanceMode, accountRepositories.apply(i), transactionRepositories.apply(i));
+        }
+
+        this.crossShardTransfers = new AtomicInteger();
+        this.accepting = true;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public int shardOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    public CompletableFuture<Void> openAccount(Account account) {
+        EngineShard shard = shardFor(account.getAccountNumber());
+        return shard.submit(() -> {
+            shard.openAccount(account);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Transaction> deposit(String accountNumber, BigDecimal amount) {
+        EngineShard shard = shardFor(accountNumber);
+        return shard.submit(() -> shard.deposit(accountNumber, amount));
+    }
+
+    public CompletableFuture<Transaction> withdraw(String accountNumber, BigDecimal amount) {
+        EngineShard shard = shardFor(accountNumber);
+        return shard.submit(() -> shard.withdraw(accountNumber, amount));
+    }
+
+    public CompletableFuture<List<Transaction>> transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
+        EngineShard source = shardFor(fromAccountNumber);
+        EngineShard target = shardFor(toAccountNumber);
+
+        if (source == target) {
+            return source.submit(() -> source.transfer(fromAccountNumber, toAccountNumber, amount));
+        }
+
+        // Counted so close() can wait for every started transfer to reach its last step.
+        crossShardTransfers.incrementAndGet();
+
+        if (!accepting) {
+            crossShardTransfers.decrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("Engine is closed"));
+        }
+
+        CompletableFuture<List<Transaction>> result = target.submit(() -> target.copyAccount(toAccountNumber))
+                .thenCompose(toAccount -> source.submit(() -> source.reserveTransfer(fromAccountNumber, toAccount, amount)))
+                .thenCompose(legs -> commitAcrossShards(source, target, legs));
+
+        result.whenComplete((legs, failure) -> crossShardTransfers.decrementAndGet());
+        return result;
+    }
+
+    /**
+     * @return the ledger balance; a cross-shard transfer out of the account counts from the moment its debit is written
+     */
+    public CompletableFuture<Money> getBalance(String accountNumber) {
+        EngineShard shard = shardFor(accountNumber);
+        return shard.submit(() -> {
+            shard.requireAccount(accountNumber);
+            return shard.balance(accountNumber);
+        });
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactions(String accountNumber) {
+        EngineShard shard = shardFor(accountNumber);
+        return shard.submit(() -> shard.findTransactions(accountNumber));
+    }
+
+    private CompletableFuture<List<Transaction>> commitAcrossShards(EngineShard source, EngineShard target, List<Transaction> legs) {
+        Transaction debit = legs.get(0);
+        Transaction credit = legs.get(1);
+
+        return target.submit(() -> {
+                    target.commitCredit(credit);
+                    return (Throwable) null;
+                })
+                .exceptionally(failure -> failure)
+                .thenCompose(failure -> failure == null
+                        ? CompletableFuture.completedFuture(legs)
+                        : source.submit(() -> {
+                            RuntimeException creditFailure = unwrap(failure);
+
+                            try {
+                                source.refundDebit(debit);
+                            } catch (RuntimeException refundFailure) {
+                                creditFailure.addSuppressed(refundFailure);
+                            }
+
+                            throw creditFailure;
+                        }));
+    }
+
+    private static RuntimeException unwrap(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+
+    private EngineShard shardFor(String accountNumber) {
+        return shards[shardOf(accountNumber)];
+    }
+
+    /**
+     * Stops accepting cross-shard transfers, waits for the ones in flight, lets every shard finish
+     * the work already submitted to it, then stops the shard threads.
+     * An interrupt does not cut the wait short; the flag is restored before returning.
+     */
+    @Override
+    public void close() {
+        accepting = false;
+        boolean interrupted = false;
+
+        while (crossShardTransfers.get() > 0) {
+            LockSupport.parkNanos(1_000_000L);
+            interrupted |= Thread.interrupted();
+        }
+
+        for (EngineShard shard : shards) {
+            shard.getExecutor().shutdown();
+        }
+
+        for (EngineShard shard : shards) {
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+
+            while (true) {
+                try {
+                    shard.getExecutor().awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
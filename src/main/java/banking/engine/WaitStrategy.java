@@ -0,0 +1,52 @@
+package banking.engine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread waits for the ring buffer to make progress.
+ *
+ * BUSY_SPIN gives the lowest latency but burns a core, YIELD gives the core
+ * back to the scheduler between checks, PARK sleeps briefly and suits idle systems.
+ * BLOCKING parks the writer until a command is published, so an idle engine uses no CPU;
+ * publishers then pay an unpark when the writer is asleep.
+ */
+public enum WaitStrategy {
+    BUSY_SPIN {
+        @Override
+        void idle() {
+            Thread.onSpinWait();
+        }
+    },
+    YIELD {
+        @Override
+        void idle() {
+            Thread.yield();
+        }
+    },
+    PARK {
+        @Override
+        void idle() {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    },
+    BLOCKING {
+        @Override
+        void idle() {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+
+        @Override
+        boolean blocksWriter() {
+            return true;
+        }
+    };
+
+    private static final long PARK_NANOS = 50_000L;
+
+    // Used by publishers waiting for a free slot, and by the writer unless blocksWriter.
+    abstract void idle();
+
+    boolean blocksWriter() {
+        return false;
+    }
+}
@@ -0,0 +1,7 @@
+package banking.exception;
+
+public class BalanceVerificationException extends RuntimeException {
+    public BalanceVerificationException(String message) {
+        super(message);
+    }
+}
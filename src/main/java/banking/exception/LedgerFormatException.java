@@ -0,0 +1,7 @@
+package banking.exception;
+
+public class LedgerFormatException extends RuntimeException {
+    public LedgerFormatException(String message) {
+        super(message);
+    }
+}
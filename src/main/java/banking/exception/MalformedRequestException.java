@@ -0,0 +1,7 @@
+package banking.exception;
+
+public class MalformedRequestException extends RuntimeException {
+    public MalformedRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * PURPOSE:
+ * Collects latency, throughput, rejection and error numbers for every instrumented operation.
+ *
+ * RESPONSIBILITIES:
+ * - Hold one LatencyHistogram and one success counter per MetricOperation
+ * - Count rejections per operation under one key per RejectionReason, whether they came back from a try* call
+ *   or were thrown; a thrown domain exception is counted under the reason the try* form reports for it
+ * - Count every other exception (I/O, a broken journal, bugs) as an error per operation and exception type,
+ *   so failures never pass for rejections the business rules made
+ * - Produce a MetricsSnapshot on demand
+ * - Let instrumentation be switched off at runtime
+ *
+ * COST:
+ * - Recording is a few atomic adds, no allocation
+ * - When disabled, instrumented components skip the clock reads as well, leaving a single volatile read
+ * - For no cost at all, use the plain BankingService and repositories instead of the Instrumented* wrappers
+ *
+ * USED BY:
+ * - InstrumentedBankingService
+ * - InstrumentedTransactionRepository
+ */
+
+
+package banking.metrics;
+
+import banking.domain.operation.RejectionReason;
+import banking.exception.AccountNotFoundException;
+import banking.exception.InsufficientFundsException;
+import banking.exception.InvalidAccountStateException;
+import banking.exception.InvalidAmountException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EngineMetrics {
+    private final Map<MetricOperation, LatencyHistogram> latencies = new EnumMap<>(MetricOperation.class);
+    private final Map<MetricOperation, LongAdder> successes = new EnumMap<>(MetricOperation.class);
+    private final Map<MetricOperation, ConcurrentHashMap<Class<?>, LongAdder>> rejections = new EnumMap<>(MetricOperation.class);
+    private final Map<MetricOperation, LongAdder[]> rejectionReasons = new EnumMap<>(MetricOperation.class);
+    private final Map<MetricOperation, ConcurrentHashMap<Class<?>, LongAdder>> errors = new EnumMap<>(MetricOperation.class);
+
+    private volatile boolean enabled = true;
+    private volatile Instant startedAt = Instant.now();
+
+    public EngineMetrics() {
+        for (MetricOperation operation : MetricOperation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            successes.put(operation, new LongAdder());
+            rejections.put(operation, new ConcurrentHashMap<>());
+            rejectionReasons.put(operation, newAdders(RejectionReason.values().length));
+            errors.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void recordSuccess(MetricOperation operation, long elapsedNanos) {
+        latencies.get(operation).record(elapsedNanos);
+        successes.get(operation).increment();
+    }
+
+    /**
+     * Counts an exception an operation threw. A domain rejection (insufficient funds, invalid account state,
+     * invalid amount, unknown account) is counted under the RejectionReason the try* form reports for it, or under
+     * its simple class name if there is none; anything else is counted as an error.
+     */
+    public void recordFailure(MetricOperation operation, RuntimeException failure) {
+        if (!isDomainRejection(failure)) {
+            errors.get(operation).computeIfAbsent(failure.getClass(), type -> new LongAdder()).increment();
+            return;
+        }
+
+        RejectionReason reason = reasonOf(operation, failure);
+
+        if (reason != null) {
+            recordRejection(operation, reason);
+            return;
+        }
+
+        rejections.get(operation).computeIfAbsent(failure.getClass(), type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts a rejection returned as an OperationResult; it shows up under the reason's name.
+     */
+    public void recordRejection(MetricOperation operation, RejectionReason reason) {
+        rejectionReasons.get(operation)[reason.ordinal()].increment();
+    }
+
+    private static boolean isDomainRejection(RuntimeException failure) {
+        return failure instanceof InsufficientFundsException
+                || failure instanceof InvalidAccountStateException
+                || failure instanceof InvalidAmountException
+                || failure instanceof AccountNotFoundException;
+    }
+
+    // The reason the try* form reports for the same rejection, or null if the exception has none.
+    private static RejectionReason reasonOf(MetricOperation operation, RuntimeException rejection) {
+        if (rejection instanceof InsufficientFundsException) {
+            return RejectionReason.INSUFFICIENT_FUNDS;
+        }
+
+        if (rejection instanceof InvalidAmountException) {
+            return RejectionReason.INVALID_AMOUNT;
+        }
+
+        if (rejection instanceof AccountNotFoundException) {
+            return RejectionReason.ACCOUNT_NOT_FOUND;
+        }
+
+        if (rejection instanceof InvalidAccountStateException) {
+            return switch (operation) {
+                case DEPOSIT -> RejectionReason.DEPOSIT_NOT_ALLOWED;
+                case WITHDRAW -> RejectionReason.WITHDRAWAL_NOT_ALLOWED;
+                case TRANSFER -> RejectionReason.TRANSFER_NOT_ALLOWED;
+                default -> null;
+            };
+        }
+
+        return null;
+    }
+
+    public MetricsSnapshot snapshot() {
+        Instant capturedAt = Instant.now();
+        Map<MetricOperation, OperationStats> operations = new EnumMap<>(MetricOperation.class);
+
+        for (MetricOperation operation : MetricOperation.values()) {
+            Map<String, Long> rejectionCounts = new TreeMap<>();
+
+            for (Map.Entry<Class<?>, LongAdder> entry : rejections.get(operation).entrySet()) {
+                rejectionCounts.put(entry.getKey().getSimpleName(), entry.getValue().sum());
+            }
+
+            LongAdder[] reasons = rejectionReasons.get(operation);
+            for (RejectionReason reason : RejectionReason.values()) {
+                long count = reasons[reason.ordinal()].sum();
+                if (count > 0) {
+                    rejectionCounts.put(reason.name(), count);
+                }
+            }
+
+            Map<String, Long> errorCounts = new TreeMap<>();
+
+            for (Map.Entry<Class<?>, LongAdder> entry : errors.get(operation).entrySet()) {
+                errorCounts.put(entry.getKey().getSimpleName(), entry.getValue().sum());
+            }
+
+            operations.put(operation, new OperationStats(
+                    operation,
+                    successes.get(operation).sum(),
+                    rejectionCounts,
+                    errorCounts,
+                    latencies.get(operation).snapshot()
+            ));
+        }
+
+        return new MetricsSnapshot(Duration.between(startedAt, capturedAt), operations);
+    }
+
+    public void reset() {
+        for (MetricOperation operation : MetricOperation.values()) {
+            latencies.get(operation).reset();
+            successes.get(operation).reset();
+            rejections.get(operation).clear();
+            errors.get(operation).clear();
+            for (LongAdder adder : rejectionReasons.get(operation)) {
+                adder.reset();
+            }
+        }
+
+        startedAt = Instant.now();
+    }
+}
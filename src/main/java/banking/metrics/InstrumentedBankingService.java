@@ -0,0 +1,150 @@
+/**
+ * PURPOSE:
+ * A BankingService that records latency, throughput and rejections for every call into EngineMetrics.
+ *
+ * RESPONSIBILITIES:
+ * - Time tryDeposit, tryWithdraw, tryTransfer and submitBatch. The throwing deposit, withdraw and transfer
+ *   go through the try* forms (see BankingService), so they are measured there under the same operation
+ * - Time getBalance, so the effect of a BalanceCache shows up in the latency histogram
+ * - Count each rejected OperationResult by its RejectionReason, so both APIs feed the same rejection counters
+ * - Count each exception a call throws against that operation, then rethrow it unchanged: domain exceptions
+ *   as rejections, anything else (a failing repository, a bug) as an error
+ *
+ * DOES NOT:
+ * - Change behavior; every call goes straight to BankingService
+ * - Count per-command rejections inside a batch (those come back as CommandResult failures, not exceptions)
+ *
+ * USED BY:
+ * - Deployments that want visibility into the engine; everyone else uses BankingService directly
+ */
+
+
+package banking.metrics;
+
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.domain.operation.OperationResult;
+import banking.repository.AccountRepository;
+import banking.repository.TransactionRepository;
+import banking.service.BalanceCache;
+import banking.service.BankingCommand;
+import banking.service.BankingService;
+import banking.service.CommandResult;
+import banking.service.StripedAccountLocks;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class InstrumentedBankingService extends BankingService {
+    private final EngineMetrics metrics;
+
+    public InstrumentedBankingService(AccountRepository accountRepository, TransactionRepository transactionRepository, BankingOperation bankingOperation, EngineMetrics metrics) {
+        this(accountRepository, transactionRepository, bankingOperation, null, metrics);
+    }
+
+    public InstrumentedBankingService(AccountRepository accountRepository, TransactionRepository transactionRepository, BankingOperation bankingOperation, StripedAccountLocks accountLocks, EngineMetrics metrics) {
+        this(accountRepository, transactionRepository, bankingOperation, accountLocks, null, metrics);
+    }
+
+    public InstrumentedBankingService(AccountRepository accountRepository, TransactionRepository transactionRepository, BankingOperation bankingOperation, StripedAccountLocks accountLocks, BalanceCache balanceCache, EngineMetrics metrics) {
+        super(accountRepository, transactionRepository, bankingOperation, accountLocks, balanceCache);
+        this.metrics = metrics;
+    }
+
+    public EngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public OperationResult tryDeposit(String accountNumber, BigDecimal amount) {
+        if (!metrics.isEnabled()) {
+            return super.tryDeposit(accountNumber, amount);
+        }
+
+        long start = System.nanoTime();
+        try {
+            OperationResult result = super.tryDeposit(accountNumber, amount);
+            record(MetricOperation.DEPOSIT, result, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MetricOperation.DEPOSIT, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public OperationResult tryWithdraw(String accountNumber, BigDecimal amount) {
+        if (!metrics.isEnabled()) {
+            return super.tryWithdraw(accountNumber, amount);
+        }
+
+        long start = System.nanoTime();
+        try {
+            OperationResult result = super.tryWithdraw(accountNumber, amount);
+            record(MetricOperation.WITHDRAW, result, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MetricOperation.WITHDRAW, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public OperationResult tryTransfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
+        if (!metrics.isEnabled()) {
+            return super.tryTransfer(fromAccountNumber, toAccountNumber, amount);
+        }
+
+        long start = System.nanoTime();
+        try {
+            OperationResult result = super.tryTransfer(fromAccountNumber, toAccountNumber, amount);
+            record(MetricOperation.TRANSFER, result, start);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MetricOperation.TRANSFER, e);
+            throw e;
+        }
+    }
+
+    private void record(MetricOperation operation, OperationResult result, long start) {
+        if (result.isSuccess()) {
+            metrics.recordSuccess(operation, System.nanoTime() - start);
+        } else {
+            metrics.recordRejection(operation, result.getReason());
+        }
+    }
+
+    @Override
+    public Money getBalance(String accountNumber) {
+        if (!metrics.isEnabled()) {
+            return super.getBalance(accountNumber);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Money balance = super.getBalance(accountNumber);
+            metrics.recordSuccess(MetricOperation.BALANCE, System.nanoTime() - start);
+            return balance;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MetricOperation.BALANCE, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<CommandResult> submitBatch(List<BankingCommand> commands) {
+        if (!metrics.isEnabled()) {
+            return super.submitBatch(commands);
+        }
+
+        long start = System.nanoTime();
+        try {
+            List<CommandResult> results = super.submitBatch(commands);
+            metrics.recordSuccess(MetricOperation.BATCH, System.nanoTime() - start);
+            return results;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MetricOperation.BATCH, e);
+            throw e;
+        }
+    }
+}
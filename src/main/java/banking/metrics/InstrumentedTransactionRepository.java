@@ -0,0 +1,110 @@
+/**
+ * PURPOSE:
+ * Wraps any TransactionRepository and times its scans and appends into EngineMetrics.
+ *
+ * RESPONSIBILITIES:
+ * - Record findByAccountNumber and query as REPOSITORY_SCAN
+ * - Forward stream unmeasured, since its cost is paid lazily by the caller
+ * - Record saveTransaction and saveTransactions as REPOSITORY_APPEND (one sample per call, not per row)
+ * - Count a call that throws as an error of that operation, not a rejection (see EngineMetrics.recordFailure)
+ *
+ * DOES NOT:
+ * - Add any thread-safety of its own; it is exactly as concurrent as the repository it wraps
+ *
+ * USED BY:
+ * - BankingService / InstrumentedBankingService, in place of the wrapped repository
+ */
+
+
+package banking.metrics;
+
+import banking.domain.transaction.Transaction;
+import banking.repository.TransactionPage;
+import banking.repository.TransactionQuery;
+import banking.repository.TransactionRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class InstrumentedTransactionRepository implements TransactionRepository {
+    private final TransactionRepository delegate;
+    private final EngineMetrics metrics;
+
+    public InstrumentedTransactionRepository(TransactionRepository delegate, EngineMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void saveTransaction(Transaction transaction) {
+        if (!metrics.isEnabled()) {
+            delegate.saveTransaction(transaction);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            delegate.saveTransaction(transaction);
+            metrics.recordSuccess(MetricOperation.REPOSITORY_APPEND, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MetricOperation.REPOSITORY_APPEND, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void saveTransactions(List<Transaction> transactions) {
+        if (!metrics.isEnabled()) {
+            delegate.saveTransactions(transactions);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            delegate.saveTransactions(transactions);
+            metrics.recordSuccess(MetricOperation.REPOSITORY_APPEND, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MetricOperation.REPOSITORY_APPEND, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumber(String accountNumber) {
+        if (!metrics.isEnabled()) {
+            return delegate.findByAccountNumber(accountNumber);
+        }
+
+        long start = System.nanoTime();
+        try {
+            List<Transaction> transactions = delegate.findByAccountNumber(accountNumber);
+            metrics.recordSuccess(MetricOperation.REPOSITORY_SCAN, System.nanoTime() - start);
+            return transactions;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MetricOperation.REPOSITORY_SCAN, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public TransactionPage query(TransactionQuery query) {
+        if (!metrics.isEnabled()) {
+            return delegate.query(query);
+        }
+
+        long start = System.nanoTime();
+        try {
+            TransactionPage page = delegate.query(query);
+            metrics.recordSuccess(MetricOperation.REPOSITORY_SCAN, System.nanoTime() - start);
+            return page;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(MetricOperation.REPOSITORY_SCAN, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Stream<Transaction> stream(TransactionQuery query) {
+        return delegate.stream(query);
+    }
+}
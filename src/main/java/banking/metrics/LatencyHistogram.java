@@ -0,0 +1,88 @@
+/**
+ * PURPOSE:
+ * Records latencies (in nanoseconds) into fixed log-linear buckets, the same layout HdrHistogram uses.
+ *
+ * RESPONSIBILITIES:
+ * - Record a value with a couple of atomic increments and no allocation
+ * - Report count, mean, max and any percentile with about 3% relative error
+ *
+ * LAYOUT:
+ * - Values below 64 each get their own bucket
+ * - Every power of two above that is split into 32 equal sub-buckets
+ * - 1888 buckets cover the whole positive long range, so nothing is ever clamped
+ *
+ * DOES NOT:
+ * - Give exact percentiles (a percentile is reported as the upper edge of its bucket)
+ * - Take a consistent snapshot while writers are recording; counts may be off by the in-flight records
+ *
+ * USED BY:
+ * - EngineMetrics
+ */
+
+
+package banking.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS << 1;
+    private static final int LINEAR_EXPONENT = SUB_BUCKET_BITS + 1;
+    static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - LINEAR_EXPONENT) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(clamped));
+        sum.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+
+        return new HistogramSnapshot(copy, sum.sum(), max.get());
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+
+        sum.reset();
+        max.reset();
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return LINEAR_LIMIT + (exponent - LINEAR_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    // Largest value that lands in the bucket.
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+
+        int offset = bucket - LINEAR_LIMIT;
+        int exponent = LINEAR_EXPONENT + offset / SUB_BUCKETS;
+        long mantissa = SUB_BUCKETS + offset % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,11 @@
+package banking.metrics;
+
+public enum MetricOperation {
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER,
+    BATCH,
+    BALANCE,
+    REPOSITORY_SCAN,
+    REPOSITORY_APPEND
+}
@@ -0,0 +1,97 @@
+/**
+ * PURPOSE:
+ * Everything EngineMetrics knew at one instant, plus a plain-text export
+ * in the Prometheus exposition format so it can be scraped or diffed.
+ *
+ * RESPONSIBILITIES:
+ * - Hold one OperationStats per MetricOperation and the window they cover
+ * - Render successes, rejections (by reason), errors (by exception type) and latency quantiles as Prometheus text
+ *
+ * DOES NOT:
+ * - Change after it is taken; EngineMetrics keeps counting into a new snapshot
+ *
+ * USED BY:
+ * - EngineMetrics.snapshot callers: SoakHarness, metrics endpoints, tests
+ */
+
+
+package banking.metrics;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+public class MetricsSnapshot {
+    private static final double[] EXPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Duration window;
+    private final Map<MetricOperation, OperationStats> operations;
+
+    MetricsSnapshot(Duration window, Map<MetricOperation, OperationStats> operations) {
+        this.window = window;
+        this.operations = Collections.unmodifiableMap(operations);
+    }
+
+    /**
+     * @return time between the metrics being created (or last reset) and this snapshot
+     */
+    public Duration getWindow() {
+        return window;
+    }
+
+    public OperationStats get(MetricOperation operation) {
+        return operations.get(operation);
+    }
+
+    public Map<MetricOperation, OperationStats> getOperations() {
+        return operations;
+    }
+
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder();
+
+        out.append("# TYPE banking_operations_total counter\n");
+        for (OperationStats stats : operations.values()) {
+            out.append("banking_operations_total{operation=\"").append(label(stats)).append("\"} ")
+                    .append(stats.getSuccessCount()).append('\n');
+        }
+
+        out.append("# TYPE banking_rejections_total counter\n");
+        for (OperationStats stats : operations.values()) {
+            for (Map.Entry<String, Long> rejection : stats.getRejectionsByType().entrySet()) {
+                out.append("banking_rejections_total{operation=\"").append(label(stats))
+                        .append("\",reason=\"").append(rejection.getKey()).append("\"} ")
+                        .append(rejection.getValue()).append('\n');
+            }
+        }
+
+        out.append("# TYPE banking_errors_total counter\n");
+        for (OperationStats stats : operations.values()) {
+            for (Map.Entry<String, Long> error : stats.getErrorsByType().entrySet()) {
+                out.append("banking_errors_total{operation=\"").append(label(stats))
+                        .append("\",exception=\"").append(error.getKey()).append("\"} ")
+                        .append(error.getValue()).append('\n');
+            }
+        }
+
+        out.append("# TYPE banking_latency_nanoseconds summary\n");
+        for (OperationStats stats : operations.values()) {
+            HistogramSnapshot latency = stats.getLatency();
+
+            for (double percentile : EXPORTED_PERCENTILES) {
+                out.append("banking_latency_nanoseconds{operation=\"").append(label(stats))
+                        .append("\",quantile=\"").append(percentile / 100).append("\"} ")
+                        .append(latency.getValueAtPercentile(percentile)).append('\n');
+            }
+
+            out.append("banking_latency_nanoseconds_count{operation=\"").append(label(stats)).append("\"} ")
+                    .append(latency.getCount()).append('\n');
+        }
+
+        return out.toString();
+    }
+
+    private static String label(OperationStats stats) {
+        return stats.getOperation().name().toLowerCase();
+    }
+}
@@ -0,0 +1,71 @@
+package banking.metrics;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Numbers for one MetricOperation inside a MetricsSnapshot. Latencies cover successful calls only.
+ */
+public class OperationStats {
+    private final MetricOperation operation;
+    private final long successCount;
+    private final Map<String, Long> rejectionsByType;
+    private final Map<String, Long> errorsByType;
+    private final HistogramSnapshot latency;
+
+    OperationStats(MetricOperation operation, long successCount, Map<String, Long> rejectionsByType, Map<String, Long> errorsByType, HistogramSnapshot latency) {
+        this.operation = operation;
+        this.successCount = successCount;
+        this.rejectionsByType = Collections.unmodifiableMap(rejectionsByType);
+        this.errorsByType = Collections.unmodifiableMap(errorsByType);
+        this.latency = latency;
+    }
+
+    public MetricOperation getOperation() {
+        return operation;
+    }
+
+    public long getSuccessCount() {
+        return successCount;
+    }
+
+    public long getRejectionCount() {
+        long total = 0;
+        for (long count : rejectionsByType.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return rejection counts keyed by RejectionReason name, or by the exception's simple class name for exceptions without a reason
+     */
+    public Map<String, Long> getRejectionsByType() {
+        return rejectionsByType;
+    }
+
+    public long getErrorCount() {
+        long total = 0;
+        for (long count : errorsByType.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return counts of exceptions that were not business-rule rejections, keyed by the exception's simple class name
+     */
+    public Map<String, Long> getErrorsByType() {
+        return errorsByType;
+    }
+
+    public HistogramSnapshot getLatency() {
+        return latency;
+    }
+
+    public double getThroughputPerSecond(Duration window) {
+        double seconds = window.toNanos() / 1_000_000_000.0;
+        return seconds <= 0 ? 0 : successCount / seconds;
+    }
+}
@@ -0,0 +1,9 @@
+package banking.reconciliation;
+
+public enum DiscrepancyType {
+    ORPHANED_DEBIT,
+    ORPHANED_CREDIT,
+    DUPLICATE_LEG,
+    AMOUNT_MISMATCH,
+    MISSING_TRANSFER_ID
+}
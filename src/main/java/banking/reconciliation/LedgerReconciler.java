@@ -0,0 +1,344 @@
+/**
+ * PURPOSE:
+ * End-of-day check of the whole ledger in one parallel pass: recomputes every account balance
+ * and verifies that every transfer has exactly one debit and one credit of the same amount.
+ *
+ * RESPONSIBILITIES:
+ * - Split the ledger into row ranges and fold each range on the fork/join pool
+ * - Merge the partial results shard by shard (accounts and transfers hashed into shards) in parallel
+ * - Report balances, orphaned or duplicate transfer legs, amount mismatches and transfer legs without an id
+ * - Read repositories through TransactionRepository.stream, so tiered repositories contribute their cold
+ *   rows and a recovered journal its pre-snapshot rows (balances start from zero, and transfers straddling
+ *   the compaction horizon or the snapshot keep both legs)
+ *
+ * HOW IT SCALES:
+ * - Phase 1 (scan) touches each row once, spread over all workers
+ * - Phase 2 (merge) works on disjoint shards, so no map is merged by more than one worker
+ * - There is no sequential step proportional to the number of rows
+ *
+ * DOES NOT:
+ * - Correct anything; it only reports
+ * - Read from repositories concurrently with writers in a consistent way; reconcile a quiesced ledger
+ *
+ * WHY THIS EXISTS:
+ * Calling BalanceCalculator.calculateBalance once per account over the whole ledger is
+ * accounts x rows; this is rows / cores.
+ */
+
+
+package banking.reconciliation;
+
+import banking.domain.balance.BalanceCalculator;
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.repository.TransactionQuery;
+import banking.repository.TransactionRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+public class LedgerReconciler {
+    private static final int DEFAULT_LEAF_SIZE = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final int leafSize;
+    private final int shardCount;
+
+    public LedgerReconciler() {
+        this(ForkJoinPool.commonPool(), DEFAULT_LEAF_SIZE);
+    }
+
+    public LedgerReconciler(ForkJoinPool pool, int leafSize) {
+        if (leafSize <= 0) {
+            throw new IllegalArgumentException("Leaf size must be greater than 0");
+        }
+
+        this.pool = pool;
+        this.leafSize = leafSize;
+        this.shardCount = Integer.highestOneBit(Math.max(1, pool.getParallelism() * 4));
+    }
+
+    /**
+     * Reconciles the given accounts' full histories as one ledger. Transfers whose other leg belongs
+     * to an account not in the collection are reported as orphaned.
+     */
+    public ReconciliationReport reconcile(TransactionRepository transactionRepository, Collection<String> accountNumbers) {
+        List<Transaction> ledger = new ArrayList<>();
+
+        // findByAccountNumber would miss compacted or pre-snapshot rows; stream covers the full history.
+        for (String accountNumber : accountNumbers) {
+            try (Stream<Transaction> history = transactionRepository.stream(TransactionQuery.forAccount(accountNumber))) {
+                history.forEach(ledger::add);
+            }
+        }
+
+        return reconcile(ledger);
+    }
+
+    public ReconciliationReport reconcile(List<Transaction> ledger) {
+        List<Transaction> rows = ledger instanceof RandomAccess ? ledger : new ArrayList<>(ledger);
+        Partial[] partials = new Partial[Math.max(1, (rows.size() + leafSize - 1) / leafSize)];
+        pool.invoke(new ScanTask(rows, 0, rows.size(), partials));
+
+        ShardResult[] shards = new ShardResult[shardCount];
+        pool.invoke(new MergeTask(partials, 0, shardCount, shards));
+
+        Map<String, Money> balances = new HashMap<>();
+        List<TransferDiscrepancy> discrepancies = new ArrayList<>();
+        long transferCount = 0;
+
+        for (ShardResult shard : shards) {
+            balances.putAll(shard.balances);
+            discrepancies.addAll(shard.discrepancies);
+            transferCount += shard.transferCount;
+        }
+
+        discrepancies.sort(Comparator.comparing(TransferDiscrepancy::getType)
+                .thenComparing(d -> d.getTransferId() == null ? "" : d.getTransferId()));
+
+        return new ReconciliationReport(balances, discrepancies, rows.size(), transferCount);
+    }
+
+    private int shardOf(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (shardCount - 1);
+    }
+
+    // Fork/join tasks are Serializable by inheritance but never serialized, hence the transient fields.
+    private final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Transaction> rows;
+        private final int from;
+        private final int to;
+        private final transient Partial[] partials;
+
+        private ScanTask(List<Transaction> rows, int from, int to, Partial[] partials) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.partials = partials;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                partials[from / leafSize] = scan();
+                return;
+            }
+
+            // Split on a leaf boundary so every leaf index maps to exactly one range.
+            int leaves = (to - from + leafSize - 1) / leafSize;
+            int middle = from + (leaves / 2) * leafSize;
+            invokeAll(new ScanTask(rows, from, middle, partials), new ScanTask(rows, middle, to, partials));
+        }
+
+        private Partial scan() {
+            Partial partial = new Partial(shardCount);
+
+            for (int i = from; i < to; i++) {
+                Transaction transaction = rows.get(i);
+                String accountNumber = transaction.getAccountNumber();
+
+                long[] balance = partial.balances.get(shardOf(accountNumber)).computeIfAbsent(accountNumber, key -> new long[1]);
+                balance[0] = BalanceCalculator.apply(balance[0], transaction);
+
+                TransactionType type = transaction.getTransactionType();
+
+                if (type != TransactionType.TRANSFER_DEBIT && type != TransactionType.TRANSFER_CREDIT) {
+                    continue;
+                }
+
+                String transferKey = transaction.getTransferId();
+
+                if (transferKey == null) {
+                    partial.missingTransferIds.add(transaction);
+                    continue;
+                }
+
+                partial.transfers.get(shardOf(transferKey))
+                        .computeIfAbsent(transferKey, TransferLegs::new)
+                        .add(transaction);
+            }
+
+            return partial;
+        }
+    }
+
+    private final class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Partial[] partials;
+        private final int fromShard;
+        private final int toShard;
+        private final transient ShardResult[] results;
+
+        private MergeTask(Partial[] partials, int fromShard, int toShard, ShardResult[] results) {
+            this.partials = partials;
+            this.fromShard = fromShard;
+            this.toShard = toShard;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (toShard - fromShard > 1) {
+                int middle = (fromShard + toShard) >>> 1;
+                invokeAll(new MergeTask(partials, fromShard, middle, results), new MergeTask(partials, middle, toShard, results));
+                return;
+            }
+
+            results[fromShard] = merge(fromShard);
+        }
+
+        private ShardResult merge(int shard) {
+            Map<String, long[]> balances = new HashMap<>();
+            Map<String, TransferLegs> transfers = new HashMap<>();
+            List<TransferDiscrepancy> discrepancies = new ArrayList<>();
+
+            for (Partial partial : partials) {
+                if (partial == null) {
+                    continue;
+                }
+
+                for (Map.Entry<String, long[]> entry : partial.balances.get(shard).entrySet()) {
+                    long[] total = balances.computeIfAbsent(entry.getKey(), key -> new long[1]);
+                    total[0] = Math.addExact(total[0], entry.getValue()[0]);
+                }
+
+                for (Map.Entry<String, TransferLegs> entry : partial.transfers.get(shard).entrySet()) {
+                    TransferLegs existing = transfers.putIfAbsent(entry.getKey(), entry.getValue());
+
+                    if (existing != null) {
+                        existing.addAll(entry.getValue());
+                    }
+                }
+
+                // Legs without a transfer id are not sharded; shard 0 reports them.
+                if (shard == 0) {
+                    for (Transaction transaction : partial.missingTransferIds) {
+                        discrepancies.add(new TransferDiscrepancy(null, DiscrepancyType.MISSING_TRANSFER_ID, List.of(transaction)));
+                    }
+                }
+            }
+
+            for (TransferLegs legs : transfers.values()) {
+                DiscrepancyType problem = legs.problem();
+
+                if (problem != null) {
+                    discrepancies.add(new TransferDiscrepancy(legs.transferId, problem, legs.all()));
+                }
+            }
+
+            Map<String, Money> shardBalances = new HashMap<>(balances.size() * 2);
+            for (Map.Entry<String, long[]> entry : balances.entrySet()) {
+                shardBalances.put(entry.getKey(), Money.ofMinorUnits(entry.getValue()[0]));
+            }
+
+            return new ShardResult(shardBalances, discrepancies, transfers.size());
+        }
+    }
+
+    private static final class Partial {
+        private final List<Map<String, long[]>> balances;
+        private final List<Map<String, TransferLegs>> transfers;
+        private final List<Transaction> missingTransferIds;
+
+        private Partial(int shardCount) {
+            balances = new ArrayList<>(shardCount);
+            transfers = new ArrayList<>(shardCount);
+
+            for (int i = 0; i < shardCount; i++) {
+                balances.add(new HashMap<>());
+                transfers.add(new HashMap<>());
+            }
+
+            missingTransferIds = new ArrayList<>();
+        }
+    }
+
+    private static final class TransferLegs {
+        private final String transferId;
+        private Transaction debit;
+        private Transaction credit;
+        private List<Transaction> duplicates;
+
+        private TransferLegs(String transferId) {
+            this.transferId = transferId;
+        }
+
+        private void add(Transaction transaction) {
+            if (transaction.getTransactionType() == TransactionType.TRANSFER_DEBIT && debit == null) {
+                debit = transaction;
+            } else if (transaction.getTransactionType() == TransactionType.TRANSFER_CREDIT && credit == null) {
+                credit = transaction;
+            } else {
+                if (duplicates == null) {
+                    duplicates = new ArrayList<>(1);
+                }
+                duplicates.add(transaction);
+            }
+        }
+
+        private void addAll(TransferLegs other) {
+            for (Transaction transaction : other.all()) {
+                add(transaction);
+            }
+        }
+
+        private List<Transaction> all() {
+            List<Transaction> legs = new ArrayList<>(2);
+
+            if (debit != null) {
+                legs.add(debit);
+            }
+
+            if (credit != null) {
+                legs.add(credit);
+            }
+
+            if (duplicates != null) {
+                legs.addAll(duplicates);
+            }
+
+            return legs;
+        }
+
+        private DiscrepancyType problem() {
+            if (duplicates != null) {
+                return DiscrepancyType.DUPLICATE_LEG;
+            }
+
+            if (credit == null) {
+                return DiscrepancyType.ORPHANED_DEBIT;
+            }
+
+            if (debit == null) {
+                return DiscrepancyType.ORPHANED_CREDIT;
+            }
+
+            return debit.getAmount().equals(credit.getAmount()) ? null : DiscrepancyType.AMOUNT_MISMATCH;
+        }
+    }
+
+    private static final class ShardResult {
+        private final Map<String, Money> balances;
+        private final List<TransferDiscrepancy> discrepancies;
+        private final long transferCount;
+
+        private ShardResult(Map<String, Money> balances, List<TransferDiscrepancy> discrepancies, long transferCount) {
+            this.balances = balances;
+            this.discrepancies = discrepancies;
+            this.transferCount = transferCount;
+        }
+    }
+}
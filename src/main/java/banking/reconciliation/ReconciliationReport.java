@@ -0,0 +1,51 @@
+package banking.reconciliation;
+
+import banking.domain.money.Money;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one LedgerReconciler pass: every account's recomputed balance and every broken transfer.
+ */
+public class ReconciliationReport {
+    private final Map<String, Money> balances;
+    private final List<TransferDiscrepancy> discrepancies;
+    private final long transactionCount;
+    private final long transferCount;
+
+    ReconciliationReport(Map<String, Money> balances, List<TransferDiscrepancy> discrepancies, long transactionCount, long transferCount) {
+        this.balances = Collections.unmodifiableMap(balances);
+        this.discrepancies = Collections.unmodifiableList(discrepancies);
+        this.transactionCount = transactionCount;
+        this.transferCount = transferCount;
+    }
+
+    public Map<String, Money> getBalances() {
+        return balances;
+    }
+
+    public Money getBalance(String accountNumber) {
+        return balances.getOrDefault(accountNumber, Money.ZERO);
+    }
+
+    public List<TransferDiscrepancy> getDiscrepancies() {
+        return discrepancies;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * @return number of distinct transfer ids seen
+     */
+    public long getTransferCount() {
+        return transferCount;
+    }
+
+    public boolean isClean() {
+        return discrepancies.isEmpty();
+    }
+}
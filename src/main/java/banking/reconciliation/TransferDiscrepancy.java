@@ -0,0 +1,38 @@
+package banking.reconciliation;
+
+import banking.domain.transaction.Transaction;
+
+import java.util.List;
+
+/**
+ * One transfer that does not consist of exactly one debit and one credit of the same amount.
+ * The transfer id is null for MISSING_TRANSFER_ID, where the single offending leg is reported.
+ */
+public class TransferDiscrepancy {
+    private final String transferId;
+    private final DiscrepancyType type;
+    private final List<Transaction> legs;
+
+    TransferDiscrepancy(String transferId, DiscrepancyType type, List<Transaction> legs) {
+        this.transferId = transferId;
+        this.type = type;
+        this.legs = List.copyOf(legs);
+    }
+
+    public String getTransferId() {
+        return transferId;
+    }
+
+    public DiscrepancyType getType() {
+        return type;
+    }
+
+    public List<Transaction> getLegs() {
+        return legs;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + transferId + " (" + legs.size() + " legs)";
+    }
+}
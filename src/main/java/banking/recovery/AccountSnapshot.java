@@ -0,0 +1,36 @@
+package banking.recovery;
+
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
+
+import java.time.Instant;
+
+public class AccountSnapshot {
+    private final String accountNumber;
+    private final AccountState accountState;
+    private final Instant createdAt;
+    private final Money balance;
+
+    public AccountSnapshot(String accountNumber, AccountState accountState, Instant createdAt, Money balance) {
+        this.accountNumber = accountNumber;
+        this.accountState = accountState;
+        this.createdAt = createdAt;
+        this.balance = balance;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public AccountState getAccountState() {
+        return accountState;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+}
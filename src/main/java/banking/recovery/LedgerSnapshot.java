@@ -0,0 +1,24 @@
+package banking.recovery;
+
+import java.util.List;
+
+public class LedgerSnapshot {
+    private final long journalPosition;
+    private final List<AccountSnapshot> accounts;
+
+    public LedgerSnapshot(long journalPosition, List<AccountSnapshot> accounts) {
+        this.journalPosition = journalPosition;
+        this.accounts = accounts;
+    }
+
+    /**
+     * Journal byte offset the balances are valid at; recovery replays only records after it.
+     */
+    public long getJournalPosition() {
+        return journalPosition;
+    }
+
+    public List<AccountSnapshot> getAccounts() {
+        return accounts;
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * PURPOSE:
+ * Takes ledger snapshots and restores engine state from the latest snapshot plus the journal tail.
+ *
+ * RESPONSIBILITIES:
+ * - Record every account, its state and its balance as of a journal position
+ * - On startup, load accounts and opening balances from the snapshot and index only the journal records after it
+ * - Apply the account records in that journal tail (accounts opened or changed since the snapshot, see JournalAccountRepository)
+ * - Leave the records before the snapshot on disk, where the journal's query and stream still read them
+ *
+ * ASSUMES:
+ * - takeSnapshot runs while no writes are in flight (e.g. on the sequenced engine's writer, or with traffic paused),
+ *   so the balances and the journal position describe the same moment
+ * - The BalanceEngine used after recovery is the one passed to recover, since it carries the opening balances
+ * - Accounts are saved through a JournalAccountRepository, and state changes go through BankingService,
+ *   so every account change is in the journal
+ *
+ * WHY THIS EXISTS:
+ * Replaying years of journal on every restart makes time-to-ready grow with ledger age;
+ * a snapshot bounds it by the number of accounts plus the records written since.
+ */
+
+
+package banking.recovery;
+
+import banking.domain.account.Account;
+import banking.domain.balance.BalanceEngine;
+import banking.repository.AccountRepository;
+import banking.repository.journal.JournalTransactionRepository;
+import banking.repository.journal.SyncPolicy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class RecoveryManager {
+
+    private RecoveryManager() {
+    }
+
+    public static LedgerSnapshot takeSnapshot(Path snapshotFile, JournalTransactionRepository journal, AccountRepository accountRepository, BalanceEngine balanceEngine) throws IOException {
+        long journalPosition = journal.getWritePosition();
+        List<AccountSnapshot> accounts = new ArrayList<>();
+
+        for (Account account : accountRepository.findAll()) {
+            accounts.add(new AccountSnapshot(
+                    account.getAccountNumber(),
+                    account.getAccountState(),
+                    account.getCreatedAt(),
+                    balanceEngine.calculateBalance(account.getAccountNumber(), journal.findByAccountNumber(account.getAccountNumber()))
+            ));
+        }
+
+        LedgerSnapshot snapshot = new LedgerSnapshot(journalPosition, accounts);
+        SnapshotFile.write(snapshotFile, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Restores accounts into accountRepository and opening balances into balanceEngine, then opens the journal
+     * indexing only the records after the snapshot and applying the account records among them.
+     * Without a snapshot file the whole journal is replayed, accounts included.
+     */
+    public static JournalTransactionRepository recover(Path snapshotFile, Path journalFile, SyncPolicy syncPolicy, Duration syncInterval, AccountRepository accountRepository, BalanceEngine balanceEngine) throws IOException {
+        long replayFrom = 0L;
+
+        if (Files.exists(snapshotFile)) {
+            LedgerSnapshot snapshot = SnapshotFile.read(snapshotFile);
+
+            for (AccountSnapshot account : snapshot.getAccounts()) {
+                accountRepository.saveAccount(new Account(account.getAccountNumber(), account.getAccountState(), account.getCreatedAt()));
+                balanceEngine.setOpeningBalance(account.getAccountNumber(), account.getBalance());
+            }
+
+            replayFrom = snapshot.getJournalPosition();
+        }
+
+        return new JournalTransactionRepository(journalFile, syncPolicy, syncInterval, replayFrom, accountRepository::saveAccount);
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * PURPOSE:
+ * Reads and writes LedgerSnapshot files.
+ *
+ * FORMAT:
+ * [int magic][int version][long journalPosition][int accountCount]
+ * per account: [short length + UTF-8 accountNumber][byte state][long epochSecond][int nanos][long balanceMinorUnits]
+ * [int crc32c of everything before it]
+ *
+ * Files are written to a temporary sibling and atomically renamed, so a crash never leaves
+ * a half-written snapshot in place. Reads memory-map the file and verify the checksum first.
+ */
+
+
+package banking.recovery;
+
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+public final class SnapshotFile {
+    private static final int MAGIC = 0x424F4553;
+    private static final int VERSION = 1;
+    private static final AccountState[] STATES = AccountState.values();
+
+    private SnapshotFile() {
+    }
+
+    public static void write(Path snapshotFile, LedgerSnapshot snapshot) throws IOException {
+        Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32C crc = new CRC32C();
+            OutputStream raw = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(raw, 1 << 16), crc));
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshot.getJournalPosition());
+            out.writeInt(snapshot.getAccounts().size());
+
+            for (AccountSnapshot account : snapshot.getAccounts()) {
+                byte[] accountNumber = account.getAccountNumber().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(accountNumber.length);
+                out.write(accountNumber);
+                out.writeByte(account.getAccountState().ordinal());
+                out.writeLong(account.getCreatedAt().getEpochSecond());
+                out.writeInt(account.getCreatedAt().getNano());
+                out.writeLong(account.getBalance().getMinorUnits());
+            }
+
+            out.flush();
+            // The checksum itself goes straight to the file, outside the checked stream.
+            channel.write(ByteBuffer.allocate(4).putInt(0, (int) crc.getValue()));
+            channel.force(true);
+        }
+
+        Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static LedgerSnapshot read(Path snapshotFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size < 24 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a valid snapshot: " + snapshotFile);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, (int) size - 4));
+
+            if ((int) crc.getValue() != buffer.getInt((int) size - 4)) {
+                throw new IOException("Snapshot checksum mismatch: " + snapshotFile);
+            }
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Unsupported snapshot format: " + snapshotFile);
+            }
+
+            long journalPosition = buffer.getLong();
+            int count = buffer.getInt();
+            List<AccountSnapshot> accounts = new ArrayList<>(count);
+            byte[] scratch = new byte[256];
+
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getShort();
+
+                if (scratch.length < length) {
+                    scratch = new byte[length];
+                }
+
+                buffer.get(scratch, 0, length);
+                String accountNumber = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                AccountState state = STATES[buffer.get()];
+                Instant createdAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+                Money balance = Money.ofMinorUnits(buffer.getLong());
+
+                accounts.add(new AccountSnapshot(accountNumber, state, createdAt, balance));
+            }
+
+            return new LedgerSnapshot(journalPosition, accounts);
+        }
+    }
+}
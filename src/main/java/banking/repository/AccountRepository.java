@@ -2,7 +2,10 @@ package banking.repository;
 
 import banking.domain.account.Account;
 
+import java.util.Collection;
+
 public interface AccountRepository {
     void saveAccount(Account account);
     Account findAccount(String accountNumber);
+    Collection<Account> findAll();
 }
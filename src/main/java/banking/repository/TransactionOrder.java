@@ -0,0 +1,6 @@
+package banking.repository;
+
+public enum TransactionOrder {
+    OLDEST_FIRST,
+    NEWEST_FIRST
+}
@@ -0,0 +1,34 @@
+package banking.repository;
+
+import banking.domain.transaction.Transaction;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a TransactionQuery. Pass getNextCursor() to TransactionQuery.after for the next page.
+ */
+public class TransactionPage {
+    private final List<Transaction> transactions;
+    private final long nextCursor;
+
+    TransactionPage(List<Transaction> transactions, long nextCursor) {
+        this.transactions = Collections.unmodifiableList(transactions);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * @return the cursor for the next page, or TransactionQuery.NO_CURSOR when this page was the last
+     */
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != TransactionQuery.NO_CURSOR;
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * PURPOSE:
+ * Describes one slice of an account's history: a time window, the types to include,
+ * the order, the page size and where the previous page ended.
+ *
+ * RESPONSIBILITIES:
+ * - Hold the filters (immutable; every with-style method returns a new query)
+ * - Apply the filters to a history a repository has already narrowed down
+ *
+ * PAGINATION:
+ * - Cursors are positions in the account's history, which is append-only, so a cursor stays
+ *   valid while new rows arrive
+ * - A full page returns the position of its last row as the next cursor; the page after
+ *   that may turn out to be empty
+ *
+ * USED BY:
+ * - TransactionRepository.query / stream
+ */
+
+
+package banking.repository;
+
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class TransactionQuery {
+    public static final long NO_CURSOR = -1;
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final String accountNumber;
+    private final Instant from;
+    private final Instant to;
+    private final Set<TransactionType> types;
+    private final TransactionOrder order;
+    private final long cursor;
+    private final int limit;
+
+    private TransactionQuery(String accountNumber, Instant from, Instant to, Set<TransactionType> types, TransactionOrder order, long cursor, int limit) {
+        this.accountNumber = accountNumber;
+        this.from = from;
+        this.to = to;
+        this.types = types;
+        this.order = order;
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+
+    public static TransactionQuery forAccount(String accountNumber) {
+        return new TransactionQuery(accountNumber, null, null, null, TransactionOrder.OLDEST_FIRST, NO_CURSOR, DEFAULT_LIMIT);
+    }
+
+    /**
+     * @param from inclusive, or null for no lower bound
+     * @param to exclusive, or null for no upper bound
+     */
+    public TransactionQuery between(Instant from, Instant to) {
+        return new TransactionQuery(accountNumber, from, to, types, order, cursor, limit);
+    }
+
+    public TransactionQuery ofTypes(TransactionType first, TransactionType... rest) {
+        return new TransactionQuery(accountNumber, from, to, EnumSet.of(first, rest), order, cursor, limit);
+    }
+
+    public TransactionQuery newestFirst() {
+        return new TransactionQuery(accountNumber, from, to, types, TransactionOrder.NEWEST_FIRST, cursor, limit);
+    }
+
+    public TransactionQuery oldestFirst() {
+        return new TransactionQuery(accountNumber, from, to, types, TransactionOrder.OLDEST_FIRST, cursor, limit);
+    }
+
+    /**
+     * @param cursor a position from TransactionPage.getNextCursor, or NO_CURSOR to start from the beginning
+     * @throws IllegalArgumentException if cursor is not NO_CURSOR or a position an account's history can have
+     */
+    public TransactionQuery after(long cursor) {
+        if (cursor < NO_CURSOR || cursor > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cursor out of range: " + cursor);
+        }
+
+        return new TransactionQuery(accountNumber, from, to, types, order, cursor, limit);
+    }
+
+    public TransactionQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+
+        return new TransactionQuery(accountNumber, from, to, types, order, cursor, limit);
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public TransactionOrder getOrder() {
+        return order;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean matches(Transaction transaction) {
+        if (types != null && !types.contains(transaction.getTransactionType())) {
+            return false;
+        }
+
+        Instant occurredAt = transaction.getOccurredAt();
+
+        if (from != null && occurredAt.isBefore(from)) {
+            return false;
+        }
+
+        return to == null || occurredAt.isBefore(to);
+    }
+
+    /**
+     * Collects one page from the positions [lowerBound, upperBound) of an account's history.
+     * Repositories with an index pass the narrowest range they can prove contains every match.
+     */
+    public TransactionPage page(List<Transaction> history, int lowerBound, int upperBound) {
+        List<Transaction> transactions = new ArrayList<>(Math.min(limit, Math.max(0, upperBound - lowerBound)));
+        long lastPosition = NO_CURSOR;
+
+        if (order == TransactionOrder.OLDEST_FIRST) {
+            for (int position = firstPosition(lowerBound); position < upperBound && transactions.size() < limit; position++) {
+                if (matches(history.get(position))) {
+                    transactions.add(history.get(position));
+                    lastPosition = position;
+                }
+            }
+        } else {
+            for (int position = lastPosition(upperBound); position >= lowerBound && transactions.size() < limit; position--) {
+                if (matches(history.get(position))) {
+                    transactions.add(history.get(position));
+                    lastPosition = position;
+                }
+            }
+        }
+
+        return new TransactionPage(transactions, transactions.size() == limit ? lastPosition : NO_CURSOR);
+    }
+
+    /**
+     * Lazily streams every match in [lowerBound, upperBound), starting after the cursor. The limit does not apply.
+     */
+    public Stream<Transaction> stream(List<Transaction> history, int lowerBound, int upperBound) {
+        IntStream positions;
+
+        if (order == TransactionOrder.OLDEST_FIRST) {
+            positions = IntStream.range(firstPosition(lowerBound), upperBound);
+        } else {
+            int last = lastPosition(upperBound);
+            positions = IntStream.rangeClosed(lowerBound, last).map(position -> last - (position - lowerBound));
+        }
+
+        return positions.mapToObj(history::get).filter(this::matches);
+    }
+
+    private int firstPosition(int lowerBound) {
+        return cursor == NO_CURSOR ? lowerBound : (int) Math.min(Integer.MAX_VALUE, Math.max(lowerBound, cursor + 1));
+    }
+
+    private int lastPosition(int upperBound) {
+        return cursor == NO_CURSOR ? upperBound - 1 : (int) Math.min(upperBound - 1, cursor - 1);
+    }
+}
@@ -4,9 +4,28 @@ import banking.domain.account.Account;
 import banking.domain.transaction.Transaction;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionRepository {
 
     void saveTransaction(Transaction transaction);
+
+    default void saveTransactions(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            saveTransaction(transaction);
+        }
+    }
+
     List<Transaction> findByAccountNumber(String accountNumber);
+
+    // Filters the full history; repositories with a time index override this to skip straight to the window.
+    default TransactionPage query(TransactionQuery query) {
+        List<Transaction> history = findByAccountNumber(query.getAccountNumber());
+        return query.page(history, 0, history.size());
+    }
+
+    default Stream<Transaction> stream(TransactionQuery query) {
+        List<Transaction> history = findByAccountNumber(query.getAccountNumber());
+        return query.stream(history, 0, history.size());
+    }
 }
@@ -0,0 +1,49 @@
+/**
+ * PURPOSE:
+ * AccountRepository that records every saved account in the journal before storing it.
+ *
+ * RESPONSIBILITIES:
+ * - Journal account creation and state changes (BankingService saves an account again after changing its state)
+ * - Serve reads from the wrapped repository
+ *
+ * USED BY:
+ * - RecoveryManager callers, so accounts opened or changed after the last snapshot survive a restart
+ *
+ * WHY THIS EXISTS:
+ * A snapshot alone only knows the accounts as they were when it was taken; the journal tail
+ * has to carry every account change made since.
+ */
+
+
+package banking.repository.journal;
+
+import banking.domain.account.Account;
+import banking.repository.AccountRepository;
+
+import java.util.Collection;
+
+public class JournalAccountRepository implements AccountRepository {
+    private final AccountRepository accounts;
+    private final JournalTransactionRepository journal;
+
+    public JournalAccountRepository(AccountRepository accounts, JournalTransactionRepository journal) {
+        this.accounts = accounts;
+        this.journal = journal;
+    }
+
+    @Override
+    public void saveAccount(Account account) {
+        journal.saveAccount(account);
+        accounts.saveAccount(account);
+    }
+
+    @Override
+    public Account findAccount(String accountNumber) {
+        return accounts.findAccount(accountNumber);
+    }
+
+    @Override
+    public Collection<Account> findAll() {
+        return accounts.findAll();
+    }
+}
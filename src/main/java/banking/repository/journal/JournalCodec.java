@@ -0,0 +1,327 @@
+package banking.repository.journal;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary record format of the journal.
+ *
+ * Every record is a header of [int payloadLength][int crc32c(payload)] followed by the payload.
+ * A transaction record's payload is:
+ * [byte type][long amountMinorUnits][long epochSecond][int nanos]
+ * [short length + UTF-8 accountNumber][short length + UTF-8 transactionId][short length + UTF-8 transferId, -1 if null]
+ * An account record (an account saved with its current state) has ACCOUNT_RECORD in place of the type:
+ * [byte ACCOUNT_RECORD][byte state][long createdAt epochSecond][int nanos][short length + UTF-8 accountNumber]
+ */
+final class JournalCodec {
+    static final int HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 1 + 8 + 8 + 4 + 2 + 2 + 2;
+    private static final int ACCOUNT_PAYLOAD_BYTES = 1 + 1 + 8 + 4 + 2;
+    private static final int MIN_PAYLOAD_BYTES = ACCOUNT_PAYLOAD_BYTES;
+    private static final int MAX_PAYLOAD_BYTES = FIXED_PAYLOAD_BYTES + 3 * Short.MAX_VALUE;
+    private static final byte ACCOUNT_RECORD = Byte.MAX_VALUE;
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final AccountState[] STATES = AccountState.values();
+
+    private JournalCodec() {
+    }
+
+    static ByteBuffer encode(List<Transaction> transactions) {
+        int capacity = 0;
+        byte[][][] strings = new byte[transactions.size()][][];
+
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            strings[i] = new byte[][]{
+                    utf8(transaction.getAccountNumber()),
+                    utf8(transaction.getTransactionId()),
+                    utf8(transaction.getTransferId())
+            };
+            capacity += HEADER_BYTES + FIXED_PAYLOAD_BYTES + length(strings[i][0]) + length(strings[i][1]) + length(strings[i][2]);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        CRC32C crc = new CRC32C();
+
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            int headerAt = buffer.position();
+            buffer.position(headerAt + HEADER_BYTES);
+            int payloadAt = buffer.position();
+
+            buffer.put((byte) transaction.getTransactionType().ordinal());
+            buffer.putLong(transaction.getAmount().getMinorUnits());
+            buffer.putLong(transaction.getOccurredAt().getEpochSecond());
+            buffer.putInt(transaction.getOccurredAt().getNano());
+            putString(buffer, strings[i][0]);
+            putString(buffer, strings[i][1]);
+            putString(buffer, strings[i][2]);
+
+            int payloadLength = buffer.position() - payloadAt;
+            crc.reset();
+            crc.update(buffer.array(), payloadAt, payloadLength);
+            buffer.putInt(headerAt, payloadLength);
+            buffer.putInt(headerAt + 4, (int) crc.getValue());
+        }
+
+        return buffer.flip();
+    }
+
+    static ByteBuffer encodeAccount(Account account) {
+        byte[] accountNumber = utf8(account.getAccountNumber());
+        int payloadLength = ACCOUNT_PAYLOAD_BYTES + accountNumber.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payloadLength);
+
+        buffer.position(HEADER_BYTES);
+        buffer.put(ACCOUNT_RECORD);
+        buffer.put((byte) account.getAccountState().ordinal());
+        buffer.putLong(account.getCreatedAt().getEpochSecond());
+        buffer.putInt(account.getCreatedAt().getNano());
+        putString(buffer, accountNumber);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), HEADER_BYTES, payloadLength);
+        buffer.putInt(0, payloadLength);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    /**
+     * Reads records from the given offset until the end of the file or the first torn or corrupt record,
+     * passing transaction records to transactions and account records to accounts, in journal order.
+     *
+     * @return the offset just past the last valid record
+     */
+    static long replay(RandomAccessFile file, long fromOffset, Consumer<Transaction> transactions, Consumer<Account> accounts) {
+        return replay(file, fromOffset, Long.MAX_VALUE, (transaction, offset) -> transactions.accept(transaction), accounts);
+    }
+
+    /**
+     * Same as above, but stops at toOffset (which must be the start of a record or the end of the file)
+     * and passes each transaction together with the offset of its record.
+     */
+    static long replay(RandomAccessFile file, long fromOffset, long toOffset, ObjLongConsumer<Transaction> transactions, Consumer<Account> accounts) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+            CRC32C crc = new CRC32C();
+            long offset = fromOffset;
+            long readAt = fromOffset;
+            buffer.limit(0);
+
+            while (offset < toOffset) {
+                if (buffer.remaining() < HEADER_BYTES) {
+                    readAt = refill(file, buffer, readAt, HEADER_BYTES);
+
+                    if (buffer.remaining() < HEADER_BYTES) {
+                        return offset;
+                    }
+                }
+
+                int payloadLength = buffer.getInt(buffer.position());
+                int expectedCrc = buffer.getInt(buffer.position() + 4);
+
+                if (payloadLength < MIN_PAYLOAD_BYTES || payloadLength > MAX_PAYLOAD_BYTES) {
+                    return offset;
+                }
+
+                if (buffer.remaining() < HEADER_BYTES + payloadLength) {
+                    if (buffer.capacity() < HEADER_BYTES + payloadLength) {
+                        buffer = ByteBuffer.allocate(HEADER_BYTES + payloadLength).put(buffer).flip();
+                    }
+
+                    readAt = refill(file, buffer, readAt, HEADER_BYTES + payloadLength);
+
+                    if (buffer.remaining() < HEADER_BYTES + payloadLength) {
+                        return offset;
+                    }
+                }
+
+                int payloadAt = buffer.position() + HEADER_BYTES;
+                crc.reset();
+                crc.update(buffer.array(), buffer.arrayOffset() + payloadAt, payloadLength);
+
+                if ((int) crc.getValue() != expectedCrc) {
+                    return offset;
+                }
+
+                buffer.position(payloadAt);
+
+                if (buffer.get(payloadAt) == ACCOUNT_RECORD) {
+                    accounts.accept(decodeAccount(buffer));
+                } else {
+                    transactions.accept(decode(buffer), offset);
+                }
+
+                offset += HEADER_BYTES + payloadLength;
+            }
+
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the transaction record at offset, which replay has already found valid.
+     */
+    static Transaction readTransaction(RandomAccessFile file, long offset) throws IOException {
+        file.seek(offset);
+        int payloadLength = file.readInt();
+        file.readInt();
+
+        byte[] payload = new byte[payloadLength];
+        file.readFully(payload);
+        return decode(ByteBuffer.wrap(payload));
+    }
+
+    /**
+     * True if a complete record with a matching checksum starts exactly at offset.
+     */
+    static boolean isRecordAt(RandomAccessFile file, long offset) throws IOException {
+        int payloadLength = payloadLengthAt(file, offset);
+
+        if (payloadLength < 0 || offset + HEADER_BYTES + payloadLength > file.length()) {
+            return false;
+        }
+
+        byte[] record = new byte[HEADER_BYTES + payloadLength];
+        file.seek(offset);
+        file.readFully(record);
+
+        CRC32C crc = new CRC32C();
+        crc.update(record, HEADER_BYTES, payloadLength);
+        return (int) crc.getValue() == ByteBuffer.wrap(record).getInt(4);
+    }
+
+    /**
+     * True if everything from offset to the end of the file can only be one record cut short by a crash:
+     * an incomplete header, a record that reaches the end of the file, or a zero-filled tail.
+     * Anything else means a bad record is followed by more data, i.e. corruption rather than a torn write.
+     */
+    static boolean isTornTail(RandomAccessFile file, long offset) throws IOException {
+        long tailBytes = file.length() - offset;
+
+        if (tailBytes < HEADER_BYTES) {
+            return true;
+        }
+
+        int payloadLength = payloadLengthAt(file, offset);
+
+        if (payloadLength >= 0) {
+            return HEADER_BYTES + payloadLength >= tailBytes;
+        }
+
+        byte[] chunk = new byte[(int) Math.min(READ_BUFFER_BYTES, tailBytes)];
+        file.seek(offset);
+
+        for (long remaining = tailBytes; remaining > 0; remaining -= chunk.length) {
+            int length = (int) Math.min(chunk.length, remaining);
+            file.readFully(chunk, 0, length);
+
+            for (int i = 0; i < length; i++) {
+                if (chunk[i] != 0) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    // The header's payload length, or -1 if there is no full header or the length is out of range.
+    private static int payloadLengthAt(RandomAccessFile file, long offset) throws IOException {
+        if (file.length() - offset < HEADER_BYTES) {
+            return -1;
+        }
+
+        file.seek(offset);
+        int payloadLength = file.readInt();
+        return payloadLength < MIN_PAYLOAD_BYTES || payloadLength > MAX_PAYLOAD_BYTES ? -1 : payloadLength;
+    }
+
+    private static long refill(RandomAccessFile file, ByteBuffer buffer, long readAt, int wanted) throws IOException {
+        buffer.compact();
+        file.seek(readAt);
+
+        while (buffer.position() < wanted) {
+            int read = file.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+
+            if (read <= 0) {
+                break;
+            }
+
+            buffer.position(buffer.position() + read);
+            readAt += read;
+        }
+
+        buffer.flip();
+        return readAt;
+    }
+
+    private static Transaction decode(ByteBuffer buffer) {
+        TransactionType type = TYPES[buffer.get()];
+        long amount = buffer.getLong();
+        Instant occurredAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        String accountNumber = getString(buffer);
+        String transactionId = getString(buffer);
+        String transferId = getString(buffer);
+
+        return new Transaction(accountNumber, occurredAt, type, Money.ofMinorUnits(amount).toBigDecimal(), transactionId, transferId);
+    }
+
+    private static Account decodeAccount(ByteBuffer buffer) {
+        buffer.get();
+        AccountState state = STATES[buffer.get()];
+        Instant createdAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        return new Account(getString(buffer), state, createdAt);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal field longer than " + Short.MAX_VALUE + " bytes");
+        }
+
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+
+        if (length < 0) {
+            return null;
+        }
+
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,584 @@
+/**
+ * PURPOSE:
+ * File-backed, append-only transaction ledger that survives restarts.
+ *
+ * RESPONSIBILITIES:
+ * - Append every transaction to a journal file as a CRC-protected binary record (see JournalCodec)
+ * - Append account records (creation and state changes, via JournalAccountRepository) to the same file,
+ *   so replaying any suffix of the journal also replays the account changes made in it
+ * - Coalesce concurrent appends into a single force() (group commit)
+ * - Rebuild the per-account index from the journal on open, truncating a torn tail left by a crash
+ * - Serve the indexed rows from memory, never from disk
+ *
+ * READS AFTER A SNAPSHOT (replayFrom > 0):
+ * - Only the tail after replayFrom is indexed on open; the records before it are the archive
+ * - findByAccountNumber returns the tail only; a balance is the opening balance plus the tail
+ *   (RecoveryManager gives BalanceEngine the snapshot's balances, getOpeningBalance gives the archive's)
+ * - query and stream cover the full history, archive rows first, so exports, reconciliation and
+ *   history pages see every row. The archive is indexed by one scan of its records the first time
+ *   it is needed, keeping only record offsets; archived rows are read back from disk per position
+ * - findFullHistory returns archive rows followed by the tail
+ *
+ * FAILURES:
+ * - Only a torn final record is ever truncated; a bad record followed by more data fails the open instead
+ * - A failed append is cut back off the file, so later appends never sit behind a partial record
+ * - A failed force() (EVERY_BATCH or INTERVAL), or an append that cannot be cut back, makes the journal
+ *   unusable: rows already readable may not be on disk, so every later save and read fails rather than
+ *   building on them. An INTERVAL failure has no caller to throw to, so it is also logged
+ * - I/O goes through RandomAccessFile rather than FileChannel, which closes itself for good when a
+ *   thread blocked in it is interrupted
+ *
+ * DURABILITY:
+ * - Chosen by SyncPolicy; EVERY_BATCH is the only policy where a returned save is guaranteed on disk
+ * - A row becomes readable as soon as it is written, slightly before it is forced; if the force then
+ *   fails, the journal turns unusable (see FAILURES)
+ *
+ * DOES NOT:
+ * - Calculate balances
+ * - Enforce rules
+ *
+ * WHY THIS EXISTS:
+ * The in-memory repositories lose the ledger on restart, and a database round trip
+ * per row would cap throughput far below what a sequential append can do.
+ */
+
+
+package banking.repository.journal;
+
+import banking.domain.account.Account;
+import banking.domain.balance.BalanceCalculator;
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.exception.LedgerFormatException;
+import banking.repository.TransactionPage;
+import banking.repository.TransactionQuery;
+import banking.repository.TransactionRepository;
+import banking.repository.memory.AccountLedger;
+import banking.repository.memory.PartitionedTransactionRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class JournalTransactionRepository implements TransactionRepository, Closeable {
+    private static final System.Logger LOG = System.getLogger(JournalTransactionRepository.class.getName());
+    private static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofMillis(10);
+
+    private final Path journalFile;
+    private final RandomAccessFile file;
+    private final SyncPolicy syncPolicy;
+    private final PartitionedTransactionRepository index;
+    private final ScheduledExecutorService syncScheduler;
+
+    // The records before replayFrom; indexed on first use, read through their own file handle.
+    private final long archiveEnd;
+    private volatile Map<String, ArchivedRows> archive;
+    private RandomAccessFile archiveReader;
+
+    private final Object writeLock = new Object();
+    private long writePosition;
+    private long writtenBatches;
+    private boolean closed;
+    // The failure that made the journal unusable; null while it is healthy.
+    private volatile IOException brokenBy;
+
+    private final Object archiveLock = new Object();
+
+    private final Object syncMonitor = new Object();
+    private long durableBatches;
+    private boolean syncInProgress;
+
+    public JournalTransactionRepository(Path journalFile, SyncPolicy syncPolicy) {
+        this(journalFile, syncPolicy, DEFAULT_SYNC_INTERVAL);
+    }
+
+    public JournalTransactionRepository(Path journalFile, SyncPolicy syncPolicy, Duration syncInterval) {
+        this(journalFile, syncPolicy, syncInterval, 0L);
+    }
+
+    /**
+     * Opens the journal but indexes only the records from replayFrom onwards (the tail after a snapshot).
+     * Older records stay on disk: findByAccountNumber leaves them out, query and stream read them on demand.
+     *
+     * @throws IllegalArgumentException if replayFrom is not the start of a record or the end of the journal
+     * @throws LedgerFormatException if a corrupt record is followed by more data
+     */
+    public JournalTransactionRepository(Path journalFile, SyncPolicy syncPolicy, Duration syncInterval, long replayFrom) {
+        this(journalFile, syncPolicy, syncInterval, replayFrom, account -> { });
+    }
+
+    /**
+     * Same as above, and passes every account record from replayFrom onwards to replayedAccounts, in journal order.
+     */
+    public JournalTransactionRepository(Path journalFile, SyncPolicy syncPolicy, Duration syncInterval, long replayFrom, Consumer<Account> replayedAccounts) {
+        this.journalFile = journalFile;
+        this.syncPolicy = syncPolicy;
+        this.index = new PartitionedTransactionRepository();
+        this.archiveEnd = replayFrom;
+        this.archive = replayFrom == 0 ? Map.of() : null;
+
+        try {
+            this.file = new RandomAccessFile(journalFile.toFile(), "rw");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal " + journalFile, e);
+        }
+
+        try {
+            this.writePosition = openAt(journalFile, replayFrom, replayedAccounts);
+        } catch (IOException e) {
+            closeQuietly(e);
+            throw new UncheckedIOException("Cannot open journal " + journalFile, e);
+        } catch (RuntimeException e) {
+            closeQuietly(e);
+            throw e;
+        }
+
+        if (syncPolicy == SyncPolicy.INTERVAL) {
+            this.syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> Thread.ofPlatform()
+                    .name("journal-sync")
+                    .daemon(true)
+                    .unstarted(runnable));
+            long intervalNanos = syncInterval.toNanos();
+            syncScheduler.scheduleWithFixedDelay(this::syncWritten, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.syncScheduler = null;
+        }
+    }
+
+    private long openAt(Path journalFile, long replayFrom, Consumer<Account> replayedAccounts) throws IOException {
+        long size = file.length();
+
+        if (replayFrom > size) {
+            throw new IllegalArgumentException("Replay position " + replayFrom + " is past the end of journal " + journalFile);
+        }
+
+        // A stale or wrong snapshot position would otherwise look like a torn tail and lose everything after it.
+        if (replayFrom > 0 && replayFrom < size && !JournalCodec.isRecordAt(file, replayFrom)) {
+            throw new IllegalArgumentException("Replay position " + replayFrom + " is not the start of a record in journal " + journalFile);
+        }
+
+        long validEnd = JournalCodec.replay(file, replayFrom, index::saveTransaction, replayedAccounts);
+
+        if (validEnd < size) {
+            if (!JournalCodec.isTornTail(file, validEnd)) {
+                throw new LedgerFormatException("Journal " + journalFile + " has a corrupt record at offset " + validEnd
+                        + " followed by " + (size - validEnd) + " more bytes");
+            }
+
+            // Drop a record that was only partially written when the process died.
+            file.setLength(validEnd);
+            file.getFD().sync();
+        }
+
+        return validEnd;
+    }
+
+    private void closeQuietly(Exception failure) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    @Override
+    public void saveTransaction(Transaction transaction) {
+        saveTransactions(List.of(transaction));
+    }
+
+    @Override
+    public void saveTransactions(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        append(JournalCodec.encode(transactions), transactions);
+    }
+
+    /**
+     * Records the account with its current state, under the same durability as a transaction batch.
+     */
+    public void saveAccount(Account account) {
+        append(JournalCodec.encodeAccount(account), List.of());
+    }
+
+    private void append(ByteBuffer records, List<Transaction> transactions) {
+        long batch;
+
+        synchronized (writeLock) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+
+            ensureUsable();
+
+            try {
+                file.seek(writePosition);
+                file.write(records.array(), records.arrayOffset(), records.remaining());
+                writePosition += records.remaining();
+            } catch (IOException e) {
+                rollBackAppend(e);
+                throw new UncheckedIOException("Cannot append to journal", e);
+            }
+
+            // Indexed under the write lock so per-account order matches journal order.
+            index.saveTransactions(transactions);
+            batch = ++writtenBatches;
+        }
+
+        if (syncPolicy == SyncPolicy.EVERY_BATCH) {
+            awaitDurable(batch);
+        }
+    }
+
+    // Caller holds writeLock. Cuts off whatever part of the failed write reached the file.
+    private void rollBackAppend(IOException failure) {
+        try {
+            file.setLength(writePosition);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+            markBroken(failure);
+        }
+    }
+
+    private void markBroken(IOException failure) {
+        synchronized (syncMonitor) {
+            if (brokenBy == null) {
+                brokenBy = failure;
+            }
+
+            syncMonitor.notifyAll();
+        }
+    }
+
+    private void ensureUsable() {
+        IOException failure = brokenBy;
+
+        if (failure != null) {
+            throw new IllegalStateException("Journal is unusable after a failed write or sync", failure);
+        }
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumber(String accountNumber) {
+        ensureUsable();
+        return index.findByAccountNumber(accountNumber);
+    }
+
+    public List<Transaction> findFullHistory(String accountNumber) {
+        ensureUsable();
+        return new ArrayList<>(history(accountNumber));
+    }
+
+    /**
+     * The balance of the account's archived rows (those before replayFrom); zero if there are none.
+     */
+    public Money getOpeningBalance(String accountNumber) {
+        ensureUsable();
+        ArchivedRows archived = archive().get(accountNumber);
+        return archived == null ? Money.ZERO : Money.ofMinorUnits(archived.balanceMinorUnits);
+    }
+
+    @Override
+    public TransactionPage query(TransactionQuery query) {
+        ensureUsable();
+
+        if (archiveEnd == 0) {
+            return index.query(query);
+        }
+
+        JournalHistory history = history(query.getAccountNumber());
+        int[] bounds = history.boundsFor(query);
+        return query.page(history, bounds[0], bounds[1]);
+    }
+
+    @Override
+    public Stream<Transaction> stream(TransactionQuery query) {
+        ensureUsable();
+
+        if (archiveEnd == 0) {
+            return index.stream(query);
+        }
+
+        JournalHistory history = history(query.getAccountNumber());
+        int[] bounds = history.boundsFor(query);
+        return query.stream(history, bounds[0], bounds[1]);
+    }
+
+    private JournalHistory history(String accountNumber) {
+        AccountLedger tail = index.findLedger(accountNumber);
+        return new JournalHistory(archive().get(accountNumber), tail == null ? new AccountLedger() : tail);
+    }
+
+    private Map<String, ArchivedRows> archive() {
+        Map<String, ArchivedRows> indexed = archive;
+        return indexed != null ? indexed : indexArchive();
+    }
+
+    // One pass over the archived records, remembering where each account's rows are rather than the rows.
+    private synchronized Map<String, ArchivedRows> indexArchive() {
+        if (archive != null) {
+            return archive;
+        }
+
+        Map<String, ArchivedRows> rows = new HashMap<>();
+
+        synchronized (archiveLock) {
+            JournalCodec.replay(archiveReader(), 0L, archiveEnd,
+                    (transaction, offset) -> rows.computeIfAbsent(transaction.getAccountNumber(), key -> new ArchivedRows()).add(transaction, offset),
+                    account -> { });
+        }
+
+        archive = rows;
+        return rows;
+    }
+
+    // Caller holds archiveLock.
+    private RandomAccessFile archiveReader() {
+        if (archiveReader == null) {
+            try {
+                archiveReader = new RandomAccessFile(journalFile.toFile(), "r");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open journal " + journalFile, e);
+            }
+        }
+
+        return archiveReader;
+    }
+
+    private Transaction readArchived(long offset) {
+        synchronized (archiveLock) {
+            try {
+                return JournalCodec.readTransaction(archiveReader(), offset);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read journal " + journalFile + " at offset " + offset, e);
+            }
+        }
+    }
+
+    /**
+     * Byte offset just past the last record written; the journal position a snapshot can be taken at.
+     */
+    public long getWritePosition() {
+        synchronized (writeLock) {
+            return writePosition;
+        }
+    }
+
+    /**
+     * Blocks until the given batch is on disk. The first waiter becomes the leader and forces
+     * everything written so far; batches appended meanwhile are released by the same force or the next one.
+     */
+    private void awaitDurable(long batch) {
+        synchronized (syncMonitor) {
+            boolean interrupted = false;
+
+            // The batch is already written and readable, so an interrupt must not turn the save into a failure.
+            while (durableBatches < batch && syncInProgress) {
+                try {
+                    syncMonitor.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (durableBatches >= batch) {
+                return;
+            }
+
+            // A force that failed may have lost this batch too; retrying could not prove otherwise.
+            ensureUsable();
+            syncInProgress = true;
+        }
+
+        long target;
+        boolean forced = false;
+
+        synchronized (writeLock) {
+            target = writtenBatches;
+        }
+
+        try {
+            force();
+            forced = true;
+        } catch (IOException e) {
+            markBroken(e);
+            throw new UncheckedIOException("Cannot sync journal", e);
+        } finally {
+            synchronized (syncMonitor) {
+                if (forced) {
+                    durableBatches = Math.max(durableBatches, target);
+                }
+
+                syncInProgress = false;
+                syncMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void syncWritten() {
+        long target;
+
+        synchronized (writeLock) {
+            target = writtenBatches;
+        }
+
+        synchronized (syncMonitor) {
+            if (durableBatches >= target || brokenBy != null) {
+                return;
+            }
+        }
+
+        try {
+            force();
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.ERROR, "Cannot sync journal " + journalFile + "; it is unusable from now on", e);
+            markBroken(e);
+            return;
+        }
+
+        synchronized (syncMonitor) {
+            durableBatches = Math.max(durableBatches, target);
+        }
+    }
+
+    // Overridden by tests to simulate a failing disk.
+    void force() throws IOException {
+        file.getFD().sync();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+        }
+
+        if (syncScheduler != null) {
+            // shutdownNow would interrupt a sync in flight; let it finish instead.
+            syncScheduler.shutdown();
+            awaitSchedulerTermination();
+        }
+
+        try {
+            file.getFD().sync();
+        } finally {
+            file.close();
+            closeArchiveReader();
+        }
+    }
+
+    private void closeArchiveReader() throws IOException {
+        synchronized (archiveLock) {
+            if (archiveReader != null) {
+                archiveReader.close();
+            }
+        }
+    }
+
+    private void awaitSchedulerTermination() {
+        boolean interrupted = false;
+
+        while (true) {
+            try {
+                if (syncScheduler.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class ArchivedRows {
+        private long[] offsets = new long[4];
+        private int size;
+        private long balanceMinorUnits;
+        private Instant latest;
+
+        void add(Transaction transaction, long offset) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+
+            offsets[size++] = offset;
+            balanceMinorUnits = BalanceCalculator.apply(balanceMinorUnits, transaction);
+
+            if (latest == null || transaction.getOccurredAt().isAfter(latest)) {
+                latest = transaction.getOccurredAt();
+            }
+        }
+    }
+
+    /**
+     * An account's full history as one list: its archived rows, read from disk per position, then the indexed tail.
+     */
+    private final class JournalHistory extends AbstractList<Transaction> {
+        private final ArchivedRows archived;
+        private final int archivedRows;
+        private final AccountLedger tailLedger;
+        private final List<Transaction> tail;
+
+        private JournalHistory(ArchivedRows archived, AccountLedger tailLedger) {
+            this.archived = archived;
+            this.archivedRows = archived == null ? 0 : archived.size;
+            this.tailLedger = tailLedger;
+            this.tail = tailLedger.view();
+        }
+
+        /**
+         * The positions [lower, upper) the query's window can match. The tail's time index bounds both ends
+         * within the tail; a window starting after the latest archived row skips the archive.
+         */
+        int[] boundsFor(TransactionQuery query) {
+            int[] tailBounds = tailLedger.bounds(query, tail.size());
+            boolean skipArchive = archivedRows == 0 || query.getFrom() != null && archived.latest.isBefore(query.getFrom());
+            return new int[] {skipArchive ? archivedRows + tailBounds[0] : 0, archivedRows + tailBounds[1]};
+        }
+
+        @Override
+        public Transaction get(int index) {
+            if (index >= archivedRows) {
+                return tail.get(index - archivedRows);
+            }
+
+            if (index < 0) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return readArchived(archived.offsets[index]);
+        }
+
+        @Override
+        public int size() {
+            return archivedRows + tail.size();
+        }
+    }
+}
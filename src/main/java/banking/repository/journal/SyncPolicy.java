@@ -0,0 +1,14 @@
+package banking.repository.journal;
+
+/**
+ * When the journal forces appended records to stable storage.
+ *
+ * EVERY_BATCH: saveTransaction returns only once its record is on disk; concurrent appends share one force().
+ * INTERVAL: a background thread forces the journal every sync interval; a crash can lose that window.
+ * OS_BUFFERED: the operating system decides when to flush; forced only on close.
+ */
+public enum SyncPolicy {
+    EVERY_BATCH,
+    INTERVAL,
+    OS_BUFFERED;
+}
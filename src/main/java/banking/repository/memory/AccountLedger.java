@@ -0,0 +1,230 @@
+package banking.repository.memory;
+
+import banking.domain.transaction.Transaction;
+import banking.repository.TransactionPage;
+import banking.repository.TransactionQuery;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.Stream;
+
+/**
+ * Append-only transaction history for a single account.
+ *
+ * Rows are written into fixed-size segments that are never moved or copied once allocated,
+ * so a reader can hold a view over the first N rows while the owner keeps appending.
+ * Appends are serialized per ledger; reads never lock.
+ *
+ * Alongside every row the ledger keeps a time key: the largest occurredAt seen up to and including
+ * that row. Keys never decrease, so a time window can be located by binary search even though rows
+ * stamped by concurrent writers may arrive slightly out of order. Each segment also records the
+ * earliest occurredAt among its rows; a segment whose earliest row is at or after a window's end
+ * cannot match it. A late row therefore widens a window at most up to its own segment, and windows
+ * in later segments are not affected by it at all.
+ *
+ * Public so TieredTransactionRepository can keep its hot tail in one.
+ */
+public final class AccountLedger {
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private volatile Transaction[][] segments;
+    private volatile long[][] timeKeys;
+    private volatile int size;
+
+    // Only touched under the append lock.
+    private long latestTimeKey;
+    // Earliest occurredAt per segment. Written under the append lock before size; readers read size first.
+    private volatile long[] segmentFloors;
+
+    public AccountLedger() {
+        segments = new Transaction[4][];
+        timeKeys = new long[4][];
+        segmentFloors = new long[4];
+        latestTimeKey = Long.MIN_VALUE;
+    }
+
+    public synchronized void append(Transaction transaction) {
+        int index = size;
+        Transaction[][] directory = place(segments, index, transaction);
+        long[][] keyDirectory = placeTimeKey(timeKeys, index, transaction);
+
+        // Publish the directories before the size so a reader that sees the new size also sees the row.
+        segments = directory;
+        timeKeys = keyDirectory;
+        size = index + 1;
+    }
+
+    public synchronized void appendAll(List<Transaction> transactions) {
+        int index = size;
+        Transaction[][] directory = segments;
+        long[][] keyDirectory = timeKeys;
+
+        for (Transaction transaction : transactions) {
+            keyDirectory = placeTimeKey(keyDirectory, index, transaction);
+            directory = place(directory, index++, transaction);
+        }
+
+        segments = directory;
+        timeKeys = keyDirectory;
+        size = index;
+    }
+
+    private long[][] placeTimeKey(long[][] directory, int index, Transaction transaction) {
+        long occurredAt = timeKeyOf(transaction.getOccurredAt());
+        latestTimeKey = Math.max(latestTimeKey, occurredAt);
+
+        int segmentIndex = index >>> SEGMENT_SHIFT;
+
+        if (segmentIndex == directory.length) {
+            directory = Arrays.copyOf(directory, directory.length * 2);
+        }
+
+        if (directory[segmentIndex] == null) {
+            directory[segmentIndex] = new long[SEGMENT_SIZE];
+        }
+
+        lowerFloor(segmentIndex, occurredAt, (index & SEGMENT_MASK) == 0);
+
+        directory[segmentIndex][index & SEGMENT_MASK] = latestTimeKey;
+        return directory;
+    }
+
+    // Caller holds the append lock. Grows the floors array before publishing it, so a reader never sees a missing entry.
+    private void lowerFloor(int segmentIndex, long occurredAt, boolean firstRowOfSegment) {
+        long[] floors = segmentFloors;
+
+        if (segmentIndex >= floors.length) {
+            floors = Arrays.copyOf(floors, floors.length * 2);
+            floors[segmentIndex] = occurredAt;
+            segmentFloors = floors;
+        } else if (firstRowOfSegment || occurredAt < floors[segmentIndex]) {
+            floors[segmentIndex] = occurredAt;
+        }
+    }
+
+    // Epoch nanoseconds, saturated at the ends of the long range.
+    private static long timeKeyOf(Instant instant) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private static Transaction[][] place(Transaction[][] directory, int index, Transaction transaction) {
+        int segmentIndex = index >>> SEGMENT_SHIFT;
+
+        if (segmentIndex == directory.length) {
+            directory = Arrays.copyOf(directory, directory.length * 2);
+        }
+
+        if (directory[segmentIndex] == null) {
+            directory[segmentIndex] = new Transaction[SEGMENT_SIZE];
+        }
+
+        directory[segmentIndex][index & SEGMENT_MASK] = transaction;
+        return directory;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a read-only view of the rows appended so far. Later appends are not visible through it.
+     */
+    public List<Transaction> view() {
+        int length = size;
+        return new LedgerView(segments, length);
+    }
+
+    /**
+     * Narrows the query to the rows its time window can possibly match, in O(log n), then lets the query page through them.
+     */
+    public TransactionPage query(TransactionQuery query) {
+        int length = size;
+        LedgerView rows = new LedgerView(segments, length);
+        int[] bounds = bounds(query, length);
+        return query.page(rows, bounds[0], bounds[1]);
+    }
+
+    public Stream<Transaction> stream(TransactionQuery query) {
+        int length = size;
+        LedgerView rows = new LedgerView(segments, length);
+        int[] bounds = bounds(query, length);
+        return query.stream(rows, bounds[0], bounds[1]);
+    }
+
+    /**
+     * The positions [lower, upper) of a view of the given length that can match the query's time window.
+     * Pass the size of a view taken before this call.
+     */
+    public int[] bounds(TransactionQuery query, int length) {
+        // size was read before, so timeKeys and segmentFloors are at least as new as the rows being bounded.
+        return bounds(query, timeKeys, segmentFloors, length);
+    }
+
+    // Rows before the lower bound have occurredAt <= key < from. The upper bound starts where keys reach the window's end
+    // (earlier rows have occurredAt <= key < to and may match) and moves past every later segment whose floor is below it.
+    private static int[] bounds(TransactionQuery query, long[][] keys, long[] floors, int length) {
+        int lower = query.getFrom() == null ? 0 : firstKeyAtLeast(keys, length, timeKeyOf(query.getFrom()));
+        int upper = length;
+
+        if (query.getTo() != null) {
+            long to = timeKeyOf(query.getTo());
+            int keyBound = firstKeyAtLeast(keys, length, to);
+
+            while (upper > keyBound && floors[(upper - 1) >>> SEGMENT_SHIFT] >= to) {
+                upper = Math.max(keyBound, ((upper - 1) >>> SEGMENT_SHIFT) << SEGMENT_SHIFT);
+            }
+        }
+
+        return new int[] {lower, Math.max(lower, upper)};
+    }
+
+    private static int firstKeyAtLeast(long[][] keys, int length, long target) {
+        int low = 0;
+        int high = length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (keys[middle >>> SEGMENT_SHIFT][middle & SEGMENT_MASK] < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static final class LedgerView extends AbstractList<Transaction> implements RandomAccess {
+        private final Transaction[][] segments;
+        private final int length;
+
+        private LedgerView(Transaction[][] segments, int length) {
+            this.segments = segments;
+            this.length = length;
+        }
+
+        @Override
+        public Transaction get(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+            }
+
+            return segments[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/**
+ * PURPOSE:
+ * Concurrent account store for tens of millions of accounts, addressed by dense int handles.
+ *
+ * RESPONSIBILITIES:
+ * - Intern each account number to a handle (0, 1, 2, ...) the first time it is saved
+ * - Resolve account numbers through an open-addressing table held in primitive arrays
+ * - Keep each account's state and creation time in primitive arrays indexed by handle
+ * - Hand out accounts as views over those arrays, so state changes made through them land in the store
+ * - Let hot paths look accounts up by handle without hashing the account number again
+ *
+ * Analogy:
+ * - A numbered locker for every customer: find the locker number once, then go straight to it
+ *
+ * CONCURRENCY:
+ * - Saves are serialized; lookups never lock and see every account whose save completed before they started
+ * - State changes are compare-and-set on the state byte, so views of the same account never lose each other's updates
+ * - saveAccount copies an account in; later changes to the object passed in are not seen, so change state
+ *   through an account returned by findAccount
+ *
+ * WHY THIS EXISTS:
+ * InMemoryAccountRepository is a HashMap: not thread-safe, and per entry a node, an Account
+ * and an Instant on top of the account number. Here an account costs a few ints, a byte
+ * and a long besides its number.
+ */
+
+
+package banking.repository.memory;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.repository.AccountRepository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+public class HandleAccountRepository implements AccountRepository {
+    public static final int NO_HANDLE = -1;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final AccountState[] STATES = AccountState.values();
+    private static final int MIN_CAPACITY = 16;
+
+    // State and creation time live in fixed-size pages that are never copied, so a view keeps
+    // pointing at the live state across resizes.
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final Object writeLock = new Object();
+    private volatile Table table;
+    private volatile int count;
+
+    public HandleAccountRepository() {
+        this(MIN_CAPACITY);
+    }
+
+    public HandleAccountRepository(int expectedAccounts) {
+        this.table = new Table(Math.max(MIN_CAPACITY, expectedAccounts), null, 0);
+    }
+
+    @Override
+    public void saveAccount(Account account) {
+        String accountNumber = account.getAccountNumber();
+        int hash = spread(accountNumber.hashCode());
+        byte state = (byte) account.getAccountState().ordinal();
+        long createdAt = toEpochNanos(account.getCreatedAt());
+
+        synchronized (writeLock) {
+            Table current = table;
+            int existing = find(current, accountNumber, hash);
+
+            if (existing != NO_HANDLE) {
+                write(current, existing, state, createdAt);
+                return;
+            }
+
+            int handle = count;
+
+            // Keep the slot table at most half full so probe chains stay short.
+            if (handle == current.accountNumbers.length || (handle + 1) * 2 > current.slots.length) {
+                current = new Table(current.accountNumbers.length * 2, current, handle);
+                table = current;
+            }
+
+            int page = handle >>> PAGE_SHIFT;
+
+            if (current.statePages[page] == null) {
+                current.statePages[page] = new byte[PAGE_SIZE];
+                current.createdAtPages[page] = new long[PAGE_SIZE];
+            }
+
+            current.accountNumbers[handle] = accountNumber;
+            current.hashes[handle] = hash;
+            write(current, handle, state, createdAt);
+            insert(current, handle, hash);
+            count = handle + 1;
+        }
+    }
+
+    @Override
+    public Account findAccount(String accountNumber) {
+        Table current = table;
+        int handle = find(current, accountNumber, spread(accountNumber.hashCode()));
+        return handle == NO_HANDLE ? null : view(current, handle);
+    }
+
+    /**
+     * Returns the handle for an account number, or NO_HANDLE if it was never saved.
+     */
+    public int handleOf(String accountNumber) {
+        return find(table, accountNumber, spread(accountNumber.hashCode()));
+    }
+
+    public Account findAccount(int handle) {
+        int published = count;
+        Table current = table;
+
+        if (handle < 0 || handle >= published) {
+            return null;
+        }
+
+        return view(current, handle);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public Collection<Account> findAll() {
+        int published = count;
+        Table current = table;
+
+        return new HandleView(current, published);
+    }
+
+    private static Account view(Table table, int handle) {
+        int page = handle >>> PAGE_SHIFT;
+        return new HandleAccount(table.accountNumbers[handle], table.statePages[page], table.createdAtPages[page], handle & PAGE_MASK);
+    }
+
+    private static void write(Table table, int handle, byte state, long createdAt) {
+        int page = handle >>> PAGE_SHIFT;
+        LONGS.setRelease(table.createdAtPages[page], handle & PAGE_MASK, createdAt);
+        BYTES.setVolatile(table.statePages[page], handle & PAGE_MASK, state);
+    }
+
+    private static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private static int find(Table table, String accountNumber, int hash) {
+        int mask = table.slots.length - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = (int) INTS.getAcquire(table.slots, slot);
+
+            if (entry == 0) {
+                return NO_HANDLE;
+            }
+
+            int handle = entry - 1;
+
+            if (table.hashes[handle] == hash && table.accountNumbers[handle].equals(accountNumber)) {
+                return handle;
+            }
+        }
+    }
+
+    // Slots store handle + 1 so that 0 can mean empty.
+    private static void insert(Table table, int handle, int hash) {
+        int mask = table.slots.length - 1;
+        int slot = hash & mask;
+
+        while (table.slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        INTS.setRelease(table.slots, slot, handle + 1);
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) & 0x7fffffff;
+    }
+
+    private static final class Table {
+        private final int[] slots;
+        private final int[] hashes;
+        private final String[] accountNumbers;
+        private final byte[][] statePages;
+        private final long[][] createdAtPages;
+
+        private Table(int capacity, Table previous, int used) {
+            int pages = (capacity + PAGE_MASK) >>> PAGE_SHIFT;
+
+            this.slots = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+            this.hashes = previous == null ? new int[capacity] : Arrays.copyOf(previous.hashes, capacity);
+            this.accountNumbers = previous == null ? new String[capacity] : Arrays.copyOf(previous.accountNumbers, capacity);
+            this.statePages = previous == null ? new byte[pages][] : Arrays.copyOf(previous.statePages, pages);
+            this.createdAtPages = previous == null ? new long[pages][] : Arrays.copyOf(previous.createdAtPages, pages);
+
+            for (int handle = 0; handle < used; handle++) {
+                insert(this, handle, hashes[handle]);
+            }
+        }
+    }
+
+    private static final class HandleAccount extends Account {
+        private final byte[] states;
+        private final long[] createdAts;
+        private final int index;
+
+        private HandleAccount(String accountNumber, byte[] states, long[] createdAts, int index) {
+            super(accountNumber);
+            this.states = states;
+            this.createdAts = createdAts;
+            this.index = index;
+        }
+
+        @Override
+        public Instant getCreatedAt() {
+            long nanos = (long) LONGS.getAcquire(createdAts, index);
+            return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+        }
+
+        @Override
+        public AccountState getAccountState() {
+            return STATES[(byte) BYTES.getVolatile(states, index)];
+        }
+
+        @Override
+        protected boolean compareAndSetState(AccountState expected, AccountState state) {
+            return BYTES.compareAndSet(states, index, (byte) expected.ordinal(), (byte) state.ordinal());
+        }
+    }
+
+    private static final class HandleView extends AbstractList<Account> implements RandomAccess {
+        private final Table table;
+        private final int length;
+
+        private HandleView(Table table, int length) {
+            this.table = table;
+            this.length = length;
+        }
+
+        @Override
+        public Account get(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+            }
+
+            return view(table, index);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+    }
+}
@@ -20,6 +20,7 @@ package banking.repository.memory;
 import banking.domain.account.Account;
 import banking.repository.AccountRepository;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -39,4 +40,9 @@ public class InMemoryAccountRepository implements AccountRepository {
     public Account findAccount(String accountNumber) {
         return accounts.get(accountNumber);
     }
+
+    @Override
+    public Collection<Account> findAll() {
+        return accounts.values();
+    }
 }
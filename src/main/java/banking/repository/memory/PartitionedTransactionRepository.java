@@ -0,0 +1,112 @@
+/**
+ * PURPOSE:
+ * In-memory transaction ledger partitioned into one append-only segment list per account.
+ *
+ * RESPONSIBILITIES:
+ * - Persist transactions into the owning account's ledger
+ * - Retrieve an account's history in O(1) without scanning or copying
+ * - Answer time-window queries in O(log n + page size) using each ledger's time index
+ *
+ * Analogy:
+ * - Instead of one notebook for the whole bank, every account gets its own notebook
+ *
+ * DOES NOT:
+ * - Calculate balances
+ * - Enforce rules
+ * - Decide if a transaction is valid
+ *
+ * CONCURRENCY:
+ * - Appends to different accounts proceed in parallel
+ * - Reads never block and return a stable view of the rows written so far
+ *
+ * WHY THIS EXISTS:
+ * InMemoryTransactionRepository scans the global ledger on every lookup, which dominates
+ * withdraw and transfer cost once the ledger grows into millions of rows.
+ */
+
+
+package banking.repository.memory;
+
+import banking.domain.transaction.Transaction;
+import banking.repository.TransactionPage;
+import banking.repository.TransactionQuery;
+import banking.repository.TransactionRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+public class PartitionedTransactionRepository implements TransactionRepository {
+    private final ConcurrentMap<String, AccountLedger> ledgers;
+
+    public PartitionedTransactionRepository() {
+        ledgers = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void saveTransaction(Transaction transaction) {
+        ledgers.computeIfAbsent(transaction.getAccountNumber(), accountNumber -> new AccountLedger())
+                .append(transaction);
+    }
+
+    /**
+     * Appends a batch with one ledger append per account rather than one per row.
+     */
+    @Override
+    public void saveTransactions(List<Transaction> transactions) {
+        Map<String, List<Transaction>> byAccount = new LinkedHashMap<>();
+
+        for (Transaction transaction : transactions) {
+            byAccount.computeIfAbsent(transaction.getAccountNumber(), accountNumber -> new ArrayList<>()).add(transaction);
+        }
+
+        for (Map.Entry<String, List<Transaction>> entry : byAccount.entrySet()) {
+            ledgers.computeIfAbsent(entry.getKey(), accountNumber -> new AccountLedger())
+                    .appendAll(entry.getValue());
+        }
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumber(String accountNumber) {
+        AccountLedger ledger = ledgers.get(accountNumber);
+
+        if (ledger == null) {
+            return List.of();
+        }
+
+        return ledger.view();
+    }
+
+    /**
+     * The account's ledger, or null if the account has no rows; for repositories that index on top of this one.
+     */
+    public AccountLedger findLedger(String accountNumber) {
+        return ledgers.get(accountNumber);
+    }
+
+    @Override
+    public TransactionPage query(TransactionQuery query) {
+        AccountLedger ledger = ledgers.get(query.getAccountNumber());
+
+        if (ledger == null) {
+            return query.page(List.of(), 0, 0);
+        }
+
+        return ledger.query(query);
+    }
+
+    @Override
+    public Stream<Transaction> stream(TransactionQuery query) {
+        AccountLedger ledger = ledgers.get(query.getAccountNumber());
+
+        if (ledger == null) {
+            return Stream.empty();
+        }
+
+        return ledger.stream(query);
+    }
+}
@@ -0,0 +1,28 @@
+package banking.repository.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * One fixed-size block of rows, stored column by column in direct (off-heap) buffers.
+ * Only absolute get/put is used, so concurrent readers never disturb each other.
+ */
+final class ColumnChunk {
+    static final int ROW_SHIFT = 16;
+    static final int ROWS = 1 << ROW_SHIFT;
+    static final int ROW_MASK = ROWS - 1;
+
+    final ByteBuffer accountIds = column(Integer.BYTES);
+    final ByteBuffer types = column(Byte.BYTES);
+    final ByteBuffer flags = column(Byte.BYTES);
+    final ByteBuffer amounts = column(Long.BYTES);
+    final ByteBuffer occurredAt = column(Long.BYTES);
+    final ByteBuffer transactionIdHigh = column(Long.BYTES);
+    final ByteBuffer transactionIdLow = column(Long.BYTES);
+    final ByteBuffer transferIdHigh = column(Long.BYTES);
+    final ByteBuffer transferIdLow = column(Long.BYTES);
+
+    private static ByteBuffer column(int width) {
+        return ByteBuffer.allocateDirect(ROWS * width).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,110 @@
+package banking.repository.offheap;
+
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+
+/**
+ * Flyweight over the rows of an OffHeapTransactionRepository. One instance can be reused for any
+ * number of scans; moving it and reading its fields allocates nothing.
+ *
+ * Usage: {@code cursor.scanAccount("A1"); while (cursor.next()) { cursor.getAmountMinorUnits(); }}
+ */
+public final class OffHeapCursor {
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final OffHeapTransactionRepository repository;
+    private int[] rows;
+    private int limit;
+    private int position;
+    private int row;
+    private ColumnChunk chunk;
+    private int slot;
+
+    OffHeapCursor(OffHeapTransactionRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Positions the cursor before the first row of one account, as of now.
+     */
+    public OffHeapCursor scanAccount(String accountNumber) {
+        OffHeapTransactionRepository.RowIndex index = repository.rowIndex(accountNumber);
+        this.limit = index == null ? 0 : index.size();
+        this.rows = index == null ? null : index.rows();
+        this.position = -1;
+        return this;
+    }
+
+    /**
+     * Positions the cursor before the first row of the whole store, as of now.
+     */
+    public OffHeapCursor scanAll() {
+        this.limit = repository.rowCount();
+        this.rows = null;
+        this.position = -1;
+        return this;
+    }
+
+    public boolean next() {
+        if (position + 1 >= limit) {
+            return false;
+        }
+
+        position++;
+        row = rows == null ? position : rows[position];
+        chunk = repository.chunk(row);
+        slot = row & ColumnChunk.ROW_MASK;
+        return true;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getAccountId() {
+        return chunk.accountIds.getInt(slot * Integer.BYTES);
+    }
+
+    public String getAccountNumber() {
+        return repository.accountNumber(getAccountId());
+    }
+
+    public TransactionType getTransactionType() {
+        return TYPES[chunk.types.get(slot)];
+    }
+
+    public long getAmountMinorUnits() {
+        return chunk.amounts.getLong(slot * Long.BYTES);
+    }
+
+    public long getOccurredAtEpochNanos() {
+        return chunk.occurredAt.getLong(slot * Long.BYTES);
+    }
+
+    public long getTransactionIdHigh() {
+        return chunk.transactionIdHigh.getLong(slot * Long.BYTES);
+    }
+
+    public long getTransactionIdLow() {
+        return chunk.transactionIdLow.getLong(slot * Long.BYTES);
+    }
+
+    public boolean hasTransferId() {
+        return (chunk.flags.get(slot) & OffHeapTransactionRepository.FLAG_TRANSFER_ID) != 0;
+    }
+
+    public long getTransferIdHigh() {
+        return chunk.transferIdHigh.getLong(slot * Long.BYTES);
+    }
+
+    public long getTransferIdLow() {
+        return chunk.transferIdLow.getLong(slot * Long.BYTES);
+    }
+
+    /**
+     * Materializes the current row; the only method on the cursor that allocates.
+     */
+    public Transaction toTransaction() {
+        return repository.materialize(row);
+    }
+}
@@ -0,0 +1,277 @@
+/**
+ * PURPOSE:
+ * Transaction ledger stored off-heap in columnar form.
+ *
+ * RESPONSIBILITIES:
+ * - Store each row as primitive columns in direct buffers: account id (int), type (byte),
+ *   amount in minor units (long), occurredAt in epoch nanos (long), transaction and transfer ids (long pairs)
+ * - Intern each account number to a dense int id once
+ * - Materialize Transaction objects only when a row is read through TransactionRepository
+ * - Offer OffHeapCursor for allocation-free scans
+ *
+ * LIMITS:
+ * - Transaction and transfer ids must be binary TransactionIds or canonical ULID/UUID text
+ *
+ * CONCURRENCY:
+ * - Appends are serialized; reads never lock and see every row published before they started
+ *
+ * WHY THIS EXISTS:
+ * A Transaction on the heap costs hundreds of bytes across seven objects; at a hundred million rows
+ * that dominates heap size and GC pauses. Here a row costs 54 bytes outside the heap plus 4 bytes of index.
+ */
+
+
+package banking.repository.offheap;
+
+import banking.domain.id.TransactionId;
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.repository.TransactionRepository;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class OffHeapTransactionRepository implements TransactionRepository {
+    static final byte FLAG_TRANSFER_ID = 1;
+    static final byte FLAG_TRANSACTION_ID_UUID = 2;
+    static final byte FLAG_TRANSFER_ID_UUID = 4;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Object writeLock = new Object();
+    private final ConcurrentMap<String, Integer> accountIds;
+    private volatile String[] accountNumbers;
+    private volatile RowIndex[] rowIndexes;
+    private volatile ColumnChunk[] chunks;
+    private volatile int rowCount;
+
+    public OffHeapTransactionRepository() {
+        this.accountIds = new ConcurrentHashMap<>();
+        this.accountNumbers = new String[64];
+        this.rowIndexes = new RowIndex[64];
+        this.chunks = new ColumnChunk[4];
+    }
+
+    @Override
+    public void saveTransaction(Transaction transaction) {
+        long transactionIdHigh;
+        long transactionIdLow;
+        long transferIdHigh = 0L;
+        long transferIdLow = 0L;
+        byte flags = 0;
+
+        TransactionId transactionId = binaryId(transaction.getTransactionKey(), transaction.getTransactionId());
+        transactionIdHigh = transactionId.getHigh();
+        transactionIdLow = transactionId.getLow();
+
+        if (transactionId.isUuidForm()) {
+            flags |= FLAG_TRANSACTION_ID_UUID;
+        }
+
+        if (transaction.getTransferKey() != null || transaction.getTransferId() != null) {
+            TransactionId transferId = binaryId(transaction.getTransferKey(), transaction.getTransferId());
+            transferIdHigh = transferId.getHigh();
+            transferIdLow = transferId.getLow();
+            flags |= FLAG_TRANSFER_ID;
+
+            if (transferId.isUuidForm()) {
+                flags |= FLAG_TRANSFER_ID_UUID;
+            }
+        }
+
+        Instant occurredAt = transaction.getOccurredAt();
+        long occurredAtNanos = Math.addExact(Math.multiplyExact(occurredAt.getEpochSecond(), NANOS_PER_SECOND), occurredAt.getNano());
+
+        synchronized (writeLock) {
+            int accountId = intern(transaction.getAccountNumber());
+            int row = rowCount;
+            int chunkIndex = row >>> ColumnChunk.ROW_SHIFT;
+            ColumnChunk[] directory = chunks;
+
+            if (chunkIndex == directory.length) {
+                directory = Arrays.copyOf(directory, directory.length * 2);
+            }
+
+            if (directory[chunkIndex] == null) {
+                directory[chunkIndex] = new ColumnChunk();
+            }
+
+            ColumnChunk chunk = directory[chunkIndex];
+            int slot = row & ColumnChunk.ROW_MASK;
+
+            chunk.accountIds.putInt(slot * Integer.BYTES, accountId);
+            chunk.types.put(slot, (byte) transaction.getTransactionType().ordinal());
+            chunk.flags.put(slot, flags);
+            chunk.amounts.putLong(slot * Long.BYTES, transaction.getAmount().getMinorUnits());
+            chunk.occurredAt.putLong(slot * Long.BYTES, occurredAtNanos);
+            chunk.transactionIdHigh.putLong(slot * Long.BYTES, transactionIdHigh);
+            chunk.transactionIdLow.putLong(slot * Long.BYTES, transactionIdLow);
+            chunk.transferIdHigh.putLong(slot * Long.BYTES, transferIdHigh);
+            chunk.transferIdLow.putLong(slot * Long.BYTES, transferIdLow);
+
+            // Publish the chunk directory before the row index so readers that see the row also see its columns.
+            chunks = directory;
+            rowIndexes[accountId].append(row);
+            rowCount = row + 1;
+        }
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumber(String accountNumber) {
+        RowIndex index = rowIndex(accountNumber);
+
+        if (index == null) {
+            return List.of();
+        }
+
+        int size = index.size();
+        return new MaterializingView(index.rows(), size);
+    }
+
+    public OffHeapCursor newCursor() {
+        return new OffHeapCursor(this);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Bytes held outside the Java heap by the column buffers.
+     */
+    public long getOffHeapBytes() {
+        long chunkCount = Arrays.stream(chunks).filter(chunk -> chunk != null).count();
+        return chunkCount * ColumnChunk.ROWS * (Integer.BYTES + 2L * Byte.BYTES + 6L * Long.BYTES);
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    RowIndex rowIndex(String accountNumber) {
+        Integer accountId = accountIds.get(accountNumber);
+        return accountId == null ? null : rowIndexes[accountId];
+    }
+
+    ColumnChunk chunk(int row) {
+        return chunks[row >>> ColumnChunk.ROW_SHIFT];
+    }
+
+    String accountNumber(int accountId) {
+        return accountNumbers[accountId];
+    }
+
+    Transaction materialize(int row) {
+        ColumnChunk chunk = chunk(row);
+        int slot = row & ColumnChunk.ROW_MASK;
+        long occurredAtNanos = chunk.occurredAt.getLong(slot * Long.BYTES);
+        byte flags = chunk.flags.get(slot);
+        TransactionId transferId = null;
+
+        if ((flags & FLAG_TRANSFER_ID) != 0) {
+            transferId = TransactionId.of(chunk.transferIdHigh.getLong(slot * Long.BYTES), chunk.transferIdLow.getLong(slot * Long.BYTES), (flags & FLAG_TRANSFER_ID_UUID) != 0);
+        }
+
+        return Transaction.of(
+                accountNumbers[chunk.accountIds.getInt(slot * Integer.BYTES)],
+                Instant.ofEpochSecond(Math.floorDiv(occurredAtNanos, NANOS_PER_SECOND), Math.floorMod(occurredAtNanos, NANOS_PER_SECOND)),
+                TYPES[chunk.types.get(slot)],
+                Money.ofMinorUnits(chunk.amounts.getLong(slot * Long.BYTES)).toBigDecimal(),
+                TransactionId.of(chunk.transactionIdHigh.getLong(slot * Long.BYTES), chunk.transactionIdLow.getLong(slot * Long.BYTES), (flags & FLAG_TRANSACTION_ID_UUID) != 0),
+                transferId
+        );
+    }
+
+    // Caller holds writeLock.
+    private int intern(String accountNumber) {
+        Integer existing = accountIds.get(accountNumber);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        int accountId = accountIds.size();
+
+        if (accountId == accountNumbers.length) {
+            accountNumbers = Arrays.copyOf(accountNumbers, accountId * 2);
+            rowIndexes = Arrays.copyOf(rowIndexes, accountId * 2);
+        }
+
+        accountNumbers[accountId] = accountNumber;
+        rowIndexes[accountId] = new RowIndex();
+        // The map entry is the publication point for readers looking the account up by number.
+        accountIds.put(accountNumber, accountId);
+        return accountId;
+    }
+
+    private static TransactionId binaryId(TransactionId key, String text) {
+        if (key != null) {
+            return key;
+        }
+
+        TransactionId parsed = TransactionId.parse(text);
+
+        if (parsed == null) {
+            throw new IllegalArgumentException("Off-heap store requires canonical ULID or UUID ids, got " + text);
+        }
+
+        return parsed;
+    }
+
+    static final class RowIndex {
+        private volatile int[] rows = new int[8];
+        private volatile int size;
+
+        // Caller holds writeLock.
+        void append(int row) {
+            int[] current = rows;
+
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+
+            current[size] = row;
+            rows = current;
+            size = size + 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] rows() {
+            return rows;
+        }
+    }
+
+    private final class MaterializingView extends AbstractList<Transaction> implements RandomAccess {
+        private final int[] rows;
+        private final int length;
+
+        private MaterializingView(int[] rows, int length) {
+            this.rows = rows;
+            this.length = length;
+        }
+
+        @Override
+        public Transaction get(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+            }
+
+            return materialize(rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * PURPOSE:
+ * One account's compacted rows, Deflater-compressed and immutable.
+ *
+ * FORMAT (before compression):
+ * per row: [byte type][long amountMinorUnits][long epochSecond][int nanos][transactionId][transferId]
+ * strings as [boolean present][writeUTF]; the account number is stored once, outside the block
+ *
+ * WHY THIS EXISTS:
+ * Old history is read rarely and never changed, so it is kept compressed and only
+ * inflated when a full-history read reaches it.
+ */
+
+
+package banking.repository.tiered;
+
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+public final class ColdBlock {
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final byte[] compressed;
+    private final int rowCount;
+    private final int rawBytes;
+
+    private ColdBlock(byte[] compressed, int rowCount, int rawBytes) {
+        this.compressed = compressed;
+        this.rowCount = rowCount;
+        this.rawBytes = rawBytes;
+    }
+
+    static ColdBlock encode(List<Transaction> rows) {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(rows.size() * 64);
+
+        try (DataOutputStream out = new DataOutputStream(raw)) {
+            for (Transaction row : rows) {
+                out.writeByte(row.getTransactionType().ordinal());
+                out.writeLong(row.getAmount().getMinorUnits());
+                out.writeLong(row.getOccurredAt().getEpochSecond());
+                out.writeInt(row.getOccurredAt().getNano());
+                writeString(out, row.getTransactionId());
+                writeString(out, row.getTransferId());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] uncompressed = raw.toByteArray();
+        ByteArrayOutputStream packed = new ByteArrayOutputStream(uncompressed.length / 4 + 16);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+
+        try (DeflaterOutputStream out = new DeflaterOutputStream(packed, deflater)) {
+            out.write(uncompressed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+
+        return new ColdBlock(packed.toByteArray(), rows.size(), uncompressed.length);
+    }
+
+    List<Transaction> decode(String accountNumber) {
+        List<Transaction> rows = new ArrayList<>(rowCount);
+        Inflater inflater = new Inflater();
+
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed), inflater))) {
+            for (int i = 0; i < rowCount; i++) {
+                TransactionType type = TYPES[in.readByte()];
+                long amount = in.readLong();
+                Instant occurredAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                String transactionId = readString(in);
+                String transferId = readString(in);
+
+                rows.add(new Transaction(accountNumber, occurredAt, type, Money.ofMinorUnits(amount).toBigDecimal(), transactionId, transferId));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+
+        return rows;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getRawBytes() {
+        return rawBytes;
+    }
+
+    public int getCompressedBytes() {
+        return compressed.length;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
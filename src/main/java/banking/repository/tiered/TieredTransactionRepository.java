@@ -0,0 +1,282 @@
+/**
+ * PURPOSE:
+ * In-memory transaction ledger split per account into a hot tail and compressed cold blocks.
+ *
+ * RESPONSIBILITIES:
+ * - Append new transactions to the owning account's hot tail
+ * - Roll the prefix of a tail older than a retention horizon into an immutable ColdBlock
+ * - Keep, per account, the balance of everything compacted so far (the opening balance of the tail)
+ * - Serve full history from the cold blocks on demand
+ *
+ * READS:
+ * - findByAccountNumber returns the hot tail only; a balance is the opening balance plus the tail,
+ *   so BalanceEngine must be given getOpeningBalance (LedgerCompactor does this)
+ * - query and stream cover the full history, with positions counted from the account's first row,
+ *   so cursors stay valid across compactions. Cold blocks are inflated only when a page reaches them
+ * - The hot tail is an AccountLedger, so a time window is narrowed by binary search on both ends
+ * - findFullHistory returns cold rows followed by the tail
+ *
+ * DOES NOT:
+ * - Calculate balances beyond the compacted prefix
+ * - Decide when to compact (see LedgerCompactor)
+ *
+ * CONCURRENCY:
+ * - Appends and compactions of an account hold its monitor; accounts proceed in parallel
+ * - A compaction publishes a new immutable set of tiers (cold blocks plus a fresh hot ledger holding
+ *   the rows it kept); reads take the current set without locking or copying, so they never observe
+ *   a compaction half-applied
+ *
+ * WHY THIS EXISTS:
+ * Keeping every transaction ever written on the heap makes memory and scan time grow
+ * forever; most reads only need recent history.
+ */
+
+
+package banking.repository.tiered;
+
+import banking.domain.balance.BalanceCalculator;
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.repository.TransactionPage;
+import banking.repository.TransactionQuery;
+import banking.repository.TransactionRepository;
+import banking.repository.memory.AccountLedger;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+public class TieredTransactionRepository implements TransactionRepository {
+    private final ConcurrentMap<String, AccountTiers> tiers;
+
+    public TieredTransactionRepository() {
+        this.tiers = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void saveTransaction(Transaction transaction) {
+        tiers.computeIfAbsent(transaction.getAccountNumber(), key -> new AccountTiers()).append(transaction);
+    }
+
+    @Override
+    public List<Transaction> findByAccountNumber(String accountNumber) {
+        AccountTiers accountTiers = tiers.get(accountNumber);
+        return accountTiers == null ? List.of() : accountTiers.hotTail();
+    }
+
+    public List<Transaction> findFullHistory(String accountNumber) {
+        AccountTiers accountTiers = tiers.get(accountNumber);
+        return accountTiers == null ? List.of() : new ArrayList<>(accountTiers.history(accountNumber));
+    }
+
+    /**
+     * The balance of every compacted row; zero for an account that was never compacted.
+     */
+    public Money getOpeningBalance(String accountNumber) {
+        AccountTiers accountTiers = tiers.get(accountNumber);
+        return accountTiers == null ? Money.ZERO : accountTiers.openingBalance();
+    }
+
+    public Set<String> getAccountNumbers() {
+        return tiers.keySet();
+    }
+
+    /**
+     * Moves the longest prefix of the account's tail that occurred before horizon into a new cold block.
+     * Stops at the first row at or after horizon so the history keeps its order.
+     *
+     * @return the new block, or null if nothing was old enough
+     */
+    public ColdBlock compact(String accountNumber, Instant horizon) {
+        AccountTiers accountTiers = tiers.get(accountNumber);
+        return accountTiers == null ? null : accountTiers.compact(horizon);
+    }
+
+    @Override
+    public TransactionPage query(TransactionQuery query) {
+        AccountTiers accountTiers = tiers.get(query.getAccountNumber());
+
+        if (accountTiers == null) {
+            return query.page(List.of(), 0, 0);
+        }
+
+        TieredHistory history = accountTiers.history(query.getAccountNumber());
+        int[] bounds = history.boundsFor(query);
+        return query.page(history, bounds[0], bounds[1]);
+    }
+
+    @Override
+    public Stream<Transaction> stream(TransactionQuery query) {
+        AccountTiers accountTiers = tiers.get(query.getAccountNumber());
+
+        if (accountTiers == null) {
+            return Stream.empty();
+        }
+
+        TieredHistory history = accountTiers.history(query.getAccountNumber());
+        int[] bounds = history.boundsFor(query);
+        return query.stream(history, bounds[0], bounds[1]);
+    }
+
+    private static final class AccountTiers {
+        // Replaced as a whole by compact; appends go to the hot ledger of the current tiers.
+        private volatile Tiers current = new Tiers(List.of(), 0, 0L, null, new AccountLedger());
+
+        synchronized void append(Transaction transaction) {
+            current.hot.append(transaction);
+        }
+
+        List<Transaction> hotTail() {
+            return current.hot.view();
+        }
+
+        Money openingBalance() {
+            return Money.ofMinorUnits(current.openingMinorUnits);
+        }
+
+        TieredHistory history(String accountNumber) {
+            return new TieredHistory(accountNumber, current);
+        }
+
+        synchronized ColdBlock compact(Instant horizon) {
+            Tiers tiers = current;
+            List<Transaction> hot = tiers.hot.view();
+            int count = 0;
+
+            while (count < hot.size() && hot.get(count).getOccurredAt().isBefore(horizon)) {
+                count++;
+            }
+
+            if (count == 0) {
+                return null;
+            }
+
+            List<Transaction> rows = hot.subList(0, count);
+            ColdBlock block = ColdBlock.encode(rows);
+            long balance = tiers.openingMinorUnits;
+
+            for (Transaction row : rows) {
+                balance = BalanceCalculator.apply(balance, row);
+            }
+
+            List<ColdBlock> cold = new ArrayList<>(tiers.cold);
+            cold.add(block);
+
+            AccountLedger kept = new AccountLedger();
+            kept.appendAll(hot.subList(count, hot.size()));
+
+            Instant coldHorizon = tiers.coldHorizon == null || horizon.isAfter(tiers.coldHorizon) ? horizon : tiers.coldHorizon;
+            current = new Tiers(List.copyOf(cold), tiers.coldRows + count, balance, coldHorizon, kept);
+            return block;
+        }
+    }
+
+    private static final class Tiers {
+        private final List<ColdBlock> cold;
+        private final int coldRows;
+        private final long openingMinorUnits;
+        // Every cold row occurred before this instant; null until the first compaction.
+        private final Instant coldHorizon;
+        private final AccountLedger hot;
+
+        private Tiers(List<ColdBlock> cold, int coldRows, long openingMinorUnits, Instant coldHorizon, AccountLedger hot) {
+            this.cold = cold;
+            this.coldRows = coldRows;
+            this.openingMinorUnits = openingMinorUnits;
+            this.coldHorizon = coldHorizon;
+            this.hot = hot;
+        }
+    }
+
+    /**
+     * An account's full history as one list; each cold block is inflated the first time a position in it is read.
+     */
+    private static final class TieredHistory extends AbstractList<Transaction> {
+        private final String accountNumber;
+        private final List<ColdBlock> blocks;
+        private final int[] blockStarts;
+        private final List<List<Transaction>> decoded;
+        private final int coldRows;
+        private final Instant coldHorizon;
+        private final AccountLedger hotLedger;
+        private final List<Transaction> hot;
+
+        private TieredHistory(String accountNumber, Tiers tiers) {
+            this.accountNumber = accountNumber;
+            this.blocks = tiers.cold;
+            this.blockStarts = new int[blocks.size()];
+            this.decoded = new ArrayList<>(Collections.nCopies(blocks.size(), null));
+            this.coldRows = tiers.coldRows;
+            this.coldHorizon = tiers.coldHorizon;
+            this.hotLedger = tiers.hot;
+            this.hot = hotLedger.view();
+
+            int start = 0;
+
+            for (int i = 0; i < blocks.size(); i++) {
+                blockStarts[i] = start;
+                start += blocks.get(i).getRowCount();
+            }
+        }
+
+        /**
+         * The positions [lower, upper) the query's window can match. The hot ledger's time index bounds both ends
+         * within the tail; a window starting at or after the cold horizon cannot match a cold row, so those are skipped.
+         */
+        int[] boundsFor(TransactionQuery query) {
+            int[] hotBounds = hotLedger.bounds(query, hot.size());
+            boolean skipCold = coldHorizon != null && query.getFrom() != null && !query.getFrom().isBefore(coldHorizon);
+            return new int[] {skipCold ? coldRows + hotBounds[0] : 0, coldRows + hotBounds[1]};
+        }
+
+        @Override
+        public Transaction get(int index) {
+            if (index >= coldRows) {
+                return hot.get(index - coldRows);
+            }
+
+            if (index < 0) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            int block = blockOf(index);
+
+            List<Transaction> rows = decoded.get(block);
+
+            if (rows == null) {
+                rows = blocks.get(block).decode(accountNumber);
+                decoded.set(block, rows);
+            }
+
+            return rows.get(index - blockStarts[block]);
+        }
+
+        @Override
+        public int size() {
+            return coldRows + hot.size();
+        }
+
+        private int blockOf(int index) {
+            int low = 0;
+            int high = blockStarts.length - 1;
+
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+
+                if (blockStarts[mid] <= index) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+
+            return low;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * PURPOSE:
+ * Non-blocking facade over BankingService: every call returns a CompletableFuture at once
+ * and the work runs on an executor (one virtual thread per operation by default).
+ *
+ * RESPONSIBILITIES:
+ * - Pipeline operations per account: each one starts only after every earlier operation
+ *   submitted for any account it touches has finished, successfully or not
+ * - Let operations on unrelated accounts run in parallel
+ * - Complete the future exceptionally with the service's exception on rejection
+ *
+ * ORDERING:
+ * - Each account has a tail future; a new operation chains onto the tails of its accounts and becomes the new tail
+ * - A transfer replaces both tails under both stripes, taken in canonical order, so two transfers in
+ *   opposite directions can never wait on each other
+ * - Tails are dropped once they complete and nothing was chained after them
+ *
+ * ASSUMES:
+ * - The BankingService is safe to call from several threads (constructed with StripedAccountLocks
+ *   and thread-safe repositories), since operations on different accounts run concurrently
+ *
+ * WHY THIS EXISTS:
+ * Gateway threads blocking on one call at a time cap throughput at the thread count;
+ * futures let a caller keep thousands of operations in flight without a thread each.
+ */
+
+
+package banking.service;
+
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+public class AsyncBankingService implements AutoCloseable {
+    private static final CompletableFuture<Void> IDLE = CompletableFuture.completedFuture(null);
+
+    private final BankingService bankingService;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final StripedAccountLocks tailLocks;
+    private final ConcurrentMap<String, CompletableFuture<Void>> tails;
+
+    public AsyncBankingService(BankingService bankingService) {
+        this(bankingService, Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * Runs operations on the given executor; the caller keeps ownership of it.
+     */
+    public AsyncBankingService(BankingService bankingService, Executor executor) {
+        this(bankingService, executor, false);
+    }
+
+    private AsyncBankingService(BankingService bankingService, Executor executor, boolean ownsExecutor) {
+        this.bankingService = bankingService;
+        this.executor = executor;
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+        this.tailLocks = new StripedAccountLocks();
+        this.tails = new ConcurrentHashMap<>();
+    }
+
+    public CompletableFuture<Transaction> deposit(String accountNumber, BigDecimal amount) {
+        return enqueue(accountNumber, () -> bankingService.deposit(accountNumber, amount));
+    }
+
+    public CompletableFuture<Transaction> withdraw(String accountNumber, BigDecimal amount) {
+        return enqueue(accountNumber, () -> bankingService.withdraw(accountNumber, amount));
+    }
+
+    public CompletableFuture<List<Transaction>> transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
+        if (fromAccountNumber.equals(toAccountNumber)) {
+            return enqueue(fromAccountNumber, () -> bankingService.transfer(fromAccountNumber, toAccountNumber, amount));
+        }
+
+        return enqueue(fromAccountNumber, toAccountNumber, () -> bankingService.transfer(fromAccountNumber, toAccountNumber, amount));
+    }
+
+    /**
+     * Reflects every operation submitted for the account before this call.
+     */
+    public CompletableFuture<Money> getBalance(String accountNumber) {
+        return enqueue(accountNumber, () -> bankingService.getBalance(accountNumber));
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactions(String accountNumber) {
+        return enqueue(accountNumber, () -> bankingService.getTransactions(accountNumber));
+    }
+
+    /**
+     * Number of accounts with an operation queued or running.
+     */
+    public int getBusyAccountCount() {
+        return tails.size();
+    }
+
+    /**
+     * Shuts down the default executor after the operations already submitted finish.
+     * A caller-supplied executor is left running.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.close();
+        }
+    }
+
+    private <T> CompletableFuture<T> enqueue(String accountNumber, Supplier<T> operation) {
+        tailLocks.lock(accountNumber);
+
+        try {
+            CompletableFuture<T> result = tailOf(accountNumber).thenApplyAsync(ignored -> operation.get(), executor);
+            CompletableFuture<Void> tail = settled(result);
+            tails.put(accountNumber, tail);
+            tail.whenComplete((ignored, failure) -> tails.remove(accountNumber, tail));
+            return result;
+        } finally {
+            tailLocks.unlock(accountNumber);
+        }
+    }
+
+    private <T> CompletableFuture<T> enqueue(String firstAccountNumber, String secondAccountNumber, Supplier<T> operation) {
+        tailLocks.lockBoth(firstAccountNumber, secondAccountNumber);
+
+        try {
+            CompletableFuture<T> result = CompletableFuture.allOf(tailOf(firstAccountNumber), tailOf(secondAccountNumber))
+                    .thenApplyAsync(ignored -> operation.get(), executor);
+            CompletableFuture<Void> tail = settled(result);
+            tails.put(firstAccountNumber, tail);
+            tails.put(secondAccountNumber, tail);
+            tail.whenComplete((ignored, failure) -> {
+                tails.remove(firstAccountNumber, tail);
+                tails.remove(secondAccountNumber, tail);
+            });
+            return result;
+        } finally {
+            tailLocks.unlockBoth(firstAccountNumber, secondAccountNumber);
+        }
+    }
+
+    private CompletableFuture<Void> tailOf(String accountNumber) {
+        return tails.getOrDefault(accountNumber, IDLE);
+    }
+
+    // A rejected operation must not stop the ones queued behind it, so tails always complete normally.
+    private static CompletableFuture<Void> settled(CompletableFuture<?> result) {
+        return result.handle((value, failure) -> null);
+    }
+}
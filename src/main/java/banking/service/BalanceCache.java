@@ -0,0 +1,262 @@
+/**
+ * PURPOSE:
+ * Fixed-size cache of account balances for read-heavy balance lookups.
+ *
+ * RESPONSIBILITIES:
+ * - Serve balances without touching the transaction history
+ * - Keep cached balances exact by applying every saved transaction to its entry
+ * - Evict the least frequently used entry when full, aging frequencies so old popularity fades
+ * - Count hits, misses and evictions
+ *
+ * LAYOUT:
+ * - 8-way set-associative: an account hashes to one set of 8 slots, all arrays are allocated up front,
+ *   so memory is fixed by the capacity no matter how many accounts exist
+ * - Each set has a lock and an epoch that every write to the set bumps; a reader that computed a balance
+ *   from history only stores it if the epoch did not move in the meantime, so a concurrent write can never
+ *   be overwritten by an older value
+ * - Each set also counts writes in flight (beginWrite..apply); while one is open nothing is stored, because
+ *   a replay may already contain the saved row that apply is about to add to the entry
+ *
+ * USED BY:
+ * - BankingService.getBalance and every BankingService write path
+ */
+
+
+package banking.service;
+
+import banking.domain.balance.BalanceCalculator;
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class BalanceCache {
+    private static final int WAYS = 8;
+    private static final int MAX_FREQUENCY = 15;
+
+    private final int setMask;
+    private final String[] accountNumbers;
+    private final long[] balances;
+    private final byte[] frequencies;
+    private final long[] epochs;
+    private final int[] writesInFlight;
+    private final Object[] locks;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BalanceCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+
+        int sets = Integer.highestOneBit(Math.max(1, (capacity + WAYS - 1) / WAYS));
+        if (sets * WAYS < capacity) {
+            sets <<= 1;
+        }
+
+        this.setMask = sets - 1;
+        this.accountNumbers = new String[sets * WAYS];
+        this.balances = new long[sets * WAYS];
+        this.frequencies = new byte[sets * WAYS];
+        this.epochs = new long[sets];
+        this.writesInFlight = new int[sets];
+        this.locks = new Object[sets];
+
+        for (int i = 0; i < sets; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public int getCapacity() {
+        return accountNumbers.length;
+    }
+
+    /**
+     * @return the cached balance, or null on a miss
+     */
+    public Money get(String accountNumber) {
+        int set = setOf(accountNumber);
+
+        synchronized (locks[set]) {
+            int slot = find(set, accountNumber);
+
+            if (slot < 0) {
+                misses.increment();
+                return null;
+            }
+
+            touch(set, slot);
+            hits.increment();
+            return Money.ofMinorUnits(balances[slot]);
+        }
+    }
+
+    /**
+     * Read before computing a balance from history, and pass to putIfUnchanged afterwards.
+     */
+    public long epochOf(String accountNumber) {
+        int set = setOf(accountNumber);
+
+        synchronized (locks[set]) {
+            return epochs[set];
+        }
+    }
+
+    /**
+     * Caches a balance computed from history, unless a write touched the account's set since epochOf was read
+     * or is still in flight.
+     */
+    public void putIfUnchanged(String accountNumber, Money balance, long epoch) {
+        int set = setOf(accountNumber);
+
+        synchronized (locks[set]) {
+            if (epochs[set] != epoch || writesInFlight[set] != 0) {
+                return;
+            }
+
+            int slot = find(set, accountNumber);
+
+            if (slot < 0) {
+                slot = victim(set);
+                accountNumbers[slot] = accountNumber;
+                frequencies[slot] = 1;
+            }
+
+            balances[slot] = balance.getMinorUnits();
+        }
+    }
+
+    /**
+     * Call before saving a transaction for the account; every call must be closed by apply or abortWrite.
+     */
+    public void beginWrite(String accountNumber) {
+        int set = setOf(accountNumber);
+
+        synchronized (locks[set]) {
+            epochs[set]++;
+            writesInFlight[set]++;
+        }
+    }
+
+    /**
+     * Call after the transaction has been saved. Updates the cached balance if the account is cached.
+     */
+    public void apply(Transaction transaction) {
+        String accountNumber = transaction.getAccountNumber();
+        int set = setOf(accountNumber);
+
+        synchronized (locks[set]) {
+            epochs[set]++;
+            writesInFlight[set]--;
+            int slot = find(set, accountNumber);
+
+            if (slot >= 0) {
+                balances[slot] = BalanceCalculator.apply(balances[slot], transaction);
+            }
+        }
+    }
+
+    /**
+     * Closes a write whose save failed. The row may or may not have been stored, so the entry is dropped.
+     */
+    public void abortWrite(String accountNumber) {
+        int set = setOf(accountNumber);
+
+        synchronized (locks[set]) {
+            writesInFlight[set]--;
+            drop(set, accountNumber);
+        }
+    }
+
+    /**
+     * Drops the entry, for changes that do not go through apply (e.g. an opening balance being set).
+     */
+    public void invalidate(String accountNumber) {
+        int set = setOf(accountNumber);
+
+        synchronized (locks[set]) {
+            drop(set, accountNumber);
+        }
+    }
+
+    private void drop(int set, String accountNumber) {
+        epochs[set]++;
+        int slot = find(set, accountNumber);
+
+        if (slot >= 0) {
+            accountNumbers[slot] = null;
+            frequencies[slot] = 0;
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private int setOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & setMask;
+    }
+
+    private int find(int set, String accountNumber) {
+        int base = set * WAYS;
+
+        for (int slot = base; slot < base + WAYS; slot++) {
+            if (accountNumber.equals(accountNumbers[slot])) {
+                return slot;
+            }
+        }
+
+        return -1;
+    }
+
+    // An empty slot if there is one, otherwise the least frequently used.
+    private int victim(int set) {
+        int base = set * WAYS;
+        int victim = base;
+
+        for (int slot = base; slot < base + WAYS; slot++) {
+            if (accountNumbers[slot] == null) {
+                return slot;
+            }
+
+            if (frequencies[slot] < frequencies[victim]) {
+                victim = slot;
+            }
+        }
+
+        evictions.increment();
+        return victim;
+    }
+
+    // Saturating counter; when one saturates the whole set is halved, so frequencies reflect recent use.
+    private void touch(int set, int slot) {
+        if (frequencies[slot] < MAX_FREQUENCY) {
+            frequencies[slot]++;
+            return;
+        }
+
+        int base = set * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            frequencies[i] = (byte) (frequencies[i] >>> 1);
+        }
+
+        frequencies[slot]++;
+    }
+}
@@ -0,0 +1,51 @@
+package banking.service;
+
+import java.math.BigDecimal;
+
+public class BankingCommand {
+    private final CommandType commandType;
+    private final String accountNumber;
+    private final String toAccountNumber;
+    private final BigDecimal amount;
+
+    private BankingCommand(CommandType commandType, String accountNumber, String toAccountNumber, BigDecimal amount) {
+        this.commandType = commandType;
+        this.accountNumber = accountNumber;
+        this.toAccountNumber = toAccountNumber;
+        this.amount = amount;
+    }
+
+    public static BankingCommand deposit(String accountNumber, BigDecimal amount) {
+        return new BankingCommand(CommandType.DEPOSIT, accountNumber, null, amount);
+    }
+
+    public static BankingCommand withdraw(String accountNumber, BigDecimal amount) {
+        return new BankingCommand(CommandType.WITHDRAW, accountNumber, null, amount);
+    }
+
+    public static BankingCommand transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
+        return new BankingCommand(CommandType.TRANSFER, fromAccountNumber, toAccountNumber, amount);
+    }
+
+    public CommandType getCommandType() {
+        return commandType;
+    }
+
+    /**
+     * The account the command acts on; for transfers, the source account.
+     */
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    /**
+     * The destination account of a transfer, null otherwise.
+     */
+    public String getToAccountNumber() {
+        return toAccountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+}
@@ -7,7 +7,10 @@
  * - Ensure required objects (accounts) exist
  * - Handle application-level concerns (missing accounts, orchestration)
  * - Delegate business rule enforcement to the domain layer
- * - Persist resulting transactions
+ * - Offer deposit, withdraw and transfer twice: try* returns an OperationResult, the plain form is the
+ *   try* form plus one shared rethrow
+ * - Persist resulting transactions, and save an account again after changing its state
+ * - Serve balances, through a BalanceCache when one is configured
  *
  * Analogy:
  * - BankingService makes sure the right things happen in the right order
@@ -18,6 +21,24 @@
  * - Decide if an operation is financially valid
  * - Store data itself
  *
+ * CONCURRENCY:
+ * - Constructed without StripedAccountLocks, the service is single-threaded
+ * - Constructed with StripedAccountLocks, withdraw and transfer hold the stripe of every
+ *   account they debit or credit between reading the history and saving the result.
+ *   The repositories must then be thread-safe (e.g. PartitionedTransactionRepository)
+ * - State changes take the same stripes, so a freeze or close waits for an in-flight
+ *   withdrawal or transfer on that account and every later one sees the new state
+ * - A balance replay takes the account's stripe too, so it never overlaps a LedgerCompactor step
+ *
+ * HOT ACCOUNTS:
+ * - After enableHotCredits, deposits and transfer credits to the account go into CreditBuckets instead of
+ *   the ledger, and a transfer into it holds only the source's stripe; creditors do not serialize
+ * - Pending credits are folded into the ledger (and the BalanceCache) under the account's stripe before
+ *   any debit, balance or history read of that account, so debits always see an exact balance
+ * - A creditor that finds many credits pending in its bucket folds too, if the stripe is free
+ * - Folded credits keep the time they were made at and are saved oldest first
+ * - A credit checked before a concurrent freeze of a hot account may land after the freeze
+ *
  * USED BY:
  * - Application entry points (UI, API, controllers)
  *
@@ -30,72 +51,597 @@
 package banking.service;
 
 import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
 import banking.domain.operation.BankingOperation;
+import banking.domain.operation.OperationResult;
+import banking.domain.operation.RejectionReason;
 import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
 import banking.exception.AccountNotFoundException;
 import banking.repository.AccountRepository;
+import banking.repository.TransactionPage;
+import banking.repository.TransactionQuery;
 import banking.repository.TransactionRepository;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
 
 public class BankingService {
+    static final int STATE_CHANGE_CHUNK_SIZE = 256;
+    static final int HOT_FOLD_THRESHOLD = 1024;
+
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final BankingOperation bankingOperation;
+    private final StripedAccountLocks accountLocks;
+    private final BalanceCache balanceCache;
+    private final ConcurrentMap<String, CreditBuckets> hotCredits = new ConcurrentHashMap<>();
 
      public BankingService(AccountRepository accountRepository, TransactionRepository transactionRepository, BankingOperation bankingOperation) {
+        this(accountRepository, transactionRepository, bankingOperation, null);
+    }
+
+    public BankingService(AccountRepository accountRepository, TransactionRepository transactionRepository, BankingOperation bankingOperation, StripedAccountLocks accountLocks) {
+        this(accountRepository, transactionRepository, bankingOperation, accountLocks, null);
+    }
+
+    /**
+     * @param balanceCache serves getBalance; every write made through this service keeps it exact.
+     *                     Writes that bypass the service must call BalanceCache.beginWrite and apply themselves. May be null.
+     */
+    public BankingService(AccountRepository accountRepository, TransactionRepository transactionRepository, BankingOperation bankingOperation, StripedAccountLocks accountLocks, BalanceCache balanceCache) {
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
         this.bankingOperation = bankingOperation;
+        this.accountLocks = accountLocks;
+        this.balanceCache = balanceCache;
     }
 
     public Transaction deposit(String accountNumber, BigDecimal amount) {
-        Account account = accountRepository.findAccount(accountNumber);
+        OperationResult result = tryDeposit(accountNumber, amount);
 
-        if (account == null) {
-            throw new AccountNotFoundException(
-                    "Account not found: " + accountNumber
-            );
+        if (result.isRejected()) {
+            throwRejection(result, amount, accountNumber, null);
         }
 
-        Transaction transaction = bankingOperation.deposit(account, amount);
-        transactionRepository.saveTransaction(transaction);
-        return transaction;
+        return result.getTransaction();
     }
 
     public Transaction withdraw(String accountNumber, BigDecimal amount) {
-         Account account = accountRepository.findAccount(accountNumber);
+        OperationResult result = tryWithdraw(accountNumber, amount);
 
-         if (account == null) {
-             throw new AccountNotFoundException("Account not found: " + accountNumber);
-         }
+        if (result.isRejected()) {
+            throwRejection(result, amount, accountNumber, null);
+        }
 
-         Transaction transaction = bankingOperation.withdraw(account, amount, transactionRepository.findByAccountNumber(accountNumber));
-         transactionRepository.saveTransaction(transaction);
-         return transaction;
+        return result.getTransaction();
     }
 
     public List<Transaction> transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
-         Account fromAccount = accountRepository.findAccount(fromAccountNumber);
+        OperationResult result = tryTransfer(fromAccountNumber, toAccountNumber, amount);
+
+        if (result.isRejected()) {
+            throwRejection(result, amount, fromAccountNumber, toAccountNumber);
+        }
 
-         if (fromAccount == null) {
-             throw new AccountNotFoundException("Account not found: " + fromAccountNumber);
-         }
+        return result.getTransactions();
+    }
+
+    // The throwing forms are the try* forms plus this one rethrow, so both accept and reject exactly the same requests.
+    private void throwRejection(OperationResult result, BigDecimal amount, String accountNumber, String toAccountNumber) {
+        if (result.getReason() == RejectionReason.ACCOUNT_NOT_FOUND) {
+            throw new AccountNotFoundException("Account not found: " + result.getAccountNumber());
+        }
+
+        Account toAccount = toAccountNumber == null ? null : accountRepository.findAccount(toAccountNumber);
+        bankingOperation.throwRejection(result, amount, accountRepository.findAccount(accountNumber), toAccount);
+    }
+
+    /**
+     * Same workflow as deposit, but every rejection (including an unknown account) comes back as an OperationResult.
+     */
+    public OperationResult tryDeposit(String accountNumber, BigDecimal amount) {
+        Account account = accountRepository.findAccount(accountNumber);
+
+        if (account == null) {
+            return OperationResult.accountNotFound(accountNumber);
+        }
 
-         Account toAccount = accountRepository.findAccount(toAccountNumber);
+        OperationResult result = bankingOperation.tryDeposit(account, amount);
 
-         if (toAccount == null) {
-             throw new AccountNotFoundException("Account not found: " + toAccountNumber);
-         }
+        if (result.isSuccess()) {
+            credit(result.getTransaction(), hotCredits.get(accountNumber));
+        }
 
-         List<Transaction> transactionList = bankingOperation.transfer(fromAccount, toAccount, amount, transactionRepository.findByAccountNumber(fromAccountNumber));
+        return result;
+    }
+
+    public OperationResult tryWithdraw(String accountNumber, BigDecimal amount) {
+        Account account = accountRepository.findAccount(accountNumber);
+
+        if (account == null) {
+            return OperationResult.accountNotFound(accountNumber);
+        }
+
+        if (accountLocks != null) {
+            accountLocks.lock(accountNumber);
+        }
+
+        try {
+            foldCredits(accountNumber);
+            Money balance = bankingOperation.calculateBalance(accountNumber, transactionRepository.findByAccountNumber(accountNumber));
+            OperationResult result = bankingOperation.tryWithdraw(account, amount, balance);
+
+            if (result.isSuccess()) {
+                save(result.getTransaction());
+            }
+
+            return result;
+        } finally {
+            if (accountLocks != null) {
+                accountLocks.unlock(accountNumber);
+            }
+        }
+    }
+
+    public OperationResult tryTransfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
+        Account fromAccount = accountRepository.findAccount(fromAccountNumber);
+
+        if (fromAccount == null) {
+            return OperationResult.accountNotFound(fromAccountNumber);
+        }
+
+        Account toAccount = accountRepository.findAccount(toAccountNumber);
+
+        if (toAccount == null) {
+            return OperationResult.accountNotFound(toAccountNumber);
+        }
+
+        CreditBuckets toCredits = hotCredits.get(toAccountNumber);
+        lockTransfer(fromAccountNumber, toAccountNumber, toCredits);
+
+        try {
+            foldCredits(fromAccountNumber);
+            Money balance = bankingOperation.calculateBalance(fromAccountNumber, transactionRepository.findByAccountNumber(fromAccountNumber));
+            OperationResult result = bankingOperation.tryTransfer(fromAccount, toAccount, amount, balance);
+
+            if (result.isSuccess()) {
+                for (Transaction transaction : result.getTransactions()) {
+                    saveLeg(transaction, toCredits);
+                }
+            }
+
+            return result;
+        } finally {
+            unlockTransfer(fromAccountNumber, toAccountNumber, toCredits);
+        }
+    }
+
+    public Money getBalance(String accountNumber) {
+        if (accountRepository.findAccount(accountNumber) == null) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+
+        if (hotCredits.containsKey(accountNumber)) {
+            foldHotCredits(accountNumber);
+        }
+
+        if (balanceCache == null) {
+            return replayBalance(accountNumber);
+        }
+
+        // Epoch first: a write that lands while the history is being replayed stops the result from being cached.
+        long epoch = balanceCache.epochOf(accountNumber);
+        Money cached = balanceCache.get(accountNumber);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        Money balance = replayBalance(accountNumber);
+        balanceCache.putIfUnchanged(accountNumber, balance, epoch);
+        return balance;
+    }
+
+    // Holds the stripe so the replay cannot see a LedgerCompactor step half-applied.
+    private Money replayBalance(String accountNumber) {
+        if (accountLocks != null) {
+            accountLocks.lock(accountNumber);
+        }
+
+        try {
+            return bankingOperation.calculateBalance(accountNumber, transactionRepository.findByAccountNumber(accountNumber));
+        } finally {
+            if (accountLocks != null) {
+                accountLocks.unlock(accountNumber);
+            }
+        }
+    }
+
+    public List<Transaction> getTransactions(String accountNumber) {
+        if (accountRepository.findAccount(accountNumber) == null) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+
+        if (hotCredits.containsKey(accountNumber)) {
+            foldHotCredits(accountNumber);
+        }
+
+        // findByAccountNumber leaves out compacted or pre-snapshot rows; stream covers the full history.
+        try (Stream<Transaction> history = transactionRepository.stream(TransactionQuery.forAccount(accountNumber))) {
+            return history.toList();
+        }
+    }
+
+    /**
+     * One page of the account's history, for callers that must not load all of it (see TransactionQuery).
+     */
+    public TransactionPage queryTransactions(TransactionQuery query) {
+        String accountNumber = query.getAccountNumber();
+
+        if (accountRepository.findAccount(accountNumber) == null) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+
+        if (hotCredits.containsKey(accountNumber)) {
+            foldHotCredits(accountNumber);
+        }
+
+        return transactionRepository.query(query);
+    }
+
+    /**
+     * Switches the account to hot mode: from now on its credits are buffered in per-thread buckets.
+     */
+    public void enableHotCredits(String accountNumber) {
+        hotCredits.computeIfAbsent(accountNumber, key -> new CreditBuckets());
+    }
+
+    /**
+     * Folds the account's pending credits into the ledger and returns it to normal mode.
+     */
+    public void disableHotCredits(String accountNumber) {
+        if (accountLocks != null) {
+            accountLocks.lock(accountNumber);
+        }
+
+        try {
+            CreditBuckets credits = hotCredits.remove(accountNumber);
+
+            if (credits != null) {
+                saveAll(oldestFirst(credits.close()));
+            }
+        } finally {
+            if (accountLocks != null) {
+                accountLocks.unlock(accountNumber);
+            }
+        }
+    }
+
+    public boolean hasHotCredits(String accountNumber) {
+        return hotCredits.containsKey(accountNumber);
+    }
+
+    /**
+     * Moves the account's pending credits into the ledger now, e.g. from a periodic task.
+     */
+    public void foldHotCredits(String accountNumber) {
+        if (accountLocks != null) {
+            accountLocks.lock(accountNumber);
+        }
+
+        try {
+            foldCredits(accountNumber);
+        } finally {
+            if (accountLocks != null) {
+                accountLocks.unlock(accountNumber);
+            }
+        }
+    }
+
+    public void changeAccountState(String accountNumber, AccountState state) {
+        Account account = accountRepository.findAccount(accountNumber);
+
+        if (account == null) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+
+        if (accountLocks != null) {
+            accountLocks.lock(accountNumber);
+        }
+
+        try {
+            account.changeAccountState(state);
+            accountRepository.saveAccount(account);
+        } finally {
+            if (accountLocks != null) {
+                accountLocks.unlock(accountNumber);
+            }
+        }
+    }
+
+    /**
+     * Moves every listed account to the given state, e.g. for a compliance freeze or close sweep.
+     *
+     * Accounts are processed in chunks of STATE_CHANGE_CHUNK_SIZE; only the stripes of the current
+     * chunk are held, so operations on other accounts keep running during the sweep. An account that
+     * is missing or cannot make the transition is reported and does not stop the sweep.
+     */
+    public List<StateChangeResult> changeAccountStates(List<String> accountNumbers, AccountState state) {
+        List<StateChangeResult> results = new ArrayList<>(accountNumbers.size());
+
+        for (int from = 0; from < accountNumbers.size(); from += STATE_CHANGE_CHUNK_SIZE) {
+            List<String> chunk = accountNumbers.subList(from, Math.min(from + STATE_CHANGE_CHUNK_SIZE, accountNumbers.size()));
+            int[] heldStripes = accountLocks != null ? accountLocks.lockAll(chunk) : null;
+
+            try {
+                for (String accountNumber : chunk) {
+                    results.add(changeStateInSweep(accountNumber, state));
+                }
+            } finally {
+                if (heldStripes != null) {
+                    accountLocks.unlockAll(heldStripes);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    private StateChangeResult changeStateInSweep(String accountNumber, AccountState state) {
+        Account account = accountRepository.findAccount(accountNumber);
+
+        if (account == null) {
+            return StateChangeResult.failure(accountNumber, null, new AccountNotFoundException("Account not found: " + accountNumber));
+        }
+
+        AccountState previousState = account.getAccountState();
+
+        try {
+            // Retries only if the account is changed outside the service while the stripe is held.
+            while (!account.compareAndChangeState(previousState, state)) {
+                previousState = account.getAccountState();
+            }
+            accountRepository.saveAccount(account);
+            return StateChangeResult.success(accountNumber, previousState);
+        } catch (RuntimeException e) {
+            return StateChangeResult.failure(accountNumber, previousState, e);
+        }
+    }
+
+    /**
+     * Runs a batch of commands in submission order and persists every resulting transaction in one bulk append.
+     *
+     * Each account is resolved once, and each debited account's history is read once; later commands
+     * see the effect of earlier ones in the same batch. A rejected command does not stop the batch.
+     */
+    public List<CommandResult> submitBatch(List<BankingCommand> commands) {
+        Set<String> accountNumbers = new HashSet<>();
+
+        for (BankingCommand command : commands) {
+            accountNumbers.add(command.getAccountNumber());
+
+            if (command.getToAccountNumber() != null) {
+                accountNumbers.add(command.getToAccountNumber());
+            }
+        }
+
+        Map<String, Account> accounts = new HashMap<>();
+
+        for (String accountNumber : accountNumbers) {
+            Account account = accountRepository.findAccount(accountNumber);
+
+            if (account != null) {
+                accounts.put(accountNumber, account);
+            }
+        }
+
+        int[] heldStripes = accountLocks != null ? accountLocks.lockAll(accountNumbers) : null;
+
+        try {
+            for (String accountNumber : accountNumbers) {
+                foldCredits(accountNumber);
+            }
+
+            List<CommandResult> results = new ArrayList<>(commands.size());
+            List<Transaction> pending = new ArrayList<>();
+            Map<String, Money> persistedBalances = new HashMap<>();
+            Map<String, Money> batchDeltas = new HashMap<>();
+
+            for (BankingCommand command : commands) {
+                try {
+                    List<Transaction> transactions = applyInBatch(command, accounts, persistedBalances, batchDeltas);
+                    pending.addAll(transactions);
+                    results.add(CommandResult.success(command, transactions));
+                } catch (RuntimeException e) {
+                    results.add(CommandResult.failure(command, e));
+                }
+            }
+
+            saveAll(pending);
+            return results;
+        } finally {
+            if (heldStripes != null) {
+                accountLocks.unlockAll(heldStripes);
+            }
+        }
+    }
+
+    private List<Transaction> applyInBatch(BankingCommand command, Map<String, Account> accounts, Map<String, Money> persistedBalances, Map<String, Money> batchDeltas) {
+        Account account = accounts.get(command.getAccountNumber());
+
+        if (account == null) {
+            throw new AccountNotFoundException("Account not found: " + command.getAccountNumber());
+        }
+
+        switch (command.getCommandType()) {
+            case DEPOSIT -> {
+                Transaction transaction = bankingOperation.deposit(account, command.getAmount());
+                batchDeltas.merge(command.getAccountNumber(), transaction.getAmount(), Money::plus);
+                return List.of(transaction);
+            }
+            case WITHDRAW -> {
+                Money balance = batchBalance(command.getAccountNumber(), persistedBalances, batchDeltas);
+                Transaction transaction = bankingOperation.withdraw(account, command.getAmount(), balance);
+                batchDeltas.merge(command.getAccountNumber(), transaction.getAmount().negate(), Money::plus);
+                return List.of(transaction);
+            }
+            case TRANSFER -> {
+                Account toAccount = accounts.get(command.getToAccountNumber());
+
+                if (toAccount == null) {
+                    throw new AccountNotFoundException("Account not found: " + command.getToAccountNumber());
+                }
+
+                Money balance = batchBalance(command.getAccountNumber(), persistedBalances, batchDeltas);
+                List<Transaction> transactions = bankingOperation.transfer(account, toAccount, command.getAmount(), balance);
+                Money amount = transactions.get(0).getAmount();
+                batchDeltas.merge(command.getAccountNumber(), amount.negate(), Money::plus);
+                batchDeltas.merge(command.getToAccountNumber(), amount, Money::plus);
+                return transactions;
+            }
+            default -> throw new IllegalArgumentException("Unknown command type: " + command.getCommandType());
+        }
+    }
+
+    private void save(Transaction transaction) {
+        if (balanceCache == null) {
+            transactionRepository.saveTransaction(transaction);
+            return;
+        }
+
+        // Opened before the write so a getBalance replay that already sees the row cannot cache it and then get it again from apply.
+        balanceCache.beginWrite(transaction.getAccountNumber());
+
+        try {
+            transactionRepository.saveTransaction(transaction);
+        } catch (RuntimeException | Error e) {
+            balanceCache.abortWrite(transaction.getAccountNumber());
+            throw e;
+        }
+
+        balanceCache.apply(transaction);
+    }
+
+    private void saveAll(List<Transaction> transactions) {
+        if (balanceCache == null) {
+            transactionRepository.saveTransactions(transactions);
+            return;
+        }
+
+        for (Transaction transaction : transactions) {
+            balanceCache.beginWrite(transaction.getAccountNumber());
+        }
+
+        try {
+            transactionRepository.saveTransactions(transactions);
+        } catch (RuntimeException | Error e) {
+            for (Transaction transaction : transactions) {
+                balanceCache.abortWrite(transaction.getAccountNumber());
+            }
+            throw e;
+        }
+
+        for (Transaction transaction : transactions) {
+            balanceCache.apply(transaction);
+        }
+    }
+
+    // A credit to a hot account goes to its buckets. Safe while holding other stripes: the fold only tries the lock.
+    private void credit(Transaction transaction, CreditBuckets credits) {
+        int pending = credits != null ? credits.add(transaction) : -1;
+
+        if (pending < 0) {
+            save(transaction);
+            return;
+        }
+
+        if (pending >= HOT_FOLD_THRESHOLD) {
+            String accountNumber = transaction.getAccountNumber();
+
+            // Folding needs the stripe; if a debit or another fold holds it, that one will catch up instead.
+            if (accountLocks == null) {
+                foldCredits(accountNumber);
+            } else if (accountLocks.tryLock(accountNumber)) {
+                try {
+                    foldCredits(accountNumber);
+                } finally {
+                    accountLocks.unlock(accountNumber);
+                }
+            }
+        }
+    }
+
+    private void saveLeg(Transaction transaction, CreditBuckets toCredits) {
+        if (transaction.getTransactionType() == TransactionType.TRANSFER_CREDIT) {
+            credit(transaction, toCredits);
+        } else {
+            save(transaction);
+        }
+    }
+
+    // Caller holds the account's stripe, so no debit or balance replay can run between drain and save.
+    private void foldCredits(String accountNumber) {
+        CreditBuckets credits = hotCredits.get(accountNumber);
+
+        if (credits != null) {
+            List<Transaction> pending = credits.drain();
+
+            if (!pending.isEmpty()) {
+                saveAll(oldestFirst(pending));
+            }
+        }
+    }
+
+    // Buckets drain in bucket order; sorting keeps the fold from adding out-of-order rows to the ledger.
+    private static List<Transaction> oldestFirst(List<Transaction> credits) {
+        credits.sort(Comparator.comparing(Transaction::getOccurredAt));
+        return credits;
+    }
+
+    // A transfer into a hot account only debits under a lock, so it holds just the source's stripe.
+    private void lockTransfer(String fromAccountNumber, String toAccountNumber, CreditBuckets toCredits) {
+        if (accountLocks == null) {
+            return;
+        }
+
+        if (toCredits != null) {
+            accountLocks.lock(fromAccountNumber);
+        } else {
+            accountLocks.lockBoth(fromAccountNumber, toAccountNumber);
+        }
+    }
+
+    private void unlockTransfer(String fromAccountNumber, String toAccountNumber, CreditBuckets toCredits) {
+        if (accountLocks == null) {
+            return;
+        }
+
+        if (toCredits != null) {
+            accountLocks.unlock(fromAccountNumber);
+        } else {
+            accountLocks.unlockBoth(fromAccountNumber, toAccountNumber);
+        }
+    }
 
-         for(Transaction transaction : transactionList) {
-             transactionRepository.saveTransaction(transaction);
-         }
+    // Persisted balance, read once per account, plus everything earlier commands in the batch did to it.
+    private Money batchBalance(String accountNumber, Map<String, Money> persistedBalances, Map<String, Money> batchDeltas) {
+        Money persisted = persistedBalances.computeIfAbsent(
+                accountNumber,
+                key -> bankingOperation.calculateBalance(key, transactionRepository.findByAccountNumber(key))
+        );
 
-         return transactionList;
+        return persisted.plus(batchDeltas.getOrDefault(accountNumber, Money.ZERO));
     }
 
 }
@@ -0,0 +1,47 @@
+package banking.service;
+
+import banking.domain.transaction.Transaction;
+
+import java.util.List;
+
+public class CommandResult {
+    private final BankingCommand command;
+    private final List<Transaction> transactions;
+    private final RuntimeException failure;
+
+    private CommandResult(BankingCommand command, List<Transaction> transactions, RuntimeException failure) {
+        this.command = command;
+        this.transactions = transactions;
+        this.failure = failure;
+    }
+
+    public static CommandResult success(BankingCommand command, List<Transaction> transactions) {
+        return new CommandResult(command, transactions, null);
+    }
+
+    public static CommandResult failure(BankingCommand command, RuntimeException failure) {
+        return new CommandResult(command, List.of(), failure);
+    }
+
+    public BankingCommand getCommand() {
+        return command;
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    /**
+     * The transactions the command produced; empty when it was rejected.
+     */
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Why the command was rejected; null when it succeeded.
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+}
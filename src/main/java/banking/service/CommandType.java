@@ -0,0 +1,7 @@
+package banking.service;
+
+public enum CommandType {
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER;
+}
@@ -0,0 +1,46 @@
+package banking.service;
+
+import java.time.Instant;
+
+/**
+ * Totals for one LedgerCompactor run.
+ */
+public class CompactionResult {
+    private final Instant horizon;
+    private final int accountsCompacted;
+    private final long rowsCompacted;
+    private final long rawBytes;
+    private final long compressedBytes;
+
+    public CompactionResult(Instant horizon, int accountsCompacted, long rowsCompacted, long rawBytes, long compressedBytes) {
+        this.horizon = horizon;
+        this.accountsCompacted = accountsCompacted;
+        this.rowsCompacted = rowsCompacted;
+        this.rawBytes = rawBytes;
+        this.compressedBytes = compressedBytes;
+    }
+
+    public Instant getHorizon() {
+        return horizon;
+    }
+
+    public int getAccountsCompacted() {
+        return accountsCompacted;
+    }
+
+    public long getRowsCompacted() {
+        return rowsCompacted;
+    }
+
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    public double getCompressionRatio() {
+        return compressedBytes == 0 ? 0 : (double) rawBytes / compressedBytes;
+    }
+}
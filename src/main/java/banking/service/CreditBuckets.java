@@ -0,0 +1,78 @@
+package banking.service;
+
+import banking.domain.transaction.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pending credits for one hot account, spread over buckets picked by the writing thread,
+ * in the spirit of LongAdder: concurrent creditors usually land in different buckets and
+ * never contend on the account's ledger. BankingService folds the buckets into the ledger.
+ */
+final class CreditBuckets {
+    private final Bucket[] buckets;
+    private final int mask;
+
+    CreditBuckets() {
+        int size = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        this.buckets = new Bucket[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * @return the number of credits now pending in the caller's bucket, or -1 if the buckets are closed
+     *         and the caller must save the credit itself
+     */
+    int add(Transaction credit) {
+        long id = Thread.currentThread().threadId();
+        int hash = (int) (id ^ (id >>> 32));
+        Bucket bucket = buckets[(hash ^ (hash >>> 16)) & mask];
+
+        synchronized (bucket) {
+            if (bucket.closed) {
+                return -1;
+            }
+
+            bucket.pending.add(credit);
+            return bucket.pending.size();
+        }
+    }
+
+    /**
+     * Removes and returns every pending credit, bucket by bucket; the order across buckets is not the arrival order.
+     */
+    List<Transaction> drain() {
+        return drain(false);
+    }
+
+    /**
+     * Drains for the last time; later adds are refused so no credit can be left behind.
+     */
+    List<Transaction> close() {
+        return drain(true);
+    }
+
+    private List<Transaction> drain(boolean close) {
+        List<Transaction> drained = new ArrayList<>();
+
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                drained.addAll(bucket.pending);
+                bucket.pending.clear();
+                bucket.closed |= close;
+            }
+        }
+
+        return drained;
+    }
+
+    private static final class Bucket {
+        private final List<Transaction> pending = new ArrayList<>();
+        private boolean closed;
+    }
+}
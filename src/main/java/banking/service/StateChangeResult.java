@@ -0,0 +1,48 @@
+package banking.service;
+
+import banking.domain.account.AccountState;
+
+/**
+ * Outcome of changing one account's state in a bulk sweep.
+ */
+public class StateChangeResult {
+    private final String accountNumber;
+    private final AccountState previousState;
+    private final RuntimeException failure;
+
+    private StateChangeResult(String accountNumber, AccountState previousState, RuntimeException failure) {
+        this.accountNumber = accountNumber;
+        this.previousState = previousState;
+        this.failure = failure;
+    }
+
+    public static StateChangeResult success(String accountNumber, AccountState previousState) {
+        return new StateChangeResult(accountNumber, previousState, null);
+    }
+
+    public static StateChangeResult failure(String accountNumber, AccountState previousState, RuntimeException failure) {
+        return new StateChangeResult(accountNumber, previousState, failure);
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    /**
+     * The state the account was in when the sweep reached it; null when the account was not found.
+     */
+    public AccountState getPreviousState() {
+        return previousState;
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    /**
+     * Why the state was not changed; null when it was.
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * PURPOSE:
+ * Maps account numbers onto a fixed set of locks so workflows on the same
+ * account are serialized while unrelated accounts proceed in parallel.
+ *
+ * RESPONSIBILITIES:
+ * - Pick the stripe for an account number
+ * - Acquire two stripes in a canonical (ascending index) order so transfers cannot deadlock
+ * - Acquire every stripe a batch touches, in the same order
+ *
+ * USED BY:
+ * - BankingService (concurrency mode)
+ */
+
+
+package banking.service;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class StripedAccountLocks {
+    private static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public StripedAccountLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public StripedAccountLocks(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be greater than 0");
+        }
+
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        if (stripeCount == 1) {
+            size = 1;
+        }
+
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public int stripeOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        // Spread the high bits down, as HashMap does, so similar account numbers do not share a stripe.
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    public void lock(String accountNumber) {
+        stripes[stripeOf(accountNumber)].lock();
+    }
+
+    /**
+     * Acquires the account's stripe only if no other thread holds it.
+     */
+    public boolean tryLock(String accountNumber) {
+        return stripes[stripeOf(accountNumber)].tryLock();
+    }
+
+    public void unlock(String accountNumber) {
+        stripes[stripeOf(accountNumber)].unlock();
+    }
+
+    public void lockBoth(String firstAccountNumber, String secondAccountNumber) {
+        int first = stripeOf(firstAccountNumber);
+        int second = stripeOf(secondAccountNumber);
+
+        stripes[Math.min(first, second)].lock();
+
+        if (first != second) {
+            stripes[Math.max(first, second)].lock();
+        }
+    }
+
+    public void unlockBoth(String firstAccountNumber, String secondAccountNumber) {
+        int first = stripeOf(firstAccountNumber);
+        int second = stripeOf(secondAccountNumber);
+
+        if (first != second) {
+            stripes[Math.max(first, second)].unlock();
+        }
+
+        stripes[Math.min(first, second)].unlock();
+    }
+
+    /**
+     * Locks the stripes of every account in ascending stripe order and returns them for unlockAll.
+     */
+    public int[] lockAll(Collection<String> accountNumbers) {
+        int[] held = accountNumbers.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        for (int stripe : held) {
+            stripes[stripe].lock();
+        }
+
+        return held;
+    }
+
+    public void unlockAll(int[] held) {
+        for (int i = held.length - 1; i >= 0; i--) {
+            stripes[held[i]].unlock();
+        }
+    }
+}
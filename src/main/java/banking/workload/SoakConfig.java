@@ -0,0 +1,130 @@
+package banking.workload;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Immutable settings for a SoakHarness run; each with* method returns a changed copy.
+ */
+public class SoakConfig {
+    private final int accounts;
+    private final int threads;
+    private final Duration duration;
+    private final Duration reportInterval;
+    private final double zipfExponent;
+    private final WorkloadMix mix;
+    private final BigDecimal openingBalance;
+    private final BigDecimal maxAmount;
+    private final long seed;
+
+    private SoakConfig(int accounts, int threads, Duration duration, Duration reportInterval, double zipfExponent, WorkloadMix mix, BigDecimal openingBalance, BigDecimal maxAmount, long seed) {
+        if (accounts < 2) {
+            throw new IllegalArgumentException("At least 2 accounts are needed for transfers");
+        }
+
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be greater than 0");
+        }
+
+        if (duration.isNegative() || duration.isZero() || reportInterval.isNegative() || reportInterval.isZero()) {
+            throw new IllegalArgumentException("Duration and report interval must be greater than 0");
+        }
+
+        if (maxAmount.compareTo(new BigDecimal("0.01")) < 0) {
+            throw new IllegalArgumentException("Max amount must be at least 0.01");
+        }
+
+        this.accounts = accounts;
+        this.threads = threads;
+        this.duration = duration;
+        this.reportInterval = reportInterval;
+        this.zipfExponent = zipfExponent;
+        this.mix = mix;
+        this.openingBalance = openingBalance;
+        this.maxAmount = maxAmount;
+        this.seed = seed;
+    }
+
+    /**
+     * 10,000 accounts, one thread per core, 60 s in 5 s intervals, Zipf exponent 0.99 and a 20/30/50 mix.
+     */
+    public static SoakConfig defaults() {
+        return new SoakConfig(10_000, Runtime.getRuntime().availableProcessors(), Duration.ofSeconds(60), Duration.ofSeconds(5),
+                0.99, new WorkloadMix(20, 30, 50), new BigDecimal("1000.00"), new BigDecimal("100.00"), 42L);
+    }
+
+    public SoakConfig withAccounts(int accounts) {
+        return new SoakConfig(accounts, threads, duration, reportInterval, zipfExponent, mix, openingBalance, maxAmount, seed);
+    }
+
+    public SoakConfig withThreads(int threads) {
+        return new SoakConfig(accounts, threads, duration, reportInterval, zipfExponent, mix, openingBalance, maxAmount, seed);
+    }
+
+    public SoakConfig withDuration(Duration duration) {
+        return new SoakConfig(accounts, threads, duration, reportInterval, zipfExponent, mix, openingBalance, maxAmount, seed);
+    }
+
+    public SoakConfig withReportInterval(Duration reportInterval) {
+        return new SoakConfig(accounts, threads, duration, reportInterval, zipfExponent, mix, openingBalance, maxAmount, seed);
+    }
+
+    public SoakConfig withZipfExponent(double zipfExponent) {
+        return new SoakConfig(accounts, threads, duration, reportInterval, zipfExponent, mix, openingBalance, maxAmount, seed);
+    }
+
+    public SoakConfig withMix(WorkloadMix mix) {
+        return new SoakConfig(accounts, threads, duration, reportInterval, zipfExponent, mix, openingBalance, maxAmount, seed);
+    }
+
+    public SoakConfig withOpeningBalance(BigDecimal openingBalance) {
+        return new SoakConfig(accounts, threads, duration, reportInterval, zipfExponent, mix, openingBalance, maxAmount, seed);
+    }
+
+    /**
+     * Amounts are drawn uniformly from 0.01 to maxAmount.
+     */
+    public SoakConfig withMaxAmount(BigDecimal maxAmount) {
+        return new SoakConfig(accounts, threads, duration, reportInterval, zipfExponent, mix, openingBalance, maxAmount, seed);
+    }
+
+    public SoakConfig withSeed(long seed) {
+        return new SoakConfig(accounts, threads, duration, reportInterval, zipfExponent, mix, openingBalance, maxAmount, seed);
+    }
+
+    public int getAccounts() {
+        return accounts;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getReportInterval() {
+        return reportInterval;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public WorkloadMix getMix() {
+        return mix;
+    }
+
+    public BigDecimal getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * PURPOSE:
+ * Drives sustained, skewed traffic through a BankingService and reports how it holds up over time.
+ *
+ * RESPONSIBILITIES:
+ * - Create the configured number of accounts through the AccountRepository and fund them through the service
+ * - Run deposit / withdraw / transfer traffic in the configured mix on many threads, picking accounts
+ *   with a Zipfian distribution so a few hot accounts take most of the traffic
+ * - Report throughput, p50/p99/p999 latency and rejection ratios per interval and for the whole run
+ *
+ * MEASUREMENT:
+ * - Each interval records into its own EngineMetrics, swapped at the interval boundary; an operation that
+ *   straddles the boundary is counted in the interval it started in
+ * - Threads run closed-loop (the next call starts when the previous returns), so latency under
+ *   overload shows up as lower throughput rather than as queueing delay
+ *
+ * ASSUMES:
+ * - The BankingService is safe to call from several threads (constructed with StripedAccountLocks
+ *   and thread-safe repositories) when threads is greater than 1
+ *
+ * WHY THIS EXISTS:
+ * Unit tests show that operations are correct, not how the engine behaves when a few
+ * merchant accounts take most transfers for minutes at a time.
+ */
+
+
+package banking.workload;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.metrics.EngineMetrics;
+import banking.metrics.MetricOperation;
+import banking.repository.AccountRepository;
+import banking.service.BankingService;
+import banking.service.CommandType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class SoakHarness {
+    private static final int AMOUNT_CHOICES = 1024;
+    private static final String ACCOUNT_PREFIX = "SOAK-";
+
+    private final BankingService bankingService;
+    private final AccountRepository accountRepository;
+    private final SoakConfig config;
+    private final String[] accountNumbers;
+    private final BigDecimal[] amounts;
+
+    private volatile EngineMetrics intervalMetrics;
+    private volatile boolean running;
+
+    public SoakHarness(BankingService bankingService, AccountRepository accountRepository, SoakConfig config) {
+        this.bankingService = bankingService;
+        this.accountRepository = accountRepository;
+        this.config = config;
+        this.accountNumbers = new String[config.getAccounts()];
+        this.amounts = new BigDecimal[AMOUNT_CHOICES];
+
+        for (int i = 0; i < accountNumbers.length; i++) {
+            accountNumbers[i] = ACCOUNT_PREFIX + i;
+        }
+
+        // Precomputed so the load loop allocates no amounts.
+        long maxMinorUnits = config.getMaxAmount().movePointRight(2).longValue();
+
+        for (int i = 0; i < AMOUNT_CHOICES; i++) {
+            amounts[i] = BigDecimal.valueOf(1 + i * (maxMinorUnits - 1) / (AMOUNT_CHOICES - 1), 2);
+        }
+    }
+
+    public String accountNumberOf(int rank) {
+        return accountNumbers[rank];
+    }
+
+    public SoakReport run() throws InterruptedException {
+        return run(interval -> {
+        });
+    }
+
+    /**
+     * @param onInterval called on the calling thread after each interval, e.g. to print live progress
+     */
+    public SoakReport run(Consumer<SoakInterval> onInterval) throws InterruptedException {
+        openAccounts();
+
+        ZipfianDistribution distribution = new ZipfianDistribution(accountNumbers.length, config.getZipfExponent());
+        EngineMetrics totalMetrics = new EngineMetrics();
+        List<SoakInterval> intervals = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        CountDownLatch go = new CountDownLatch(1);
+
+        running = true;
+
+        for (int t = 0; t < config.getThreads(); t++) {
+            SplittableRandom random = new SplittableRandom(config.getSeed() + t);
+            Thread worker = new Thread(() -> {
+                try {
+                    go.await();
+                    drive(random, distribution, totalMetrics);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "soak-worker-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        totalMetrics.reset();
+        intervalMetrics = new EngineMetrics();
+        long start = System.nanoTime();
+        go.countDown();
+
+        long end = start + config.getDuration().toNanos();
+        long intervalNanos = config.getReportInterval().toNanos();
+        long nextTick = start;
+
+        while (nextTick < end) {
+            nextTick = Math.min(nextTick + intervalNanos, end);
+            sleepUntil(nextTick);
+
+            EngineMetrics finished = intervalMetrics;
+            intervalMetrics = new EngineMetrics();
+            SoakInterval interval = new SoakInterval(Duration.ofNanos(System.nanoTime() - start), finished.snapshot());
+            intervals.add(interval);
+            onInterval.accept(interval);
+        }
+
+        running = false;
+
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        return new SoakReport(config, intervals, new SoakInterval(Duration.ofNanos(System.nanoTime() - start), totalMetrics.snapshot()));
+    }
+
+    private void openAccounts() {
+        for (String accountNumber : accountNumbers) {
+            if (accountRepository.findAccount(accountNumber) == null) {
+                accountRepository.saveAccount(new Account(accountNumber, AccountState.ACTIVE));
+
+                if (config.getOpeningBalance().signum() > 0) {
+                    bankingService.deposit(accountNumber, config.getOpeningBalance());
+                }
+            }
+        }
+    }
+
+    private void drive(SplittableRandom random, ZipfianDistribution distribution, EngineMetrics totalMetrics) {
+        WorkloadMix mix = config.getMix();
+
+        while (running) {
+            CommandType type = mix.pick(random);
+            int from = distribution.sample(random);
+            int to = type == CommandType.TRANSFER ? distribution.sample(random) : from;
+            BigDecimal amount = amounts[random.nextInt(AMOUNT_CHOICES)];
+            EngineMetrics metrics = intervalMetrics;
+
+            // Transfers to the same account are not meaningful traffic; move to a neighbour instead.
+            if (type == CommandType.TRANSFER && to == from) {
+                to = (to + 1) % accountNumbers.length;
+            }
+
+            MetricOperation operation = switch (type) {
+                case DEPOSIT -> MetricOperation.DEPOSIT;
+                case WITHDRAW -> MetricOperation.WITHDRAW;
+                case TRANSFER -> MetricOperation.TRANSFER;
+            };
+            long startedAt = System.nanoTime();
+
+            try {
+                switch (type) {
+                    case DEPOSIT -> bankingService.deposit(accountNumbers[from], amount);
+                    case WITHDRAW -> bankingService.withdraw(accountNumbers[from], amount);
+                    case TRANSFER -> bankingService.transfer(accountNumbers[from], accountNumbers[to], amount);
+                }
+
+                long elapsed = System.nanoTime() - startedAt;
+                metrics.recordSuccess(operation, elapsed);
+                totalMetrics.recordSuccess(operation, elapsed);
+            } catch (RuntimeException e) {
+                metrics.recordFailure(operation, e);
+                totalMetrics.recordFailure(operation, e);
+            }
+        }
+    }
+
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remaining;
+
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
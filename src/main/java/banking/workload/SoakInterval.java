@@ -0,0 +1,110 @@
+package banking.workload;
+
+import banking.metrics.HistogramSnapshot;
+import banking.metrics.MetricOperation;
+import banking.metrics.MetricsSnapshot;
+import banking.metrics.OperationStats;
+
+import java.time.Duration;
+
+/**
+ * Numbers for one report interval of a soak run, or for the whole run.
+ */
+public class SoakInterval {
+    private static final MetricOperation[] OPERATIONS = {MetricOperation.DEPOSIT, MetricOperation.WITHDRAW, MetricOperation.TRANSFER};
+
+    private final Duration endsAt;
+    private final MetricsSnapshot snapshot;
+
+    SoakInterval(Duration endsAt, MetricsSnapshot snapshot) {
+        this.endsAt = endsAt;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Time from the start of the run to the end of this interval.
+     */
+    public Duration getEndsAt() {
+        return endsAt;
+    }
+
+    public MetricsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getOperationCount() {
+        long total = 0;
+
+        for (MetricOperation operation : OPERATIONS) {
+            OperationStats stats = snapshot.get(operation);
+            total += stats.getSuccessCount() + stats.getRejectionCount() + stats.getErrorCount();
+        }
+
+        return total;
+    }
+
+    /**
+     * Operations that failed for a reason other than a business rule, e.g. a repository error.
+     */
+    public long getErrorCount() {
+        long total = 0;
+
+        for (MetricOperation operation : OPERATIONS) {
+            total += snapshot.get(operation).getErrorCount();
+        }
+
+        return total;
+    }
+
+    public long getRejectionCount() {
+        long total = 0;
+
+        for (MetricOperation operation : OPERATIONS) {
+            total += snapshot.get(operation).getRejectionCount();
+        }
+
+        return total;
+    }
+
+    /**
+     * Completed operations per second: accepted, rejected and failed.
+     */
+    public double getThroughputPerSecond() {
+        long nanos = snapshot.getWindow().toNanos();
+        return nanos == 0 ? 0 : getOperationCount() * 1e9 / nanos;
+    }
+
+    public double getRejectionRatio() {
+        long operations = getOperationCount();
+        return operations == 0 ? 0 : (double) getRejectionCount() / operations;
+    }
+
+    public double getRejectionRatio(MetricOperation operation) {
+        OperationStats stats = snapshot.get(operation);
+        long operations = stats.getSuccessCount() + stats.getRejectionCount() + stats.getErrorCount();
+        return operations == 0 ? 0 : (double) stats.getRejectionCount() / operations;
+    }
+
+    /**
+     * Latency of the accepted operations, in nanoseconds.
+     */
+    public HistogramSnapshot getLatency(MetricOperation operation) {
+        return snapshot.get(operation).getLatency();
+    }
+
+    /**
+     * One line: time, ops/s, rejection %, then p50/p99/p999 in microseconds per operation.
+     */
+    public String toLine() {
+        StringBuilder line = new StringBuilder(String.format("%6.1fs %12.0f ops/s %6.2f%% rej",
+                endsAt.toMillis() / 1000.0, getThroughputPerSecond(), getRejectionRatio() * 100));
+
+        for (MetricOperation operation : OPERATIONS) {
+            HistogramSnapshot latency = getLatency(operation);
+            line.append(String.format("  %s %.1f/%.1f/%.1f us", operation.name().toLowerCase(),
+                    latency.getP50() / 1000.0, latency.getP99() / 1000.0, latency.getP999() / 1000.0));
+        }
+
+        return line.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package banking.workload;
+
+import java.util.List;
+
+/**
+ * Result of a SoakHarness run: one SoakInterval per report interval plus the totals.
+ */
+public class SoakReport {
+    private final SoakConfig config;
+    private final List<SoakInterval> intervals;
+    private final SoakInterval total;
+
+    SoakReport(SoakConfig config, List<SoakInterval> intervals, SoakInterval total) {
+        this.config = config;
+        this.intervals = List.copyOf(intervals);
+        this.total = total;
+    }
+
+    public SoakConfig getConfig() {
+        return config;
+    }
+
+    public List<SoakInterval> getIntervals() {
+        return intervals;
+    }
+
+    public SoakInterval getTotal() {
+        return total;
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder(String.format("%,d accounts, %d threads, zipf %.2f, mix %s (deposit/withdraw/transfer)%n",
+                config.getAccounts(), config.getThreads(), config.getZipfExponent(), config.getMix()));
+
+        for (SoakInterval interval : intervals) {
+            text.append(interval.toLine()).append(System.lineSeparator());
+        }
+
+        return text.append("total ").append(total.toLine()).append(System.lineSeparator()).toString();
+    }
+}
@@ -0,0 +1,55 @@
+package banking.workload;
+
+import banking.service.CommandType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Relative weights of deposit, withdraw and transfer traffic, e.g. 20 / 30 / 50.
+ */
+public class WorkloadMix {
+    private final int depositWeight;
+    private final int withdrawWeight;
+    private final int transferWeight;
+
+    public WorkloadMix(int depositWeight, int withdrawWeight, int transferWeight) {
+        if (depositWeight < 0 || withdrawWeight < 0 || transferWeight < 0) {
+            throw new IllegalArgumentException("Weights must not be negative");
+        }
+
+        if (depositWeight + withdrawWeight + transferWeight == 0) {
+            throw new IllegalArgumentException("At least one weight must be greater than 0");
+        }
+
+        this.depositWeight = depositWeight;
+        this.withdrawWeight = withdrawWeight;
+        this.transferWeight = transferWeight;
+    }
+
+    public int getDepositWeight() {
+        return depositWeight;
+    }
+
+    public int getWithdrawWeight() {
+        return withdrawWeight;
+    }
+
+    public int getTransferWeight() {
+        return transferWeight;
+    }
+
+    public CommandType pick(SplittableRandom random) {
+        int roll = random.nextInt(depositWeight + withdrawWeight + transferWeight);
+
+        if (roll < depositWeight) {
+            return CommandType.DEPOSIT;
+        }
+
+        return roll < depositWeight + withdrawWeight ? CommandType.WITHDRAW : CommandType.TRANSFER;
+    }
+
+    @Override
+    public String toString() {
+        return depositWeight + "/" + withdrawWeight + "/" + transferWeight;
+    }
+}
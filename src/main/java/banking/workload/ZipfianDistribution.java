@@ -0,0 +1,68 @@
+package banking.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Samples ranks 0..size-1 with probability proportional to 1 / (rank + 1)^exponent,
+ * so rank 0 is the hottest. Exponent 0 is uniform; around 1 a handful of ranks take most of the draws.
+ * The cumulative table is built once (8 bytes per rank) and each draw is a binary search.
+ */
+public class ZipfianDistribution {
+    private final double[] cumulative;
+
+    public ZipfianDistribution(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be greater than 0");
+        }
+
+        if (exponent < 0 || Double.isNaN(exponent)) {
+            throw new IllegalArgumentException("Exponent must not be negative");
+        }
+
+        this.cumulative = new double[size];
+        double total = 0;
+
+        for (int rank = 0; rank < size; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= total;
+        }
+
+        cumulative[size - 1] = 1.0;
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public int sample(SplittableRandom random) {
+        return sample(random.nextDouble());
+    }
+
+    /**
+     * @param uniform a value in [0, 1)
+     */
+    public int sample(double uniform) {
+        int low = 0;
+        int high = cumulative.length - 1;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+
+            if (cumulative[mid] > uniform) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        return low;
+    }
+
+    public double probabilityOf(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+}
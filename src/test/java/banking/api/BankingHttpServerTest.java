@@ -0,0 +1,172 @@
+package banking.api;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import banking.service.BankingService;
+import banking.service.StripedAccountLocks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BankingHttpServerTest {
+    private BankingHttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("B1", AccountState.ACTIVE));
+        BankingService bankingService = new BankingService(accountRepository, new PartitionedTransactionRepository(), new BankingOperation(), new StripedAccountLocks());
+
+        server = new BankingHttpServer(bankingService, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        client.close();
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void endpoints_DepositWithdrawTransferBalanceHistory() throws Exception {
+        HttpResponse<String> deposit = post("/accounts/A1/deposit", "{\"amount\": \"100.00\"}");
+        HttpResponse<String> withdraw = post("/accounts/A1/withdraw", "{\"amount\": 25.5}");
+        HttpResponse<String> transfer = post("/transfers", "{\"from\": \"A1\", \"to\": \"B1\", \"amount\": \"50.00\"}");
+
+        assertEquals(201, deposit.statusCode());
+        assertTrue(deposit.body().contains("\"type\":\"DEPOSIT\""));
+        assertEquals(201, withdraw.statusCode());
+        assertEquals(201, transfer.statusCode());
+        assertTrue(transfer.body().contains("TRANSFER_DEBIT") && transfer.body().contains("TRANSFER_CREDIT"));
+
+        HttpResponse<String> balance = get("/accounts/A1/balance");
+        assertEquals(200, balance.statusCode());
+        assertEquals("{\"accountNumber\":\"A1\",\"balance\":\"24.50\"}", balance.body());
+
+        HttpResponse<String> history = get("/accounts/B1/transactions");
+        assertEquals(200, history.statusCode());
+        assertTrue(history.body().startsWith("{\"transactions\":[{") && history.body().contains("\"amount\":\"50.00\""));
+        assertTrue(history.body().endsWith("\"nextCursor\":null}"));
+    }
+
+    @Test
+    void history_IsPagedWithCursors() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            post("/accounts/A1/deposit", "{\"amount\": \"" + i + ".00\"}");
+        }
+
+        HttpResponse<String> first = get("/accounts/A1/transactions?limit=2");
+        assertEquals(200, first.statusCode());
+        assertTrue(first.body().contains("\"amount\":\"1.00\"") && first.body().contains("\"amount\":\"2.00\""));
+        assertTrue(first.body().endsWith("\"nextCursor\":\"1\"}"));
+
+        HttpResponse<String> second = get("/accounts/A1/transactions?limit=2&after=1");
+        assertTrue(second.body().contains("\"amount\":\"3.00\"") && !second.body().contains("\"amount\":\"2.00\""));
+
+        HttpResponse<String> newest = get("/accounts/A1/transactions?limit=1&order=newest");
+        assertTrue(newest.body().contains("\"amount\":\"5.00\""));
+
+        assertEquals(400, get("/accounts/A1/transactions?limit=abc").statusCode());
+        assertEquals(400, get("/accounts/A1/transactions?order=sideways").statusCode());
+        assertEquals(400, get("/accounts/A1/transactions?from=yesterday").statusCode());
+        assertEquals(400, get("/accounts/A1/transactions?after=" + Long.MAX_VALUE).statusCode());
+        assertEquals(400, get("/accounts/A1/transactions?after=4294967296").statusCode());
+        assertEquals(400, get("/accounts/A1/transactions?after=-2").statusCode());
+    }
+
+    @Test
+    void internalErrors_DoNotLeakTheirMessage() throws Exception {
+        server.close();
+
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        PartitionedTransactionRepository failing = new PartitionedTransactionRepository() {
+            @Override
+            public void saveTransaction(Transaction transaction) {
+                throw new IllegalStateException("disk /var/lib/ledger is full");
+            }
+        };
+        server = new BankingHttpServer(new BankingService(accountRepository, failing, new BankingOperation()), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+
+        HttpResponse<String> response = post("/accounts/A1/deposit", "{\"amount\": \"1.00\"}");
+
+        assertEquals(500, response.statusCode());
+        assertEquals("{\"error\":\"InternalError\",\"message\":\"Internal server error\"}", response.body());
+    }
+
+    @Test
+    void errors_MapToStatusCodes() throws Exception {
+        assertEquals(409, post("/accounts/A1/withdraw", "{\"amount\": \"1.00\"}").statusCode());
+        assertEquals(404, post("/accounts/NOPE/deposit", "{\"amount\": \"1.00\"}").statusCode());
+        assertEquals(404, get("/accounts/NOPE/balance").statusCode());
+        assertEquals(400, post("/accounts/A1/deposit", "{\"amount\": \"-1.00\"}").statusCode());
+        assertEquals(400, post("/accounts/A1/deposit", "{\"amount\": ").statusCode());
+        assertEquals(400, post("/transfers", "{\"from\": \"A1\", \"amount\": \"1.00\"}").statusCode());
+        assertEquals(405, get("/accounts/A1/deposit").statusCode());
+        assertEquals(404, get("/nowhere").statusCode());
+
+        HttpResponse<String> rejected = post("/accounts/A1/withdraw", "{\"amount\": \"1.00\"}");
+        assertTrue(rejected.body().startsWith("{\"error\":\"InsufficientFundsException\""));
+    }
+
+    @Test
+    void pipelinedRequests_AnsweredInOrderOnOneConnection() throws Exception {
+        String body = "{\"amount\":\"5.00\"}";
+        String deposit = "POST /accounts/A1/deposit HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + body.length() + "\r\n\r\n" + body;
+        String balance = "GET /accounts/A1/balance HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write((deposit + deposit + balance).getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            StringBuilder received = new StringBuilder();
+            byte[] buffer = new byte[4096];
+
+            while (!received.toString().contains("\"balance\":")) {
+                int read = in.read(buffer);
+                assertTrue(read > 0, "connection closed early: " + received);
+                received.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            }
+
+            String responses = received.toString();
+            assertEquals(3, responses.split("HTTP/1.1 ", -1).length - 1);
+            assertTrue(responses.indexOf("201") < responses.indexOf("\"balance\":\"10.00\""));
+        }
+    }
+}
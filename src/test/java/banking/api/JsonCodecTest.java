@@ -0,0 +1,37 @@
+package banking.api;
+
+import banking.exception.MalformedRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonCodecTest {
+
+    @Test
+    void parseObject_KeepsNumbersAsWritten() {
+        Map<String, String> values = JsonCodec.parseObject(" { \"amount\" : 10.10, \"from\":\"A\\\"1\\u0041\", \"memo\": null, \"flag\": true } ");
+
+        assertEquals("10.10", values.get("amount"));
+        assertEquals("A\"1A", values.get("from"));
+        assertEquals("true", values.get("flag"));
+        assertFalse(values.containsKey("memo"));
+    }
+
+    @Test
+    void parseObject_RejectsMalformedInput() {
+        assertThrows(MalformedRequestException.class, () -> JsonCodec.parseObject(""));
+        assertThrows(MalformedRequestException.class, () -> JsonCodec.parseObject("{\"a\": 1"));
+        assertThrows(MalformedRequestException.class, () -> JsonCodec.parseObject("{\"a\": [1]}"));
+        assertThrows(MalformedRequestException.class, () -> JsonCodec.parseObject("{\"a\": 1} x"));
+        assertThrows(MalformedRequestException.class, () -> JsonCodec.parseObject("{\"a\": \"\\q\"}"));
+    }
+
+    @Test
+    void error_EscapesMessage() {
+        assertEquals("{\"error\":\"X\",\"message\":\"line\\nquote\\\"\"}", JsonCodec.error("X", "line\nquote\""));
+    }
+}
@@ -0,0 +1,42 @@
+package banking.bulk;
+
+import banking.exception.LedgerFormatException;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LedgerCsvTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2024-01-01T00:00:00Z",
+            "2024-02-29T23:59:59.5Z",
+            "1999-12-31T12:34:56.123Z",
+            "2030-06-15T08:00:00.123456Z",
+            "2030-06-15T08:00:00.123456789Z",
+            "1969-07-20T20:17:40Z",
+            "+10000-01-01T00:00:00Z"
+    })
+    void parseInstant_MatchesInstantParse(String text) {
+        String line = "A1," + text + ",rest";
+
+        assertEquals(Instant.parse(text), LedgerCsv.parseInstant(line, 3, 3 + text.length()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "A1,2023-02-29T00:00:00Z,DEPOSIT,1.00,T1,",
+            "A1,2024-01-01T25:00:00Z,DEPOSIT,1.00,T1,",
+            "A1,2024-01-01T00:00:00Z,REFUND,1.00,T1,",
+            "A1,2024-01-01T00:00:00Z,DEPOSIT,1.001,T1,",
+            "A1,2024-01-01T00:00:00Z,DEPOSIT,1.00,T1",
+            "A1,2024-01-01T00:00:00Z,DEPOSIT,1.00,T1,X,Y"
+    })
+    void parse_InvalidRow_ThrowsLedgerFormatException(String line) {
+        assertThrows(LedgerFormatException.class, () -> LedgerCsv.parse(line, 0));
+    }
+}
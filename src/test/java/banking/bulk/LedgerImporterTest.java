@@ -0,0 +1,128 @@
+package banking.bulk;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.exception.LedgerFormatException;
+import banking.repository.memory.PartitionedTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LedgerImporterTest {
+    @TempDir
+    Path directory;
+
+    private static List<String> seed(PartitionedTransactionRepository repository, int accountCount, int rows) {
+        BankingOperation bankingOperation = new BankingOperation();
+        List<Account> accounts = new ArrayList<>();
+        List<String> accountNumbers = new ArrayList<>();
+
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(new Account("ACC-" + i, AccountState.ACTIVE));
+            accountNumbers.add("ACC-" + i);
+        }
+
+        Random random = new Random(7);
+
+        for (int i = 0; i < rows; i++) {
+            Account from = accounts.get(random.nextInt(accountCount));
+
+            if (random.nextBoolean()) {
+                repository.saveTransaction(bankingOperation.deposit(from, new BigDecimal(random.nextInt(10_000)).movePointLeft(2).add(BigDecimal.ONE)));
+            } else {
+                repository.saveTransactions(bankingOperation.transfer(from, accounts.get(random.nextInt(accountCount)), BigDecimal.ONE, Money.ofMinorUnits(Long.MAX_VALUE)));
+            }
+        }
+
+        return accountNumbers;
+    }
+
+    private static void assertSameLedger(PartitionedTransactionRepository expected, PartitionedTransactionRepository actual, List<String> accountNumbers) {
+        for (String accountNumber : accountNumbers) {
+            List<Transaction> want = expected.findByAccountNumber(accountNumber);
+            List<Transaction> got = actual.findByAccountNumber(accountNumber);
+
+            assertEquals(want.size(), got.size());
+
+            for (int i = 0; i < want.size(); i++) {
+                assertEquals(want.get(i).getTransactionId(), got.get(i).getTransactionId());
+                assertEquals(want.get(i).getTransferId(), got.get(i).getTransferId());
+                assertEquals(want.get(i).getTransactionType(), got.get(i).getTransactionType());
+                assertEquals(want.get(i).getAmount(), got.get(i).getAmount());
+                assertEquals(want.get(i).getOccurredAt(), got.get(i).getOccurredAt());
+            }
+        }
+    }
+
+    @Test
+    void csvRoundTrip_SmallChunks_PreservesEveryAccountsHistory() throws IOException {
+        PartitionedTransactionRepository source = new PartitionedTransactionRepository();
+        List<String> accountNumbers = seed(source, 50, 5_000);
+        Path file = directory.resolve("ledger.csv");
+
+        long written = LedgerExporter.exportCsv(source, accountNumbers, file);
+        PartitionedTransactionRepository target = new PartitionedTransactionRepository();
+        // Chunks much smaller than the file force many cuts in the middle of lines.
+        ImportResult result = new LedgerImporter(new ForkJoinPool(4), 4_096).importCsv(file, target);
+
+        assertEquals(written, result.getRowCount());
+        assertEquals(50, result.getAccountCount());
+        assertTrue(result.getChunkCount() > 10);
+        assertSameLedger(source, target, accountNumbers);
+    }
+
+    @Test
+    void binaryRoundTrip_PreservesEveryAccountsHistory() throws IOException {
+        PartitionedTransactionRepository source = new PartitionedTransactionRepository();
+        List<String> accountNumbers = seed(source, 200, 30_000);
+        Path file = directory.resolve("ledger.bin");
+
+        long written = LedgerExporter.exportBinary(source, accountNumbers, file);
+        PartitionedTransactionRepository target = new PartitionedTransactionRepository();
+        ImportResult result = new LedgerImporter().importBinary(file, target);
+
+        assertEquals(written, result.getRowCount());
+        assertTrue(result.getChunkCount() > 1);
+        assertSameLedger(source, target, accountNumbers);
+    }
+
+    @Test
+    void malformedCsvRow_LoadsNothing() throws IOException {
+        Path file = directory.resolve("bad.csv");
+        Files.writeString(file, LedgerCsv.HEADER + "\n"
+                + "A1,2024-01-01T00:00:00Z,DEPOSIT,10.00,T1,\n"
+                + "A1,2024-01-01T00:00:01Z,DEPOSIT,ten,T2,\n");
+        PartitionedTransactionRepository target = new PartitionedTransactionRepository();
+
+        assertThrows(LedgerFormatException.class, () -> new LedgerImporter().importCsv(file, target));
+        assertTrue(target.findByAccountNumber("A1").isEmpty());
+    }
+
+    @Test
+    void truncatedBinary_Throws() throws IOException {
+        PartitionedTransactionRepository source = new PartitionedTransactionRepository();
+        List<String> accountNumbers = seed(source, 5, 100);
+        Path file = directory.resolve("ledger.bin");
+        LedgerExporter.exportBinary(source, accountNumbers, file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+
+        assertThrows(LedgerFormatException.class, () -> new LedgerImporter().importBinary(file, new PartitionedTransactionRepository()));
+    }
+}
@@ -2,12 +2,16 @@ package banking.domain.account;
 import banking.domain.transaction.TransactionType;
 import banking.exception.InvalidAccountStateException;
 import banking.exception.InvalidStateTransitionException;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AccountTest {
     @ParameterizedTest
@@ -27,6 +31,26 @@ class AccountTest {
         assertThrows(InvalidStateTransitionException.class, () -> account.changeAccountState(toState));
     }
 
+    @Test
+    void compareAndChangeState_FailsWhenStateMovedOn() {
+        Account account = new Account("1234", AccountState.ACTIVE);
+
+        account.changeAccountState(AccountState.FROZEN);
+
+        assertFalse(account.compareAndChangeState(AccountState.ACTIVE, AccountState.CLOSED));
+        assertEquals(AccountState.FROZEN, account.getAccountState());
+        assertTrue(account.compareAndChangeState(AccountState.FROZEN, AccountState.CLOSED));
+        assertEquals(AccountState.CLOSED, account.getAccountState());
+    }
+
+    @Test
+    void compareAndChangeState_InvalidTransition_Throws() {
+        Account account = new Account("1234", AccountState.ACTIVE);
+
+        assertThrows(InvalidStateTransitionException.class, () -> account.compareAndChangeState(AccountState.ACTIVE, AccountState.PENDING));
+        assertEquals(AccountState.ACTIVE, account.getAccountState());
+    }
+
     @ParameterizedTest
     @CsvSource({
             "CLOSED, DEPOSIT",
@@ -0,0 +1,70 @@
+package banking.domain.balance;
+
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.exception.BalanceVerificationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BalanceEngineTest {
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+
+    private static Transaction tx(TransactionType type, String amount) {
+        return new Transaction("A1", Instant.now(), type, new BigDecimal(amount), UUID.randomUUID().toString(), null);
+    }
+
+    @Test
+    void incremental_MatchesReplayAsHistoryGrows() {
+        BalanceEngine engine = new BalanceEngine(BalanceMode.INCREMENTAL, 4);
+        List<Transaction> history = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            history.add(tx(i % 3 == 0 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT, "10.00"));
+
+            assertEquals(
+                    Money.of(BalanceCalculator.calculateBalance("A1", history)),
+                    engine.calculateBalance("A1", List.copyOf(history))
+            );
+        }
+    }
+
+    @Test
+    void olderView_IsAnsweredFromCheckpoint() {
+        BalanceEngine engine = new BalanceEngine(BalanceMode.INCREMENTAL, 4);
+        List<Transaction> history = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            history.add(tx(TransactionType.DEPOSIT, "1.00"));
+        }
+
+        assertEquals(money("10.00"), engine.calculateBalance("A1", history));
+        assertEquals(money("7.00"), engine.calculateBalance("A1", history.subList(0, 7)));
+        assertEquals(money("10.00"), engine.calculateBalance("A1", history));
+    }
+
+    @Test
+    void verify_DetectsRewrittenHistory() {
+        BalanceEngine engine = new BalanceEngine(BalanceMode.VERIFY);
+        Transaction opening = tx(TransactionType.DEPOSIT, "100.00");
+
+        engine.calculateBalance("A1", List.of(opening, tx(TransactionType.DEPOSIT, "50.00")));
+
+        assertThrows(
+                BalanceVerificationException.class,
+                () -> engine.calculateBalance("A1", List.of(opening, tx(TransactionType.WITHDRAW, "30.00")))
+        );
+        assertEquals(money("70.00"), engine.calculateBalance("A1", List.of(opening, tx(TransactionType.WITHDRAW, "30.00"))));
+    }
+}
@@ -0,0 +1,82 @@
+package banking.domain.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TransactionIdTest {
+
+    @Test
+    void ulidText_RoundTrips() {
+        TransactionId id = new UlidGenerator().nextId();
+        String text = id.toString();
+
+        assertEquals(26, text.length());
+        assertEquals(id, TransactionId.parse(text));
+        assertEquals(text, TransactionId.parse(text).toString());
+    }
+
+    @Test
+    void uuidText_RoundTripsAsUuid() {
+        String text = UUID.randomUUID().toString();
+        TransactionId id = TransactionId.parse(text);
+
+        assertTrue(id.isUuidForm());
+        assertEquals(text, id.toString());
+    }
+
+    @Test
+    void parse_RejectsNonCanonicalText() {
+        assertNull(TransactionId.parse("tx-1"));
+        assertNull(TransactionId.parse("8ZZZZZZZZZZZZZZZZZZZZZZZZZ"));
+        assertNull(TransactionId.parse(UUID.randomUUID().toString().toUpperCase()));
+    }
+
+    @Test
+    void ids_AreMonotonicPerThreadAndCarryTheirTimestamp() {
+        UlidGenerator generator = new UlidGenerator();
+        long before = System.currentTimeMillis();
+        TransactionId previous = generator.nextId();
+
+        for (int i = 0; i < 100_000; i++) {
+            TransactionId next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0);
+            assertTrue(next.toString().compareTo(previous.toString()) > 0);
+            previous = next;
+        }
+
+        assertTrue(previous.getTimestampMillis() >= before);
+        assertTrue(previous.compareTo(TransactionId.maxForTime(Instant.ofEpochMilli(previous.getTimestampMillis()))) <= 0);
+        assertTrue(previous.compareTo(TransactionId.minForTime(Instant.ofEpochMilli(before))) >= 0);
+    }
+
+    @Test
+    void ids_AreUniqueAcrossThreads() throws InterruptedException {
+        UlidGenerator generator = new UlidGenerator();
+        Set<TransactionId> seen = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 25_000; i++) {
+                    seen.add(generator.nextId());
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(200_000, seen.size());
+    }
+}
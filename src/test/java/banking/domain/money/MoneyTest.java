@@ -0,0 +1,68 @@
+package banking.domain.money;
+
+import banking.exception.InvalidAmountException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MoneyTest {
+
+    @Test
+    void of_ConvertsToMinorUnits() {
+        assertEquals(12345L, Money.of(new BigDecimal("123.45")).getMinorUnits());
+        assertEquals(10000L, Money.of(new BigDecimal("100")).getMinorUnits());
+        assertEquals(new BigDecimal("100.00"), Money.of(new BigDecimal("1E+2")).toBigDecimal());
+    }
+
+    @Test
+    void of_RejectsExcessPrecision() {
+        assertThrows(InvalidAmountException.class, () -> Money.of(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void of_RejectsAmountsBeyondLongRange() {
+        assertThrows(InvalidAmountException.class, () -> Money.of(new BigDecimal("1E+20")));
+    }
+
+    @Test
+    void ofOrNull_ReturnsNullInsteadOfThrowing() {
+        assertEquals(Money.ofMinorUnits(150), Money.ofOrNull(new BigDecimal("1.5000")));
+        assertEquals(Money.ofMinorUnits(100_000), Money.ofOrNull(new BigDecimal("1E+3")));
+        assertNull(Money.ofOrNull(new BigDecimal("0.001")));
+        assertNull(Money.ofOrNull(new BigDecimal("1E+20")));
+    }
+
+    @Test
+    @Timeout(5)
+    void ofOrNull_RejectsHugeExponentsWithoutExpandingThem() {
+        assertNull(Money.ofOrNull(new BigDecimal("1e100000000")));
+        assertNull(Money.ofOrNull(new BigDecimal("-1e100000000")));
+        assertNull(Money.ofOrNull(new BigDecimal("1e-100000000")));
+        assertEquals(Money.ZERO, Money.ofOrNull(new BigDecimal("0e100000000")));
+        assertEquals(Money.ofMinorUnits(Long.MAX_VALUE), Money.ofOrNull(new BigDecimal("92233720368547758.07")));
+        assertNull(Money.ofOrNull(new BigDecimal("92233720368547758.08")));
+    }
+
+    @Test
+    void arithmetic_IsOverflowChecked() {
+        Money max = Money.ofMinorUnits(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinorUnits(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinorUnits(Long.MIN_VALUE).minus(Money.ofMinorUnits(1)));
+    }
+
+    @Test
+    void plusMinusAndCompare() {
+        Money balance = Money.of(new BigDecimal("10.50")).minus(Money.of(new BigDecimal("0.75")));
+
+        assertEquals(Money.of(new BigDecimal("9.75")), balance);
+        assertTrue(balance.isGreaterThan(Money.ZERO));
+        assertEquals("9.75", balance.toString());
+    }
+}
@@ -0,0 +1,129 @@
+package banking.engine;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceCalculator;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.exception.InsufficientFundsException;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.InMemoryTransactionRepository;
+import banking.service.BankingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SequencedBankingEngineTest {
+
+    @ParameterizedTest
+    @EnumSource(WaitStrategy.class)
+    void commands_AreAppliedInPublicationOrder(WaitStrategy waitStrategy) throws Exception {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        InMemoryTransactionRepository transactionRepository = new InMemoryTransactionRepository();
+        BankingService bankingService = new BankingService(accountRepository, transactionRepository, new BankingOperation());
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("B1", AccountState.ACTIVE));
+
+        try (SequencedBankingEngine engine = SequencedBankingEngine.start(bankingService, 8, waitStrategy, 4)) {
+            engine.deposit("A1", new BigDecimal("100"));
+            engine.withdraw("A1", new BigDecimal("30"));
+            CompletableFuture<List<Transaction>> transfer = engine.transfer("A1", "B1", new BigDecimal("70"));
+            CompletableFuture<List<Transaction>> rejected = engine.withdraw("A1", new BigDecimal("1"));
+
+            List<Transaction> legs = transfer.get(10, TimeUnit.SECONDS);
+            assertEquals(TransactionType.TRANSFER_DEBIT, legs.get(0).getTransactionType());
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(InsufficientFundsException.class, failure.getCause());
+        }
+
+        assertEquals(0, BalanceCalculator.calculateBalance("A1", transactionRepository.findByAccountNumber("A1")).signum());
+    }
+
+    @ParameterizedTest
+    @EnumSource(WaitStrategy.class)
+    void manyPublishers_AllCommandsComplete(WaitStrategy waitStrategy) throws Exception {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        InMemoryTransactionRepository transactionRepository = new InMemoryTransactionRepository();
+        BankingService bankingService = new BankingService(accountRepository, transactionRepository, new BankingOperation());
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+
+        List<Thread> publishers = new ArrayList<>();
+        List<CompletableFuture<List<Transaction>>> futures = new ArrayList<>();
+
+        try (SequencedBankingEngine engine = SequencedBankingEngine.start(bankingService, 64, waitStrategy, 16)) {
+            for (int t = 0; t < 4; t++) {
+                publishers.add(Thread.ofPlatform().start(() -> {
+                    List<CompletableFuture<List<Transaction>>> own = new ArrayList<>();
+                    for (int i = 0; i < 2_500; i++) {
+                        own.add(engine.deposit("A1", BigDecimal.ONE));
+                    }
+                    synchronized (futures) {
+                        futures.addAll(own);
+                    }
+                }));
+            }
+
+            for (Thread publisher : publishers) {
+                publisher.join();
+            }
+
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+            assertEquals(10_000, engine.getProcessedCommands());
+            assertTrue(engine.getProcessedBatches() <= engine.getProcessedCommands());
+        }
+
+        assertEquals(10_000, transactionRepository.findByAccountNumber("A1").size());
+    }
+
+    @Test
+    void error_FailsItsFutureAndTheWriterKeepsRunning() throws Exception {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        InMemoryTransactionRepository transactionRepository = new InMemoryTransactionRepository();
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        BankingService bankingService = new BankingService(accountRepository, transactionRepository, new BankingOperation()) {
+            @Override
+            public Transaction withdraw(String accountNumber, BigDecimal amount) {
+                throw new StackOverflowError();
+            }
+        };
+
+        try (SequencedBankingEngine engine = SequencedBankingEngine.start(bankingService)) {
+            CompletableFuture<List<Transaction>> failed = engine.withdraw("A1", BigDecimal.ONE);
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, failure.getCause());
+
+            engine.deposit("A1", BigDecimal.TEN).get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, transactionRepository.findByAccountNumber("A1").size());
+    }
+
+    @Test
+    void close_KeepsTheInterruptFlag() throws Exception {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        BankingService bankingService = new BankingService(accountRepository, new InMemoryTransactionRepository(), new BankingOperation());
+        SequencedBankingEngine engine = SequencedBankingEngine.start(bankingService);
+        CompletableFuture<List<Transaction>> deposit = engine.deposit("A1", BigDecimal.TEN);
+
+        Thread.currentThread().interrupt();
+        engine.close();
+
+        assertTrue(Thread.interrupted());
+        assertEquals(1, deposit.get(10, TimeUnit.SECONDS).size());
+    }
+}
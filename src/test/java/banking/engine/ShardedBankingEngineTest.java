@@ -0,0 +1,283 @@
+package banking.engine;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceMode;
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.exception.AccountNotFoundException;
+import banking.exception.InsufficientFundsException;
+import banking.exception.InvalidAccountStateException;
+import banking.repository.journal.JournalTransactionRepository;
+import banking.repository.journal.SyncPolicy;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedBankingEngineTest {
+
+    @TempDir
+    Path directory;
+
+    private static Money money(String amount) {
+        return Money.of(new BigDecimal(amount));
+    }
+
+    // Finds an account number that lands on a different shard than the given one.
+    private static String onOtherShard(ShardedBankingEngine engine, String accountNumber) {
+        for (int i = 0; ; i++) {
+            String candidate = "X" + i;
+            if (engine.shardOf(candidate) != engine.shardOf(accountNumber)) {
+                return candidate;
+            }
+        }
+    }
+
+    // Fails every save of the given type for the account currently named in failingAccount.
+    private static PartitionedTransactionRepository failingFor(AtomicReference<String> failingAccount, TransactionType failingType) {
+        return new PartitionedTransactionRepository() {
+            @Override
+            public void saveTransaction(Transaction transaction) {
+                if (transaction.getAccountNumber().equals(failingAccount.get()) && transaction.getTransactionType() == failingType) {
+                    throw new IllegalStateException("Disk full");
+                }
+                super.saveTransaction(transaction);
+            }
+        };
+    }
+
+    private static String onSameShard(ShardedBankingEngine engine, String accountNumber) {
+        for (int i = 0; ; i++) {
+            String candidate = "S" + i;
+            if (engine.shardOf(candidate) == engine.shardOf(accountNumber)) {
+                return candidate;
+            }
+        }
+    }
+
+    @Test
+    void transfer_AcrossShardsWritesBothLegs() throws Exception {
+        try (ShardedBankingEngine engine = new ShardedBankingEngine(4)) {
+            String to = onOtherShard(engine, "A1");
+            engine.openAccount(new Account("A1", AccountState.ACTIVE)).get();
+            engine.openAccount(new Account(to, AccountState.ACTIVE)).get();
+            engine.deposit("A1", new BigDecimal("100.00")).get();
+
+            List<Transaction> legs = engine.transfer("A1", to, new BigDecimal("40.00")).get(10, TimeUnit.SECONDS);
+
+            assertNotEquals(engine.shardOf("A1"), engine.shardOf(to));
+            assertEquals(TransactionType.TRANSFER_DEBIT, legs.get(0).getTransactionType());
+            assertEquals(legs.get(0).getTransferId(), legs.get(1).getTransferId());
+            assertEquals(money("60.00"), engine.getBalance("A1").get());
+            assertEquals(money("40.00"), engine.getBalance(to).get());
+            assertEquals(1, engine.getTransactions(to).get().size());
+        }
+    }
+
+    @Test
+    void transfer_SameShardStaysLocal() throws Exception {
+        try (ShardedBankingEngine engine = new ShardedBankingEngine(4)) {
+            String to = onSameShard(engine, "A1");
+            engine.openAccount(new Account("A1", AccountState.ACTIVE)).get();
+            engine.openAccount(new Account(to, AccountState.ACTIVE)).get();
+            engine.deposit("A1", new BigDecimal("100.00")).get();
+
+            engine.transfer("A1", to, new BigDecimal("100.00")).get(10, TimeUnit.SECONDS);
+
+            assertEquals(Money.ZERO, engine.getBalance("A1").get());
+            assertEquals(money("100.00"), engine.getBalance(to).get());
+        }
+    }
+
+    @Test
+    void transfer_AcrossShardsRejectedWritesNothing() throws Exception {
+        try (ShardedBankingEngine engine = new ShardedBankingEngine(4)) {
+            String to = onOtherShard(engine, "A1");
+            engine.openAccount(new Account("A1", AccountState.ACTIVE)).get();
+            engine.openAccount(new Account(to, AccountState.ACTIVE)).get();
+            engine.deposit("A1", new BigDecimal("10.00")).get();
+
+            ExecutionException insufficient = assertThrows(ExecutionException.class,
+                    () -> engine.transfer("A1", to, new BigDecimal("10.01")).get(10, TimeUnit.SECONDS));
+            ExecutionException missing = assertThrows(ExecutionException.class,
+                    () -> engine.transfer("A1", onOtherShard(engine, "A1") + "-missing", new BigDecimal("1.00")).get(10, TimeUnit.SECONDS));
+
+            assertInstanceOf(InsufficientFundsException.class, insufficient.getCause());
+            assertInstanceOf(AccountNotFoundException.class, missing.getCause());
+            assertEquals(money("10.00"), engine.getBalance("A1").get());
+            assertTrue(engine.getTransactions(to).get().isEmpty());
+        }
+    }
+
+    @Test
+    void transfer_AcrossShardsToClosedAccountIsRejected() throws Exception {
+        try (ShardedBankingEngine engine = new ShardedBankingEngine(4)) {
+            String to = onOtherShard(engine, "A1");
+            engine.openAccount(new Account("A1", AccountState.ACTIVE)).get();
+            engine.openAccount(new Account(to, AccountState.CLOSED)).get();
+            engine.deposit("A1", new BigDecimal("10.00")).get();
+
+            ExecutionException closed = assertThrows(ExecutionException.class,
+                    () -> engine.transfer("A1", to, new BigDecimal("1.00")).get(10, TimeUnit.SECONDS));
+
+            assertInstanceOf(InvalidAccountStateException.class, closed.getCause());
+            assertEquals(money("10.00"), engine.getBalance("A1").get());
+        }
+    }
+
+    @Test
+    void transfer_AcrossShardsWhoseDebitCannotBeSavedCreditsNothing() throws Exception {
+        AtomicReference<String> failingAccount = new AtomicReference<>();
+
+        try (ShardedBankingEngine engine = new ShardedBankingEngine(4, BalanceMode.INCREMENTAL, index -> new InMemoryAccountRepository(),
+                index -> failingFor(failingAccount, TransactionType.TRANSFER_DEBIT))) {
+            String to = onOtherShard(engine, "A1");
+            engine.openAccount(new Account("A1", AccountState.ACTIVE)).get();
+            engine.openAccount(new Account(to, AccountState.ACTIVE)).get();
+            engine.deposit("A1", new BigDecimal("100.00")).get();
+            failingAccount.set("A1");
+
+            ExecutionException failed = assertThrows(ExecutionException.class,
+                    () -> engine.transfer("A1", to, new BigDecimal("40.00")).get(10, TimeUnit.SECONDS));
+
+            assertInstanceOf(IllegalStateException.class, failed.getCause());
+            assertEquals(money("100.00"), engine.getBalance("A1").get());
+            assertEquals(Money.ZERO, engine.getBalance(to).get());
+            assertTrue(engine.getTransactions(to).get().isEmpty());
+        }
+    }
+
+    @Test
+    void transfer_AcrossShardsWhoseCreditCannotBeSavedIsRefunded() throws Exception {
+        AtomicReference<String> failingAccount = new AtomicReference<>();
+
+        try (ShardedBankingEngine engine = new ShardedBankingEngine(4, BalanceMode.INCREMENTAL, index -> new InMemoryAccountRepository(),
+                index -> failingFor(failingAccount, TransactionType.TRANSFER_CREDIT))) {
+            String to = onOtherShard(engine, "A1");
+            engine.openAccount(new Account("A1", AccountState.ACTIVE)).get();
+            engine.openAccount(new Account(to, AccountState.ACTIVE)).get();
+            engine.deposit("A1", new BigDecimal("100.00")).get();
+            failingAccount.set(to);
+
+            ExecutionException failed = assertThrows(ExecutionException.class,
+                    () -> engine.transfer("A1", to, new BigDecimal("40.00")).get(10, TimeUnit.SECONDS));
+
+            List<Transaction> source = engine.getTransactions("A1").get();
+            assertInstanceOf(IllegalStateException.class, failed.getCause());
+            assertEquals(money("100.00"), engine.getBalance("A1").get());
+            assertEquals(Money.ZERO, engine.getBalance(to).get());
+            assertEquals(TransactionType.TRANSFER_DEBIT, source.get(1).getTransactionType());
+            assertEquals(TransactionType.TRANSFER_CREDIT, source.get(2).getTransactionType());
+            assertEquals(source.get(1).getTransferId(), source.get(2).getTransferId());
+        }
+    }
+
+    @Test
+    void transfer_AfterCloseFailsItsFuture() {
+        ShardedBankingEngine engine = new ShardedBankingEngine(4);
+        String to = onOtherShard(engine, "A1");
+        engine.close();
+
+        CompletableFuture<List<Transaction>> transfer = engine.transfer("A1", to, new BigDecimal("1.00"));
+
+        ExecutionException closed = assertThrows(ExecutionException.class, () -> transfer.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, closed.getCause());
+    }
+
+    @Test
+    void close_KeepsTheInterruptFlag() {
+        ShardedBankingEngine engine = new ShardedBankingEngine(2);
+
+        Thread.currentThread().interrupt();
+        engine.close();
+
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void shards_RunOnInjectedRepositories() throws Exception {
+        List<JournalTransactionRepository> journals = new ArrayList<>();
+        String to;
+
+        try (ShardedBankingEngine engine = new ShardedBankingEngine(4, BalanceMode.INCREMENTAL, index -> new InMemoryAccountRepository(), index -> {
+            JournalTransactionRepository journal = new JournalTransactionRepository(directory.resolve("shard-" + index + ".journal"), SyncPolicy.OS_BUFFERED);
+            journals.add(journal);
+            return journal;
+        })) {
+            to = onOtherShard(engine, "A1");
+            engine.openAccount(new Account("A1", AccountState.ACTIVE)).get();
+            engine.openAccount(new Account(to, AccountState.ACTIVE)).get();
+            engine.deposit("A1", new BigDecimal("100.00")).get();
+            engine.transfer("A1", to, new BigDecimal("40.00")).get(10, TimeUnit.SECONDS);
+
+            for (JournalTransactionRepository journal : journals) {
+                journal.close();
+            }
+
+            int fromShard = engine.shardOf("A1");
+            int toShard = engine.shardOf(to);
+
+            try (JournalTransactionRepository fromJournal = new JournalTransactionRepository(directory.resolve("shard-" + fromShard + ".journal"), SyncPolicy.OS_BUFFERED);
+                 JournalTransactionRepository toJournal = new JournalTransactionRepository(directory.resolve("shard-" + toShard + ".journal"), SyncPolicy.OS_BUFFERED)) {
+                assertEquals(2, fromJournal.findByAccountNumber("A1").size());
+                assertEquals(TransactionType.TRANSFER_CREDIT, toJournal.findByAccountNumber(to).get(0).getTransactionType());
+            }
+        }
+    }
+
+    @Test
+    void transfer_ConcurrentDebitsNeverOverdraw() throws Exception {
+        try (ShardedBankingEngine engine = new ShardedBankingEngine(8)) {
+            String to = onOtherShard(engine, "A1");
+            engine.openAccount(new Account("A1", AccountState.ACTIVE)).get();
+            engine.openAccount(new Account(to, AccountState.ACTIVE)).get();
+            engine.deposit("A1", new BigDecimal("100.00")).get();
+
+            List<CompletableFuture<?>> transfers = new ArrayList<>();
+            List<CompletableFuture<?>> withdrawals = new ArrayList<>();
+            for (int i = 0; i < 150; i++) {
+                transfers.add(engine.transfer("A1", to, new BigDecimal("1.00")));
+                withdrawals.add(engine.withdraw("A1", new BigDecimal("1.00")));
+            }
+
+            int transferred = succeeded(transfers);
+            int withdrawn = succeeded(withdrawals);
+
+            assertEquals(100, transferred + withdrawn);
+            assertEquals(Money.ZERO, engine.getBalance("A1").get());
+            assertEquals(Money.ofMinorUnits(transferred * 100L), engine.getBalance(to).get());
+        }
+    }
+
+    private static int succeeded(List<CompletableFuture<?>> attempts) throws Exception {
+        int succeeded = 0;
+
+        for (CompletableFuture<?> attempt : attempts) {
+            try {
+                attempt.get(10, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(InsufficientFundsException.class, e.getCause());
+            }
+        }
+
+        return succeeded;
+    }
+}
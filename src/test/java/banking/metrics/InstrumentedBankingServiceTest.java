@@ -0,0 +1,176 @@
+package banking.metrics;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.exception.AccountNotFoundException;
+import banking.exception.InsufficientFundsException;
+import banking.exception.InvalidAccountStateException;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.InMemoryTransactionRepository;
+import banking.service.BalanceCache;
+import banking.service.StripedAccountLocks;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InstrumentedBankingServiceTest {
+
+    private static InstrumentedBankingService newService(EngineMetrics metrics) {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("A2", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("F1", AccountState.FROZEN));
+
+        return new InstrumentedBankingService(
+                accountRepository,
+                new InstrumentedTransactionRepository(new InMemoryTransactionRepository(), metrics),
+                new BankingOperation(),
+                metrics
+        );
+    }
+
+    @Test
+    void operations_RecordSuccessesAndRejectionsByType() {
+        EngineMetrics metrics = new EngineMetrics();
+        InstrumentedBankingService service = newService(metrics);
+
+        service.deposit("A1", new BigDecimal("100.00"));
+        service.withdraw("A1", new BigDecimal("30.00"));
+        service.transfer("A1", "A2", new BigDecimal("20.00"));
+        assertThrows(InsufficientFundsException.class, () -> service.withdraw("A1", new BigDecimal("1000.00")));
+        assertThrows(InsufficientFundsException.class, () -> service.withdraw("A1", new BigDecimal("1000.00")));
+        assertThrows(InvalidAccountStateException.class, () -> service.withdraw("F1", new BigDecimal("5.00")));
+        assertThrows(AccountNotFoundException.class, () -> service.transfer("A1", "missing", new BigDecimal("5.00")));
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(1, snapshot.get(MetricOperation.DEPOSIT).getSuccessCount());
+        assertEquals(1, snapshot.get(MetricOperation.WITHDRAW).getSuccessCount());
+        assertEquals(1, snapshot.get(MetricOperation.TRANSFER).getSuccessCount());
+        assertEquals(1, snapshot.get(MetricOperation.DEPOSIT).getLatency().getCount());
+        assertEquals(2L, snapshot.get(MetricOperation.WITHDRAW).getRejectionsByType().get("INSUFFICIENT_FUNDS"));
+        assertEquals(1L, snapshot.get(MetricOperation.WITHDRAW).getRejectionsByType().get("WITHDRAWAL_NOT_ALLOWED"));
+        assertEquals(1, snapshot.get(MetricOperation.TRANSFER).getRejectionCount());
+        assertEquals(4, snapshot.get(MetricOperation.REPOSITORY_APPEND).getSuccessCount());
+        assertEquals(5, snapshot.get(MetricOperation.REPOSITORY_SCAN).getSuccessCount());
+    }
+
+    @Test
+    void tryAndThrowingOperations_CountRejectionsUnderOneReason() {
+        EngineMetrics metrics = new EngineMetrics();
+        InstrumentedBankingService service = newService(metrics);
+
+        assertTrue(service.tryDeposit("A1", new BigDecimal("100.00")).isSuccess());
+        assertTrue(service.tryWithdraw("A1", new BigDecimal("1000.00")).isRejected());
+        assertThrows(InsufficientFundsException.class, () -> service.withdraw("A1", new BigDecimal("1000.00")));
+        assertTrue(service.tryTransfer("A1", "A2", new BigDecimal("20.00")).isSuccess());
+        assertTrue(service.tryTransfer("A1", "missing", new BigDecimal("5.00")).isRejected());
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(1, snapshot.get(MetricOperation.DEPOSIT).getSuccessCount());
+        assertEquals(2L, snapshot.get(MetricOperation.WITHDRAW).getRejectionsByType().get("INSUFFICIENT_FUNDS"));
+        assertEquals(1, snapshot.get(MetricOperation.WITHDRAW).getRejectionsByType().size());
+        assertEquals(2, snapshot.get(MetricOperation.WITHDRAW).getRejectionCount());
+        assertEquals(1, snapshot.get(MetricOperation.TRANSFER).getSuccessCount());
+        assertEquals(1L, snapshot.get(MetricOperation.TRANSFER).getRejectionsByType().get("ACCOUNT_NOT_FOUND"));
+    }
+
+    @Test
+    void failuresOutsideTheBusinessRules_AreCountedAsErrors() {
+        EngineMetrics metrics = new EngineMetrics();
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        InMemoryTransactionRepository failing = new InMemoryTransactionRepository() {
+            @Override
+            public void saveTransaction(Transaction transaction) {
+                throw new IllegalStateException("Disk full");
+            }
+        };
+        InstrumentedBankingService service = new InstrumentedBankingService(
+                accountRepository,
+                new InstrumentedTransactionRepository(failing, metrics),
+                new BankingOperation(),
+                metrics
+        );
+
+        assertThrows(IllegalStateException.class, () -> service.deposit("A1", new BigDecimal("10.00")));
+        assertThrows(InsufficientFundsException.class, () -> service.withdraw("A1", new BigDecimal("10.00")));
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(0, snapshot.get(MetricOperation.DEPOSIT).getRejectionCount());
+        assertEquals(1L, snapshot.get(MetricOperation.DEPOSIT).getErrorsByType().get("IllegalStateException"));
+        assertEquals(1L, snapshot.get(MetricOperation.REPOSITORY_APPEND).getErrorsByType().get("IllegalStateException"));
+        assertEquals(0, snapshot.get(MetricOperation.REPOSITORY_APPEND).getRejectionCount());
+        assertEquals(1, snapshot.get(MetricOperation.WITHDRAW).getRejectionCount());
+        assertEquals(0, snapshot.get(MetricOperation.WITHDRAW).getErrorCount());
+        assertTrue(snapshot.toPrometheusText().contains("banking_errors_total{operation=\"deposit\",exception=\"IllegalStateException\"} 1"));
+    }
+
+    @Test
+    void getBalance_IsTimedAndServedFromTheCache() {
+        EngineMetrics metrics = new EngineMetrics();
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        BalanceCache balanceCache = new BalanceCache(64);
+        InstrumentedBankingService service = new InstrumentedBankingService(
+                accountRepository,
+                new InstrumentedTransactionRepository(new InMemoryTransactionRepository(), metrics),
+                new BankingOperation(),
+                new StripedAccountLocks(),
+                balanceCache,
+                metrics
+        );
+
+        service.deposit("A1", new BigDecimal("100.00"));
+        assertNotNull(service.getBalance("A1"));
+        assertNotNull(service.getBalance("A1"));
+        assertThrows(AccountNotFoundException.class, () -> service.getBalance("missing"));
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(2, snapshot.get(MetricOperation.BALANCE).getSuccessCount());
+        assertEquals(1L, snapshot.get(MetricOperation.BALANCE).getRejectionsByType().get("ACCOUNT_NOT_FOUND"));
+        assertEquals(1, snapshot.get(MetricOperation.REPOSITORY_SCAN).getSuccessCount());
+        assertEquals(1, balanceCache.getHits());
+    }
+
+    @Test
+    void setEnabled_FalseRecordsNothing() {
+        EngineMetrics metrics = new EngineMetrics();
+        metrics.setEnabled(false);
+        InstrumentedBankingService service = newService(metrics);
+
+        service.deposit("A1", new BigDecimal("100.00"));
+        assertThrows(InsufficientFundsException.class, () -> service.withdraw("A1", new BigDecimal("1000.00")));
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        assertEquals(0, snapshot.get(MetricOperation.DEPOSIT).getSuccessCount());
+        assertEquals(0, snapshot.get(MetricOperation.WITHDRAW).getRejectionCount());
+        assertEquals(0, snapshot.get(MetricOperation.REPOSITORY_APPEND).getSuccessCount());
+    }
+
+    @Test
+    void toPrometheusText_ExportsCountersAndQuantiles() {
+        EngineMetrics metrics = new EngineMetrics();
+        InstrumentedBankingService service = newService(metrics);
+
+        service.deposit("A1", new BigDecimal("100.00"));
+        assertThrows(InsufficientFundsException.class, () -> service.withdraw("A1", new BigDecimal("1000.00")));
+
+        String text = metrics.snapshot().toPrometheusText();
+
+        assertTrue(text.contains("banking_operations_total{operation=\"deposit\"} 1"));
+        assertTrue(text.contains("banking_rejections_total{operation=\"withdraw\",reason=\"INSUFFICIENT_FUNDS\"} 1"));
+        assertTrue(text.contains("banking_latency_nanoseconds{operation=\"deposit\",quantile=\"0.99\"}"));
+    }
+}
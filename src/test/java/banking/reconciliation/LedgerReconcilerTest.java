@@ -0,0 +1,123 @@
+package banking.reconciliation;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceCalculator;
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.repository.memory.PartitionedTransactionRepository;
+import banking.repository.tiered.TieredTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LedgerReconcilerTest {
+
+    private static Transaction leg(String accountNumber, TransactionType type, String amount, String transferId) {
+        return new Transaction(accountNumber, Instant.now(), type, new BigDecimal(amount), UUID.randomUUID().toString(), transferId);
+    }
+
+    @Test
+    void reconcile_CleanLedgerMatchesPerAccountReplay() {
+        BankingOperation bankingOperation = new BankingOperation();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            accounts.add(new Account("ACC-" + i, AccountState.ACTIVE));
+        }
+
+        List<Transaction> ledger = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            Account from = accounts.get(random.nextInt(accounts.size()));
+            Account to = accounts.get(random.nextInt(accounts.size()));
+            if (i % 2 == 0) {
+                ledger.add(bankingOperation.deposit(from, new BigDecimal("10.00")));
+            } else {
+                ledger.addAll(bankingOperation.transfer(from, to, new BigDecimal("1.25"), Money.ofMinorUnits(Long.MAX_VALUE)));
+            }
+        }
+        Collections.shuffle(ledger, random);
+
+        ReconciliationReport report = new LedgerReconciler(new ForkJoinPool(4), 512).reconcile(ledger);
+
+        assertTrue(report.isClean(), report.getDiscrepancies().toString());
+        assertEquals(ledger.size(), report.getTransactionCount());
+        assertEquals(10_000, report.getTransferCount());
+        for (Account account : accounts) {
+            BigDecimal expected = BalanceCalculator.calculateBalance(account.getAccountNumber(), ledger);
+            assertEquals(Money.of(expected), report.getBalance(account.getAccountNumber()));
+        }
+    }
+
+    @Test
+    void reconcile_ReportsEveryKindOfBrokenTransfer() {
+        List<Transaction> ledger = new ArrayList<>(List.of(
+                leg("A1", TransactionType.TRANSFER_DEBIT, "5.00", "T-ok"),
+                leg("B1", TransactionType.TRANSFER_CREDIT, "5.00", "T-ok"),
+                leg("A1", TransactionType.TRANSFER_DEBIT, "5.00", "T-no-credit"),
+                leg("B1", TransactionType.TRANSFER_CREDIT, "5.00", "T-no-debit"),
+                leg("A1", TransactionType.TRANSFER_DEBIT, "5.00", "T-amount"),
+                leg("B1", TransactionType.TRANSFER_CREDIT, "4.99", "T-amount"),
+                leg("A1", TransactionType.TRANSFER_DEBIT, "5.00", "T-dup"),
+                leg("B1", TransactionType.TRANSFER_CREDIT, "5.00", "T-dup"),
+                leg("B1", TransactionType.TRANSFER_CREDIT, "5.00", "T-dup"),
+                leg("A1", TransactionType.TRANSFER_DEBIT, "5.00", null)
+        ));
+
+        // Leaf size 1 puts every leg in its own partition, so pairs are only ever matched during the merge.
+        ReconciliationReport report = new LedgerReconciler(new ForkJoinPool(2), 1).reconcile(ledger);
+
+        List<DiscrepancyType> types = report.getDiscrepancies().stream().map(TransferDiscrepancy::getType).toList();
+        assertEquals(List.of(
+                DiscrepancyType.ORPHANED_DEBIT,
+                DiscrepancyType.ORPHANED_CREDIT,
+                DiscrepancyType.DUPLICATE_LEG,
+                DiscrepancyType.AMOUNT_MISMATCH,
+                DiscrepancyType.MISSING_TRANSFER_ID
+        ), types);
+        assertEquals(3, report.getDiscrepancies().get(2).getLegs().size());
+        assertEquals(5, report.getTransferCount());
+        assertEquals(Money.of(new BigDecimal("-25.00")), report.getBalance("A1"));
+    }
+
+    @Test
+    void reconcile_FromRepositoryAndEmptyLedger() {
+        PartitionedTransactionRepository repository = new PartitionedTransactionRepository();
+        repository.saveTransaction(leg("A1", TransactionType.DEPOSIT, "7.00", null));
+
+        assertEquals(Money.of(new BigDecimal("7.00")), new LedgerReconciler().reconcile(repository, List.of("A1", "B1")).getBalance("A1"));
+        assertTrue(new LedgerReconciler().reconcile(List.of()).isClean());
+    }
+
+    @Test
+    void reconcile_TieredRepositoryIncludesCompactedRows() {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        TieredTransactionRepository repository = new TieredTransactionRepository();
+        String transferId = UUID.randomUUID().toString();
+
+        repository.saveTransaction(new Transaction("A1", start, TransactionType.DEPOSIT, new BigDecimal("100.00"), UUID.randomUUID().toString(), null));
+        repository.saveTransaction(new Transaction("A1", start.plusSeconds(10), TransactionType.TRANSFER_DEBIT, new BigDecimal("30.00"), UUID.randomUUID().toString(), transferId));
+        repository.saveTransaction(new Transaction("B1", start.plusSeconds(30), TransactionType.TRANSFER_CREDIT, new BigDecimal("30.00"), UUID.randomUUID().toString(), transferId));
+        repository.compact("A1", start.plusSeconds(20));
+        repository.compact("B1", start.plusSeconds(20));
+
+        ReconciliationReport report = new LedgerReconciler().reconcile(repository, List.of("A1", "B1"));
+
+        assertTrue(report.isClean(), report.getDiscrepancies().toString());
+        assertEquals(3, report.getTransactionCount());
+        assertEquals(Money.of(new BigDecimal("70.00")), report.getBalance("A1"));
+        assertEquals(Money.of(new BigDecimal("30.00")), report.getBalance("B1"));
+    }
+}
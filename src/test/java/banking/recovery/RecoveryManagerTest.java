@@ -0,0 +1,166 @@
+package banking.recovery;
+
+import banking.bulk.LedgerExporter;
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.reconciliation.LedgerReconciler;
+import banking.reconciliation.ReconciliationReport;
+import banking.repository.TransactionPage;
+import banking.repository.TransactionQuery;
+import banking.repository.journal.JournalAccountRepository;
+import banking.repository.journal.JournalTransactionRepository;
+import banking.repository.journal.SyncPolicy;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.service.BankingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecoveryManagerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recover_RestoresAccountsAndBalancesFromSnapshotPlusTail() throws Exception {
+        Path journalFile = directory.resolve("ledger.journal");
+        Path snapshotFile = directory.resolve("ledger.snapshot");
+        BalanceEngine balanceEngine = new BalanceEngine(BalanceMode.INCREMENTAL);
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("B1", AccountState.ACTIVE));
+
+        try (JournalTransactionRepository journal = new JournalTransactionRepository(journalFile, SyncPolicy.OS_BUFFERED)) {
+            BankingService bankingService = new BankingService(accountRepository, journal, new BankingOperation(balanceEngine));
+
+            bankingService.deposit("A1", new BigDecimal("500"));
+            bankingService.transfer("A1", "B1", new BigDecimal("200"));
+            accountRepository.findAccount("B1").changeAccountState(AccountState.FROZEN);
+
+            RecoveryManager.takeSnapshot(snapshotFile, journal, accountRepository, balanceEngine);
+
+            bankingService.withdraw("A1", new BigDecimal("50"));
+            bankingService.deposit("B1", new BigDecimal("5"));
+        }
+
+        BalanceEngine recoveredEngine = new BalanceEngine(BalanceMode.VERIFY);
+        InMemoryAccountRepository recoveredAccounts = new InMemoryAccountRepository();
+
+        try (JournalTransactionRepository journal = RecoveryManager.recover(snapshotFile, journalFile, SyncPolicy.OS_BUFFERED, Duration.ofMillis(10), recoveredAccounts, recoveredEngine)) {
+            assertEquals(1, journal.findByAccountNumber("A1").size());
+            assertEquals(AccountState.FROZEN, recoveredAccounts.findAccount("B1").getAccountState());
+            assertEquals(Money.of(new BigDecimal("250")), recoveredEngine.calculateBalance("A1", journal.findByAccountNumber("A1")));
+            assertEquals(Money.of(new BigDecimal("205")), recoveredEngine.calculateBalance("B1", journal.findByAccountNumber("B1")));
+
+            BankingService bankingService = new BankingService(recoveredAccounts, journal, new BankingOperation(recoveredEngine));
+            bankingService.withdraw("A1", new BigDecimal("250"));
+        }
+    }
+
+    @Test
+    void recover_KeepsPreSnapshotRowsReadableForExportAndReconciliation() throws Exception {
+        Path journalFile = directory.resolve("ledger.journal");
+        Path snapshotFile = directory.resolve("ledger.snapshot");
+        BalanceEngine balanceEngine = new BalanceEngine(BalanceMode.INCREMENTAL);
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("B1", AccountState.ACTIVE));
+
+        try (JournalTransactionRepository journal = new JournalTransactionRepository(journalFile, SyncPolicy.OS_BUFFERED)) {
+            BankingService bankingService = new BankingService(accountRepository, journal, new BankingOperation(balanceEngine));
+
+            bankingService.deposit("A1", new BigDecimal("500"));
+            bankingService.transfer("A1", "B1", new BigDecimal("200"));
+
+            RecoveryManager.takeSnapshot(snapshotFile, journal, accountRepository, balanceEngine);
+
+            bankingService.withdraw("A1", new BigDecimal("50"));
+        }
+
+        List<String> accountNumbers = List.of("A1", "B1");
+
+        try (JournalTransactionRepository journal = RecoveryManager.recover(snapshotFile, journalFile, SyncPolicy.OS_BUFFERED, Duration.ofMillis(10), new InMemoryAccountRepository(), new BalanceEngine(BalanceMode.VERIFY))) {
+            assertEquals(1, journal.findByAccountNumber("A1").size());
+            assertEquals(3, journal.findFullHistory("A1").size());
+            assertEquals(Money.of(new BigDecimal("300")), journal.getOpeningBalance("A1"));
+            assertEquals(Money.of(new BigDecimal("200")), journal.getOpeningBalance("B1"));
+
+            TransactionPage newest = journal.query(TransactionQuery.forAccount("A1").newestFirst().limit(2));
+            assertEquals(List.of(TransactionType.WITHDRAW, TransactionType.TRANSFER_DEBIT),
+                    newest.getTransactions().stream().map(Transaction::getTransactionType).toList());
+            assertEquals(TransactionType.DEPOSIT,
+                    journal.query(TransactionQuery.forAccount("A1").newestFirst().after(newest.getNextCursor())).getTransactions().get(0).getTransactionType());
+
+            ReconciliationReport report = new LedgerReconciler().reconcile(journal, accountNumbers);
+            assertTrue(report.isClean());
+            assertEquals(Money.of(new BigDecimal("250")), report.getBalance("A1"));
+            assertEquals(Money.of(new BigDecimal("200")), report.getBalance("B1"));
+
+            assertEquals(4, LedgerExporter.exportCsv(journal, accountNumbers, directory.resolve("ledger.csv")));
+        }
+    }
+
+    @Test
+    void recover_AppliesAccountChangesMadeAfterTheSnapshot() throws Exception {
+        Path journalFile = directory.resolve("ledger.journal");
+        Path snapshotFile = directory.resolve("ledger.snapshot");
+        BalanceEngine balanceEngine = new BalanceEngine(BalanceMode.INCREMENTAL);
+
+        try (JournalTransactionRepository journal = new JournalTransactionRepository(journalFile, SyncPolicy.OS_BUFFERED)) {
+            JournalAccountRepository accountRepository = new JournalAccountRepository(new InMemoryAccountRepository(), journal);
+            BankingService bankingService = new BankingService(accountRepository, journal, new BankingOperation(balanceEngine));
+            accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+            accountRepository.saveAccount(new Account("B1", AccountState.ACTIVE));
+            bankingService.deposit("B1", new BigDecimal("40"));
+
+            RecoveryManager.takeSnapshot(snapshotFile, journal, accountRepository, balanceEngine);
+
+            accountRepository.saveAccount(new Account("C1", AccountState.ACTIVE));
+            bankingService.deposit("C1", new BigDecimal("75"));
+            bankingService.changeAccountState("B1", AccountState.FROZEN);
+        }
+
+        BalanceEngine recoveredEngine = new BalanceEngine(BalanceMode.INCREMENTAL);
+        InMemoryAccountRepository recoveredAccounts = new InMemoryAccountRepository();
+
+        try (JournalTransactionRepository journal = RecoveryManager.recover(snapshotFile, journalFile, SyncPolicy.OS_BUFFERED, Duration.ofMillis(10), recoveredAccounts, recoveredEngine)) {
+            assertEquals(AccountState.FROZEN, recoveredAccounts.findAccount("B1").getAccountState());
+            assertEquals(AccountState.ACTIVE, recoveredAccounts.findAccount("C1").getAccountState());
+            assertEquals(Money.of(new BigDecimal("40")), recoveredEngine.calculateBalance("B1", journal.findByAccountNumber("B1")));
+            assertEquals(Money.of(new BigDecimal("75")), recoveredEngine.calculateBalance("C1", journal.findByAccountNumber("C1")));
+        }
+    }
+
+    @Test
+    void recover_WithoutSnapshot_RestoresAccountsFromTheJournal() throws Exception {
+        Path journalFile = directory.resolve("ledger.journal");
+
+        try (JournalTransactionRepository journal = new JournalTransactionRepository(journalFile, SyncPolicy.OS_BUFFERED)) {
+            JournalAccountRepository accountRepository = new JournalAccountRepository(new InMemoryAccountRepository(), journal);
+            BankingService bankingService = new BankingService(accountRepository, journal, new BankingOperation());
+            accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+            bankingService.deposit("A1", new BigDecimal("10"));
+            bankingService.changeAccountState("A1", AccountState.CLOSED);
+        }
+
+        InMemoryAccountRepository recoveredAccounts = new InMemoryAccountRepository();
+
+        try (JournalTransactionRepository journal = RecoveryManager.recover(directory.resolve("missing.snapshot"), journalFile, SyncPolicy.OS_BUFFERED, Duration.ofMillis(10), recoveredAccounts, new BalanceEngine(BalanceMode.INCREMENTAL))) {
+            assertEquals(AccountState.CLOSED, recoveredAccounts.findAccount("A1").getAccountState());
+            assertEquals(1, journal.findByAccountNumber("A1").size());
+        }
+    }
+}
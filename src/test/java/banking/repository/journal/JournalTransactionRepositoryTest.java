@@ -0,0 +1,256 @@
+package banking.repository.journal;
+
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.exception.LedgerFormatException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournalTransactionRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private static Transaction tx(String accountNumber, TransactionType type, String amount, String transferId) {
+        return new Transaction(accountNumber, Instant.now(), type, new BigDecimal(amount), UUID.randomUUID().toString(), transferId);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SyncPolicy.class)
+    void reopen_RestoresLedger(SyncPolicy syncPolicy) throws IOException {
+        Path journal = directory.resolve("ledger.journal");
+        Transaction deposit = tx("A1", TransactionType.DEPOSIT, "100.50", null);
+        Transaction debit = tx("A1", TransactionType.TRANSFER_DEBIT, "25", "T1");
+        Transaction credit = tx("B1", TransactionType.TRANSFER_CREDIT, "25", "T1");
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, syncPolicy)) {
+            repository.saveTransaction(deposit);
+            repository.saveTransactions(List.of(debit, credit));
+        }
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, syncPolicy)) {
+            List<Transaction> history = repository.findByAccountNumber("A1");
+
+            assertEquals(2, history.size());
+            assertEquals(deposit.getTransactionId(), history.get(0).getTransactionId());
+            assertEquals(deposit.getAmount(), history.get(0).getAmount());
+            assertEquals(deposit.getOccurredAt(), history.get(0).getOccurredAt());
+            assertNull(history.get(0).getTransferId());
+            assertEquals("T1", history.get(1).getTransferId());
+            assertEquals(TransactionType.TRANSFER_CREDIT, repository.findByAccountNumber("B1").get(0).getTransactionType());
+        }
+    }
+
+    @Test
+    void tornTail_IsTruncatedOnOpen() throws IOException {
+        Path journal = directory.resolve("ledger.journal");
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH)) {
+            repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "10", null));
+            repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "20", null));
+        }
+
+        long intactSize = Files.size(journal);
+
+        // Simulate a crash halfway through writing a third record.
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 60, 1, 2, 3}));
+        }
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH)) {
+            assertEquals(2, repository.findByAccountNumber("A1").size());
+            assertEquals(intactSize, repository.getWritePosition());
+        }
+
+        assertEquals(intactSize, Files.size(journal));
+    }
+
+    @Test
+    void zeroFilledTail_IsTruncatedOnOpen() throws IOException {
+        Path journal = directory.resolve("ledger.journal");
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH)) {
+            repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "10", null));
+        }
+
+        long intactSize = Files.size(journal);
+
+        // A crash after the file grew but before the data reached the disk leaves zeros.
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(4096));
+        }
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH)) {
+            assertEquals(1, repository.findByAccountNumber("A1").size());
+        }
+
+        assertEquals(intactSize, Files.size(journal));
+    }
+
+    @Test
+    void corruptRecordFollowedByMoreRecords_FailsOpenWithoutTruncating() throws IOException {
+        Path journal = directory.resolve("ledger.journal");
+        long secondRecordAt;
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH)) {
+            repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "10", null));
+            secondRecordAt = repository.getWritePosition();
+            repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "20", null));
+            repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "30", null));
+        }
+
+        long size = Files.size(journal);
+
+        // Flip a payload byte of the middle record so its checksum no longer matches.
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer type = ByteBuffer.allocate(1);
+            channel.read(type, secondRecordAt + JournalCodec.HEADER_BYTES + 2);
+            type.put(0, (byte) (type.get(0) ^ 0x55)).rewind();
+            channel.write(type, secondRecordAt + JournalCodec.HEADER_BYTES + 2);
+        }
+
+        assertThrows(LedgerFormatException.class, () -> new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH));
+        assertEquals(size, Files.size(journal));
+    }
+
+    @Test
+    void replayFrom_MustBeTheStartOfARecord() throws IOException {
+        Path journal = directory.resolve("ledger.journal");
+        long secondRecordAt;
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH)) {
+            repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "10", null));
+            secondRecordAt = repository.getWritePosition();
+            repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "20", null));
+        }
+
+        long size = Files.size(journal);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH, Duration.ofMillis(10), secondRecordAt - 3));
+        assertEquals(size, Files.size(journal));
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH, Duration.ofMillis(10), secondRecordAt)) {
+            assertEquals(1, repository.findByAccountNumber("A1").size());
+        }
+    }
+
+    @Test
+    void interruptedWriter_DoesNotCloseTheJournal() throws IOException {
+        Path journal = directory.resolve("ledger.journal");
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH)) {
+            Thread.currentThread().interrupt();
+
+            try {
+                repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "10", null));
+            } finally {
+                assertTrue(Thread.interrupted());
+            }
+
+            repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "20", null));
+        }
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH)) {
+            assertEquals(2, repository.findByAccountNumber("A1").size());
+        }
+    }
+
+    @Test
+    void concurrentAppends_AreGroupCommitted() throws Exception {
+        Path journal = directory.resolve("ledger.journal");
+        int threads = 8;
+        int perThread = 200;
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.EVERY_BATCH)) {
+            List<Thread> writers = new ArrayList<>();
+
+            for (int t = 0; t < threads; t++) {
+                String accountNumber = "A" + t;
+                writers.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        repository.saveTransaction(tx(accountNumber, TransactionType.DEPOSIT, "1", null));
+                    }
+                }));
+            }
+
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+
+        try (JournalTransactionRepository repository = new JournalTransactionRepository(journal, SyncPolicy.OS_BUFFERED)) {
+            for (int t = 0; t < threads; t++) {
+                assertEquals(perThread, repository.findByAccountNumber("A" + t).size());
+            }
+        }
+    }
+
+    @Test
+    void failedSync_MakesTheJournalUnusable() throws IOException {
+        Path journal = directory.resolve("ledger.journal");
+
+        try (JournalTransactionRepository repository = failingSync(journal, SyncPolicy.EVERY_BATCH)) {
+            assertThrows(UncheckedIOException.class, () -> repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "10", null)));
+
+            assertThrows(IllegalStateException.class, () -> repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "20", null)));
+            assertThrows(IllegalStateException.class, () -> repository.findByAccountNumber("A1"));
+        }
+    }
+
+    @Test
+    void failedIntervalSync_MakesTheJournalUnusable() throws Exception {
+        Path journal = directory.resolve("ledger.journal");
+
+        try (JournalTransactionRepository repository = failingSync(journal, SyncPolicy.INTERVAL)) {
+            repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "10", null));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+            while (!isUnusable(repository) && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(IllegalStateException.class, () -> repository.saveTransaction(tx("A1", TransactionType.DEPOSIT, "20", null)));
+        }
+    }
+
+    private static JournalTransactionRepository failingSync(Path journal, SyncPolicy syncPolicy) {
+        return new JournalTransactionRepository(journal, syncPolicy, Duration.ofMillis(1)) {
+            @Override
+            void force() throws IOException {
+                throw new IOException("Disk failure");
+            }
+        };
+    }
+
+    private static boolean isUnusable(JournalTransactionRepository repository) {
+        try {
+            repository.findByAccountNumber("A1");
+            return false;
+        } catch (IllegalStateException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package banking.repository.memory;
+
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.repository.TransactionQuery;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccountLedgerTest {
+    private static final Instant BASE = Instant.parse("2025-01-01T00:00:00Z");
+
+    private static Transaction deposit(long second) {
+        return new Transaction("A1", BASE.plusSeconds(second), TransactionType.DEPOSIT, BigDecimal.ONE, UUID.randomUUID().toString(), null);
+    }
+
+    @Test
+    void lateRow_DoesNotWidenWindowsInLaterSegments() {
+        AccountLedger ledger = new AccountLedger();
+
+        for (int i = 0; i < 20_000; i++) {
+            ledger.append(i == 1_500 ? deposit(10) : deposit(i));
+        }
+
+        TransactionQuery recent = TransactionQuery.forAccount("A1").between(BASE.plusSeconds(15_000), BASE.plusSeconds(15_010));
+        TransactionQuery early = TransactionQuery.forAccount("A1").between(BASE.plusSeconds(5), BASE.plusSeconds(20));
+        List<Transaction> rows = ledger.view();
+
+        int[] recentBounds = ledger.bounds(recent, rows.size());
+        assertTrue(recentBounds[1] <= 15_010 + 1_024, "upper bound " + recentBounds[1]);
+        assertEquals(10, ledger.stream(recent).count());
+
+        // The late row still belongs to the early window, far past where the keys reach its end.
+        assertEquals(rows.stream().filter(early::matches).collect(Collectors.toList()), ledger.stream(early).collect(Collectors.toList()));
+        assertEquals(16, ledger.stream(early).count());
+    }
+}
@@ -0,0 +1,114 @@
+package banking.repository.memory;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HandleAccountRepositoryTest {
+
+    @Test
+    void saveAccount_AssignsDenseHandles() {
+        HandleAccountRepository repository = new HandleAccountRepository();
+
+        for (int i = 0; i < 10_000; i++) {
+            repository.saveAccount(new Account("ACC-" + i, AccountState.ACTIVE));
+        }
+
+        assertEquals(10_000, repository.size());
+        assertEquals(10_000, repository.findAll().size());
+
+        for (int i = 0; i < 10_000; i++) {
+            int handle = repository.handleOf("ACC-" + i);
+            assertEquals(i, handle);
+            assertEquals("ACC-" + i, repository.findAccount(handle).getAccountNumber());
+        }
+
+        assertEquals(HandleAccountRepository.NO_HANDLE, repository.handleOf("missing"));
+        assertNull(repository.findAccount("missing"));
+        assertNull(repository.findAccount(10_000));
+    }
+
+    @Test
+    void saveAccount_ReplacesExistingAccountUnderSameHandle() {
+        HandleAccountRepository repository = new HandleAccountRepository();
+        Account replacement = new Account("A1", AccountState.FROZEN, Instant.parse("2020-01-02T03:04:05.123456789Z"));
+
+        repository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        repository.saveAccount(replacement);
+
+        assertEquals(1, repository.size());
+        assertEquals(AccountState.FROZEN, repository.findAccount("A1").getAccountState());
+        assertEquals(replacement.getCreatedAt(), repository.findAccount("A1").getCreatedAt());
+    }
+
+    @Test
+    void stateChangesThroughAView_AreStoredAndSurviveGrowth() {
+        HandleAccountRepository repository = new HandleAccountRepository();
+        repository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        Account view = repository.findAccount("A1");
+
+        view.changeAccountState(AccountState.FROZEN);
+
+        for (int i = 0; i < 10_000; i++) {
+            repository.saveAccount(new Account("ACC-" + i, AccountState.ACTIVE));
+        }
+
+        assertEquals(AccountState.FROZEN, repository.findAccount("A1").getAccountState());
+
+        view.changeAccountState(AccountState.ACTIVE);
+
+        assertEquals(AccountState.ACTIVE, repository.findAccount(repository.handleOf("A1")).getAccountState());
+    }
+
+    @Test
+    void compareAndChangeState_OnlyOneViewWins() {
+        HandleAccountRepository repository = new HandleAccountRepository();
+        repository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        Account first = repository.findAccount("A1");
+        Account second = repository.findAccount("A1");
+
+        assertTrue(first.compareAndChangeState(AccountState.ACTIVE, AccountState.FROZEN));
+        assertFalse(second.compareAndChangeState(AccountState.ACTIVE, AccountState.CLOSED));
+        assertEquals(AccountState.FROZEN, second.getAccountState());
+    }
+
+    @Test
+    void readersDuringGrowth_AlwaysFindPublishedAccounts() throws InterruptedException {
+        HandleAccountRepository repository = new HandleAccountRepository();
+        AtomicBoolean missed = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                while (!done.get()) {
+                    int published = repository.size();
+                    if (published > 0 && repository.findAccount("ACC-" + (published - 1)) == null) {
+                        missed.set(true);
+                    }
+                }
+            }));
+        }
+
+        for (int i = 0; i < 200_000; i++) {
+            repository.saveAccount(new Account("ACC-" + i, AccountState.ACTIVE));
+        }
+
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertFalse(missed.get());
+    }
+}
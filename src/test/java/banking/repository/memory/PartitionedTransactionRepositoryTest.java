@@ -0,0 +1,182 @@
+package banking.repository.memory;
+
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.repository.TransactionPage;
+import banking.repository.TransactionQuery;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PartitionedTransactionRepositoryTest {
+
+    private static Transaction deposit(String accountNumber, String amount) {
+        return new Transaction(accountNumber, Instant.now(), TransactionType.DEPOSIT, new BigDecimal(amount), UUID.randomUUID().toString(), null);
+    }
+
+    @Test
+    void unknownAccount_ReturnsEmptyHistory() {
+        PartitionedTransactionRepository repository = new PartitionedTransactionRepository();
+
+        assertTrue(repository.findByAccountNumber("A1").isEmpty());
+    }
+
+    @Test
+    void findByAccountNumber_ReturnsOnlyThatAccountInOrder() {
+        PartitionedTransactionRepository repository = new PartitionedTransactionRepository();
+        Transaction first = deposit("A1", "100");
+        Transaction other = deposit("B1", "999");
+        Transaction second = deposit("A1", "50");
+
+        repository.saveTransaction(first);
+        repository.saveTransaction(other);
+        repository.saveTransaction(second);
+
+        List<Transaction> history = repository.findByAccountNumber("A1");
+
+        assertEquals(2, history.size());
+        assertSame(first, history.get(0));
+        assertSame(second, history.get(1));
+    }
+
+    @Test
+    void history_IsStableViewAndReadOnly() {
+        PartitionedTransactionRepository repository = new PartitionedTransactionRepository();
+        repository.saveTransaction(deposit("A1", "100"));
+
+        List<Transaction> history = repository.findByAccountNumber("A1");
+        repository.saveTransaction(deposit("A1", "200"));
+
+        assertEquals(1, history.size());
+        assertEquals(2, repository.findByAccountNumber("A1").size());
+        assertThrows(UnsupportedOperationException.class, () -> history.add(deposit("A1", "1")));
+    }
+
+    @Test
+    void concurrentAppends_AreAllRecorded() throws InterruptedException {
+        PartitionedTransactionRepository repository = new PartitionedTransactionRepository();
+        int threads = 8;
+        int perThread = 5_000;
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            String accountNumber = t % 2 == 0 ? "A1" : "B" + t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    repository.saveTransaction(deposit(accountNumber, "1"));
+                    repository.findByAccountNumber(accountNumber).size();
+                }
+            }));
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(4 * perThread, repository.findByAccountNumber("A1").size());
+        assertEquals(perThread, repository.findByAccountNumber("B1").size());
+    }
+
+    private static Transaction at(String accountNumber, Instant occurredAt, TransactionType type) {
+        return new Transaction(accountNumber, occurredAt, type, new BigDecimal("1.00"), UUID.randomUUID().toString(), null);
+    }
+
+    // Slightly shuffled timestamps, like concurrent writers stamping before they append.
+    private static List<Transaction> jitteredHistory(int rows, long seed) {
+        Random random = new Random(seed);
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        List<Transaction> history = new ArrayList<>();
+
+        for (int i = 0; i < rows; i++) {
+            Instant occurredAt = base.plusMillis(i * 10L - random.nextInt(35));
+            history.add(at("A1", occurredAt, i % 3 == 0 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT));
+        }
+
+        return history;
+    }
+
+    @Test
+    void query_MatchesFullScanUnderOutOfOrderTimestamps() {
+        PartitionedTransactionRepository repository = new PartitionedTransactionRepository();
+        InMemoryTransactionRepository reference = new InMemoryTransactionRepository();
+        List<Transaction> history = jitteredHistory(5_000, 42);
+        repository.saveTransactions(history.subList(0, 2_500));
+        history.subList(2_500, history.size()).forEach(repository::saveTransaction);
+        history.forEach(reference::saveTransaction);
+
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        Random random = new Random(7);
+
+        for (int round = 0; round < 200; round++) {
+            Instant from = base.plusMillis(random.nextInt(50_000));
+            Instant to = from.plusMillis(random.nextInt(2_000));
+            TransactionQuery query = TransactionQuery.forAccount("A1").between(from, to).limit(10_000);
+            if (round % 2 == 1) {
+                query = query.newestFirst().ofTypes(TransactionType.WITHDRAW);
+            }
+
+            assertEquals(reference.query(query).getTransactions(), repository.query(query).getTransactions());
+            assertEquals(reference.stream(query).collect(Collectors.toList()), repository.stream(query).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void query_KeysetPagesCoverWindowExactlyOnce() {
+        PartitionedTransactionRepository repository = new PartitionedTransactionRepository();
+        jitteredHistory(3_000, 1).forEach(repository::saveTransaction);
+        Instant from = Instant.parse("2025-01-01T00:00:05Z");
+        Instant to = Instant.parse("2025-01-01T00:00:20Z");
+        TransactionQuery query = TransactionQuery.forAccount("A1").between(from, to).newestFirst().limit(64);
+
+        List<Transaction> paged = new ArrayList<>();
+        TransactionPage page = repository.query(query);
+        paged.addAll(page.getTransactions());
+
+        while (page.hasMore()) {
+            page = repository.query(query.after(page.getNextCursor()));
+            paged.addAll(page.getTransactions());
+        }
+
+        List<Transaction> expected = new ArrayList<>(repository.stream(query).collect(Collectors.toList()));
+        assertEquals(expected, paged);
+        assertTrue(paged.size() > 1_000);
+        assertTrue(paged.stream().allMatch(tx -> !tx.getOccurredAt().isBefore(from) && tx.getOccurredAt().isBefore(to)));
+    }
+
+    @Test
+    void query_UnknownAccountIsEmptyPage() {
+        TransactionPage page = new PartitionedTransactionRepository().query(TransactionQuery.forAccount("A1"));
+
+        assertTrue(page.getTransactions().isEmpty());
+        assertTrue(!page.hasMore());
+    }
+
+    @Test
+    void query_CursorsOutsideTheHistoryRangeAreRejected() {
+        TransactionQuery query = TransactionQuery.forAccount("A1");
+
+        assertThrows(IllegalArgumentException.class, () -> query.after(Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> query.after(4_294_967_296L));
+        assertThrows(IllegalArgumentException.class, () -> query.after(-2));
+    }
+
+    @Test
+    void query_LargestCursorIsPastTheEnd() {
+        PartitionedTransactionRepository repository = new PartitionedTransactionRepository();
+        repository.saveTransaction(deposit("A1", "10"));
+
+        assertTrue(repository.query(TransactionQuery.forAccount("A1").after(Integer.MAX_VALUE)).getTransactions().isEmpty());
+        assertEquals(1, repository.query(TransactionQuery.forAccount("A1").newestFirst().after(Integer.MAX_VALUE)).getTransactions().size());
+    }
+}
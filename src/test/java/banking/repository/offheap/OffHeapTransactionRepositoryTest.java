@@ -0,0 +1,84 @@
+package banking.repository.offheap;
+
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapTransactionRepositoryTest {
+
+    @Test
+    void findByAccountNumber_MaterializesStoredRows() {
+        OffHeapTransactionRepository repository = new OffHeapTransactionRepository();
+        Instant occurredAt = Instant.parse("2024-05-01T10:15:30.123456789Z");
+        String transferId = UUID.randomUUID().toString();
+        Transaction debit = new Transaction("A1", occurredAt, TransactionType.TRANSFER_DEBIT, new BigDecimal("12.34"), UUID.randomUUID().toString(), transferId);
+        Transaction deposit = new Transaction("A1", occurredAt, TransactionType.DEPOSIT, new BigDecimal("5"), UUID.randomUUID().toString(), null);
+
+        repository.saveTransaction(debit);
+        repository.saveTransaction(new Transaction("B1", occurredAt, TransactionType.DEPOSIT, BigDecimal.ONE, UUID.randomUUID().toString(), null));
+        repository.saveTransaction(deposit);
+
+        List<Transaction> history = repository.findByAccountNumber("A1");
+
+        assertEquals(2, history.size());
+        assertEquals("A1", history.get(0).getAccountNumber());
+        assertEquals(TransactionType.TRANSFER_DEBIT, history.get(0).getTransactionType());
+        assertEquals(Money.of(new BigDecimal("12.34")), history.get(0).getAmount());
+        assertEquals(occurredAt, history.get(0).getOccurredAt());
+        assertEquals(debit.getTransactionId(), history.get(0).getTransactionId());
+        assertEquals(transferId, history.get(0).getTransferId());
+        assertNull(history.get(1).getTransferId());
+        assertTrue(repository.findByAccountNumber("C1").isEmpty());
+    }
+
+    @Test
+    void cursor_ScansWithoutMaterializing() {
+        OffHeapTransactionRepository repository = new OffHeapTransactionRepository();
+
+        for (int i = 0; i < 200_000; i++) {
+            repository.saveTransaction(new Transaction(i % 2 == 0 ? "A1" : "B1", Instant.now(), TransactionType.DEPOSIT, BigDecimal.ONE, UUID.randomUUID().toString(), null));
+        }
+
+        OffHeapCursor cursor = repository.newCursor();
+        long total = 0;
+        int rows = 0;
+
+        cursor.scanAccount("A1");
+        while (cursor.next()) {
+            total += cursor.getAmountMinorUnits();
+            rows++;
+            assertFalse(cursor.hasTransferId());
+        }
+
+        assertEquals(100_000, rows);
+        assertEquals(100_000 * 100L, total);
+
+        rows = 0;
+        cursor.scanAll();
+        while (cursor.next()) {
+            rows++;
+        }
+
+        assertEquals(200_000, rows);
+    }
+
+    @Test
+    void nonUuidIds_AreRejected() {
+        OffHeapTransactionRepository repository = new OffHeapTransactionRepository();
+        Transaction transaction = new Transaction("A1", Instant.now(), TransactionType.DEPOSIT, BigDecimal.ONE, "tx-1", null);
+
+        assertThrows(IllegalArgumentException.class, () -> repository.saveTransaction(transaction));
+    }
+}
@@ -0,0 +1,151 @@
+package banking.repository.tiered;
+
+import banking.domain.money.Money;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.repository.TransactionPage;
+import banking.repository.TransactionQuery;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TieredTransactionRepositoryTest {
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static Transaction row(String accountNumber, int second, TransactionType type, String amount) {
+        String transferId = type == TransactionType.TRANSFER_DEBIT ? UUID.randomUUID().toString() : null;
+        return new Transaction(accountNumber, START.plusSeconds(second), type, new BigDecimal(amount), UUID.randomUUID().toString(), transferId);
+    }
+
+    private static List<String> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getTransactionId).collect(Collectors.toList());
+    }
+
+    private static TieredTransactionRepository repositoryWith(List<Transaction> rows) {
+        TieredTransactionRepository repository = new TieredTransactionRepository();
+        rows.forEach(repository::saveTransaction);
+        return repository;
+    }
+
+    private static List<Transaction> history(String accountNumber, int count) {
+        List<Transaction> rows = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            rows.add(i % 3 == 2 ? row(accountNumber, i, TransactionType.WITHDRAW, "1.25") : row(accountNumber, i, TransactionType.DEPOSIT, "10.50"));
+        }
+
+        return rows;
+    }
+
+    @Test
+    void compact_MovesOldPrefixAndKeepsOpeningBalance() {
+        List<Transaction> rows = history("A1", 100);
+        TieredTransactionRepository repository = repositoryWith(rows);
+
+        ColdBlock block = repository.compact("A1", START.plusSeconds(60));
+
+        assertEquals(60, block.getRowCount());
+        assertTrue(block.getCompressedBytes() < block.getRawBytes());
+        assertEquals(ids(rows.subList(60, 100)), ids(repository.findByAccountNumber("A1")));
+        assertEquals(Money.ofMinorUnits(20 * 1050 * 2 - 20 * 125), repository.getOpeningBalance("A1"));
+    }
+
+    @Test
+    void compact_StopsAtFirstRowInsideRetention() {
+        List<Transaction> rows = new ArrayList<>(history("A1", 10));
+        rows.add(5, row("A1", 500, TransactionType.DEPOSIT, "1"));
+        TieredTransactionRepository repository = repositoryWith(rows);
+
+        ColdBlock block = repository.compact("A1", START.plusSeconds(100));
+
+        assertEquals(5, block.getRowCount());
+        assertNull(repository.compact("A1", START.plusSeconds(100)));
+    }
+
+    @Test
+    void findFullHistory_RoundTripsColdRows() {
+        List<Transaction> rows = history("A1", 50);
+        TieredTransactionRepository repository = repositoryWith(rows);
+
+        repository.compact("A1", START.plusSeconds(20));
+        repository.compact("A1", START.plusSeconds(40));
+        List<Transaction> full = repository.findFullHistory("A1");
+
+        assertEquals(ids(rows), ids(full));
+
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i).getOccurredAt(), full.get(i).getOccurredAt());
+            assertEquals(rows.get(i).getTransactionType(), full.get(i).getTransactionType());
+            assertEquals(rows.get(i).getAmount(), full.get(i).getAmount());
+            assertEquals(rows.get(i).getTransferId(), full.get(i).getTransferId());
+            assertEquals("A1", full.get(i).getAccountNumber());
+        }
+    }
+
+    @Test
+    void query_PagesAcrossTiersWithStableCursors() {
+        List<Transaction> rows = history("A1", 95);
+        TieredTransactionRepository repository = repositoryWith(rows);
+
+        TransactionPage first = repository.query(TransactionQuery.forAccount("A1").limit(30));
+        repository.compact("A1", START.plusSeconds(50));
+        TransactionPage second = repository.query(TransactionQuery.forAccount("A1").limit(30).after(first.getNextCursor()));
+
+        assertEquals(ids(rows.subList(0, 30)), ids(first.getTransactions()));
+        assertEquals(ids(rows.subList(30, 60)), ids(second.getTransactions()));
+
+        List<Transaction> newest = repository.stream(TransactionQuery.forAccount("A1").newestFirst()).collect(Collectors.toList());
+        assertEquals(95, newest.size());
+        assertEquals(rows.get(94).getTransactionId(), newest.get(0).getTransactionId());
+        assertEquals(rows.get(0).getTransactionId(), newest.get(94).getTransactionId());
+    }
+
+    @Test
+    void query_WindowAfterHorizon_ReadsOnlyHotTail() {
+        List<Transaction> rows = history("A1", 40);
+        TieredTransactionRepository repository = repositoryWith(rows);
+        repository.compact("A1", START.plusSeconds(20));
+
+        TransactionPage page = repository.query(TransactionQuery.forAccount("A1").between(START.plusSeconds(25), START.plusSeconds(30)));
+
+        assertEquals(ids(rows.subList(25, 30)), ids(page.getTransactions()));
+    }
+
+    @Test
+    void query_WindowEndIsHonouredInBothTiers() {
+        List<Transaction> rows = history("A1", 60);
+        TieredTransactionRepository repository = repositoryWith(rows);
+        repository.compact("A1", START.plusSeconds(20));
+
+        TransactionPage straddling = repository.query(TransactionQuery.forAccount("A1").between(START.plusSeconds(15), START.plusSeconds(35)).limit(100));
+        List<Transaction> hotOnly = repository.stream(TransactionQuery.forAccount("A1").between(START.plusSeconds(40), START.plusSeconds(45))).collect(Collectors.toList());
+
+        assertEquals(ids(rows.subList(15, 35)), ids(straddling.getTransactions()));
+        assertFalse(straddling.hasMore());
+        assertEquals(ids(rows.subList(40, 45)), ids(hotOnly));
+    }
+
+    @Test
+    void findByAccountNumber_ViewIsUnaffectedByLaterCompaction() {
+        List<Transaction> rows = history("A1", 30);
+        TieredTransactionRepository repository = repositoryWith(rows);
+
+        List<Transaction> tail = repository.findByAccountNumber("A1");
+        repository.compact("A1", START.plusSeconds(10));
+        repository.saveTransaction(row("A1", 31, TransactionType.DEPOSIT, "1.00"));
+
+        assertEquals(ids(rows), ids(tail));
+        assertEquals(21, repository.findByAccountNumber("A1").size());
+        assertEquals(31, repository.findFullHistory("A1").size());
+    }
+}
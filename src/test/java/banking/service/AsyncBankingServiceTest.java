@@ -0,0 +1,94 @@
+package banking.service;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.exception.InsufficientFundsException;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AsyncBankingServiceTest {
+
+    private static BankingService bankingService(InMemoryAccountRepository accountRepository, String... accountNumbers) {
+        for (String accountNumber : accountNumbers) {
+            accountRepository.saveAccount(new Account(accountNumber, AccountState.ACTIVE));
+        }
+
+        return new BankingService(accountRepository, new PartitionedTransactionRepository(), new BankingOperation(), new StripedAccountLocks());
+    }
+
+    @Test
+    void operationsOnOneAccount_RunInSubmissionOrder() throws Exception {
+        BankingService bankingService = bankingService(new InMemoryAccountRepository(), "A1");
+
+        try (AsyncBankingService asyncService = new AsyncBankingService(bankingService)) {
+            List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+
+            // Each withdrawal only succeeds if the deposit just before it has already been applied.
+            for (int i = 0; i < 1_000; i++) {
+                futures.add(asyncService.deposit("A1", BigDecimal.TEN));
+                futures.add(asyncService.withdraw("A1", BigDecimal.TEN));
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+            assertEquals(Money.ZERO, asyncService.getBalance("A1").get(30, TimeUnit.SECONDS));
+            assertEquals(2_000, asyncService.getTransactions("A1").get(30, TimeUnit.SECONDS).size());
+        }
+    }
+
+    @Test
+    void rejection_CompletesExceptionallyAndDoesNotBlockQueue() throws Exception {
+        BankingService bankingService = bankingService(new InMemoryAccountRepository(), "A1");
+
+        try (AsyncBankingService asyncService = new AsyncBankingService(bankingService)) {
+            CompletableFuture<Transaction> rejected = asyncService.withdraw("A1", BigDecimal.ONE);
+            CompletableFuture<Transaction> deposit = asyncService.deposit("A1", BigDecimal.ONE);
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(30, TimeUnit.SECONDS));
+            assertInstanceOf(InsufficientFundsException.class, failure.getCause());
+            assertEquals(Money.of(BigDecimal.ONE), deposit.get(30, TimeUnit.SECONDS).getAmount());
+        }
+    }
+
+    @Test
+    void opposingTransfers_CompleteOnCallerExecutor() throws Exception {
+        BankingService bankingService = bankingService(new InMemoryAccountRepository(), "A1", "B1");
+        bankingService.deposit("A1", new BigDecimal("100"));
+        bankingService.deposit("B1", new BigDecimal("100"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try (AsyncBankingService asyncService = new AsyncBankingService(bankingService, executor)) {
+            List<CompletableFuture<List<Transaction>>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 5_000; i++) {
+                futures.add(i % 2 == 0
+                        ? asyncService.transfer("A1", "B1", BigDecimal.ONE)
+                        : asyncService.transfer("B1", "A1", BigDecimal.ONE));
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+            assertEquals(Money.of(new BigDecimal("100")), asyncService.getBalance("A1").get(30, TimeUnit.SECONDS));
+            assertEquals(Money.of(new BigDecimal("100")), asyncService.getBalance("B1").get(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
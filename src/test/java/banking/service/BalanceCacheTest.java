@@ -0,0 +1,144 @@
+package banking.service;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.domain.transaction.Transaction;
+import banking.domain.transaction.TransactionType;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BalanceCacheTest {
+
+    private static Transaction deposit(String accountNumber, String amount) {
+        return new Transaction(accountNumber, Instant.now(), TransactionType.DEPOSIT, new BigDecimal(amount), UUID.randomUUID().toString(), null);
+    }
+
+    @Test
+    void putIfUnchanged_SkipsWhenAWriteIntervened() {
+        BalanceCache cache = new BalanceCache(64);
+        long epoch = cache.epochOf("A1");
+
+        cache.beginWrite("A1");
+        cache.apply(deposit("A1", "5.00"));
+        cache.putIfUnchanged("A1", Money.ZERO, epoch);
+
+        assertNull(cache.get("A1"));
+
+        cache.putIfUnchanged("A1", Money.ofMinorUnits(500), cache.epochOf("A1"));
+        cache.beginWrite("A1");
+        cache.apply(deposit("A1", "1.25"));
+
+        assertEquals(Money.ofMinorUnits(625), cache.get("A1"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void putIfUnchanged_SkipsWhileAWriteIsInFlight() {
+        BalanceCache cache = new BalanceCache(64);
+
+        cache.beginWrite("A1");
+        cache.putIfUnchanged("A1", Money.ofMinorUnits(500), cache.epochOf("A1"));
+        cache.apply(deposit("A1", "5.00"));
+
+        assertNull(cache.get("A1"));
+
+        cache.beginWrite("A1");
+        cache.abortWrite("A1");
+        cache.putIfUnchanged("A1", Money.ofMinorUnits(500), cache.epochOf("A1"));
+
+        assertEquals(Money.ofMinorUnits(500), cache.get("A1"));
+    }
+
+    @Test
+    void readBetweenSaveAndApply_DoesNotCountTheDepositTwice() {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        List<Money> readsDuringSave = new ArrayList<>();
+        BankingService[] service = new BankingService[1];
+
+        // Reads the balance right after the row is stored and before the service applies it to the cache.
+        PartitionedTransactionRepository transactionRepository = new PartitionedTransactionRepository() {
+            @Override
+            public void saveTransaction(Transaction transaction) {
+                super.saveTransaction(transaction);
+                readsDuringSave.add(service[0].getBalance(transaction.getAccountNumber()));
+            }
+        };
+
+        service[0] = new BankingService(accountRepository, transactionRepository, new BankingOperation(), new StripedAccountLocks(), new BalanceCache(64));
+
+        service[0].deposit("A1", new BigDecimal("10.00"));
+        service[0].deposit("A1", new BigDecimal("5.00"));
+
+        assertEquals(List.of(Money.ofMinorUnits(1000), Money.ofMinorUnits(1500)), readsDuringSave);
+        assertEquals(Money.ofMinorUnits(1500), service[0].getBalance("A1"));
+        assertEquals(Money.ofMinorUnits(1500), service[0].getBalance("A1"));
+    }
+
+    @Test
+    void eviction_KeepsFrequentlyReadAccounts() {
+        BalanceCache cache = new BalanceCache(8);
+        List<String> hot = new ArrayList<>();
+
+        for (int i = 0; hot.size() < 4; i++) {
+            hot.add("HOT-" + i);
+        }
+
+        for (String accountNumber : hot) {
+            cache.putIfUnchanged(accountNumber, Money.ZERO, cache.epochOf(accountNumber));
+            for (int read = 0; read < 5; read++) {
+                cache.get(accountNumber);
+            }
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            String cold = "COLD-" + i;
+            cache.putIfUnchanged(cold, Money.ZERO, cache.epochOf(cold));
+        }
+
+        for (String accountNumber : hot) {
+            assertNotNull(cache.get(accountNumber), accountNumber);
+        }
+        assertTrue(cache.getEvictions() > 900);
+        assertEquals(8, cache.getCapacity());
+    }
+
+    @Test
+    void bankingService_CachedBalanceFollowsEveryWritePath() {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        PartitionedTransactionRepository transactionRepository = new PartitionedTransactionRepository();
+        BalanceCache cache = new BalanceCache(16);
+        BankingService bankingService = new BankingService(accountRepository, transactionRepository, new BankingOperation(), null, cache);
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("B1", AccountState.ACTIVE));
+
+        bankingService.deposit("A1", new BigDecimal("100.00"));
+        assertEquals(Money.ofMinorUnits(10_000), bankingService.getBalance("A1"));
+        assertEquals(Money.ZERO, bankingService.getBalance("B1"));
+
+        bankingService.withdraw("A1", new BigDecimal("10.00"));
+        bankingService.transfer("A1", "B1", new BigDecimal("30.00"));
+        bankingService.tryDeposit("B1", new BigDecimal("1.00"));
+        bankingService.submitBatch(List.of(BankingCommand.transfer("B1", "A1", new BigDecimal("0.50"))));
+
+        assertEquals(Money.ofMinorUnits(6_050), bankingService.getBalance("A1"));
+        assertEquals(Money.ofMinorUnits(3_050), bankingService.getBalance("B1"));
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+}
@@ -0,0 +1,322 @@
+package banking.service;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceCalculator;
+import banking.domain.operation.BankingOperation;
+import banking.exception.AccountNotFoundException;
+import banking.exception.InsufficientFundsException;
+import banking.exception.InvalidAccountStateException;
+import banking.exception.InvalidStateTransitionException;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BankingServiceConcurrencyTest {
+
+    private static BigDecimal balanceOf(PartitionedTransactionRepository transactionRepository, String accountNumber) {
+        return BalanceCalculator.calculateBalance(accountNumber, transactionRepository.findByAccountNumber(accountNumber));
+    }
+
+    @Test
+    void contendedWithdrawalsAndTransfers_NeverOverdraw() throws InterruptedException {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        PartitionedTransactionRepository transactionRepository = new PartitionedTransactionRepository();
+        BankingService bankingService = new BankingService(
+                accountRepository,
+                transactionRepository,
+                new BankingOperation(),
+                new StripedAccountLocks()
+        );
+
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("B1", AccountState.ACTIVE));
+        bankingService.deposit("A1", new BigDecimal("1000"));
+
+        int threads = 16;
+        int attemptsPerThread = 200;
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            boolean transfers = t % 2 == 0;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        try {
+                            if (transfers) {
+                                bankingService.transfer("A1", "B1", BigDecimal.ONE);
+                            } else {
+                                bankingService.withdraw("A1", BigDecimal.ONE);
+                            }
+                            succeeded.incrementAndGet();
+                        } catch (InsufficientFundsException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1000, succeeded.get());
+        assertEquals(threads * attemptsPerThread - 1000, rejected.get());
+        assertEquals(0, balanceOf(transactionRepository, "A1").compareTo(BigDecimal.ZERO));
+    }
+
+    @Test
+    void opposingTransfers_DoNotDeadlock() throws InterruptedException {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        PartitionedTransactionRepository transactionRepository = new PartitionedTransactionRepository();
+        BankingService bankingService = new BankingService(
+                accountRepository,
+                transactionRepository,
+                new BankingOperation(),
+                new StripedAccountLocks(64)
+        );
+
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("B1", AccountState.ACTIVE));
+        bankingService.deposit("A1", new BigDecimal("100"));
+        bankingService.deposit("B1", new BigDecimal("100"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            String from = t % 2 == 0 ? "A1" : "B1";
+            String to = t % 2 == 0 ? "B1" : "A1";
+            executor.execute(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    try {
+                        bankingService.transfer(from, to, BigDecimal.ONE);
+                    } catch (InsufficientFundsException ignored) {
+                        // Expected when one side has been drained.
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        BigDecimal total = balanceOf(transactionRepository, "A1").add(balanceOf(transactionRepository, "B1"));
+        assertEquals(0, total.compareTo(new BigDecimal("200")));
+    }
+
+    @Test
+    void changeAccountStates_ReportsEachAccount() {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        BankingService bankingService = new BankingService(
+                accountRepository,
+                new PartitionedTransactionRepository(),
+                new BankingOperation(),
+                new StripedAccountLocks(64)
+        );
+
+        List<String> accountNumbers = new ArrayList<>();
+
+        for (int i = 0; i < 1_000; i++) {
+            accountRepository.saveAccount(new Account("ACC" + i, AccountState.ACTIVE));
+            accountNumbers.add("ACC" + i);
+        }
+
+        accountRepository.saveAccount(new Account("CLOSED1", AccountState.CLOSED));
+        accountNumbers.add("CLOSED1");
+        accountNumbers.add("MISSING");
+
+        List<StateChangeResult> results = bankingService.changeAccountStates(accountNumbers, AccountState.FROZEN);
+
+        assertEquals(accountNumbers.size(), results.size());
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertEquals(AccountState.ACTIVE, results.get(i).getPreviousState());
+            assertEquals(AccountState.FROZEN, accountRepository.findAccount("ACC" + i).getAccountState());
+        }
+
+        StateChangeResult closed = results.get(1_000);
+        assertFalse(closed.isSuccess());
+        assertEquals(AccountState.CLOSED, closed.getPreviousState());
+        assertInstanceOf(InvalidStateTransitionException.class, closed.getFailure());
+
+        StateChangeResult missing = results.get(1_001);
+        assertFalse(missing.isSuccess());
+        assertNull(missing.getPreviousState());
+        assertInstanceOf(AccountNotFoundException.class, missing.getFailure());
+    }
+
+    @Test
+    void freezeDuringWithdrawals_NoWithdrawalSucceedsAfterFreeze() throws InterruptedException {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        PartitionedTransactionRepository transactionRepository = new PartitionedTransactionRepository();
+        BankingService bankingService = new BankingService(
+                accountRepository,
+                transactionRepository,
+                new BankingOperation(),
+                new StripedAccountLocks()
+        );
+
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        bankingService.deposit("A1", new BigDecimal("100000"));
+
+        int threads = 8;
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    while (true) {
+                        try {
+                            bankingService.withdraw("A1", BigDecimal.ONE);
+                            succeeded.incrementAndGet();
+                        } catch (InvalidAccountStateException e) {
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        Thread.sleep(20);
+        bankingService.changeAccountState("A1", AccountState.FROZEN);
+        int succeededAtFreeze = succeeded.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Only withdrawals already holding the stripe when the freeze was requested may finish after it.
+        assertTrue(succeeded.get() - succeededAtFreeze <= threads);
+        assertEquals(succeeded.get(), transactionRepository.findByAccountNumber("A1").size() - 1);
+    }
+
+    @Test
+    void hotAccount_ConcurrentCreditsAndDebits_StayExactAndNeverOverdraw() throws InterruptedException {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        PartitionedTransactionRepository transactionRepository = new PartitionedTransactionRepository();
+        BankingService bankingService = new BankingService(
+                accountRepository,
+                transactionRepository,
+                new BankingOperation(),
+                new StripedAccountLocks(),
+                new BalanceCache(1024)
+        );
+
+        accountRepository.saveAccount(new Account("MERCHANT", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("PAYOUT", AccountState.ACTIVE));
+
+        for (int t = 0; t < 8; t++) {
+            accountRepository.saveAccount(new Account("C" + t, AccountState.ACTIVE));
+            bankingService.deposit("C" + t, new BigDecimal("10000"));
+        }
+
+        bankingService.enableHotCredits("MERCHANT");
+
+        int creditsPerThread = 3_000;
+        AtomicInteger withdrawn = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+
+        for (int t = 0; t < 8; t++) {
+            String customer = "C" + t;
+            boolean transfers = t % 2 == 0;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < creditsPerThread; i++) {
+                        if (transfers) {
+                            bankingService.transfer(customer, "MERCHANT", BigDecimal.ONE);
+                        } else {
+                            bankingService.deposit("MERCHANT", BigDecimal.ONE);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        for (int t = 0; t < 2; t++) {
+            boolean transfers = t == 0;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 5_000; i++) {
+                        try {
+                            if (transfers) {
+                                bankingService.transfer("MERCHANT", "PAYOUT", new BigDecimal("3"));
+                            } else {
+                                bankingService.withdraw("MERCHANT", new BigDecimal("3"));
+                            }
+                            withdrawn.addAndGet(3);
+                        } catch (InsufficientFundsException e) {
+                            // Expected whenever the debits catch up with the credits.
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        BigDecimal expected = new BigDecimal(8 * creditsPerThread - withdrawn.get());
+        assertEquals(0, bankingService.getBalance("MERCHANT").toBigDecimal().compareTo(expected));
+        assertEquals(0, balanceOf(transactionRepository, "MERCHANT").compareTo(expected));
+        assertTrue(expected.signum() >= 0);
+    }
+
+    @Test
+    void disableHotCredits_FoldsPendingCredits() {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        PartitionedTransactionRepository transactionRepository = new PartitionedTransactionRepository();
+        BankingService bankingService = new BankingService(accountRepository, transactionRepository, new BankingOperation(), new StripedAccountLocks());
+
+        accountRepository.saveAccount(new Account("MERCHANT", AccountState.ACTIVE));
+        bankingService.enableHotCredits("MERCHANT");
+
+        for (int i = 0; i < 10; i++) {
+            bankingService.deposit("MERCHANT", BigDecimal.TEN);
+        }
+
+        // Still buffered: nothing has read the account yet.
+        assertTrue(transactionRepository.findByAccountNumber("MERCHANT").isEmpty());
+
+        bankingService.disableHotCredits("MERCHANT");
+        bankingService.deposit("MERCHANT", BigDecimal.TEN);
+
+        assertFalse(bankingService.hasHotCredits("MERCHANT"));
+        assertEquals(11, transactionRepository.findByAccountNumber("MERCHANT").size());
+        assertEquals(11, bankingService.getTransactions("MERCHANT").size());
+    }
+}
@@ -2,21 +2,30 @@ package banking.service;
 
 import banking.domain.account.Account;
 import banking.domain.account.AccountState;
+import banking.domain.money.Money;
 import banking.domain.operation.BankingOperation;
+import banking.domain.operation.OperationResult;
+import banking.domain.operation.RejectionReason;
 import banking.domain.transaction.Transaction;
 import banking.domain.transaction.TransactionType;
 import banking.exception.AccountNotFoundException;
 import banking.exception.InsufficientFundsException;
+import banking.repository.TransactionQuery;
 import banking.repository.memory.InMemoryAccountRepository;
 import banking.repository.memory.InMemoryTransactionRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class BankingServiceTest {
 
@@ -150,5 +159,113 @@ public class BankingServiceTest {
         assertEquals(1, transactionRepository.findByAccountNumber("B1").size());
         assertEquals(transactions.get(0).getTransferId(), transactions.getLast().getTransferId());
     }
-}
 
+    @Test
+    void submitBatch_LaterCommandsSeeEarlierOnesAndResultsKeepOrder() {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        InMemoryTransactionRepository transactionRepository = new InMemoryTransactionRepository();
+        BankingOperation bankingOperation = new BankingOperation();
+        BankingService bankingService = new BankingService(
+                accountRepository,
+                transactionRepository,
+                bankingOperation
+        );
+
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("B1", AccountState.ACTIVE));
+
+        List<CommandResult> results = bankingService.submitBatch(List.of(
+                BankingCommand.deposit("A1", new BigDecimal("100")),
+                BankingCommand.withdraw("A1", new BigDecimal("40")),
+                BankingCommand.transfer("A1", "B1", new BigDecimal("60")),
+                BankingCommand.withdraw("A1", new BigDecimal("1")),
+                BankingCommand.withdraw("B1", new BigDecimal("60")),
+                BankingCommand.deposit("C1", new BigDecimal("10"))
+        ));
+
+        assertEquals(6, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(2, results.get(2).getTransactions().size());
+        assertInstanceOf(InsufficientFundsException.class, results.get(3).getFailure());
+        assertTrue(results.get(4).isSuccess());
+        assertInstanceOf(AccountNotFoundException.class, results.get(5).getFailure());
+
+        assertEquals(3, transactionRepository.findByAccountNumber("A1").size());
+        assertEquals(2, transactionRepository.findByAccountNumber("B1").size());
+    }
+
+    @Test
+    void tryOperations_ReportRejectionsWithoutThrowing() {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        InMemoryTransactionRepository transactionRepository = new InMemoryTransactionRepository();
+        BankingService bankingService = new BankingService(accountRepository, transactionRepository, new BankingOperation());
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("F1", AccountState.FROZEN));
+        accountRepository.saveAccount(new Account("C1", AccountState.CLOSED));
+
+        OperationResult deposit = bankingService.tryDeposit("A1", new BigDecimal("100.00"));
+        OperationResult insufficient = bankingService.tryWithdraw("A1", new BigDecimal("100.01"));
+        OperationResult frozen = bankingService.tryWithdraw("F1", new BigDecimal("1.00"));
+        OperationResult closedTarget = bankingService.tryTransfer("A1", "C1", new BigDecimal("1.00"));
+        OperationResult missing = bankingService.tryTransfer("A1", "NOPE", new BigDecimal("1.00"));
+        OperationResult invalid = bankingService.tryDeposit("A1", new BigDecimal("0.001"));
+        OperationResult transfer = bankingService.tryTransfer("A1", "F1", new BigDecimal("40.00"));
+
+        assertTrue(deposit.isSuccess());
+        assertEquals(RejectionReason.INSUFFICIENT_FUNDS, insufficient.getReason());
+        assertEquals(Money.of(new BigDecimal("100.01")), insufficient.getRequested());
+        assertEquals(Money.of(new BigDecimal("100.00")), insufficient.getAvailable());
+        assertEquals(RejectionReason.WITHDRAWAL_NOT_ALLOWED, frozen.getReason());
+        assertEquals(AccountState.FROZEN, frozen.getAccountState());
+        assertEquals(RejectionReason.DEPOSIT_NOT_ALLOWED, closedTarget.getReason());
+        assertEquals("C1", closedTarget.getAccountNumber());
+        assertEquals(RejectionReason.ACCOUNT_NOT_FOUND, missing.getReason());
+        assertEquals("NOPE", missing.getAccountNumber());
+        assertEquals(RejectionReason.INVALID_AMOUNT, invalid.getReason());
+        assertFalse(invalid.isSuccess());
+        assertEquals(2, transfer.getTransactions().size());
+
+        assertEquals(2, transactionRepository.findByAccountNumber("A1").size());
+        assertEquals(1, transactionRepository.findByAccountNumber("F1").size());
+    }
+
+    @Test
+    void throwingOperations_KeepTheirMessages() {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        BankingService bankingService = new BankingService(accountRepository, new InMemoryTransactionRepository(), new BankingOperation());
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("F1", AccountState.FROZEN));
+        bankingService.deposit("A1", new BigDecimal("10.00"));
+
+        InsufficientFundsException insufficient = assertThrows(InsufficientFundsException.class,
+                () -> bankingService.transfer("A1", "F1", new BigDecimal("10.5")));
+
+        assertEquals("Insufficient funds: Transfer of $ 10.5 available balance of $10.00.", insufficient.getMessage());
+        assertEquals("Withdrawals not allowed when account state is FROZEN",
+                assertThrows(RuntimeException.class, () -> bankingService.withdraw("F1", BigDecimal.ONE)).getMessage());
+        assertEquals("Amount must be greater than 0",
+                assertThrows(RuntimeException.class, () -> bankingService.deposit("A1", BigDecimal.ZERO)).getMessage());
+    }
+
+    @Test
+    void hotCredits_KeepTheirTimeAndAreFoundByWindowedQueriesAfterAFold() throws InterruptedException {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        BankingService bankingService = new BankingService(accountRepository, new PartitionedTransactionRepository(), new BankingOperation(), new StripedAccountLocks());
+        accountRepository.saveAccount(new Account("MERCHANT", AccountState.ACTIVE));
+        bankingService.enableHotCredits("MERCHANT");
+
+        Transaction first = bankingService.deposit("MERCHANT", new BigDecimal("10.00"));
+        Transaction second = bankingService.deposit("MERCHANT", new BigDecimal("5.00"));
+        Thread.sleep(5);
+        Instant foldStart = Instant.now();
+
+        List<Transaction> window = bankingService.queryTransactions(
+                TransactionQuery.forAccount("MERCHANT").between(first.getOccurredAt(), foldStart)).getTransactions();
+
+        assertEquals(List.of(first.getTransactionId(), second.getTransactionId()), window.stream().map(Transaction::getTransactionId).toList());
+        assertEquals(List.of(first.getOccurredAt(), second.getOccurredAt()), window.stream().map(Transaction::getOccurredAt).toList());
+        assertTrue(bankingService.queryTransactions(
+                TransactionQuery.forAccount("MERCHANT").between(foldStart, foldStart.plusSeconds(3600))).getTransactions().isEmpty());
+    }
+}
@@ -0,0 +1,53 @@
+package banking.service;
+
+import banking.domain.account.Account;
+import banking.domain.account.AccountState;
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.money.Money;
+import banking.domain.operation.BankingOperation;
+import banking.exception.InsufficientFundsException;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.tiered.TieredTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LedgerCompactorTest {
+
+    @Test
+    void compact_KeepsBalancesAndShrinksTail() {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        TieredTransactionRepository transactionRepository = new TieredTransactionRepository();
+        BalanceEngine balanceEngine = new BalanceEngine(BalanceMode.VERIFY);
+        StripedAccountLocks accountLocks = new StripedAccountLocks();
+        BankingService bankingService = new BankingService(accountRepository, transactionRepository, new BankingOperation(balanceEngine), accountLocks);
+        LedgerCompactor compactor = new LedgerCompactor(transactionRepository, balanceEngine, accountLocks);
+
+        accountRepository.saveAccount(new Account("A1", AccountState.ACTIVE));
+        accountRepository.saveAccount(new Account("B1", AccountState.ACTIVE));
+
+        for (int i = 0; i < 100; i++) {
+            bankingService.deposit("A1", new BigDecimal("10"));
+            bankingService.transfer("A1", "B1", new BigDecimal("3"));
+        }
+
+        Money balanceBefore = bankingService.getBalance("A1");
+        CompactionResult result = compactor.compact(Instant.now().plusSeconds(1));
+
+        assertEquals(2, result.getAccountsCompacted());
+        assertEquals(300, result.getRowsCompacted());
+        assertEquals(0, transactionRepository.findByAccountNumber("A1").size());
+        assertEquals(200, transactionRepository.findFullHistory("A1").size());
+        assertEquals(balanceBefore, bankingService.getBalance("A1"));
+        assertEquals(Money.of(new BigDecimal("300")), bankingService.getBalance("B1"));
+
+        bankingService.withdraw("A1", new BigDecimal("700"));
+        assertThrows(InsufficientFundsException.class, () -> bankingService.withdraw("A1", new BigDecimal("0.01")));
+        assertEquals(Money.ZERO, bankingService.getBalance("A1"));
+    }
+}
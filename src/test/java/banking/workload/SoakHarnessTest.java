@@ -0,0 +1,68 @@
+package banking.workload;
+
+import banking.domain.operation.BankingOperation;
+import banking.metrics.MetricOperation;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import banking.service.BankingService;
+import banking.service.StripedAccountLocks;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SoakHarnessTest {
+
+    @Test
+    void run_ReportsEveryIntervalAndNeverOverdraws() throws InterruptedException {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        BankingService bankingService = new BankingService(accountRepository, new PartitionedTransactionRepository(), new BankingOperation(), new StripedAccountLocks());
+        SoakConfig config = SoakConfig.defaults()
+                .withAccounts(200)
+                .withThreads(4)
+                .withDuration(Duration.ofMillis(600))
+                .withReportInterval(Duration.ofMillis(200))
+                .withOpeningBalance(new BigDecimal("50.00"))
+                .withMaxAmount(new BigDecimal("20.00"));
+        SoakHarness harness = new SoakHarness(bankingService, accountRepository, config);
+        List<SoakInterval> live = new ArrayList<>();
+
+        SoakReport report = harness.run(live::add);
+
+        assertEquals(3, report.getIntervals().size());
+        assertEquals(report.getIntervals(), live);
+        assertTrue(report.getTotal().getOperationCount() > 0);
+        assertTrue(report.getTotal().getLatency(MetricOperation.TRANSFER).getCount() > 0);
+        assertTrue(report.getTotal().getRejectionRatio() > 0, "small balances with large amounts must cause rejections");
+        assertTrue(report.getTotal().getThroughputPerSecond() > 0);
+
+        long intervalOperations = report.getIntervals().stream().mapToLong(SoakInterval::getOperationCount).sum();
+        assertTrue(intervalOperations <= report.getTotal().getOperationCount());
+
+        for (int rank = 0; rank < config.getAccounts(); rank++) {
+            assertTrue(bankingService.getBalance(harness.accountNumberOf(rank)).getMinorUnits() >= 0);
+        }
+    }
+
+    @Test
+    void mix_WithoutTransfers_RecordsNoTransfers() throws InterruptedException {
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        BankingService bankingService = new BankingService(accountRepository, new PartitionedTransactionRepository(), new BankingOperation(), new StripedAccountLocks());
+        SoakConfig config = SoakConfig.defaults()
+                .withAccounts(10)
+                .withThreads(2)
+                .withDuration(Duration.ofMillis(100))
+                .withReportInterval(Duration.ofMillis(100))
+                .withMix(new WorkloadMix(1, 1, 0));
+
+        SoakReport report = new SoakHarness(bankingService, accountRepository, config).run();
+
+        assertEquals(0, report.getTotal().getSnapshot().get(MetricOperation.TRANSFER).getSuccessCount());
+        assertTrue(report.getTotal().getSnapshot().get(MetricOperation.DEPOSIT).getSuccessCount() > 0);
+    }
+}
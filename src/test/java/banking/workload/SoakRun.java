@@ -0,0 +1,46 @@
+package banking.workload;
+
+import banking.domain.balance.BalanceEngine;
+import banking.domain.balance.BalanceMode;
+import banking.domain.operation.BankingOperation;
+import banking.repository.memory.InMemoryAccountRepository;
+import banking.repository.memory.PartitionedTransactionRepository;
+import banking.service.BankingService;
+import banking.service.StripedAccountLocks;
+
+import java.time.Duration;
+
+/**
+ * Soak run against the concurrent in-memory service, printing one line per interval.
+ * Not a unit test; run it by hand: {@code java banking.workload.SoakRun [seconds] [accounts] [threads] [zipfExponent]}.
+ */
+public class SoakRun {
+
+    public static void main(String[] args) throws InterruptedException {
+        SoakConfig config = SoakConfig.defaults();
+        if (args.length > 0) {
+            config = config.withDuration(Duration.ofSeconds(Long.parseLong(args[0])));
+        }
+        if (args.length > 1) {
+            config = config.withAccounts(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            config = config.withThreads(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            config = config.withZipfExponent(Double.parseDouble(args[3]));
+        }
+
+        InMemoryAccountRepository accountRepository = new InMemoryAccountRepository();
+        BankingService bankingService = new BankingService(
+                accountRepository,
+                new PartitionedTransactionRepository(),
+                new BankingOperation(new BalanceEngine(BalanceMode.INCREMENTAL)),
+                new StripedAccountLocks()
+        );
+
+        SoakReport report = new SoakHarness(bankingService, accountRepository, config)
+                .run(interval -> System.out.println(interval.toLine()));
+        System.out.print(report.toText());
+    }
+}
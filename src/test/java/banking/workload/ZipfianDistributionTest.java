@@ -0,0 +1,63 @@
+package banking.workload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ZipfianDistributionTest {
+
+    @Test
+    void probabilities_SumToOneAndFallWithRank() {
+        ZipfianDistribution distribution = new ZipfianDistribution(1_000, 0.99);
+        double total = 0;
+
+        for (int rank = 0; rank < distribution.size(); rank++) {
+            total += distribution.probabilityOf(rank);
+
+            if (rank > 0) {
+                assertTrue(distribution.probabilityOf(rank) < distribution.probabilityOf(rank - 1));
+            }
+        }
+
+        assertEquals(1.0, total, 1e-9);
+    }
+
+    @Test
+    void exponentZero_IsUniform() {
+        ZipfianDistribution distribution = new ZipfianDistribution(4, 0);
+
+        assertEquals(0, distribution.sample(0.0));
+        assertEquals(1, distribution.sample(0.25));
+        assertEquals(2, distribution.sample(0.6));
+        assertEquals(3, distribution.sample(0.999));
+    }
+
+    @Test
+    void sample_MatchesProbabilities() {
+        ZipfianDistribution distribution = new ZipfianDistribution(10_000, 1.2);
+        SplittableRandom random = new SplittableRandom(1);
+        int draws = 200_000;
+        int[] counts = new int[3];
+
+        for (int i = 0; i < draws; i++) {
+            int rank = distribution.sample(random);
+            if (rank < counts.length) {
+                counts[rank]++;
+            }
+        }
+
+        for (int rank = 0; rank < counts.length; rank++) {
+            assertEquals(distribution.probabilityOf(rank), (double) counts[rank] / draws, 0.01);
+        }
+    }
+
+    @Test
+    void invalidArguments_Throw() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianDistribution(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianDistribution(10, -0.5));
+    }
+}